@@ -27,8 +27,9 @@ public class CaffeineCacheConfig {
      * Un cache pour les produits individuels, expirant après 30 minutes et pouvant contenir jusqu'à 500 entrées.
      * Un cache pour les listes de produits, expirant après 15 minutes et pouvant contenir jusqu'à 100 entrées.
      * Un cache pour les produits par catégorie, expirant après 20 minutes et pouvant contenir jusqu'à 200 entrées.
-     * Un cache pour les catégories, expirant après 2 heures et pouvant contenir jusqu'à 50 entrées.
+     * Les catégories n'ont pas de cache ici : elles sont servies par un instantané en mémoire (CategorySnapshotServiceImpl).
      * Un cache pour les rôles, expirant après 1 jour et pouvant contenir jusqu'à 1 entrée.
+     * Un index productId → fichier image (chemin, ETag, date), expirant après 1 heure et pouvant contenir jusqu'à 10 000 entrées.
      * @return une instance de {@link CacheManager} configurée, gérant les caches Caffeine définis.
      */
     @Bean
@@ -54,26 +55,26 @@ public class CaffeineCacheConfig {
                         .maximumSize(200) // Plus grand car plusieurs catégories
                         .build());
 
-        // Cache pour les catégories
-        CaffeineCache categoriesCache = new CaffeineCache("categories",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(2, TimeUnit.HOURS)
-                        .maximumSize(50)
-                        .build());
-
         CaffeineCache rolesCache = new CaffeineCache("roles",
                 Caffeine.newBuilder()
                         .expireAfterWrite(1, TimeUnit.DAYS)
                         .maximumSize(1)
                         .build());
 
+        // Index productId → fichier image : le service des octets ne touche ni la base ni le disque (hors envoi)
+        CaffeineCache productImageFileCache = new CaffeineCache("productImageFile",
+                Caffeine.newBuilder()
+                        .expireAfterWrite(1, TimeUnit.HOURS)
+                        .maximumSize(10_000)
+                        .build());
+
         SimpleCacheManager manager = new SimpleCacheManager();
         manager.setCaches(Arrays.asList(
                 productCache,
                 productsCache,
                 productsByCategoryCache, // AJOUT
-                categoriesCache,
-                rolesCache
+                rolesCache,
+                productImageFileCache
         ));
         return manager;
     }
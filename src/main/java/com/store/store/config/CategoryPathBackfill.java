@@ -0,0 +1,49 @@
+package com.store.store.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renseigne le chemin matérialisé des catégories antérieures à la hiérarchie, avant le premier accès.
+ *
+ * Ces catégories (chemin '/' ou absent, sans parent) sont des racines : leur chemin devient /{id}/,
+ * comme celui d'une racine créée depuis. Sans cela, la recherche par sous-arbre (c.path LIKE '/{id}/%')
+ * et le déplacement d'un sous-arbre ne les trouvent pas. Idempotent, sans risque avec d'autres instances.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+public class CategoryPathBackfill implements InitializingBean {
+
+    static final String BACKFILL_SQL = "UPDATE categories SET path = CONCAT('/', category_id, '/') "
+            + "WHERE (path IS NULL OR path = '/') AND parent_id IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param entityManagerFactory injecté pour que le schéma (ddl-auto) soit en place avant la mise à jour
+     */
+    public CategoryPathBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        try {
+            int updated = jdbcTemplate.update(BACKFILL_SQL);
+            if (updated > 0) {
+                log.info("Materialized path set for {} legacy root categories", updated);
+            }
+        } catch (DataAccessException e) {
+            // Schéma absent ou incomplet : la validation Hibernate le signalera
+            log.warn("Legacy category paths not backfilled: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.store.store.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cache mémoire des petits fichiers statiques les plus demandés (miniatures, vignettes de grille).
+ *
+ * - Réservé aux fichiers immuables (adressés par contenu) : le contenu d'une entrée ne change jamais
+ * - Durée de vie comptée depuis la mise en cache, et non depuis le dernier accès : un fichier purgé
+ *   (ou remplacé) cesse d'être servi au plus tard après timeToLive, même s'il reste très demandé
+ * - Seuls les fichiers sous {@code maxEntryBytes} sont gardés, le total est borné en octets (Caffeine, poids = taille)
+ * - Un chemin dont un segment commence par '.' (ex. images/.tmp) n'est jamais servi
+ *
+ * Une requête servie depuis le cache ne touche pas le disque : ni résolution de chemin, ni stat, ni lecture.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+public class HotResourceCacheResolver extends AbstractResourceResolver {
+
+    private final Cache<String, CachedResource> cache;
+    private final long maxEntryBytes;
+
+    public HotResourceCacheResolver(long maxEntryBytes, long maxTotalBytes, Duration timeToLive,
+                                    @Nullable MeterRegistry meterRegistry) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxTotalBytes)
+                .weigher((String path, CachedResource resource) -> (int) Math.min(Integer.MAX_VALUE, resource.contentLength()))
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "hotUploadFiles");
+        }
+    }
+
+    @Override
+    @Nullable
+    protected Resource resolveResourceInternal(@Nullable HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        if (isHiddenPath(requestPath)) {
+            return null;
+        }
+
+        CachedResource cached = cache.getIfPresent(requestPath);
+        if (cached != null) {
+            return cached;
+        }
+
+        Resource resolved = chain.resolveResource(request, requestPath, locations);
+        if (resolved == null) {
+            return null;
+        }
+
+        try {
+            if (resolved.contentLength() > maxEntryBytes) {
+                return resolved;
+            }
+            CachedResource resource = new CachedResource(resolved.getContentAsByteArray(), resolved.getFilename(),
+                    resolved.lastModified(), resolved.getDescription());
+            cache.put(requestPath, resource);
+            return resource;
+
+        } catch (IOException e) {
+            log.debug("Resource not cached in memory: {} ({})", requestPath, e.getMessage());
+            return resolved;
+        }
+    }
+
+    @Override
+    @Nullable
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        if (isHiddenPath(resourceUrlPath)) {
+            return null;
+        }
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    private static boolean isHiddenPath(String path) {
+        return path.startsWith(".") || path.contains("/.");
+    }
+
+    /**
+     * Contenu en mémoire qui conserve nom de fichier (type MIME, ETag) et date (Last-Modified) de l'original.
+     */
+    static final class CachedResource extends ByteArrayResource {
+
+        private final String filename;
+        private final long lastModified;
+
+        private CachedResource(byte[] content, @Nullable String filename, long lastModified, String description) {
+            super(content, description);
+            this.filename = filename;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        @Nullable
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+    }
+}
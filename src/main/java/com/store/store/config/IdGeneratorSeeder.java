@@ -0,0 +1,107 @@
+package com.store.store.config;
+
+import com.store.store.entity.Customer;
+import com.store.store.entity.Order;
+import com.store.store.entity.OrderItem;
+import com.store.store.entity.RefreshToken;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aligne la table id_generators sur les données existantes avant la première génération d'id.
+ *
+ * Sans ligne pour un générateur (table créée par ddl-auto update, base antérieure aux générateurs),
+ * Hibernate repartirait de 1 et entrerait en collision avec les lignes existantes.
+ * next_val est porté à MAX(id) + allocationSize (jamais diminué) : le premier bloc réservé
+ * commence juste après le dernier id. Idempotent, sans risque avec d'autres instances démarrées.
+ *
+ * Les générateurs sont lus sur les annotations @TableGenerator des entités : rien à dupliquer ici.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+public class IdGeneratorSeeder implements InitializingBean {
+
+    private static final List<Class<?>> ENTITIES = List.of(Customer.class, Order.class, OrderItem.class, RefreshToken.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param entityManagerFactory injecté pour que le schéma (ddl-auto) soit en place avant l'alignement
+     */
+    public IdGeneratorSeeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Générateur par table : ligne pkColumnValue de la table du générateur, alignée sur MAX(idColumn) de entityTable.
+     */
+    record Generator(String table, String pkColumn, String valueColumn, String segment, int allocationSize,
+                     String entityTable, String idColumn) {
+
+        static Generator of(Class<?> entity) {
+            Field idField = Arrays.stream(entity.getDeclaredFields())
+                    .filter(field -> field.isAnnotationPresent(TableGenerator.class))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No @TableGenerator on " + entity.getSimpleName()));
+            TableGenerator generator = idField.getAnnotation(TableGenerator.class);
+            Column column = idField.getAnnotation(Column.class);
+            return new Generator(generator.table(), generator.pkColumnName(), generator.valueColumnName(),
+                    generator.pkColumnValue(), generator.allocationSize(), entity.getAnnotation(Table.class).name(),
+                    column != null && !column.name().isEmpty() ? column.name() : idField.getName());
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (Class<?> entity : ENTITIES) {
+            Generator generator = Generator.of(entity);
+            try {
+                seed(generator);
+            } catch (DataAccessException e) {
+                // Schéma absent ou incomplet : la validation Hibernate (ou le premier INSERT) le signalera
+                log.warn("Id generator '{}' not aligned: {}", generator.segment(), e.getMessage());
+            }
+        }
+    }
+
+    void seed(Generator generator) {
+        long floor = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(" + generator.idColumn() + "), 0) FROM " + generator.entityTable(), Long.class)
+                + generator.allocationSize();
+        String update = "UPDATE " + generator.table() + " SET " + generator.valueColumn() + " = ? WHERE "
+                + generator.pkColumn() + " = ? AND " + generator.valueColumn() + " < ?";
+        String exists = "SELECT COUNT(*) FROM " + generator.table() + " WHERE " + generator.pkColumn() + " = ?";
+
+        if (jdbcTemplate.update(update, floor, generator.segment(), floor) > 0) {
+            log.info("Id generator '{}' moved to {}", generator.segment(), floor);
+            return;
+        }
+        if (jdbcTemplate.queryForObject(exists, Integer.class, generator.segment()) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO " + generator.table() + " (" + generator.pkColumn() + ", "
+                    + generator.valueColumn() + ") VALUES (?, ?)", generator.segment(), floor);
+            log.info("Id generator '{}' seeded at {}", generator.segment(), floor);
+        } catch (DuplicateKeyException e) {
+            // Insérée entre-temps par une autre instance : on la relève si besoin
+            jdbcTemplate.update(update, floor, generator.segment(), floor);
+        }
+    }
+}
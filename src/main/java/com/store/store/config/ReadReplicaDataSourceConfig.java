@@ -0,0 +1,136 @@
+package com.store.store.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Routage des transactions en lecture seule vers une réplique MySQL.
+ *
+ * - Pool primaire : spring.datasource (inchangé) ; pool réplique : store.datasource.replica
+ * - Source exposée à JPA et JdbcTemplate : LazyConnectionDataSourceProxy, qui n'ouvre la connexion
+ *   qu'à la première requête, une fois la transaction démarrée ; la source est alors choisie d'après
+ *   la transaction courante (TransactionSynchronizationManager) :
+ *   readOnly → réplique (ou primaire en repli, voir ReplicaFallbackDataSource), sinon primaire
+ * - Une méthode readOnly appelée dans une transaction d'écriture la rejoint : elle reste sur le primaire
+ * - Hibernate rend la connexion à la fin de chaque transaction (et non à la fermeture de la session) :
+ *   avec open-in-view, la session dure toute la requête HTTP ; une écriture qui suit une lecture
+ *   readOnly repasse ainsi par le routage au lieu de réutiliser la connexion de la réplique
+ *
+ * Les lectures readOnly peuvent voir l'état d'il y a au plus max-lag : une lecture qui doit voir
+ * l'écriture qui vient d'être commitée s'exécute dans une transaction non readOnly.
+ *
+ * Désactivé par défaut (store.datasource.replica.enabled) : Spring Boot configure alors le pool unique.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Configuration
+@ConditionalOnProperty(name = "store.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    static final PhysicalConnectionHandlingMode CONNECTION_HANDLING =
+            PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION;
+
+    private static final String PRIMARY = "primary";
+    private static final String READ_ONLY = "readOnly";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("store.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${store.datasource.replica.url}") String url,
+            @Value("${store.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${store.datasource.replica.password:${spring.datasource.password:}}") String password) {
+
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    /**
+     * Prioritaire sur DELAYED_ACQUISITION_AND_HOLD posé par HibernateJpaVendorAdapter.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer replicaConnectionHandlingCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING, CONNECTION_HANDLING);
+    }
+
+    @Bean(destroyMethod = "stop")
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            MeterRegistry meterRegistry,
+            @Value("${store.datasource.replica.max-lag:PT5S}") Duration maxLag,
+            @Value("${store.datasource.replica.heartbeat-enabled:true}") boolean heartbeatEnabled,
+            @Value("${store.datasource.replica.check-interval:PT1S}") Duration checkInterval) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, maxLag,
+                heartbeatEnabled, meterRegistry);
+        monitor.start(checkInterval);
+        return monitor;
+    }
+
+    /**
+     * Source unique vue par JPA, JdbcTemplate et les gestionnaires de transactions.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            MeterRegistry meterRegistry) {
+        return routingDataSource(primaryDataSource,
+                new ReplicaFallbackDataSource(replicaDataSource, primaryDataSource, replicaLagMonitor, meterRegistry));
+    }
+
+    static DataSource routingDataSource(DataSource primaryDataSource, DataSource readOnlyDataSource) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ_ONLY : PRIMARY;
+            }
+        };
+        routing.setTargetDataSources(Map.of(PRIMARY, primaryDataSource, READ_ONLY, readOnlyDataSource));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        // Connexion marquée readOnly avant la première requête (DataSourceTransactionManager) : réplique aussi
+        proxy.setReadOnlyDataSource(readOnlyDataSource);
+        return proxy;
+    }
+}
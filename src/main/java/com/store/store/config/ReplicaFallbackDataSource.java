@@ -0,0 +1,61 @@
+package com.store.store.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source des transactions en lecture seule : la réplique si ReplicaLagMonitor la déclare disponible,
+ * le primaire sinon. Un échec de connexion à la réplique bascule immédiatement sur le primaire
+ * (sans attendre la vérification suivante).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public class ReplicaFallbackDataSource extends DelegatingDataSource {
+
+    private final DataSource primaryDataSource;
+    private final ReplicaLagMonitor monitor;
+    private final Counter fallbackCounter;
+
+    public ReplicaFallbackDataSource(DataSource replicaDataSource, DataSource primaryDataSource,
+                                     ReplicaLagMonitor monitor, MeterRegistry meterRegistry) {
+        super(replicaDataSource);
+        this.primaryDataSource = primaryDataSource;
+        this.monitor = monitor;
+        this.fallbackCounter = Counter.builder("store.datasource.replica.fallbacks")
+                .description("Transactions en lecture seule servies par le primaire faute de réplique")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (monitor.isReplicaAvailable()) {
+            try {
+                return obtainTargetDataSource().getConnection();
+            } catch (SQLException e) {
+                monitor.markUnavailable(e.getMessage());
+            }
+        }
+        fallbackCounter.increment();
+        return primaryDataSource.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (monitor.isReplicaAvailable()) {
+            try {
+                return obtainTargetDataSource().getConnection(username, password);
+            } catch (SQLException e) {
+                monitor.markUnavailable(e.getMessage());
+            }
+        }
+        fallbackCounter.increment();
+        return primaryDataSource.getConnection(username, password);
+    }
+}
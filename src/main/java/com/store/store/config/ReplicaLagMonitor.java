@@ -0,0 +1,147 @@
+package com.store.store.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disponibilité de la réplique en lecture, mesurée par battement de cœur.
+ *
+ * - Le primaire horodate la ligne replica_heartbeat ; la réplique la reçoit par réplication
+ * - Retard = horloge de la réplique - dernier battement reçu (mesure ≥ intervalle de vérification)
+ * - Réplique déclarée indisponible au-delà de maxLag, si elle ne répond pas, ou sur échec de connexion
+ *   signalé par ReplicaFallbackDataSource ; redevient disponible à la vérification suivante réussie
+ * - Sans battement (heartbeatEnabled=false, ex. deux bases indépendantes en local) : connectivité seule
+ *
+ * Indisponible tant que la première vérification n'a pas eu lieu : les lectures partent au primaire.
+ * Vérification sur un thread dédié : un job planifié long (scheduler Spring partagé) ne doit ni retarder
+ * le battement (faux retard) ni figer l'état de la réplique.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String HEARTBEAT_UPDATE_SQL = "UPDATE replica_heartbeat SET beat_at = CURRENT_TIMESTAMP(6) WHERE id = 1";
+    static final String HEARTBEAT_INSERT_SQL = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP(6))";
+    static final String LAG_SQL = "SELECT beat_at, CURRENT_TIMESTAMP(6) FROM replica_heartbeat WHERE id = 1";
+    static final String PING_SQL = "SELECT 1";
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private final boolean heartbeatEnabled;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean replicaAvailable;
+    private volatile Duration lastLag;
+
+    public ReplicaLagMonitor(DataSource primaryDataSource, DataSource replicaDataSource, Duration maxLag,
+                             boolean heartbeatEnabled, MeterRegistry meterRegistry) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+        this.heartbeatEnabled = heartbeatEnabled;
+
+        Gauge.builder("store.datasource.replica.available", this, monitor -> monitor.replicaAvailable ? 1 : 0)
+                .description("1 si les transactions en lecture seule sont servies par la réplique")
+                .register(meterRegistry);
+        Gauge.builder("store.datasource.replica.lag", this,
+                        monitor -> monitor.lastLag == null ? -1 : monitor.lastLag.toMillis() / 1000.0)
+                .description("Retard de réplication mesuré (secondes, -1 si inconnu)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lance la vérification périodique (vérification puis battement suivant).
+     */
+    public void start(Duration checkInterval) {
+        executor.scheduleWithFixedDelay(this::checkAndBeat, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void checkAndBeat() {
+        try {
+            check();
+            beat();
+        } catch (Exception e) {
+            log.error("Error during read replica check: {}", e.getMessage(), e);
+            // Ne pas relancer l'exception : scheduleWithFixedDelay arrêterait les vérifications
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    /**
+     * Horodate le battement sur le primaire (ligne créée au premier passage).
+     */
+    public void beat() {
+        if (heartbeatEnabled && primaryJdbcTemplate.update(HEARTBEAT_UPDATE_SQL) == 0) {
+            primaryJdbcTemplate.update(HEARTBEAT_INSERT_SQL);
+        }
+    }
+
+    /**
+     * Mesure le retard de la réplique et met à jour sa disponibilité.
+     *
+     * @return true si la réplique peut servir les lectures
+     */
+    public boolean check() {
+        try {
+            if (!heartbeatEnabled) {
+                replicaJdbcTemplate.queryForObject(PING_SQL, Integer.class);
+                markAvailable();
+                return true;
+            }
+            Duration lag = replicaJdbcTemplate.queryForObject(LAG_SQL, (rs, rowNum) ->
+                    Duration.between(rs.getTimestamp(1).toInstant(), rs.getTimestamp(2).toInstant()));
+            lastLag = lag;
+            if (lag == null || lag.compareTo(maxLag) > 0) {
+                markUnavailable("replication lag " + lag + " exceeds " + maxLag);
+                return false;
+            }
+            markAvailable();
+            return true;
+
+        } catch (DataAccessException e) {
+            lastLag = null;
+            markUnavailable(e.getMessage());
+            return false;
+        }
+    }
+
+    void markAvailable() {
+        if (!replicaAvailable) {
+            replicaAvailable = true;
+            log.info("Read replica available, read-only transactions routed to replica");
+        }
+    }
+
+    void markUnavailable(String reason) {
+        if (replicaAvailable) {
+            replicaAvailable = false;
+            log.warn("Read replica unavailable, read-only transactions routed to primary: {}", reason);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.store.store.config;
 
+import com.store.store.security.BoundedPasswordEncoder;
 import com.store.store.security.CustomerUserDetailsService;
 import com.store.store.security.JwtAuthenticationEntryPoint;
 import com.store.store.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,7 +12,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
-import org.springframework.security.authentication.password.CompromisedPasswordChecker;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,7 +22,6 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.security.web.authentication.password.HaveIBeenPwnedRestApiPasswordChecker;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
@@ -29,6 +29,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -61,9 +62,24 @@ public class SecurityConfig {
     private final List<String> publicPaths;
     private final CsrfCookieFilter csrfCookieFilter;
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${store.cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${store.security.password-hashing.strength:12}")
+    private int bcryptStrength;
+
+    // 0 = nombre de CPU disponibles
+    @Value("${store.security.password-hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${store.security.password-hashing.queue-capacity:32}")
+    private int hashingQueueCapacity;
+
+    @Value("${store.security.password-hashing.wait-timeout:5s}")
+    private Duration hashingWaitTimeout;
+
     /**
      * Configure la chaîne de filtres de sécurité Spring Security.
      * @param http Configuration de sécurité HTTP
@@ -182,7 +198,8 @@ public class SecurityConfig {
     /**
      *  Fournisseur d'authentification utilisant la base de données.
      *  {@link CustomerUserDetailsService} : Charge l'utilisateur depuis la BDD
-     *  {@link BCryptPasswordEncoder} : Vérifie le mot de passe hashé
+     *  {@link BCryptPasswordEncoder} : Vérifie le mot de passe hashé (sur l'exécuteur borné)
+     *  {@link CustomerUserDetailsService} : Rehash au login si le facteur de coût a augmenté
      *  Processus d'authentification
      *  UserDetailsService charge l'utilisateur par email
      *  PasswordEncoder compare le password fourni avec le hash en BDD
@@ -194,6 +211,7 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(customerUserDetailsService);
+        provider.setUserDetailsPasswordService(customerUserDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
         return provider;
     }
@@ -214,24 +232,21 @@ public class SecurityConfig {
     }
 
     /**
-     * Vérificateur de mots de passe compromis.
-     * Utilise l'API "Have I Been Pwned" pour vérifier si un mot de passe a été exposé dans des fuites de données connues.
-     * @return Vérificateur de mots de passe compromis
-     * @see <a href="https://haveibeenpwned.com/API/v3">Have I Been Pwned API</a>
-     */
-    @Bean
-    public CompromisedPasswordChecker compromisedPasswordChecker() {
-        return new HaveIBeenPwnedRestApiPasswordChecker();
-    }
-
-    /**
-     * Encodeur de mots de passe BCrypt.
-     * Strength : 12 (bon compromis sécurité/performance)
+     * Encodeur de mots de passe BCrypt exécuté sur un pool dédié et borné.
+     * Strength : 12 par défaut (bon compromis sécurité/performance), configurable.
+     * Saturation → 503 immédiat plutôt que des workers Tomcat bloqués sur du CPU.
      * @return Encodeur de mots de passe
+     * @see BoundedPasswordEncoder
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(bcryptStrength),
+                threads,
+                hashingQueueCapacity,
+                hashingWaitTimeout,
+                meterRegistry);
     }
 
     /**
@@ -1,36 +1,72 @@
 package com.store.store.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.lang.Nullable;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 /**
  * @author Kardigué
- * @version 5.0 - Production Ready - UNIFIED
+ * @version 5.1 - Cache HTTP des uploads
  * @since 2025-01-06
  */
 @Configuration
 @Slf4j
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
 
     @Value("${store.file.directory}")
     private String uploadDir;
 
+    @Value("${store.file.http-cache.immutable-max-age:P365D}")
+    private Duration immutableMaxAge;
+
+    @Value("${store.file.http-cache.legacy-max-age:PT1H}")
+    private Duration legacyMaxAge;
+
+    @Value("${store.file.http-cache.hot-file-max-bytes:65536}")
+    private long hotFileMaxBytes;
+
+    @Value("${store.file.http-cache.hot-cache-max-bytes:33554432}")
+    private long hotCacheMaxBytes;
+
+    @Value("${store.file.http-cache.hot-cache-ttl:PT10M}")
+    private Duration hotCacheTtl;
+
+    // Absent dans les tests de slice MVC : le cache mémoire fonctionne alors sans métriques
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
 
     // CONFIGURATION DES RESOURCE HANDLERS
     /**
-     * GET http://localhost:8080/uploads/products/main/product_550e8400.jpg
-     *   → Fichier : ~/eazystore-uploads/products/main/product_550e8400.jpg
+     * GET http://localhost:8080/uploads/images/ab/cd/abcd...ef.jpg
+     *   → Fichier : ~/eazystore-uploads/images/ab/cd/abcd...ef.jpg
+     *
+     * - /uploads/images/** : adressé par contenu (l'empreinte SHA-256 est dans le nom) donc immuable :
+     *   Cache-Control public, 1 an, immutable ; ETag = nom du fichier (aucune lecture) ;
+     *   petits fichiers gardés en mémoire ({@link HotResourceCacheResolver})
+     * - /uploads/** (anciennes URL products/main|gallery, modifiables) : cache court, revalidation par
+     *   ETag/Last-Modified (304), URL versionnées par empreinte du contenu disponibles via ResourceUrlProvider,
+     *   variantes précompressées (.br/.gz) servies si présentes
      *
      * @param registry Registre pour configurer les ResourceHandlers
      */
@@ -38,11 +74,50 @@ public class WebConfig implements WebMvcConfigurer {
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path absolutePath = Paths.get(uploadDir).toAbsolutePath().normalize();
         String fileLocation = "file:" + absolutePath + "/";
+        String imagesLocation = "file:" + absolutePath.resolve("images") + "/";
 
-        // Configuration SIMPLE et EFFICACE
-        registry.addResourceHandler("/uploads/**").addResourceLocations(fileLocation).setCachePeriod(3600);
+        registry.addResourceHandler("/uploads/images/**")
+                .addResourceLocations(imagesLocation)
+                .setCacheControl(CacheControl.maxAge(immutableMaxAge).cachePublic().immutable())
+                .setEtagGenerator(WebConfig::filenameEtag)
+                .resourceChain(false)
+                .addResolver(new HotResourceCacheResolver(hotFileMaxBytes, hotCacheMaxBytes, hotCacheTtl, meterRegistry.getIfAvailable()))
+                .addResolver(new PathResourceResolver());
+
+        registry.addResourceHandler("/uploads/**")
+                .addResourceLocations(fileLocation)
+                .setCacheControl(CacheControl.maxAge(legacyMaxAge).cachePublic())
+                .setEtagGenerator(WebConfig::weakFileEtag)
+                .resourceChain(true, new CaffeineCache("uploadResourceResolution",
+                        Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(legacyMaxAge).build()))
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"))
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+
+        log.info(" Handler configured: /uploads/images/** → {} (immutable, max-age {})", imagesLocation, immutableMaxAge);
+        log.info(" Handler configured: /uploads/** → {} (max-age {})", fileLocation, legacyMaxAge);
+    }
+
+    /**
+     * Nom sans extension ({@code <sha256>} ou {@code <sha256>_thumb}) : ETag fort sans lire le fichier.
+     */
+    @Nullable
+    private static String filenameEtag(Resource resource) {
+        String filename = resource.getFilename();
+        if (filename == null) {
+            return null;
+        }
+        int dot = filename.lastIndexOf('.');
+        return "\"" + (dot > 0 ? filename.substring(0, dot) : filename) + "\"";
+    }
 
-        log.info(" Handler configured: /uploads/** → {}", fileLocation);
+    @Nullable
+    private static String weakFileEtag(Resource resource) {
+        try {
+            return "W/\"" + Long.toHexString(resource.contentLength()) + "-" + Long.toHexString(resource.lastModified()) + "\"";
+        } catch (IOException e) {
+            return null;
+        }
     }
 
     // CONFIGURATION CORS
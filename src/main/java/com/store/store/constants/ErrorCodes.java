@@ -56,6 +56,7 @@ public final class ErrorCodes {
 
     public static final String UNSUPPORTED_MEDIA_TYPE = "UNSUPPORTED_MEDIA_TYPE";
     public static final String METHOD_NOT_ALLOWED = "METHOD_NOT_ALLOWED";
+    public static final String TOO_MANY_REQUESTS = "TOO_MANY_REQUESTS";
 
     // TECHNICAL ERRORS (5xx - Server Errors)
     // Erreurs techniques du serveur
@@ -64,6 +65,7 @@ public final class ErrorCodes {
     public static final String CONFIGURATION_ERROR = "CONFIGURATION_ERROR";
     public static final String EXTERNAL_SERVICE_ERROR = "EXTERNAL_SERVICE_ERROR";
     public static final String DATABASE_ERROR = "DATABASE_ERROR";
+    public static final String SERVICE_UNAVAILABLE = "SERVICE_UNAVAILABLE";
 
     // MÉTHODES UTILITAIRES
 
@@ -127,7 +129,8 @@ public final class ErrorCodes {
 
         // HTTP Protocol errors
         if (errorCode.equals(UNSUPPORTED_MEDIA_TYPE) ||
-                errorCode.equals(METHOD_NOT_ALLOWED)) {
+                errorCode.equals(METHOD_NOT_ALLOWED) ||
+                errorCode.equals(TOO_MANY_REQUESTS)) {
             return ErrorCategory.HTTP_PROTOCOL;
         }
 
@@ -135,7 +138,8 @@ public final class ErrorCodes {
         if (errorCode.equals(INTERNAL_ERROR) ||
                 errorCode.equals(CONFIGURATION_ERROR) ||
                 errorCode.equals(EXTERNAL_SERVICE_ERROR) ||
-                errorCode.equals(DATABASE_ERROR)) {
+                errorCode.equals(DATABASE_ERROR) ||
+                errorCode.equals(SERVICE_UNAVAILABLE)) {
             return ErrorCategory.TECHNICAL;
         }
 
@@ -14,6 +14,7 @@ import com.store.store.repository.CustomerRepository;
 import com.store.store.security.CustomerUserDetails;
 import com.store.store.service.IContactService;
 import com.store.store.service.IOrderService;
+import com.store.store.service.IRefreshTokenService;
 import com.store.store.service.IRoleAssignmentService;
 
 import com.store.store.service.impl.MessageServiceImpl;
@@ -61,6 +62,7 @@ public class AdminController {
     private final ExceptionFactory exceptionFactory;
     private final CustomerRepository customerRepository;
     private final IRoleAssignmentService roleAssignmentService;
+    private final IRefreshTokenService refreshTokenService;
     private final MessageServiceImpl messageService;
 
     // GESTION DES UTILISATEURS - ATTRIBUTION DE RÔLES
@@ -347,6 +349,45 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    // GESTION DES UTILISATEURS - RÉVOCATION DES SESSIONS
+    @Operation(
+            summary = "Révoquer toutes les sessions d'un utilisateur",
+            description = "Révoque tous les refresh tokens (UPDATE ensembliste) et invalide immédiatement " +
+                    "tous les JWT de l'utilisateur via son époque de révocation. Destiné à la réponse à incident."
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Sessions révoquées avec succès"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Utilisateur non trouvé"
+            )
+    })
+    @PostMapping("/users/{customerId}/revoke-sessions")
+    public ResponseEntity<ApiResponse<Void>> revokeSessions(
+            @Parameter(description = "ID de l'utilisateur", required = true)
+            @PathVariable Long customerId) {
+
+        log.info("POST /api/v1/admin/users/{}/revoke-sessions", customerId);
+
+        if (!customerRepository.existsById(customerId)) {
+            throw exceptionFactory.resourceNotFoundById("Customer", customerId);
+        }
+
+        refreshTokenService.revokeAllTokensForCustomer(customerId);
+
+        log.warn("All sessions revoked by admin for user {}", customerId);
+
+        String successMessage = messageService.getMessage("api.success.auth.all.sessions.revoked");
+
+        ApiResponse<Void> response = ApiResponse.<Void>success(successMessage)
+                .withPath("/api/v1/admin/users/" + customerId + "/revoke-sessions");
+
+        return ResponseEntity.ok(response);
+    }
+
     // GESTION DES UTILISATEURS - CONSULTATION
     @Operation(
             summary = "Lister tous les utilisateurs avec leurs rôles",
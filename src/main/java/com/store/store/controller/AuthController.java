@@ -6,6 +6,8 @@ import com.store.store.dto.auth.LoginResponseDto;
 import com.store.store.dto.auth.RegisterRequestDto;
 import com.store.store.dto.common.ApiResponse;
 import com.store.store.entity.RefreshToken;
+import com.store.store.security.CustomerUserDetails;
+import com.store.store.security.LoginAttemptThrottle;
 import com.store.store.service.IAuthService;
 import com.store.store.service.IRefreshTokenService;
 import com.store.store.service.ISecurityAlertService;
@@ -16,6 +18,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +30,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -82,6 +86,10 @@ import org.springframework.web.bind.annotation.*;
  *    → Révocation du refresh token en BDD
  *    → Suppression des cookies
  *    → Session terminée
+ *
+ * 4. POST /logout-all | /logout-others (authentifié)
+ *    → UPDATE ensembliste des refresh tokens du customer
+ *    → logout-all : époque de révocation (JWT déjà émis refusés immédiatement)
  * </pre>
  *
  * @author Kardigué
@@ -103,6 +111,7 @@ public class AuthController {
     private final IRefreshTokenService refreshTokenService;
     private final ISecurityAlertService securityAlertService;
     private final MessageServiceImpl messageService;
+    private final LoginAttemptThrottle loginAttemptThrottle;
 
     @Value("${store.refresh-token.expiration-ms:604800000}")
     private long refreshTokenExpirationMs; // 7 jours par défaut
@@ -129,6 +138,14 @@ public class AuthController {
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ApiResponse.class)
                     )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "429",
+                    description = "Trop d'échecs de connexion pour cette IP ou ce compte",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
             )
     })
     public ResponseEntity<ApiResponse<LoginResponseDto>> login(
@@ -141,6 +158,9 @@ public class AuthController {
 
         log.info("Login attempt for username: {} from IP: {}", loginRequest.username(), ipAddress);
 
+        // Protection brute-force par IP : rejet (429) avant toute authentification
+        loginAttemptThrottle.checkIp(ipAddress);
+
         // Authentification via le service
         LoginResponseDto loginResponseDto = authService.login(loginRequest, ipAddress, userAgent);
 
@@ -439,6 +459,97 @@ public class AuthController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    // ENDPOINT : LOGOUT ALL
+    @PostMapping("/logout-all")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+            summary = "Déconnexion de tous les appareils",
+            description = "Révoque tous les refresh tokens du customer et invalide immédiatement tous ses JWT (époque de révocation)"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Toutes les sessions révoquées",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié (JWT manquant ou invalide)"
+            )
+    })
+    public ResponseEntity<ApiResponse<Void>> logoutAll(
+            @AuthenticationPrincipal CustomerUserDetails userDetails,
+            HttpServletResponse response) {
+
+        Long customerId = userDetails.customer().getCustomerId();
+        log.info("Logout from all devices requested for customer ID: {}", customerId);
+
+        refreshTokenService.revokeAllTokensForCustomer(customerId);
+        deleteCookie(response);
+
+        String successMessage = messageService.getMessage("api.success.auth.all.sessions.revoked");
+
+        ApiResponse<Void> apiResponse = ApiResponse.<Void>success(successMessage)
+                .withPath("/api/v1/auth/logout-all");
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
+    // ENDPOINT : LOGOUT OTHERS
+    @PostMapping("/logout-others")
+    @SecurityRequirement(name = "Bearer Authentication")
+    @Operation(
+            summary = "Déconnexion des autres appareils",
+            description = "Révoque tous les refresh tokens du customer sauf celui de la session courante (cookie)"
+    )
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Autres sessions révoquées",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié ou refresh token absent"
+            )
+    })
+    public ResponseEntity<ApiResponse<Integer>> logoutOthers(
+            @AuthenticationPrincipal CustomerUserDetails userDetails,
+            HttpServletRequest request) {
+
+        String currentToken = getRefreshTokenFromCookie(request);
+
+        if (currentToken == null || currentToken.isEmpty()) {
+            log.warn("No refresh token found in cookie during logout-others");
+
+            String errorMessage = messageService.getMessage("api.error.auth.refresh.missing");
+
+            ApiResponse<Integer> errorResponse = ApiResponse.<Integer>unauthorized(
+                    ErrorCodes.AUTHENTICATION_REQUIRED,
+                    errorMessage,
+                    request.getServletPath()
+            );
+
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        }
+
+        Long customerId = userDetails.customer().getCustomerId();
+        int revoked = refreshTokenService.revokeOtherTokensForCustomer(customerId, currentToken);
+
+        String successMessage = messageService.getMessage("api.success.auth.other.sessions.revoked", revoked);
+
+        ApiResponse<Integer> apiResponse = ApiResponse.success(successMessage, revoked)
+                .withPath("/api/v1/auth/logout-others");
+
+        return ResponseEntity.ok(apiResponse);
+    }
+
     // MÉTHODES PRIVÉES - SÉCURITÉ
 
     /**
@@ -583,20 +694,16 @@ public class AuthController {
     /**
      * Récupère l'adresse IP réelle du client.
      *
+     * Jamais lue dans X-Forwarded-For / X-Real-IP, fournis par le client : clé de limitation
+     * falsifiable. Derrière un proxy, Tomcat (server.forward-headers-strategy=native) remplace
+     * l'adresse distante par la première adresse non fiable de la chaîne, en partant de la droite :
+     * seules les entrées ajoutées par les proxys de confiance (server.tomcat.remoteip.internal-proxies)
+     * sont ignorées.
+     *
      * @param request Requête HTTP
      * @return Adresse IP du client
      */
     private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
-        }
-
         return request.getRemoteAddr();
     }
 }
\ No newline at end of file
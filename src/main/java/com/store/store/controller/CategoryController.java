@@ -364,6 +364,45 @@ public class CategoryController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(
+            summary = "[ADMIN] Déplacer une catégorie",
+            description = "Place la catégorie et son sous-arbre sous un nouveau parent (sans parentId : à la racine)"
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Catégorie déplacée avec succès"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Catégorie ou parent non trouvé"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "400",
+                    description = "Parent invalide (la catégorie elle-même ou un de ses descendants)"
+            )
+    })
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/admin/{id}/parent")
+    public ResponseEntity<ApiResponse<CategoryDto>> moveCategory(
+            @Parameter(description = "ID de la catégorie", required = true)
+            @PathVariable @Min(1) Long id,
+
+            @Parameter(description = "ID du nouveau parent (absent = racine)")
+            @RequestParam(required = false) @Min(1) Long parentId) {
+
+        log.info("PATCH /api/v1/categories/admin/{}/parent - parentId: {}", id, parentId);
+
+        CategoryDto updated = categoryService.moveCategory(id, parentId);
+
+        String successMessage = messageService.getMessage("api.success.category.moved", updated.getName());
+
+        ApiResponse<CategoryDto> response = ApiResponse.success(successMessage, updated)
+                .withPath("/api/v1/categories/admin/" + id + "/parent");
+
+        return ResponseEntity.ok(response);
+    }
 
     // ENDPOINTS ADMIN - SUPPRESSION
     @Operation(
@@ -0,0 +1,134 @@
+package com.store.store.controller;
+
+import com.store.store.dto.common.ApiResponse;
+import com.store.store.dto.product.ProductBulkPatchReport;
+import com.store.store.dto.product.ProductBulkPatchRequestDto;
+import com.store.store.dto.product.ProductImportReport;
+import com.store.store.enums.ProductBulkFormat;
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.service.IProductBulkService;
+import com.store.store.service.impl.MessageServiceImpl;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Import et export en masse du catalogue (CSV ou NDJSON).
+ *
+ * - POST /import avec le fichier en corps brut (text/csv, application/x-ndjson) : lu en flux, sans limite multipart
+ * - POST /import en multipart (champ "file") : format déduit de l'extension
+ * - GET /export : écrit au fil de l'eau, réimportable tel quel
+ * - PATCH /bulk : prix, stock et activation par SKU (synchronisation de stock, changement de tarifs)
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Tag(name = "Products - Bulk", description = "Import et export en masse des produits")
+@SecurityRequirement(name = "Bearer Authentication")
+@RestController
+@RequestMapping("/api/v1/products/admin")
+@RequiredArgsConstructor
+@Validated
+@Slf4j
+public class ProductBulkController {
+
+    private static final String PATH = "/api/v1/products/admin/import";
+    private static final String PATCH_PATH = "/api/v1/products/admin/bulk";
+
+    private final IProductBulkService productBulkService;
+    private final MessageServiceImpl messageService;
+    private final ExceptionFactory exceptionFactory;
+
+    @Operation(summary = "[ADMIN] Importer des produits (corps brut CSV ou NDJSON)")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<ProductImportReport>> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @Parameter(description = "Valider sans rien écrire")
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            InputStream body) {
+
+        ProductBulkFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductBulkFormat.CSV : ProductBulkFormat.NDJSON;
+        log.info("POST {} - {} import (dryRun={})", PATH, format, dryRun);
+
+        return report(productBulkService.importProducts(body, format, dryRun));
+    }
+
+    @Operation(summary = "[ADMIN] Importer des produits (fichier .csv, .ndjson ou .jsonl)")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<ProductImportReport>> importProductsFile(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) ProductBulkFormat format,
+            @RequestParam(defaultValue = "false") boolean dryRun) throws IOException {
+
+        ProductBulkFormat resolved = format != null ? format : ProductBulkFormat.fromFilename(file.getOriginalFilename())
+                .orElseThrow(() -> exceptionFactory.validationError("file",
+                        messageService.getMessage("error.product.import.format", file.getOriginalFilename())));
+        log.info("POST {} - {} import of {} ({} bytes, dryRun={})",
+                PATH, resolved, file.getOriginalFilename(), file.getSize(), dryRun);
+
+        try (InputStream input = file.getInputStream()) {
+            return report(productBulkService.importProducts(input, resolved, dryRun));
+        }
+    }
+
+    @Operation(summary = "[ADMIN] Exporter tout le catalogue (CSV ou NDJSON)")
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "CSV") ProductBulkFormat format) {
+
+        log.info("GET /api/v1/products/admin/export - format: {}", format);
+
+        StreamingResponseBody body = output -> productBulkService.exportProducts(output, format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + format.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @Operation(summary = "[ADMIN] Modifier prix, stock ou activation de produits par SKU")
+    @PreAuthorize("hasRole('ADMIN')")
+    @PatchMapping("/bulk")
+    public ResponseEntity<ApiResponse<ProductBulkPatchReport>> patchProducts(
+            @Valid @RequestBody ProductBulkPatchRequestDto request) {
+
+        log.info("PATCH {} - {} items", PATCH_PATH, request.items().size());
+
+        ProductBulkPatchReport report = productBulkService.patchProducts(request.items());
+        String message = messageService.getMessage("api.success.products.patched",
+                report.updated(), report.requested() - report.updated() - report.failed(), report.failed());
+
+        return ResponseEntity.ok(ApiResponse.success(message, report).withPath(PATCH_PATH));
+    }
+
+    private ResponseEntity<ApiResponse<ProductImportReport>> report(ProductImportReport report) {
+        String message = messageService.getMessage(
+                report.dryRun() ? "api.success.products.import.validated" : "api.success.products.imported",
+                report.imported(), report.rejected());
+
+        return ResponseEntity.ok(ApiResponse.success(message, report).withPath(PATH));
+    }
+}
@@ -2,8 +2,10 @@ package com.store.store.controller;
 
 import com.store.store.dto.common.ApiResponse;
 import com.store.store.dto.product.ProductDto;
+import com.store.store.dto.product.ProductImageFile;
 import com.store.store.dto.product.ProductSearchCriteria;
 import com.store.store.service.IProductService;
+import com.store.store.service.IProductPopularityService;
 
 import com.store.store.service.impl.MessageServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,6 +23,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -49,6 +55,7 @@ public class ProductController {
 
     private final IProductService productService;
     private final MessageServiceImpl messageService;
+    private final IProductPopularityService popularityService;
 
     // ENDPOINTS PUBLICS - RECHERCHE ET CONSULTATION
     @Operation(
@@ -128,6 +135,8 @@ public class ProductController {
 
         log.info("GET /api/v1/products/{} - Fetching product", id);
         ProductDto product = productService.getProductById(id);
+        // Compté ici : la fiche est servie par le cache sans passer par le service
+        popularityService.recordView(id);
         return ResponseEntity.ok(product);
     }
 
@@ -279,7 +288,8 @@ public class ProductController {
         return ResponseEntity.ok(count);
     }
 
-    @Operation(summary = "Obtenir les produits par catégorie")
+    @Operation(summary = "Obtenir les produits par catégorie",
+            description = "Inclut les produits des sous-catégories")
     @GetMapping("/category/{categoryCode}")
     public ResponseEntity<Page<ProductDto>> getProductsByCategory(
             @Parameter(description = "Code de la catégorie", required = true)
@@ -290,13 +300,8 @@ public class ProductController {
 
         log.info("GET /api/v1/products/category/{} - page: {}, size: {}", categoryCode, page, size);
 
-        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
-                .categoryCode(categoryCode.toUpperCase())
-                .activeOnly(true)
-                .build();
-
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductDto> products = productService.searchProducts(criteria, pageable);
+        Page<ProductDto> products = productService.getActiveProductsInCategoryTree(categoryCode.toUpperCase(), pageable);
 
         return ResponseEntity.ok(products);
     }
@@ -541,19 +546,29 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Image principale envoyée en flux depuis le disque (jamais chargée entière en mémoire).
+     * Spring gère les requêtes conditionnelles (If-None-Match / If-Modified-Since → 304)
+     * à partir de l'ETag et du Last-Modified, et les requêtes Range (206) via les régions de {@link Resource}.
+     */
     @Operation(summary = "Récupérer les bytes d'une image produit")
     @GetMapping("/{id}/image/bytes")
-    public ResponseEntity<byte[]> getProductImageBytes(
+    public ResponseEntity<Resource> getProductImageBytes(
             @Parameter(description = "ID du produit", required = true)
             @PathVariable @Min(1) Long id) {
 
-        log.info("GET /api/v1/products/{}/image/bytes - Fetching image bytes", id);
+        log.debug("GET /api/v1/products/{}/image/bytes - Streaming image", id);
 
-        byte[] imageBytes = productService.getProductImageBytes(id);
+        ProductImageFile image = productService.getProductImageFile(id);
 
+        // L'image d'un produit peut changer : revalidation systématique, peu coûteuse grâce à l'ETag
         return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_JPEG)
-                .body(imageBytes);
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .eTag(image.etag())
+                .lastModified(image.lastModified())
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .body(new FileSystemResource(image.path()));
     }
 
     // ENDPOINTS ADMIN - GALERIE D'IMAGES
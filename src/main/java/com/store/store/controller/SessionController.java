@@ -0,0 +1,114 @@
+package com.store.store.controller;
+
+import com.store.store.dto.auth.SessionDto;
+import com.store.store.dto.common.ApiResponse;
+import com.store.store.security.CustomerUserDetails;
+import com.store.store.service.ISessionService;
+import com.store.store.service.impl.MessageServiceImpl;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * @author Kardigué
+ * @version 1.0 - Gestion des sessions actives ("mes appareils")
+ * @since 2025-11-15
+ */
+@Tag(name = "Sessions", description = "API de gestion des sessions actives de l'utilisateur")
+@SecurityRequirement(name = "Bearer Authentication")
+@RestController
+@RequestMapping("/api/v1/sessions")
+@RequiredArgsConstructor
+@Slf4j
+public class SessionController {
+
+    private final ISessionService sessionService;
+    private final MessageServiceImpl messageService;
+
+    // LISTE DES SESSIONS
+    @Operation(
+            summary = "Lister les sessions actives",
+            description = "Retourne les sessions actives (appareil, IP, dates) de l'utilisateur authentifié, la session courante étant signalée"
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Sessions récupérées avec succès",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)
+                    )
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié (JWT manquant ou invalide)"
+            )
+    })
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<SessionDto>>> getActiveSessions(
+            @AuthenticationPrincipal CustomerUserDetails userDetails,
+            @CookieValue(name = "refreshToken", required = false) String currentToken) {
+
+        Long customerId = userDetails.customer().getCustomerId();
+        log.info("GET /api/v1/sessions - Fetching active sessions for customer ID: {}", customerId);
+
+        List<SessionDto> sessions = sessionService.getActiveSessions(customerId, currentToken);
+
+        String successMessage = messageService.getMessage("api.success.sessions.retrieved", sessions.size());
+
+        ApiResponse<List<SessionDto>> response = ApiResponse.success(successMessage, sessions)
+                .withPath("/api/v1/sessions");
+
+        return ResponseEntity.ok(response);
+    }
+
+    // RÉVOCATION D'UNE SESSION
+    @Operation(
+            summary = "Révoquer une session",
+            description = "Déconnecte l'appareil correspondant à la session (son refresh token ne pourra plus être utilisé)"
+    )
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "200",
+                    description = "Session révoquée avec succès"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié (JWT manquant ou invalide)"
+            ),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                    responseCode = "404",
+                    description = "Session non trouvée ou déjà révoquée"
+            )
+    })
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<ApiResponse<Void>> revokeSession(
+            @AuthenticationPrincipal CustomerUserDetails userDetails,
+            @Parameter(description = "ID de la session", required = true)
+            @PathVariable Long sessionId) {
+
+        Long customerId = userDetails.customer().getCustomerId();
+        log.info("DELETE /api/v1/sessions/{} - Revoking session for customer ID: {}", sessionId, customerId);
+
+        sessionService.revokeSession(customerId, sessionId);
+
+        String successMessage = messageService.getMessage("api.success.session.revoked");
+
+        ApiResponse<Void> response = ApiResponse.<Void>success(successMessage)
+                .withPath("/api/v1/sessions/" + sessionId);
+
+        return ResponseEntity.ok(response);
+    }
+}
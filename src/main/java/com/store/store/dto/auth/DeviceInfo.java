@@ -0,0 +1,34 @@
+package com.store.store.dto.auth;
+
+/**
+ * Appareil déduit du User-Agent (résultat partagé par les sessions et les alertes de sécurité).
+ * @param os Système d'exploitation (ex. "Windows 10", "Android 14")
+ * @param browser Navigateur (ex. "Chrome", "Safari Mobile")
+ * @param deviceType Type d'appareil : Mobile, Tablet ou Desktop
+ */
+public record DeviceInfo(
+        String os,
+        String browser,
+        String deviceType
+) {
+
+    public static final DeviceInfo UNKNOWN = new DeviceInfo("Unknown OS", "Unknown Browser", "Desktop");
+
+    /**
+     * Libellé stocké avec le refresh token et affiché dans les emails : "OS - Navigateur - Type".
+     */
+    public String label() {
+        return os + " - " + browser + " - " + deviceType;
+    }
+
+    /**
+     * Nom du navigateur sans suffixe de plateforme ("Chrome Mobile" → "Chrome").
+     */
+    public String browserName() {
+        return browser.replace(" Mobile", "");
+    }
+
+    public boolean isUnknown() {
+        return this == UNKNOWN;
+    }
+}
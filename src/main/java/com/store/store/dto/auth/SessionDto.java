@@ -0,0 +1,22 @@
+package com.store.store.dto.auth;
+
+import java.time.Instant;
+
+/**
+ * Session active d'un customer ("mes appareils"), construite à partir d'un refresh token.
+ * @param sessionId Identifiant du refresh token (utilisé pour révoquer la session)
+ * @param deviceInfo Description de l'appareil (OS - Navigateur - Type)
+ * @param ipAddress Adresse IP lors de la création de la session
+ * @param createdDate Date de connexion
+ * @param expiryDate Date d'expiration du refresh token
+ * @param current true si c'est la session de la requête courante
+ */
+public record SessionDto(
+        Long sessionId,
+        String deviceInfo,
+        String ipAddress,
+        Instant createdDate,
+        Instant expiryDate,
+        boolean current
+) {
+}
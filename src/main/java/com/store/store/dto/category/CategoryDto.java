@@ -30,6 +30,12 @@ public class CategoryDto {
     @NotNull(message = "{validation.required}")
     private Boolean isActive;
 
-    // Champ calculé (non modifiable) - pas de validation
+    // Catégorie parente (null = racine)
+    private Long parentId;
+
+    // Champs calculés (non modifiables) - pas de validation
     private Long productCount;
+    private Long activeProductCount;
+    private Long subtreeActiveProductCount;  // Produits actifs de la catégorie et de ses descendants
+    private String path;                     // Chemin matérialisé ("/3/12/")
 }
\ No newline at end of file
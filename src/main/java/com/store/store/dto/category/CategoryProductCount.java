@@ -0,0 +1,15 @@
+package com.store.store.dto.category;
+
+/**
+ * Nombre de produits d'une catégorie (projection JPQL groupée par catégorie).
+ *
+ * @param categoryId  identifiant de la catégorie
+ * @param total       tous les produits, actifs ou non
+ * @param active      produits actifs uniquement
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public record CategoryProductCount(Long categoryId, Long total, Long active) {
+}
@@ -196,6 +196,14 @@ public class ApiResponse<T> {
         return serverError(errorCode, localizedMessage, path, traceId);
     }
 
+    public static <T> ApiResponse<T> tooManyRequests(String errorCode, String localizedMessage, String path) {
+        return error(HttpStatus.TOO_MANY_REQUESTS, errorCode, localizedMessage, path);
+    }
+
+    public static <T> ApiResponse<T> serviceUnavailable(String errorCode, String localizedMessage, String path) {
+        return error(HttpStatus.SERVICE_UNAVAILABLE, errorCode, localizedMessage, path);
+    }
+
     public static <T> ApiResponse<T> methodNotAllowed(String errorCode, String localizedMessage, String path) {
         return error(HttpStatus.METHOD_NOT_ALLOWED, errorCode, localizedMessage, path);
     }
@@ -0,0 +1,21 @@
+package com.store.store.dto.product;
+
+import java.util.List;
+
+/**
+ * Bilan d'une modification en masse de produits.
+ *
+ * @param requested            SKU distincts reçus (un SKU répété compte une fois, sa dernière occurrence l'emporte)
+ * @param updated              produits modifiés
+ * @param failed               SKU des paquets refusés par la base (non modifiés)
+ * @param unknownSkus          SKU absents du catalogue, bornés
+ * @param unknownSkusTruncated true si d'autres SKU inconnus n'ont pas été rapportés
+ * @param durationMs           durée totale
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public record ProductBulkPatchReport(long requested, long updated, long failed, List<String> unknownSkus,
+                                     boolean unknownSkusTruncated, long durationMs) {
+}
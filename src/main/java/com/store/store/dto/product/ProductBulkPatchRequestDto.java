@@ -0,0 +1,27 @@
+package com.store.store.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Lot de modifications prix / stock / activation (synchronisation de stock, changement de tarifs).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Schema(description = "Modifications en masse de produits, par SKU")
+public record ProductBulkPatchRequestDto(
+
+        @NotEmpty(message = "{validation.required}")
+        @Size(max = ProductBulkPatchRequestDto.MAX_ITEMS, message = "{validation.product.patch.tooMany}")
+        List<@Valid @NotNull ProductPatchDto> items
+
+) {
+    public static final int MAX_ITEMS = 50_000;
+}
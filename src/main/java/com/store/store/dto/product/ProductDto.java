@@ -1,11 +1,15 @@
 package com.store.store.dto.product;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 public class ProductDto {
@@ -26,6 +30,14 @@ public class ProductDto {
     @Digits(integer = 8, fraction = 2, message = "{validation.digits}")
     private BigDecimal price;
 
+    // Promotion : salePrice < price, fenêtre [saleStartsAt, saleEndsAt[ facultative
+    @DecimalMin(value = "0.01", message = "{validation.decimal.min}")
+    @Digits(integer = 8, fraction = 2, message = "{validation.digits}")
+    private BigDecimal salePrice;
+
+    private Instant saleStartsAt;
+    private Instant saleEndsAt;
+
     @Min(value = 0, message = "{validation.min.value}")
     private Integer popularity;
 
@@ -44,6 +56,9 @@ public class ProductDto {
     )
     private String imageUrl;
 
+    // Déclinaisons de imageUrl ("thumb", "card", "detail" → URL), vide tant qu'elles ne sont pas générées
+    private Map<String, String> imageVariants = new LinkedHashMap<>();
+
     private Boolean isActive = true;
 
     // Relation avec Category
@@ -139,6 +154,18 @@ public class ProductDto {
         return (imageUrl != null && !imageUrl.trim().isEmpty()) || (galleryImages != null && !galleryImages.isEmpty());
     }
 
+    /**
+     * Promotion en cours, évaluée à chaque sérialisation : un DTO mis en cache (cache "product")
+     * ne garde pas l'état de la promotion au moment de sa construction. Ignoré en écriture.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public Boolean getOnSale() {
+        Instant now = Instant.now();
+        return salePrice != null && price != null && salePrice.compareTo(price) < 0
+                && (saleStartsAt == null || !now.isBefore(saleStartsAt))
+                && (saleEndsAt == null || now.isBefore(saleEndsAt));
+    }
+
     public boolean isAvailable() {
         return Boolean.TRUE.equals(isActive) && stockQuantity != null && stockQuantity > 0;
     }
@@ -0,0 +1,19 @@
+package com.store.store.dto.product;
+
+import java.nio.file.Path;
+
+/**
+ * Fichier de l'image principale d'un produit, résolu une fois puis mis en cache (cache "productImageFile").
+ *
+ * @param path          chemin absolu du fichier dans store.file.directory
+ * @param contentType   type MIME déduit de l'extension
+ * @param contentLength taille en octets
+ * @param lastModified  date de modification (epoch millis) pour Last-Modified
+ * @param etag          ETag fort (empreinte SHA-256) pour les images adressées par contenu, faible sinon
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public record ProductImageFile(Path path, String contentType, long contentLength, long lastModified, String etag) {
+}
@@ -0,0 +1,31 @@
+package com.store.store.dto.product;
+
+import java.util.List;
+
+/**
+ * Bilan d'un import en masse de produits.
+ *
+ * @param totalRows       lignes de données lues (en-tête exclu)
+ * @param imported        produits insérés (ou valides, en simulation)
+ * @param rejected        lignes rejetées
+ * @param dryRun          true si rien n'a été écrit (validation seule)
+ * @param durationMs      durée totale
+ * @param errors          erreurs par ligne, dans l'ordre du fichier, bornées
+ * @param errorsTruncated true si d'autres erreurs n'ont pas été rapportées
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public record ProductImportReport(long totalRows, long imported, long rejected, boolean dryRun, long durationMs,
+                                  List<RowError> errors, boolean errorsTruncated) {
+
+    /**
+     * @param line    ligne du fichier (1 = première ligne, en-tête CSV compris)
+     * @param sku     SKU de la ligne s'il a pu être lu
+     * @param field   colonne en cause, null pour une erreur de ligne
+     * @param message message localisé
+     */
+    public record RowError(long line, String sku, String field, String message) {
+    }
+}
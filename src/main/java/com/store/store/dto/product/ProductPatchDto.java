@@ -0,0 +1,46 @@
+package com.store.store.dto.product;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+
+/**
+ * Modification ciblée d'un produit identifié par son SKU : seuls les champs renseignés sont modifiés.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Schema(description = "Prix, stock ou activation d'un produit, identifié par son SKU")
+public record ProductPatchDto(
+
+        @NotBlank(message = "{validation.required}")
+        @Size(max = 50, message = "{validation.size.max}")
+        @Schema(description = "SKU du produit", example = "STK-SPORTS-001")
+        String sku,
+
+        @DecimalMin(value = "0.01", message = "{validation.decimal.min}")
+        @Digits(integer = 8, fraction = 2, message = "{validation.digits}")
+        @Schema(description = "Nouveau prix", example = "19.99")
+        BigDecimal price,
+
+        @Min(value = 0, message = "{validation.min.value}")
+        @Schema(description = "Nouveau stock", example = "120")
+        Integer stockQuantity,
+
+        @Schema(description = "Activation ou désactivation du produit")
+        Boolean isActive
+
+) {
+    @AssertTrue(message = "{validation.product.patch.empty}")
+    @Schema(hidden = true)
+    public boolean isAnyFieldSet() {
+        return price != null || stockQuantity != null || isActive != null;
+    }
+}
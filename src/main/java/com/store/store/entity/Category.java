@@ -9,7 +9,10 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_path", columnList = "path"),
+        @Index(name = "idx_categories_parent", columnList = "parent_id")
+})
 public class Category extends BaseEntity {
 
     @Id
@@ -35,6 +38,14 @@ public class Category extends BaseEntity {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "parent_id")
+    private Category parent;
+
+    // Chemin matérialisé des identifiants depuis la racine ("/3/12/") : tout le sous-arbre partage ce préfixe
+    @Column(name = "path", nullable = false, length = 255)
+    private String path;
+
     @OneToMany(
             mappedBy = "category",
             fetch = FetchType.LAZY,
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.Instant;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -15,10 +16,14 @@ import java.util.stream.Collectors;
 @Getter
 @Setter
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = {
+        @Index(name = "idx_customers_tokens_valid_after", columnList = "tokens_valid_after")
+})
 public class Customer extends BaseEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_ids")
+    @TableGenerator(name = "customer_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customers", allocationSize = 20)
     @Column(name = "customer_id", nullable = false)
     private Long customerId;
 
@@ -45,6 +50,13 @@ public class Customer extends BaseEntity {
     @Column(name = "password_hash", nullable = false, length = 500)
     private String passwordHash;
 
+    /**
+     * Époque de révocation : tout JWT émis avant cette date est refusé.
+     * Mise à jour en O(1) lors d'une révocation globale des sessions du customer.
+     */
+    @Column(name = "tokens_valid_after")
+    private Instant tokensValidAfter;
+
     @OneToOne(mappedBy = "customer",cascade = CascadeType.ALL)
     private Address address;
 
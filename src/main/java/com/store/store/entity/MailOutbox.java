@@ -0,0 +1,73 @@
+package com.store.store.entity;
+
+import com.store.store.enums.MailOutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Email en attente d'envoi (pattern outbox).
+ *
+ * - Écrit en base au moment de l'alerte : aucun email perdu si l'exécuteur est saturé ou l'application redémarre
+ * - Envoyé par lots par {@link com.store.store.scheduler.MailOutboxDispatcher}
+ * - {@code nextAttemptAt} : prochain essai (PENDING) ou fin du bail de réservation (SENDING)
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-19
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_due", columnList = "status, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MailOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false, length = 100)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false, length = 255)
+    private String subject;
+
+    @Lob
+    @Column(name = "html_body", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String htmlBody;
+
+    /**
+     * Type d'email (ex. NEW_DEVICE_LOGIN), utile pour le suivi et les métriques.
+     */
+    @Column(name = "category", nullable = false, length = 50)
+    private String category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
@@ -29,8 +29,11 @@ import java.util.List;
 )
 public class Order extends BaseEntity {
 
+    // Ids réservés par blocs (table id_generators) : avec IDENTITY, Hibernate ne peut pas regrouper les INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_ids")
+    @TableGenerator(name = "order_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "orders", allocationSize = 50)
     @Column(name = "order_id", nullable = false)
     @EqualsAndHashCode.Include
     private Long orderId;
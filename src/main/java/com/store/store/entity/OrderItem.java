@@ -22,7 +22,9 @@ import java.math.BigDecimal;
 public class OrderItem extends BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_item_ids")
+    @TableGenerator(name = "order_item_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "order_items", allocationSize = 100)
     @Column(name = "order_item_id", nullable = false)
     @EqualsAndHashCode.Include
     private Long orderItemId;
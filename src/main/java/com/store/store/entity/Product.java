@@ -3,8 +3,10 @@ package com.store.store.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -40,12 +42,29 @@ public class Product extends BaseEntity {
     @Column(name = "price", nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
+    /**
+     * Prix promotionnel : appliqué seulement s'il est inférieur à price et dans la fenêtre
+     * [saleStartsAt, saleEndsAt[ (bornes facultatives). Voir isOnSaleAt.
+     */
+    @Column(name = "sale_price", precision = 10, scale = 2)
+    private BigDecimal salePrice;
+
+    @Column(name = "sale_starts_at")
+    private Instant saleStartsAt;
+
+    @Column(name = "sale_ends_at")
+    private Instant saleEndsAt;
+
     @Column(name = "popularity", nullable = false)
     private Integer popularity = 0;
 
     @Column(name = "image_url", length = 500)
     private String imageUrl;
 
+    // Déclinaisons (thumb, card, detail) de imageUrl générées : voir ImageVariantServiceImpl
+    @Column(name = "image_variants_ready", nullable = false)
+    private Boolean imageVariantsReady = false;
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
@@ -74,6 +93,7 @@ public class Product extends BaseEntity {
     )
     @OrderColumn(name = "display_order")
     @Column(name = "image_url", length = 500)
+    @BatchSize(size = 50) // Listes de produits : galeries chargées par paquets de 50, pas une requête par produit
     private List<String> galleryImages = new ArrayList<>();
 
 
@@ -92,6 +112,21 @@ public class Product extends BaseEntity {
         return category != null ? category.getCode() : null;
     }
 
+    // HELPER METHODS - PRIX
+
+    public boolean isOnSaleAt(Instant now) {
+        return salePrice != null && price != null && salePrice.compareTo(price) < 0
+                && (saleStartsAt == null || !now.isBefore(saleStartsAt))
+                && (saleEndsAt == null || now.isBefore(saleEndsAt));
+    }
+
+    /**
+     * Prix facturé à l'instant donné : prix promotionnel pendant la promotion, prix normal sinon.
+     */
+    public BigDecimal effectivePrice(Instant now) {
+        return isOnSaleAt(now) ? salePrice : price;
+    }
+
     // HELPER METHODS - GALLERY IMAGES
 
     public void addGalleryImage(String imageUrl) {
@@ -11,7 +11,7 @@ import java.time.Instant;
  * Entité représentant un Refresh Token stocké en base de données.
  *
  * Fonctionnalités :
- * - Stockage sécurisé des refresh tokens (UUID)
+ * - Stockage sécurisé des refresh tokens (empreinte SHA-256, jamais la valeur brute)
  * - Association avec un Customer
  * - Expiration après 7 jours
  * - Révocation pour sécurité (token rotation)
@@ -23,7 +23,7 @@ import java.time.Instant;
  */
 @Entity
 @Table(name = "refresh_tokens", indexes = {
-        @Index(name = "idx_token", columnList = "token"),
+        @Index(name = "idx_token_hash", columnList = "token_hash"),
         @Index(name = "idx_customer_id", columnList = "customer_id"),
         @Index(name = "idx_expiry_date", columnList = "expiry_date")
 })
@@ -35,14 +35,23 @@ import java.time.Instant;
 public class RefreshToken {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "refresh_token_ids")
+    @TableGenerator(name = "refresh_token_ids", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "refresh_tokens", allocationSize = 50)
     private Long id;
 
     /**
-     * Token UUID unique (format: 550e8400-e29b-41d4-a716-446655440000)
-     * Stocké en base pour validation côté backend.
+     * Empreinte SHA-256 du token (32 octets, colonne BINARY(32) indexée).
+     * Seule l'empreinte est persistée : une fuite de la table ne permet pas de rejouer les tokens.
      */
-    @Column(nullable = false, unique = true, length = 36)
+    @Column(name = "token_hash", nullable = false, unique = true, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    /**
+     * Valeur brute du token UUID (format: 550e8400-e29b-41d4-a716-446655440000).
+     * Non persistée : uniquement disponible juste après la création pour être renvoyée au client.
+     */
+    @Transient
     private String token;
 
     /**
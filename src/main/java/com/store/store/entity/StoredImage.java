@@ -0,0 +1,56 @@
+package com.store.store.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Image du stockage adressé par contenu : une ligne (et un fichier) par contenu distinct.
+ *
+ * - {@code digest} : SHA-256 hexadécimal du fichier, qui est aussi son nom sur disque et dans l'URL
+ * - {@code refCount} : nombre de références (image principale ou galerie) vers ce contenu
+ * - {@code unreferencedSince} : date de passage à zéro référence ; le fichier est purgé après un délai de grâce
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Entity
+@Table(name = "stored_images", indexes = {
+        @Index(name = "idx_stored_images_unreferenced", columnList = "ref_count, unreferenced_since")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredImage {
+
+    @Id
+    @Column(name = "digest", nullable = false, length = 64)
+    private String digest;
+
+    /**
+     * Extension du premier upload (les doublons réutilisent le même fichier et donc la même URL).
+     */
+    @Column(name = "extension", nullable = false, length = 10)
+    private String extension;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "unreferenced_since")
+    private Instant unreferencedSince;
+
+    @CreationTimestamp
+    @Column(name = "created_date", nullable = false, updatable = false)
+    private Instant createdDate;
+}
@@ -0,0 +1,36 @@
+package com.store.store.enums;
+
+/**
+ * Déclinaisons d'une image produit générées à l'upload.
+ * THUMB → miniatures (panier, listes), CARD → grilles du catalogue, DETAIL → fiche produit.
+ *
+ * La taille est la plus grande dimension (largeur ou hauteur) : le ratio est conservé,
+ * une image plus petite n'est jamais agrandie.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public enum ImageVariant {
+
+    THUMB(160),
+    CARD(480),
+    DETAIL(1200);
+
+    private final int maxDimension;
+
+    ImageVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int maxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * @return la clé exposée dans l'API et utilisée dans le nom de fichier ("thumb", "card", "detail")
+     */
+    public String key() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,22 @@
+package com.store.store.enums;
+
+/**
+ * Cycle de vie d'un email de l'outbox.
+ * PENDING → SENDING → SENT
+ *                   ↘ PENDING (nouvel essai avec backoff) → ... → FAILED (essais épuisés)
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-19
+ */
+public enum MailOutboxStatus {
+
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED;
+
+    public boolean isFinal() {
+        return this == SENT || this == FAILED;
+    }
+}
@@ -0,0 +1,48 @@
+package com.store.store.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Formats d'import/export en masse du catalogue.
+ * CSV → tableurs (en-tête obligatoire), NDJSON → un objet JSON par ligne (outils, scripts).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public enum ProductBulkFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extension;
+
+    ProductBulkFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Format déduit de l'extension du fichier envoyé (products.csv, catalog.ndjson, export.jsonl).
+     */
+    public static Optional<ProductBulkFormat> fromFilename(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return Optional.empty();
+        }
+        String extension = filename.substring(filename.lastIndexOf('.') + 1).toLowerCase();
+        if (extension.equals("jsonl")) {
+            return Optional.of(NDJSON);
+        }
+        return Arrays.stream(values()).filter(format -> format.extension.equals(extension)).findFirst();
+    }
+}
@@ -7,6 +7,7 @@ import com.store.store.service.impl.MessageServiceImpl;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -313,6 +314,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
     }
 
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ApiResponse<Void>> handleLoginThrottled(
+            LoginThrottledException exception,
+            WebRequest webRequest) {
+
+        String path = extractPath(webRequest);
+
+        log.warn("Login throttled at path: {} - retry after {}s", path, exception.getRetryAfterSeconds());
+
+        String message = messageService.getMessage("api.error.rate.limit.exceeded");
+
+        ApiResponse<Void> response = ApiResponse.tooManyRequests(
+                ErrorCodes.TOO_MANY_REQUESTS,
+                message,
+                path
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(response);
+    }
+
     // 4. AUTHORIZATION EXCEPTIONS (403 - Forbidden)
     // Fréquence : MOYENNE
 
@@ -407,6 +430,29 @@ public class GlobalExceptionHandler {
     // 6. CONFIGURATION EXCEPTIONS (5xx - Server Errors)
     // Fréquence : TRÈS FAIBLE (idéalement ZÉRO en production)
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePasswordHashingUnavailable(
+            PasswordHashingUnavailableException exception,
+            WebRequest webRequest) {
+
+        String path = extractPath(webRequest);
+
+        log.warn("Password hashing unavailable for path: {} - {}", path, exception.getMessage());
+
+        String message = messageService.getMessage("error.service.busy");
+
+        ApiResponse<Void> response = ApiResponse.serviceUnavailable(
+                ErrorCodes.SERVICE_UNAVAILABLE,
+                message,
+                path
+        );
+
+        // Rafale de logins : le client peut réessayer sous peu
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
+
     @ExceptionHandler(ConfigurationException.class)
     public ResponseEntity<ApiResponse<Void>> handleConfigurationException(
             ConfigurationException exception,
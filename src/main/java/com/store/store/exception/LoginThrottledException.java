@@ -0,0 +1,22 @@
+package com.store.store.exception;
+
+import lombok.Getter;
+
+/**
+ * Levée lorsque trop d'échecs de connexion ont été enregistrés pour une IP ou un compte.
+ * Traduite en 429 (avec Retry-After) par {@link GlobalExceptionHandler}, avant tout calcul BCrypt.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package com.store.store.exception;
+
+/**
+ * Levée lorsque l'exécuteur de hachage des mots de passe est saturé
+ * (file pleine ou délai d'attente dépassé). Traduite en 503 par {@link GlobalExceptionHandler}.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-16
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+    public PasswordHashingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
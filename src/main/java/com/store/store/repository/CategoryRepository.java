@@ -2,7 +2,9 @@ package com.store.store.repository;
 
 import com.store.store.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,6 +17,13 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByIsActiveTrueOrderByDisplayOrderAsc();
     boolean existsByCode(String code);
 
-    @Query("SELECT DISTINCT c FROM Category c JOIN c.products p WHERE c.isActive = true")
-    List<Category> findCategoriesWithProducts();
+    long countByParentCategoryId(Long parentId);
+
+    /**
+     * Déplace un sous-arbre : remplace le préfixe de chemin de la catégorie et de tous ses descendants.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Category c SET c.path = CONCAT(:newPath, SUBSTRING(c.path, LENGTH(:oldPath) + 1)) " +
+            "WHERE c.path LIKE CONCAT(:oldPath, '%')")
+    int movePathPrefix(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
 }
\ No newline at end of file
@@ -2,9 +2,12 @@ package com.store.store.repository;
 
 import com.store.store.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
@@ -15,4 +18,17 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmailWithRoles(@Param("email") String email);
     Optional<Customer> findByEmailOrMobileNumber(String email, String mobileNumber);
     boolean existsByEmailAndCustomerIdNot(String email, Long customerId);
+
+    // Époque de révocation des JWT (une seule écriture par customer)
+    @Modifying
+    @Query("UPDATE Customer c SET c.tokensValidAfter = :epoch WHERE c.customerId = :customerId")
+    int updateTokensValidAfter(@Param("customerId") Long customerId, @Param("epoch") Instant epoch);
+
+    // Rehash au login (facteur de coût BCrypt relevé)
+    @Modifying
+    @Query("UPDATE Customer c SET c.passwordHash = :passwordHash WHERE c.customerId = :customerId")
+    int updatePasswordHash(@Param("customerId") Long customerId, @Param("passwordHash") String passwordHash);
+
+    // Époques encore pertinentes (plus récentes que la durée de vie d'un JWT)
+    List<Customer> findByTokensValidAfterAfter(Instant since);
 }
\ No newline at end of file
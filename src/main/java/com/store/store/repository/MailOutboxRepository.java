@@ -0,0 +1,44 @@
+package com.store.store.repository;
+
+import com.store.store.entity.MailOutbox;
+import com.store.store.enums.MailOutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-19
+ */
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, Long> {
+
+    /**
+     * Réserve les emails échus (à envoyer ou dont le bail de réservation a expiré).
+     * SELECT ... FOR UPDATE SKIP LOCKED : plusieurs instances se partagent l'outbox sans double envoi.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM MailOutbox m WHERE m.status IN :statuses AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<MailOutbox> findDueForUpdate(@Param("statuses") Collection<MailOutboxStatus> statuses,
+                                      @Param("now") Instant now,
+                                      Pageable pageable);
+
+    long countByStatusIn(Collection<MailOutboxStatus> statuses);
+
+    @Modifying
+    @Query("DELETE FROM MailOutbox m WHERE m.status = :status AND m.createdDate < :cutoff")
+    int deleteByStatusAndCreatedDateBefore(@Param("status") MailOutboxStatus status, @Param("cutoff") Instant cutoff);
+}
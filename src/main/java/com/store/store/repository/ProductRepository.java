@@ -1,16 +1,20 @@
 package com.store.store.repository;
 
+import com.store.store.dto.category.CategoryProductCount;
 import com.store.store.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,12 +41,41 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     @Query("SELECT p FROM Product p WHERE p.isActive = true")
     Page<Product> findActiveProducts(Pageable pageable);
 
+    /**
+     * Vitrine "populaires" : produits actifs en stock, par popularité décroissante (id en départage : ordre stable).
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.isActive = true AND p.stockQuantity > 0 " +
+            "ORDER BY p.popularity DESC, p.id")
+    List<Product> findFeatured(Pageable pageable);
+
+    /**
+     * Vitrine "promotions" : produits actifs dont le prix promotionnel s'applique à l'instant donné.
+     */
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.isActive = true AND p.salePrice IS NOT NULL " +
+            "AND p.salePrice < p.price AND (p.saleStartsAt IS NULL OR p.saleStartsAt <= :now) " +
+            "AND (p.saleEndsAt IS NULL OR p.saleEndsAt > :now) ORDER BY p.popularity DESC, p.id")
+    List<Product> findOnSale(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Produits actifs de tout un sous-arbre : une seule requête, parcours de plage sur idx_categories_path.
+     *
+     * @param categoryPathPattern chemin de la racine du sous-arbre suivi de '%' ("/3/%") : motif constant,
+     *                            donc parcours de plage sur l'index
+     */
     @EntityGraph(attributePaths = {"category"})
-    @Query("SELECT p FROM Product p WHERE p.category.code = :categoryCode AND p.isActive = true")
-    Page<Product> findActiveProductsByCategory(@Param("categoryCode") String categoryCode, Pageable pageable);
+    @Query(value = "SELECT p FROM Product p JOIN p.category c WHERE c.path LIKE :categoryPathPattern AND p.isActive = true",
+            countQuery = "SELECT COUNT(p) FROM Product p JOIN p.category c WHERE c.path LIKE :categoryPathPattern AND p.isActive = true")
+    Page<Product> findActiveProductsInCategoryTree(@Param("categoryPathPattern") String categoryPathPattern, Pageable pageable);
 
     boolean existsByNameIgnoreCase(String name);
 
+    // IMPORT EN MASSE : contrôles d'unicité en mémoire plutôt qu'une requête par ligne
+    @Query("SELECT p.sku FROM Product p")
+    List<String> findAllSkus();
+
+    @Query("SELECT LOWER(p.name) FROM Product p")
+    List<String> findAllLowercaseNames();
+
     // COMPTAGE POUR STATISTIQUES
     @Query("SELECT COUNT(p) FROM Product p WHERE p.isActive = true")
     long countActiveProducts();
@@ -53,9 +86,32 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     @Query("SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
     long countByCategoryId(@Param("categoryId") Long categoryId);
 
+    @Query("SELECT new com.store.store.dto.category.CategoryProductCount(p.category.categoryId, COUNT(p), " +
+            "SUM(CASE WHEN p.isActive = true THEN 1L ELSE 0L END)) " +
+            "FROM Product p GROUP BY p.category.categoryId")
+    List<CategoryProductCount> countProductsGroupedByCategory();
+
     @Query("SELECT COUNT(p) FROM Product p WHERE p.stockQuantity = 0")
     long countOutOfStockProducts();
 
+    // DÉCLINAISONS D'IMAGE (appelées depuis les workers, hors transaction de requête)
+
+    @Query("SELECT p.id FROM Product p WHERE p.imageUrl = :imageUrl")
+    List<Long> findIdsByImageUrl(@Param("imageUrl") String imageUrl);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.imageVariantsReady = true WHERE p.imageUrl = :imageUrl")
+    int markImageVariantsReady(@Param("imageUrl") String imageUrl);
+
+    // IMAGES RÉFÉRENCÉES (phase de marquage du ramasse-miettes des uploads)
+
+    @Query("SELECT p.imageUrl FROM Product p WHERE p.imageUrl IS NOT NULL")
+    List<String> findAllImageUrls();
+
+    @Query("SELECT g FROM Product p JOIN p.galleryImages g")
+    List<String> findAllGalleryImageUrls();
+
     // RECHERCHE UNIVERSELLE (remplace toutes les autres méthodes de recherche)
 
     /**
@@ -1,6 +1,7 @@
 package com.store.store.repository;
 
 import com.store.store.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -22,12 +23,14 @@ import java.util.Optional;
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
     /**
-     * Recherche un refresh token par sa valeur.
+     * Recherche un refresh token par son empreinte SHA-256.
+     * Utilise l'index unique sur la colonne BINARY(32) token_hash.
      *
-     * @param token Le token à rechercher
+     * @param tokenHash L'empreinte SHA-256 du token (32 octets)
      * @return Optional contenant le RefreshToken si trouvé
+     * @see com.store.store.util.TokenHashUtil#sha256(String)
      */
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
     /**
      * Récupère tous les tokens actifs (non révoqués) d'un customer.
@@ -56,6 +59,27 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < :now")
     int deleteByExpiryDateBefore(@Param("now") Instant now);
 
+    /**
+     * Sélectionne un lot d'IDs de tokens expirés (parcours de l'index idx_refresh_token_expiry_date).
+     * Utilisé par la purge par lots : la taille du lot est bornée par le Pageable.
+     *
+     * @param cutoff Date limite d'expiration
+     * @param pageable Taille du lot (toujours page 0 : les lignes supprimées disparaissent)
+     * @return Les IDs à supprimer
+     */
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiryDate < :cutoff ORDER BY rt.expiryDate")
+    List<Long> findExpiredTokenIds(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    /**
+     * Supprime un lot de tokens par clé primaire (verrous limités aux lignes du lot).
+     *
+     * @param ids Les IDs du lot
+     * @return Le nombre de tokens supprimés
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
     /**
      * Compte le nombre de tokens actifs pour un customer.
      *
@@ -65,15 +89,58 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Query("SELECT COUNT(rt) FROM RefreshToken rt WHERE rt.customer.customerId = :customerId AND rt.revoked = false AND rt.expiryDate > :now")
     long countActiveTokensByCustomer(@Param("customerId") Long customerId, @Param("now") Instant now);
 
+    /**
+     * Sessions actives d'un customer, de la plus récente à la plus ancienne ("mes appareils").
+     *
+     * @param customerId L'ID du customer
+     * @param now La date actuelle
+     * @return Les tokens actifs (non révoqués, non expirés)
+     */
+    @Query("SELECT rt FROM RefreshToken rt WHERE rt.customer.customerId = :customerId AND rt.revoked = false AND rt.expiryDate > :now ORDER BY rt.createdDate DESC")
+    List<RefreshToken> findActiveTokensByCustomer(@Param("customerId") Long customerId, @Param("now") Instant now);
+
+    /**
+     * IDs des sessions actives d'un customer, de la plus ancienne à la plus récente.
+     * Utilisé pour évincer les sessions les plus anciennes quand le plafond est atteint.
+     *
+     * @param customerId L'ID du customer
+     * @param now La date actuelle
+     * @param pageable Nombre de sessions à évincer
+     * @return Les IDs des sessions les plus anciennes
+     */
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.customer.customerId = :customerId AND rt.revoked = false AND rt.expiryDate > :now ORDER BY rt.createdDate ASC")
+    List<Long> findActiveTokenIdsOldestFirst(@Param("customerId") Long customerId, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Révoque un lot de tokens par clé primaire.
+     *
+     * @param ids Les IDs à révoquer
+     * @return Le nombre de tokens révoqués
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.id IN :ids AND rt.revoked = false")
+    int revokeByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Révoque une session précise, uniquement si elle appartient au customer.
+     *
+     * @param id L'ID du token
+     * @param customerId L'ID du customer propriétaire
+     * @return 1 si la session a été révoquée, 0 sinon
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.id = :id AND rt.customer.customerId = :customerId AND rt.revoked = false")
+    int revokeByIdAndCustomer(@Param("id") Long id, @Param("customerId") Long customerId);
+
     /**
      * Vérifie si un token existe et est valide.
      *
-     * @param token Le token à vérifier
+     * @param tokenHash L'empreinte SHA-256 du token à vérifier
      * @param now La date actuelle
      * @return true si le token existe, n'est pas révoqué et n'est pas expiré
      */
-    @Query("SELECT CASE WHEN COUNT(rt) > 0 THEN true ELSE false END FROM RefreshToken rt WHERE rt.token = :token AND rt.revoked = false AND rt.expiryDate > :now")
-    boolean isTokenValid(@Param("token") String token, @Param("now") Instant now);
+    @Query("SELECT CASE WHEN COUNT(rt) > 0 THEN true ELSE false END FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash AND rt.revoked = false AND rt.expiryDate > :now")
+    boolean isTokenValid(@Param("tokenHash") byte[] tokenHash, @Param("now") Instant now);
 
     /**
      * Révoque tous les tokens d'un customer.
@@ -84,4 +151,16 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Modifying
     @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.customer.customerId = :customerId AND rt.revoked = false")
     int revokeAllTokensByCustomer(@Param("customerId") Long customerId);
+
+    /**
+     * Révoque tous les tokens d'un customer sauf celui de la session courante.
+     * Un seul UPDATE ensembliste (index idx_refresh_token_active).
+     *
+     * @param customerId L'ID du customer
+     * @param keepTokenHash L'empreinte du token à conserver
+     * @return Le nombre de tokens révoqués
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true WHERE rt.customer.customerId = :customerId AND rt.revoked = false AND rt.tokenHash <> :keepTokenHash")
+    int revokeAllTokensByCustomerExcept(@Param("customerId") Long customerId, @Param("keepTokenHash") byte[] keepTokenHash);
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.store.store.repository;
+
+import com.store.store.entity.StoredImage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Repository
+public interface StoredImageRepository extends JpaRepository<StoredImage, String> {
+
+    /**
+     * Ajoute une référence au contenu, en créant la ligne au premier upload.
+     * Upsert atomique : deux uploads simultanés du même contenu ne peuvent pas entrer en conflit,
+     * et le verrou de ligne pris jusqu'au commit sérialise l'upload avec la purge.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO stored_images (digest, extension, content_type, size_bytes, ref_count, created_date)
+            VALUES (:digest, :extension, :contentType, :sizeBytes, 1, CURRENT_TIMESTAMP)
+            ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, unreferenced_since = NULL
+            """, nativeQuery = true)
+    int acquireReference(@Param("digest") String digest,
+                         @Param("extension") String extension,
+                         @Param("contentType") String contentType,
+                         @Param("sizeBytes") long sizeBytes);
+
+    /**
+     * Retire une référence ; au passage à zéro, date le début du délai de grâce avant purge.
+     */
+    @Modifying
+    @Query("""
+            UPDATE StoredImage s
+            SET s.refCount = s.refCount - 1,
+                s.unreferencedSince = CASE WHEN s.refCount = 1 THEN :now ELSE s.unreferencedSince END
+            WHERE s.digest = :digest AND s.refCount > 0
+            """)
+    int releaseReference(@Param("digest") String digest, @Param("now") Instant now);
+
+    /**
+     * Ajoute une référence à un contenu déjà stocké (URL existante réaffectée à un produit).
+     *
+     * @return 0 si le contenu est inconnu
+     */
+    @Modifying
+    @Query("UPDATE StoredImage s SET s.refCount = s.refCount + 1, s.unreferencedSince = NULL WHERE s.digest = :digest")
+    int addReference(@Param("digest") String digest);
+
+    @Query("SELECT s.extension FROM StoredImage s WHERE s.digest = :digest")
+    Optional<String> findExtensionByDigest(@Param("digest") String digest);
+
+    /**
+     * Contenus sans référence depuis plus longtemps que le délai de grâce.
+     * SELECT ... FOR UPDATE SKIP LOCKED : un contenu en cours de ré-upload (ligne verrouillée) est ignoré.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM StoredImage s WHERE s.refCount = 0 AND s.unreferencedSince < :cutoff ORDER BY s.unreferencedSince")
+    List<StoredImage> findUnreferencedForUpdate(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    /**
+     * Verrouille la ligne d'un contenu jusqu'à la fin de la transaction.
+     * Ligne absente : SELECT ... FOR UPDATE pose un verrou d'intervalle sur la clé (InnoDB, REPEATABLE READ),
+     * une insertion concurrente de la même empreinte attend la fin de la transaction.
+     */
+    @Query(value = "SELECT digest FROM stored_images WHERE digest = :digest FOR UPDATE", nativeQuery = true)
+    Optional<String> lockDigest(@Param("digest") String digest);
+}
@@ -0,0 +1,58 @@
+package com.store.store.scheduler;
+
+import com.store.store.service.IMailOutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job planifié d'envoi des emails de l'outbox.
+ * Chaque passe envoie les emails échus par lots (une connexion SMTP par lot),
+ * dans la limite du nombre de lots et du débit configurés.
+ *
+ * Pour désactiver (ex. instance dédiée aux API) : store.mail.outbox.dispatcher-enabled=false
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-19
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "store.mail.outbox.dispatcher-enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class MailOutboxDispatcher {
+
+    private final IMailOutboxService mailOutboxService;
+
+    @Scheduled(
+            initialDelayString = "${store.mail.outbox.poll-interval:PT5S}",
+            fixedDelayString = "${store.mail.outbox.poll-interval:PT5S}")
+    public void dispatch() {
+        try {
+            IMailOutboxService.DispatchReport report = mailOutboxService.dispatchPending();
+            if (report.processed() > 0) {
+                log.info("Mail outbox dispatched: {} sent, {} to retry, {} failed in {} batches",
+                        report.sent(), report.retried(), report.failed(), report.batches());
+            }
+        } catch (Exception e) {
+            log.error("Error during mail outbox dispatch: {}", e.getMessage(), e);
+            // Ne pas relancer l'exception pour ne pas arrêter le scheduler
+        }
+    }
+
+    @Scheduled(cron = "${store.mail.outbox.purge-cron:0 30 3 * * ?}")
+    public void purgeSent() {
+        try {
+            int deleted = mailOutboxService.purgeSent();
+            log.info("Mail outbox purge completed: {} sent mails deleted", deleted);
+        } catch (Exception e) {
+            log.error("Error during mail outbox purge: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.store.store.scheduler;
+
+import com.store.store.service.impl.OrphanImageCollectorServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job planifié de ramasse-miettes du répertoire d'upload : supprime les fichiers
+ * qu'aucun produit ne référence plus (voir {@link OrphanImageCollectorServiceImpl}).
+ *
+ * Pour désactiver : store.file.orphan-gc.enabled=false
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "store.file.orphan-gc.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class OrphanImageCollectorScheduler {
+
+    private final OrphanImageCollectorServiceImpl orphanImageCollectorService;
+
+    @Scheduled(cron = "${store.file.orphan-gc.cron:0 45 3 * * ?}")
+    public void collectOrphanImages() {
+        try {
+            OrphanImageCollectorServiceImpl.CollectionResult result = orphanImageCollectorService.collect();
+            log.info("Orphan image collection completed: {} scanned, {} deleted", result.scanned(), result.deleted());
+        } catch (Exception e) {
+            log.error("Error during orphan image collection: {}", e.getMessage(), e);
+            // Ne pas relancer l'exception pour ne pas arrêter le scheduler
+        }
+    }
+}
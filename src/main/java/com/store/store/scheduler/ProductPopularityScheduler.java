@@ -0,0 +1,67 @@
+package com.store.store.scheduler;
+
+import com.store.store.service.IProductPopularityService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jobs planifiés du moteur de popularité : écriture des compteurs en mémoire, puis décroissance périodique.
+ *
+ * Pour désactiver (ex. instance dédiée aux traitements batch) : store.product.popularity.scheduler-enabled=false
+ * (les compteurs restants sont tout de même écrits à l'arrêt).
+ * Décroissance seule : store.product.popularity.decay-enabled=false (l'écriture des compteurs continue) ;
+ * inutile pour éviter une double décroissance, déjà appliquée une seule fois par intervalle pour le cluster.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "store.product.popularity.scheduler-enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class ProductPopularityScheduler {
+
+    private final IProductPopularityService popularityService;
+
+    @Value("${store.product.popularity.decay-enabled:true}")
+    private boolean decayEnabled;
+
+    @Scheduled(
+            initialDelayString = "${store.product.popularity.flush-interval:PT1M}",
+            fixedDelayString = "${store.product.popularity.flush-interval:PT1M}")
+    public void flush() {
+        try {
+            IProductPopularityService.FlushReport report = popularityService.flushPending();
+            if (report.products() > 0) {
+                log.debug("Popularity flushed: {} products ({} views, {} units ordered)",
+                        report.products(), report.views(), report.units());
+            }
+        } catch (Exception e) {
+            log.error("Error during popularity flush: {}", e.getMessage(), e);
+            // Ne pas relancer l'exception pour ne pas arrêter le scheduler
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${store.product.popularity.decay-interval:P1D}",
+            fixedRateString = "${store.product.popularity.decay-interval:P1D}")
+    public void decay() {
+        if (!decayEnabled) {
+            return;
+        }
+        try {
+            popularityService.applyDecay();
+        } catch (Exception e) {
+            log.error("Error during popularity decay: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.store.store.scheduler;
+
+import com.store.store.service.impl.ProductShowcaseServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rematérialise périodiquement les listes de la page d'accueil (populaires, promotions).
+ *
+ * Pour désactiver : store.catalog.showcase.scheduler-enabled=false
+ * (la vitrine est alors construite à la première lecture, puis figée).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "store.catalog.showcase.scheduler-enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class ProductShowcaseScheduler {
+
+    private final ProductShowcaseServiceImpl productShowcaseService;
+
+    @Scheduled(fixedDelayString = "${store.catalog.showcase.refresh-interval:PT1M}")
+    public void refresh() {
+        try {
+            productShowcaseService.refresh();
+        } catch (Exception e) {
+            log.error("Error during product showcase refresh: {}", e.getMessage(), e);
+            // Ne pas relancer l'exception : la vitrine précédente reste servie
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.store.store.scheduler;
 
-import com.store.store.service.IRefreshTokenService;
+import com.store.store.service.impl.RefreshTokenPurgeServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -9,7 +9,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * Job planifié pour nettoyer les refresh tokens expirés.
- * Supprime automatiquement les tokens expirés selon le cron configuré.
+ * Supprime automatiquement les tokens expirés (et révoqués au-delà de la rétention)
+ * par lots bornés, selon le cron configuré.
  *
  *  BONNES PRATIQUES APPLIQUÉES:
  * - @Component au lieu de @Configuration (car c'est une tâche planifiée)
@@ -18,7 +19,7 @@ import org.springframework.stereotype.Component;
  * - Logging détaillé pour le monitoring
  *
  * @author Kardigué
- * @version 2.1 - CORRECTED
+ * @version 2.2 - Purge par lots
  * @since 2025-01-27
  */
 @Slf4j
@@ -31,7 +32,7 @@ import org.springframework.stereotype.Component;
 )
 public class RefreshTokenCleanupScheduler {
 
-    private final IRefreshTokenService refreshTokenService;
+    private final RefreshTokenPurgeServiceImpl refreshTokenPurgeService;
 
     /**
      *  Nettoie les refresh tokens expirés.
@@ -41,14 +42,16 @@ public class RefreshTokenCleanupScheduler {
      *
      * Pour désactiver: store.refresh-token.cleanup-enabled=false
      * Pour changer l'heure: store.refresh-token.cleanup-cron=0 0 2 * * ?
+     * Taille des lots, pause et budget de temps : store.refresh-token.purge.*
      */
     @Scheduled(cron = "${store.refresh-token.cleanup-cron:0 0 3 * * ?}")
     public void cleanupExpiredTokens() {
         log.info("Starting scheduled cleanup of expired refresh tokens...");
 
         try {
-            int deletedCount = refreshTokenService.deleteExpiredTokens();
-            log.info("Cleanup completed successfully. Deleted {} expired refresh tokens", deletedCount);
+            RefreshTokenPurgeServiceImpl.PurgeReport report = refreshTokenPurgeService.purge();
+            log.info("Cleanup completed successfully. Deleted {} expired refresh tokens in {} batches",
+                    report.expiredDeleted(), report.batches());
         } catch (Exception e) {
             log.error("Error during token cleanup: {}", e.getMessage(), e);
             // Ne pas relancer l'exception pour ne pas arrêter le scheduler
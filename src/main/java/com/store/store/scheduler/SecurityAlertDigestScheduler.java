@@ -0,0 +1,47 @@
+package com.store.store.scheduler;
+
+import com.store.store.service.ISecurityAlertService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job planifié des récapitulatifs d'alertes de sécurité.
+ * Ferme les fenêtres de regroupement expirées et met en file un email récapitulatif
+ * pour chaque rafale ayant absorbé des alertes identiques.
+ *
+ * Pour désactiver : store.security.alerts.coalescing.enabled=false
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-20
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "store.security.alerts.coalescing.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class SecurityAlertDigestScheduler {
+
+    private final ISecurityAlertService securityAlertService;
+
+    @Scheduled(
+            initialDelayString = "${store.security.alerts.coalescing.flush-interval:PT1M}",
+            fixedDelayString = "${store.security.alerts.coalescing.flush-interval:PT1M}")
+    public void flushDigests() {
+        try {
+            int queued = securityAlertService.sendCoalescedDigests();
+            if (queued > 0) {
+                log.info("Security alert digests queued: {}", queued);
+            }
+        } catch (Exception e) {
+            log.error("Error during security alert digest flush: {}", e.getMessage(), e);
+            // Ne pas relancer l'exception pour ne pas arrêter le scheduler
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.store.store.scheduler;
+
+import com.store.store.service.impl.FileStorageServiceImpl;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job planifié de purge des images sans référence (stockage adressé par contenu).
+ * Un contenu dont la dernière référence a été retirée est conservé pendant le délai de grâce,
+ * puis son fichier et sa ligne sont supprimés.
+ *
+ * Pour désactiver : store.file.content-store.purge-enabled=false
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+        name = "store.file.content-store.purge-enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class StoredImagePurgeScheduler {
+
+    private final FileStorageServiceImpl fileStorageService;
+
+    @Scheduled(cron = "${store.file.content-store.purge-cron:0 15 * * * ?}")
+    public void purgeUnreferencedImages() {
+        try {
+            int purged = fileStorageService.purgeUnreferencedImages();
+            log.info("Unreferenced image purge completed: {} images deleted", purged);
+        } catch (Exception e) {
+            log.error("Error during unreferenced image purge: {}", e.getMessage(), e);
+            // Ne pas relancer l'exception pour ne pas arrêter le scheduler
+        }
+    }
+}
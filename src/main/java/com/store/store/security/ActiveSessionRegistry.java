@@ -0,0 +1,80 @@
+package com.store.store.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.store.store.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compteur en mémoire des sessions actives (refresh tokens non révoqués) par customer.
+ *
+ * - Chargé paresseusement depuis la base (countActiveTokensByCustomer) au premier accès
+ * - Maintenu par incrément/décrément lors des créations et révocations
+ * - Peut surestimer (tokens expirés entre-temps) : la vérification du plafond se recale
+ *   alors sur la base, uniquement sur le chemin rare d'éviction
+ * - Expiration après écriture pour borner la dérive entre instances
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-15
+ */
+@Slf4j
+@Component
+public class ActiveSessionRegistry {
+
+    private final LoadingCache<Long, AtomicInteger> activeCounts;
+
+    public ActiveSessionRegistry(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${store.refresh-token.session-registry.max-size:50000}") long maxSize,
+            @Value("${store.refresh-token.session-registry.ttl:PT1H}") Duration ttl) {
+
+        this.activeCounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build(customerId -> new AtomicInteger(
+                        (int) refreshTokenRepository.countActiveTokensByCustomer(customerId, Instant.now())));
+    }
+
+    /**
+     * @param customerId L'ID du customer
+     * @return Le nombre de sessions actives connu (chargé depuis la base si absent)
+     */
+    public int activeCount(Long customerId) {
+        return activeCounts.get(customerId).get();
+    }
+
+    public void sessionCreated(Long customerId) {
+        AtomicInteger count = activeCounts.getIfPresent(customerId);
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    public void sessionRevoked(Long customerId) {
+        AtomicInteger count = activeCounts.getIfPresent(customerId);
+        if (count != null) {
+            count.updateAndGet(current -> Math.max(0, current - 1));
+        }
+    }
+
+    /**
+     * Recale le compteur sur une valeur exacte (après un recomptage ou une révocation globale).
+     */
+    public void reset(Long customerId, int activeCount) {
+        activeCounts.put(customerId, new AtomicInteger(activeCount));
+    }
+
+    /**
+     * Oublie le compteur : il sera rechargé depuis la base au prochain accès.
+     */
+    public void invalidate(Long customerId) {
+        activeCounts.invalidate(customerId);
+    }
+}
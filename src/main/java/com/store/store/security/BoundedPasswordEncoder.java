@@ -0,0 +1,149 @@
+package com.store.store.security;
+
+import com.store.store.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PasswordEncoder} qui exécute le hachage (BCrypt) sur un exécuteur dédié et borné.
+ *
+ * - Pool fixe dimensionné sur le nombre de CPU : au plus N hachages simultanés,
+ *   quel que soit le nombre de threads Tomcat qui se connectent en même temps
+ * - File d'attente bornée : au-delà, rejet immédiat ({@link PasswordHashingUnavailableException} → 503)
+ *   au lieu d'immobiliser les workers Tomcat derrière une rafale de logins
+ * - Délai d'attente maximal du résultat : un login ne reste jamais bloqué indéfiniment
+ * - {@link #upgradeEncoding(String)} délégué : permet le rehash transparent au login
+ *   lorsque le facteur de coût augmente (voir {@link CustomerUserDetailsService#updatePassword})
+ *
+ * Métriques : store.password.hash (timer, tag operation), store.password.hash.queue (gauge),
+ * store.password.hash.active (gauge), store.password.hash.rejected (counter).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-16
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final Duration waitTimeout;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  Duration waitTimeout, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.waitTimeout = waitTimeout;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("store.password.hash")
+                .description("Durée de hachage des mots de passe (hors attente en file)")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("store.password.hash")
+                .description("Durée de hachage des mots de passe (hors attente en file)")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("store.password.hash.rejected")
+                .description("Hachages rejetés (exécuteur saturé ou délai dépassé)")
+                .register(meterRegistry);
+
+        Gauge.builder("store.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Hachages en attente d'un thread")
+                .register(meterRegistry);
+        Gauge.builder("store.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hachages en cours")
+                .register(meterRegistry);
+
+        log.info("Password hashing executor configured: threads={}, queueCapacity={}, waitTimeout={}",
+                threads, queueCapacity, waitTimeout);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Pas de hachage : simple lecture du facteur de coût du hash stocké.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    // MÉTHODES PRIVÉES
+
+    private <T> T submit(Timer timer, Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            log.warn("Password hashing executor saturated (queue: {}) - request rejected", executor.getQueue().size());
+            throw new PasswordHashingUnavailableException("Password hashing executor saturated", e);
+        }
+
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            log.warn("Password hashing timed out after {}", waitTimeout);
+            throw new PasswordHashingUnavailableException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("Password hashing interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "PasswordHash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package com.store.store.security;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HexFormat;
+
+/**
+ * Filtre de Bloom des empreintes SHA-1 de mots de passe compromis, projeté en mémoire (mmap).
+ *
+ * - Les bits résident dans le cache de pages de l'OS, pas dans le tas Java
+ *   (un filtre de ~1 milliard d'entrées à 0,1 % fait ~1,8 Go)
+ * - Fichier découpé en segments de 1 Go (limite des {@link MappedByteBuffer})
+ * - Indices dérivés directement de l'empreinte SHA-1 (double hachage Kirsch–Mitzenmacher) :
+ *   aucune fonction de hachage supplémentaire, une requête = k lectures de bits
+ * - Faux positifs possibles (probabilité configurée à la construction), jamais de faux négatifs
+ *
+ * Format : en-tête de {@value #HEADER_SIZE} octets (magic, version, nombre de bits, nombre de fonctions)
+ * suivi du tableau de bits.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-17
+ */
+public final class CompromisedPasswordBloomFilter {
+
+    static final int HEADER_SIZE = 32;
+    private static final int MAGIC = 0x53504246; // "SPBF"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final int SHA1_LENGTH = 20;
+
+    private final MappedByteBuffer[] segments;
+    private final long numBits;
+    private final int numHashes;
+
+    private CompromisedPasswordBloomFilter(MappedByteBuffer[] segments, long numBits, int numHashes) {
+        this.segments = segments;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+
+    // LECTURE
+
+    /**
+     * Projette un filtre existant en lecture seule.
+     * @throws IOException si le fichier est illisible ou n'est pas un filtre valide
+     */
+    public static CompromisedPasswordBloomFilter open(Path filterFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(filterFile, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a compromised-password Bloom filter: " + filterFile);
+            }
+            long numBits = header.getLong();
+            int numHashes = header.getInt();
+
+            long dataSize = (numBits + 7) >>> 3;
+            if (channel.size() < HEADER_SIZE + dataSize) {
+                throw new IOException("Truncated Bloom filter file: " + filterFile);
+            }
+
+            // Les projections restent valides après la fermeture du canal
+            return new CompromisedPasswordBloomFilter(
+                    map(channel, FileChannel.MapMode.READ_ONLY, dataSize), numBits, numHashes);
+        }
+    }
+
+    /**
+     * @param sha1 empreinte SHA-1 (20 octets) du mot de passe
+     * @return {@code true} si l'empreinte est probablement présente, {@code false} si elle est absente à coup sûr
+     */
+    public boolean mightContain(byte[] sha1) {
+        long h1 = readLong(sha1, 0);
+        long h2 = readLong(sha1, 8);
+
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, numBits);
+            if (!getBit(segments, bit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return (numBits + 7) >>> 3;
+    }
+
+    // CONSTRUCTION
+
+    /**
+     * Construit un filtre à partir d'une liste d'empreintes SHA-1 hexadécimales
+     * (format Have I Been Pwned : {@code HASH:COUNT} ou {@code HASH} par ligne).
+     * Le fichier cible est écrit à côté puis renommé atomiquement : un lecteur ne voit jamais un filtre partiel.
+     *
+     * @param source liste d'empreintes
+     * @param target fichier filtre à produire
+     * @param expectedInsertions nombre d'empreintes attendu (dimensionnement)
+     * @param falsePositiveRate taux de faux positifs visé (ex. 0.001)
+     * @return le nombre d'empreintes insérées
+     */
+    public static long build(Path source, Path target, long expectedInsertions, double falsePositiveRate) throws IOException {
+        long numBits = optimalNumBits(expectedInsertions, falsePositiveRate);
+        int numHashes = optimalNumHashes(expectedInsertions, numBits);
+        long dataSize = (numBits + 7) >>> 3;
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        long inserted = 0;
+
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+             BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.US_ASCII)) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN)
+                    .putInt(MAGIC).putInt(VERSION).putLong(numBits).putInt(numHashes);
+            header.clear();
+            channel.write(header, 0);
+
+            MappedByteBuffer[] segments = map(channel, FileChannel.MapMode.READ_WRITE, dataSize);
+            HexFormat hex = HexFormat.of();
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() < SHA1_LENGTH * 2) {
+                    continue;
+                }
+                byte[] sha1 = hex.parseHex(line, 0, SHA1_LENGTH * 2);
+                long h1 = readLong(sha1, 0);
+                long h2 = readLong(sha1, 8);
+                for (int i = 0; i < numHashes; i++) {
+                    setBit(segments, Long.remainderUnsigned(h1 + i * h2, numBits));
+                }
+                inserted++;
+            }
+
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+        }
+
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return inserted;
+    }
+
+    static long optimalNumBits(long expectedInsertions, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        return Math.max(64, bits);
+    }
+
+    static int optimalNumHashes(long expectedInsertions, long numBits) {
+        return Math.max(1, (int) Math.round((double) numBits / expectedInsertions * Math.log(2)));
+    }
+
+    // MÉTHODES PRIVÉES
+
+    private static MappedByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, long dataSize) throws IOException {
+        int count = (int) ((dataSize + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long offset = (long) i << SEGMENT_SHIFT;
+            segments[i] = channel.map(mode, HEADER_SIZE + offset, Math.min(SEGMENT_SIZE, dataSize - offset));
+        }
+        return segments;
+    }
+
+    private static boolean getBit(MappedByteBuffer[] segments, long bit) {
+        long byteIndex = bit >>> 3;
+        byte value = segments[(int) (byteIndex >>> SEGMENT_SHIFT)].get((int) (byteIndex & (SEGMENT_SIZE - 1)));
+        return (value & (1 << (bit & 7))) != 0;
+    }
+
+    private static void setBit(MappedByteBuffer[] segments, long bit) {
+        long byteIndex = bit >>> 3;
+        MappedByteBuffer segment = segments[(int) (byteIndex >>> SEGMENT_SHIFT)];
+        int offset = (int) (byteIndex & (SEGMENT_SIZE - 1));
+        segment.put(offset, (byte) (segment.get(offset) | (1 << (bit & 7))));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+}
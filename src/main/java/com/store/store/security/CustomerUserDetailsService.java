@@ -5,6 +5,7 @@ import com.store.store.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -21,6 +22,8 @@ import org.springframework.transaction.annotation.Transactional;
  * des relations et garantir l'initialisation correcte des rôles associés.
  * - Charge les rôles de manière immédiate afin d'éviter une {@link org.hibernate.LazyInitializationException}.
  * - Gère la recherche d'utilisateurs par leur adresse e-mail (nom d'utilisateur).
+ * - Implémente {@link UserDetailsPasswordService} : rehash transparent au login lorsque
+ * le facteur de coût BCrypt configuré est supérieur à celui du hash stocké.
  * @author Kardigué
  * @version 3.0 - Prêt pour la production
  * @since 2025-10-27
@@ -29,7 +32,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomerUserDetailsService implements UserDetailsService {
+public class CustomerUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final CustomerRepository customerRepository;
 
@@ -61,4 +64,23 @@ public class CustomerUserDetailsService implements UserDetailsService {
         // Convertir Customer en UserDetails (record CustomerUserDetails)
         return new CustomerUserDetails(customer);
     }
-}
\ No newline at end of file
+
+    /**
+     * Appelée par Spring Security après une authentification réussie lorsque
+     * {@code PasswordEncoder.upgradeEncoding} indique que le hash stocké est obsolète.
+     * @param user l'utilisateur authentifié
+     * @param newPassword le nouveau hash (déjà encodé)
+     * @return l'utilisateur portant le nouveau hash
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Customer customer = ((CustomerUserDetails) user).customer();
+
+        customerRepository.updatePasswordHash(customer.getCustomerId(), newPassword);
+        customer.setPasswordHash(newPassword);
+
+        log.info("Password hash upgraded for customer ID: {}", customer.getCustomerId());
+        return new CustomerUserDetails(customer);
+    }
+}
@@ -1,6 +1,7 @@
 package com.store.store.security;
 
 import com.store.store.util.JwtUtil;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.SignatureException;
@@ -31,7 +32,7 @@ import java.util.List;
  * les chemins publics spécifiés.
  * Ce filtre fonctionne comme suit :
  * 1. Il extrait le JWT de l'en-tête Authorization des requêtes entrantes.
- * 2. Il valide la signature et l'expiration du JWT.
+ * 2. Il valide la signature et l'expiration du JWT, puis l'époque de révocation du customer (en mémoire).
  * 3. Il charge les informations de l'utilisateur depuis le UserDetailsService pour l'utilisateur authentifié.
  * 4. Il configure le SecurityContext si le jeton et les informations de l'utilisateur sont valides.
  * Les erreurs d'authentification, telles que l'expiration du jeton, un format invalide ou des problèmes de signature,
@@ -49,6 +50,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
     private final List<String> publicPaths;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
@@ -92,8 +94,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 return;
             }
 
-            // 2: Extraire le username (email)
-            final String username = jwtUtil.getUsernameFromJwtToken(jwt);
+            // 2: Extraire le username (email) et la date d'émission
+            final Claims claims = jwtUtil.getAllClaimsFromJwtToken(jwt);
+            final String username = claims.getSubject();
+
+            // 2bis: Époque de révocation (lookup O(1) en mémoire, aucune requête DB)
+            if (tokenRevocationRegistry.isRevoked(username, claims.getIssuedAt())) {
+                log.warn("Revoked JWT (issued before revocation epoch) for user: {} on path: {}", username, requestPath);
+                filterChain.doFilter(request, response);
+                return;
+            }
 
             // 3: Vérifier si l'utilisateur n'est pas déjà authentifié
             // (Optimisation: éviter de recharger depuis la DB si déjà authentifié)
@@ -0,0 +1,209 @@
+package com.store.store.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.password.CompromisedPasswordChecker;
+import org.springframework.security.authentication.password.CompromisedPasswordDecision;
+import org.springframework.security.web.authentication.password.HaveIBeenPwnedRestApiPasswordChecker;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Vérification locale des mots de passe compromis, sans appel réseau.
+ *
+ * - S'appuie sur un {@link CompromisedPasswordBloomFilter} projeté en mémoire (réponse en microsecondes)
+ * - Rechargement à chaud : le fichier filtre est surveillé périodiquement et remplacé atomiquement
+ * - Si une liste source (format Have I Been Pwned, SHA-1) est configurée et plus récente que le filtre,
+ *   le filtre est reconstruit sur un thread dédié (plusieurs minutes pour une liste complète : ni le
+ *   scheduler partagé ni le démarrage ne sont bloqués), puis chargé
+ * - Tant qu'aucun filtre n'est chargé : contrôle délégué à l'API Have I Been Pwned (k-anonymat)
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-17
+ */
+@Slf4j
+@Component
+public class LocalCompromisedPasswordChecker implements CompromisedPasswordChecker, DisposableBean {
+
+    private static final CompromisedPasswordDecision COMPROMISED = new CompromisedPasswordDecision(true);
+    private static final CompromisedPasswordDecision NOT_COMPROMISED = new CompromisedPasswordDecision(false);
+
+    private final Path filterPath;
+    private final Path sourcePath;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final CompromisedPasswordChecker fallbackChecker;
+    private final Executor rebuildExecutor;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    // Filtre courant, remplacé en un seul échange de référence au rechargement
+    private volatile CompromisedPasswordBloomFilter filter;
+    private volatile FileTime loadedVersion;
+
+    @Autowired
+    public LocalCompromisedPasswordChecker(
+            @Value("${store.security.compromised-passwords.filter-path:data/compromised-passwords.bloom}") String filterPath,
+            @Value("${store.security.compromised-passwords.source-path:}") String sourcePath,
+            @Value("${store.security.compromised-passwords.expected-insertions:1000000000}") long expectedInsertions,
+            @Value("${store.security.compromised-passwords.false-positive-rate:0.001}") double falsePositiveRate) {
+        this(filterPath, sourcePath, expectedInsertions, falsePositiveRate, new HaveIBeenPwnedRestApiPasswordChecker(),
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "compromised-password-filter");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    LocalCompromisedPasswordChecker(String filterPath, String sourcePath, long expectedInsertions,
+                                    double falsePositiveRate, CompromisedPasswordChecker fallbackChecker,
+                                    Executor rebuildExecutor) {
+        this.filterPath = Path.of(filterPath);
+        this.sourcePath = StringUtils.hasText(sourcePath) ? Path.of(sourcePath) : null;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.fallbackChecker = fallbackChecker;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    @Override
+    public CompromisedPasswordDecision check(String password) {
+        if (password == null) {
+            return NOT_COMPROMISED;
+        }
+
+        CompromisedPasswordBloomFilter current = filter;
+        if (current == null) {
+            return fallbackChecker.check(password);
+        }
+
+        return current.mightContain(sha1(password)) ? COMPROMISED : NOT_COMPROMISED;
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    // CHARGEMENT / RECHARGEMENT
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * Recharge le fichier filtre s'il a été modifié et, si la liste source a changé, lance sa reconstruction
+     * en arrière-plan (le filtre reconstruit est chargé à la fin de la construction).
+     */
+    @Scheduled(
+            initialDelayString = "${store.security.compromised-passwords.reload-interval:PT1H}",
+            fixedDelayString = "${store.security.compromised-passwords.reload-interval:PT1H}")
+    public void refresh() {
+        reload();
+        if (isSourceNewer() && rebuilding.compareAndSet(false, true)) {
+            try {
+                rebuildExecutor.execute(this::rebuildAndReload);
+            } catch (RejectedExecutionException e) {
+                rebuilding.set(false);
+            }
+        }
+    }
+
+    private void rebuildAndReload() {
+        try {
+            rebuild();
+            synchronized (this) {
+                loadedVersion = null;
+            }
+            reload();
+        } catch (IOException e) {
+            log.error("Failed to build compromised-password filter from {}: {}", sourcePath, e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private synchronized void reload() {
+        try {
+            if (!Files.isReadable(filterPath)) {
+                if (filter == null) {
+                    log.warn("Compromised-password filter not found at {} - using Have I Been Pwned API", filterPath);
+                }
+                return;
+            }
+
+            FileTime version = Files.getLastModifiedTime(filterPath);
+            if (version.equals(loadedVersion)) {
+                return;
+            }
+
+            CompromisedPasswordBloomFilter reloaded = CompromisedPasswordBloomFilter.open(filterPath);
+            filter = reloaded;
+            loadedVersion = version;
+            log.info("Compromised-password filter loaded from {} ({} MB)", filterPath, reloaded.sizeInBytes() >> 20);
+
+        } catch (IOException e) {
+            // On conserve le filtre précédent
+            log.error("Failed to load compromised-password filter from {}: {}", filterPath, e.getMessage());
+        }
+    }
+
+    private boolean isSourceNewer() {
+        if (sourcePath == null || !Files.isReadable(sourcePath)) {
+            return false;
+        }
+        try {
+            return !Files.exists(filterPath)
+                    || Files.getLastModifiedTime(filterPath).compareTo(Files.getLastModifiedTime(sourcePath)) < 0;
+        } catch (IOException e) {
+            log.warn("Cannot compare compromised-password source and filter dates: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void rebuild() throws IOException {
+        log.info("Building compromised-password filter from {} (expected: {}, fpp: {})",
+                sourcePath, expectedInsertions, falsePositiveRate);
+        long start = System.currentTimeMillis();
+
+        if (filterPath.getParent() != null) {
+            Files.createDirectories(filterPath.getParent());
+        }
+        long inserted = CompromisedPasswordBloomFilter.build(sourcePath, filterPath, expectedInsertions, falsePositiveRate);
+
+        log.info("Compromised-password filter built: {} hashes in {} ms", inserted, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void destroy() {
+        if (rebuildExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static byte[] sha1(String password) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+}
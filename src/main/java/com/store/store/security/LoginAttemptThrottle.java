@@ -0,0 +1,183 @@
+package com.store.store.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.store.store.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Protection brute-force du login : compteurs d'échecs à fenêtre glissante par IP et par compte.
+ *
+ * - Vérifié AVANT l'authentification : une attaque est rejetée sans consommer de BCrypt
+ * - Par IP : bloque un attaquant qui essaie de nombreux comptes
+ * - Par compte : bloque le "password spraying" distribué sur de nombreuses IP
+ * - Le quota par compte ne s'applique pas à une IP qui s'est connectée avec succès à ce compte
+ *   récemment (source de confiance) : un tiers qui épuise le quota d'un compte depuis ses propres IP
+ *   ne bloque pas son titulaire sur ses appareils habituels
+ * - Seuls les échecs sont comptés ; un succès remet le compteur du compte à zéro
+ * - Compteurs {@link SlidingWindowCounter} (LongAdder) dans Caffeine, bornés en taille,
+ *   expirés après une fenêtre d'inactivité
+ *
+ * Compromis : le titulaire qui se connecte depuis une IP nouvelle (autre réseau, IP mobile changeante)
+ * pendant une attaque sur son compte reste bloqué jusqu'à la fin de la fenêtre. Une IP de confiance
+ * reste soumise au quota par IP, et une attaque depuis une IP déjà utilisée par le titulaire (même NAT)
+ * n'est freinée que par celui-ci.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-18
+ */
+@Slf4j
+@Component
+public class LoginAttemptThrottle {
+
+    private static final int BUCKETS = 30;
+
+    private final Cache<String, SlidingWindowCounter> ipCounters;
+    private final Cache<String, SlidingWindowCounter> usernameCounters;
+    private final Cache<String, Long> trustedSources;
+    private final Duration ipWindow;
+    private final Duration usernameWindow;
+    private final Duration trustedSourceTtl;
+    private final int maxFailuresPerIp;
+    private final int maxFailuresPerUsername;
+    private final Counter ipThrottledCounter;
+    private final Counter usernameThrottledCounter;
+    private final Clock clock;
+
+    public LoginAttemptThrottle(
+            @Value("${store.security.login-throttle.ip.max-failures:20}") int maxFailuresPerIp,
+            @Value("${store.security.login-throttle.ip.window:PT5M}") Duration ipWindow,
+            @Value("${store.security.login-throttle.username.max-failures:10}") int maxFailuresPerUsername,
+            @Value("${store.security.login-throttle.username.window:PT15M}") Duration usernameWindow,
+            @Value("${store.security.login-throttle.username.trusted-source-ttl:P30D}") Duration trustedSourceTtl,
+            @Value("${store.security.login-throttle.max-tracked-keys:100000}") long maxTrackedKeys,
+            MeterRegistry meterRegistry) {
+        this(maxFailuresPerIp, ipWindow, maxFailuresPerUsername, usernameWindow, trustedSourceTtl, maxTrackedKeys,
+                meterRegistry, Clock.systemUTC());
+    }
+
+    LoginAttemptThrottle(int maxFailuresPerIp, Duration ipWindow,
+                         int maxFailuresPerUsername, Duration usernameWindow, Duration trustedSourceTtl,
+                         long maxTrackedKeys, MeterRegistry meterRegistry, Clock clock) {
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.ipWindow = ipWindow;
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.usernameWindow = usernameWindow;
+        this.trustedSourceTtl = trustedSourceTtl;
+        this.clock = clock;
+
+        this.ipCounters = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(ipWindow)
+                .build();
+        this.usernameCounters = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(usernameWindow)
+                .build();
+        this.trustedSources = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterWrite(trustedSourceTtl)
+                .build();
+
+        this.ipThrottledCounter = Counter.builder("store.login.throttled")
+                .description("Tentatives de connexion rejetées avant authentification")
+                .tag("scope", "ip")
+                .register(meterRegistry);
+        this.usernameThrottledCounter = Counter.builder("store.login.throttled")
+                .description("Tentatives de connexion rejetées avant authentification")
+                .tag("scope", "username")
+                .register(meterRegistry);
+    }
+
+    // VÉRIFICATIONS (avant BCrypt)
+
+    /**
+     * @throws LoginThrottledException si l'IP a dépassé son quota d'échecs
+     */
+    public void checkIp(String ipAddress) {
+        check(ipCounters, ipAddress, maxFailuresPerIp, ipThrottledCounter, "IP");
+    }
+
+    /**
+     * Sans effet pour une IP de confiance (connexion réussie à ce compte depuis cette IP récemment).
+     *
+     * @throws LoginThrottledException si le compte a dépassé son quota d'échecs
+     */
+    public void checkUsername(String username, String ipAddress) {
+        if (isTrustedSource(username, ipAddress)) {
+            return;
+        }
+        check(usernameCounters, normalize(username), maxFailuresPerUsername, usernameThrottledCounter, "username");
+    }
+
+    // ENREGISTREMENT DES RÉSULTATS
+
+    public void loginFailed(String ipAddress, String username) {
+        long now = clock.millis();
+        if (ipAddress != null) {
+            ipCounters.get(ipAddress, key -> newCounter(ipWindow)).increment(now);
+        }
+        if (username != null) {
+            usernameCounters.get(normalize(username), key -> newCounter(usernameWindow)).increment(now);
+        }
+    }
+
+    public void loginSucceeded(String ipAddress, String username) {
+        if (username != null) {
+            usernameCounters.invalidate(normalize(username));
+            if (ipAddress != null) {
+                trustedSources.put(trustedSourceKey(username, ipAddress), clock.millis());
+            }
+        }
+    }
+
+    // MÉTHODES PRIVÉES
+
+    private void check(Cache<String, SlidingWindowCounter> counters, String key, int maxFailures,
+                       Counter throttledCounter, String scope) {
+        if (key == null) {
+            return;
+        }
+        SlidingWindowCounter counter = counters.getIfPresent(key);
+        if (counter == null) {
+            return;
+        }
+
+        long now = clock.millis();
+        if (counter.sum(now) >= maxFailures) {
+            throttledCounter.increment();
+            long retryAfterSeconds = Math.max(1, counter.millisUntilOldestExpires(now) / 1000);
+            log.warn("Login throttled by {}: {} (retry after {}s)", scope, key, retryAfterSeconds);
+            throw new LoginThrottledException("Too many failed login attempts", retryAfterSeconds);
+        }
+    }
+
+    private boolean isTrustedSource(String username, String ipAddress) {
+        if (username == null || ipAddress == null) {
+            return false;
+        }
+        Long lastSuccess = trustedSources.getIfPresent(trustedSourceKey(username, ipAddress));
+        return lastSuccess != null && clock.millis() - lastSuccess < trustedSourceTtl.toMillis();
+    }
+
+    private static String trustedSourceKey(String username, String ipAddress) {
+        return normalize(username) + '|' + ipAddress;
+    }
+
+    private static SlidingWindowCounter newCounter(Duration window) {
+        return new SlidingWindowCounter(window.toMillis(), BUCKETS);
+    }
+
+    private static String normalize(String username) {
+        return username == null ? null : username.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,103 @@
+package com.store.store.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Cache local des résultats de recherche de refresh tokens (clé = empreinte SHA-256 hexadécimale).
+ *
+ * Objectif : absorber les "refresh storms" des clients mobiles sans solliciter MySQL.
+ * - Négatif (UNKNOWN / REVOKED) : court-circuite totalement la base. Toujours sûr car
+ *   un token révoqué ne redevient jamais valide et une empreinte inconnue ne peut pas apparaître
+ *   (les tokens sont des UUID aléatoires générés côté serveur).
+ * - Positif (ACTIVE) : mémorise la date d'expiration pour rejeter un token expiré sans requête.
+ *   La base reste consultée pour un token actif (l'entité est nécessaire à la rotation).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-15
+ */
+@Slf4j
+@Component
+public class RefreshTokenLookupCache {
+
+    /**
+     * État connu d'un refresh token.
+     */
+    public enum Status {
+        /** Empreinte absente de la base */
+        UNKNOWN,
+        /** Token révoqué (rotation, logout, compromission) */
+        REVOKED,
+        /** Token présent et non révoqué lors de la dernière lecture */
+        ACTIVE
+    }
+
+    /**
+     * Entrée du cache.
+     *
+     * @param status État du token
+     * @param expiryDate Date d'expiration (null si UNKNOWN)
+     */
+    public record Entry(Status status, Instant expiryDate) {
+
+        public boolean isExpired() {
+            return expiryDate != null && Instant.now().isAfter(expiryDate);
+        }
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public RefreshTokenLookupCache(
+            @Value("${store.refresh-token.lookup-cache.max-size:100000}") long maxSize,
+            @Value("${store.refresh-token.lookup-cache.ttl:PT10M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this(maxSize, ttl, meterRegistry, Ticker.systemTicker());
+    }
+
+    RefreshTokenLookupCache(long maxSize, Duration ttl, MeterRegistry meterRegistry, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "refreshTokenLookup");
+
+        log.info("Refresh token lookup cache configured: maxSize={}, ttl={}", maxSize, ttl);
+    }
+
+    /**
+     * @param tokenHashHex Empreinte hexadécimale du token
+     * @return L'entrée en cache ou null si absente
+     */
+    public Entry get(String tokenHashHex) {
+        return cache.getIfPresent(tokenHashHex);
+    }
+
+    public void markUnknown(String tokenHashHex) {
+        cache.put(tokenHashHex, new Entry(Status.UNKNOWN, null));
+    }
+
+    public void markRevoked(String tokenHashHex, Instant expiryDate) {
+        cache.put(tokenHashHex, new Entry(Status.REVOKED, expiryDate));
+    }
+
+    public void markActive(String tokenHashHex, Instant expiryDate) {
+        cache.put(tokenHashHex, new Entry(Status.ACTIVE, expiryDate));
+    }
+
+    public void invalidate(String tokenHashHex) {
+        cache.invalidate(tokenHashHex);
+    }
+}
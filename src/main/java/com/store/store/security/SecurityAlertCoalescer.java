@@ -0,0 +1,210 @@
+package com.store.store.security;
+
+import com.store.store.entity.Customer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fenêtre de regroupement des alertes de sécurité, par (client, type d'alerte, appareil).
+ *
+ * - Le premier événement d'une fenêtre part immédiatement (l'utilisateur est prévenu sans délai)
+ * - Les événements identiques suivants dans la fenêtre sont seulement comptés
+ * - À la fermeture de la fenêtre, s'il y a eu des doublons, un unique email récapitulatif est produit
+ *   (voir {@link #drainClosedWindows()}, appelé par le SecurityAlertDigestScheduler)
+ *
+ * Une boucle de rafraîchissement côté client ne génère donc plus des dizaines d'emails par minute.
+ * Le nombre de fenêtres suivies est borné : au-delà, les alertes ne sont plus regroupées (fail-open).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-20
+ */
+@Slf4j
+@Component
+public class SecurityAlertCoalescer {
+
+    private static final int MAX_IP_ADDRESSES_PER_DIGEST = 10;
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxTrackedKeys;
+    private final Clock clock;
+    private final Counter coalescedCounter;
+
+    private final ConcurrentMap<AlertKey, Burst> bursts = new ConcurrentHashMap<>();
+    // Fenêtres expirées remplacées par un nouvel événement avant le passage du scheduler
+    private final ConcurrentLinkedQueue<Digest> closedDigests = new ConcurrentLinkedQueue<>();
+
+    public SecurityAlertCoalescer(
+            @Value("${store.security.alerts.coalescing.enabled:true}") boolean enabled,
+            @Value("${store.security.alerts.coalescing.window:PT10M}") Duration window,
+            @Value("${store.security.alerts.coalescing.max-tracked-keys:100000}") int maxTrackedKeys,
+            MeterRegistry meterRegistry) {
+        this(enabled, window, maxTrackedKeys, meterRegistry, Clock.systemUTC());
+    }
+
+    SecurityAlertCoalescer(boolean enabled, Duration window, int maxTrackedKeys,
+                           MeterRegistry meterRegistry, Clock clock) {
+        this.enabled = enabled;
+        this.window = window;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.clock = clock;
+        this.coalescedCounter = Counter.builder("store.security.alerts.coalesced")
+                .description("Security alerts merged into a digest instead of being sent individually")
+                .register(meterRegistry);
+
+        log.info("Security alert coalescing {} (window={}, maxTrackedKeys={})",
+                enabled ? "enabled" : "disabled", window, maxTrackedKeys);
+    }
+
+    /**
+     * Enregistre un événement d'alerte.
+     *
+     * @return {@code true} si l'alerte doit être envoyée maintenant (premier événement de la fenêtre),
+     *         {@code false} si elle est absorbée dans le récapitulatif de la fenêtre en cours
+     */
+    public boolean tryAcquire(Customer customer, String alertType, String device,
+                              String ipAddress, String detail, Locale locale) {
+        if (!enabled || customer.getCustomerId() == null) {
+            return true;
+        }
+
+        AlertKey key = new AlertKey(customer.getCustomerId(), alertType, device);
+        Instant now = clock.instant();
+        boolean[] leading = {false};
+
+        if (bursts.size() >= maxTrackedKeys && !bursts.containsKey(key)) {
+            log.warn("Security alert coalescing saturated ({} windows): sending without coalescing", bursts.size());
+            return true;
+        }
+
+        bursts.compute(key, (k, burst) -> {
+            if (burst == null || burst.isClosed(now, window)) {
+                if (burst != null && burst.suppressed > 0) {
+                    closedDigests.add(burst.toDigest(k));
+                }
+                leading[0] = true;
+                return new Burst(customer.getEmail(), customer.getName(), locale, now);
+            }
+            burst.record(now, ipAddress, detail);
+            return burst;
+        });
+
+        if (!leading[0]) {
+            coalescedCounter.increment();
+            log.debug("Security alert {} coalesced for customer {} (device: {})",
+                    alertType, customer.getCustomerId(), device);
+        }
+        return leading[0];
+    }
+
+    /**
+     * Retire les fenêtres fermées et retourne les récapitulatifs à envoyer
+     * (uniquement les fenêtres ayant absorbé au moins un événement).
+     */
+    public List<Digest> drainClosedWindows() {
+        Instant now = clock.instant();
+        List<Digest> digests = new ArrayList<>();
+
+        for (AlertKey key : bursts.keySet()) {
+            bursts.computeIfPresent(key, (k, burst) -> {
+                if (!burst.isClosed(now, window)) {
+                    return burst;
+                }
+                if (burst.suppressed > 0) {
+                    digests.add(burst.toDigest(k));
+                }
+                return null;
+            });
+        }
+
+        Digest closed;
+        while ((closed = closedDigests.poll()) != null) {
+            digests.add(closed);
+        }
+        return digests;
+    }
+
+    int trackedWindows() {
+        return bursts.size();
+    }
+
+    /**
+     * Récapitulatif d'une fenêtre : événements absorbés après l'alerte initiale.
+     */
+    public record Digest(
+            Long customerId,
+            String email,
+            String customerName,
+            Locale locale,
+            String alertType,
+            String device,
+            int suppressedCount,
+            Instant firstSuppressedAt,
+            Instant lastSuppressedAt,
+            List<String> ipAddresses,
+            String lastDetail) {
+    }
+
+    private record AlertKey(Long customerId, String alertType, String device) {
+    }
+
+    /**
+     * État d'une fenêtre ; muté uniquement sous le verrou de {@code ConcurrentHashMap.compute}.
+     */
+    private static final class Burst {
+
+        private final String email;
+        private final String customerName;
+        private final Locale locale;
+        private final Instant openedAt;
+        private final Set<String> ipAddresses = new LinkedHashSet<>();
+        private int suppressed;
+        private Instant firstSuppressedAt;
+        private Instant lastSuppressedAt;
+        private String lastDetail;
+
+        private Burst(String email, String customerName, Locale locale, Instant openedAt) {
+            this.email = email;
+            this.customerName = customerName;
+            this.locale = locale;
+            this.openedAt = openedAt;
+        }
+
+        private boolean isClosed(Instant now, Duration window) {
+            return !now.isBefore(openedAt.plus(window));
+        }
+
+        private void record(Instant now, String ipAddress, String detail) {
+            suppressed++;
+            if (firstSuppressedAt == null) {
+                firstSuppressedAt = now;
+            }
+            lastSuppressedAt = now;
+            lastDetail = detail;
+            if (ipAddress != null && ipAddresses.size() < MAX_IP_ADDRESSES_PER_DIGEST) {
+                ipAddresses.add(ipAddress);
+            }
+        }
+
+        private Digest toDigest(AlertKey key) {
+            return new Digest(key.customerId(), email, customerName, locale, key.alertType(), key.device(),
+                    suppressed, firstSuppressedAt, lastSuppressedAt, List.copyOf(ipAddresses), lastDetail);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.store.store.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteur à fenêtre glissante sans verrou.
+ *
+ * - La fenêtre est découpée en N seaux ; chaque seau est un {@link LongAdder}
+ *   (incréments répartis entre cellules, pas de contention CAS sous rafale)
+ * - Chaque seau porte le numéro de la tranche de temps qu'il représente :
+ *   un seau périmé est recyclé par le premier thread qui gagne le CAS sur ce numéro
+ * - La somme ignore les seaux hors fenêtre : précision d'un seau (ex. 10 s sur 5 min)
+ *
+ * Approximation assumée : un incrément concurrent au recyclage d'un seau peut être perdu,
+ * ce qui est sans conséquence pour du throttling.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-18
+ */
+public final class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final LongAdder[] buckets;
+    private final AtomicLongArray bucketSlices;
+
+    public SlidingWindowCounter(long windowMillis, int bucketCount) {
+        this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+        this.buckets = new LongAdder[bucketCount];
+        this.bucketSlices = new AtomicLongArray(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new LongAdder();
+            bucketSlices.set(i, -1);
+        }
+    }
+
+    public void increment(long nowMillis) {
+        long slice = nowMillis / bucketMillis;
+        int index = (int) (slice % buckets.length);
+
+        long current = bucketSlices.get(index);
+        if (current != slice && bucketSlices.compareAndSet(index, current, slice)) {
+            buckets[index].reset();
+        }
+        buckets[index].increment();
+    }
+
+    /**
+     * @return le nombre d'événements dans la fenêtre se terminant à {@code nowMillis}
+     */
+    public long sum(long nowMillis) {
+        long oldestSlice = nowMillis / bucketMillis - buckets.length + 1;
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            if (bucketSlices.get(i) >= oldestSlice) {
+                total += buckets[i].sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return le délai (ms) avant que le seau le plus ancien encore compté ne sorte de la fenêtre
+     */
+    public long millisUntilOldestExpires(long nowMillis) {
+        long currentSlice = nowMillis / bucketMillis;
+        long oldestSlice = currentSlice - buckets.length + 1;
+        long oldestCounted = currentSlice;
+        for (int i = 0; i < buckets.length; i++) {
+            long slice = bucketSlices.get(i);
+            if (slice >= oldestSlice && slice < oldestCounted && buckets[i].sum() > 0) {
+                oldestCounted = slice;
+            }
+        }
+        return (oldestCounted + buckets.length) * bucketMillis - nowMillis;
+    }
+}
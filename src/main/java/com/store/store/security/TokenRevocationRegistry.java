@@ -0,0 +1,136 @@
+package com.store.store.security;
+
+import com.store.store.entity.Customer;
+import com.store.store.repository.CustomerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre en mémoire des époques de révocation par customer (clé = email, sujet du JWT).
+ *
+ * Principe :
+ * - Révoquer toutes les sessions d'un customer = écrire une époque (O(1), aucune liste de JWT)
+ * - {@link JwtAuthenticationFilter} refuse tout JWT dont l'iat est antérieur à l'époque
+ * - Une époque plus ancienne que la durée de vie d'un JWT ne peut plus rien invalider :
+ *   elle est purgée, le registre reste donc minuscule même après un incident massif
+ *
+ * L'époque est persistée dans customers.tokens_valid_after, chargée au démarrage puis relue périodiquement
+ * ({@link #refreshEpochs()}) : une révocation faite sur une autre instance s'applique ici au plus tard
+ * après un intervalle de rafraîchissement, bien inférieur à la durée de vie d'un JWT.
+ *
+ * Précision : l'iat d'un JWT est à la seconde, l'époque est donc tronquée à la seconde. Un JWT émis
+ * dans la même seconde que la révocation, juste avant elle, reste accepté jusqu'à son expiration.
+ * Arrondir l'époque à la seconde supérieure refuserait à l'inverse le JWT d'une reconnexion immédiate ;
+ * la fenêtre (moins d'une seconde avant la révocation) est jugée acceptable.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-15
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+
+    private final CustomerRepository customerRepository;
+
+    private final Map<String, Instant> epochsByEmail = new ConcurrentHashMap<>();
+
+    @Value("${store.jwt.expiration-ms:900000}")
+    private long jwtExpirationMs;
+
+    /**
+     * Recharge les époques encore actives depuis la base au démarrage.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveEpochs() {
+        int loaded = loadEpochsFromDatabase();
+        log.info("Token revocation registry loaded: {} active epoch(s)", loaded);
+    }
+
+    /**
+     * Relit les époques encore actives : propage les révocations faites sur les autres instances.
+     * Une base indisponible laisse le registre en l'état jusqu'au passage suivant.
+     */
+    @Scheduled(
+            initialDelayString = "${store.jwt.revocation-refresh-interval:PT30S}",
+            fixedDelayString = "${store.jwt.revocation-refresh-interval:PT30S}")
+    public void refreshEpochs() {
+        try {
+            int loaded = loadEpochsFromDatabase();
+            log.debug("Token revocation registry refreshed: {} active epoch(s) in database", loaded);
+        } catch (DataAccessException e) {
+            log.warn("Token revocation registry not refreshed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Enregistre une nouvelle époque pour un customer.
+     * L'époque est tronquée à la seconde (précision du claim iat).
+     *
+     * @param email Email du customer (sujet du JWT)
+     * @param epoch Date à partir de laquelle les JWT sont de nouveau acceptés
+     */
+    public void register(String email, Instant epoch) {
+        epochsByEmail.merge(email, epoch.truncatedTo(ChronoUnit.SECONDS),
+                (current, candidate) -> candidate.isAfter(current) ? candidate : current);
+    }
+
+    /**
+     * Vérifie si un JWT a été révoqué par une époque.
+     *
+     * @param email Sujet du JWT
+     * @param issuedAt Claim iat du JWT
+     * @return true si le JWT a été émis avant l'époque de révocation
+     */
+    public boolean isRevoked(String email, Date issuedAt) {
+        Instant epoch = epochsByEmail.get(email);
+        if (epoch == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.toInstant().isBefore(epoch);
+    }
+
+    /**
+     * Purge les époques devenues inutiles (tous les JWT concernés ont expiré naturellement).
+     */
+    @Scheduled(fixedDelayString = "${store.jwt.expiration-ms:900000}")
+    public void evictExpiredEpochs() {
+        Instant oldestRelevantEpoch = oldestRelevantEpoch();
+        int before = epochsByEmail.size();
+
+        epochsByEmail.values().removeIf(epoch -> epoch.isBefore(oldestRelevantEpoch));
+
+        int evicted = before - epochsByEmail.size();
+        if (evicted > 0) {
+            log.debug("Token revocation registry: {} expired epoch(s) evicted", evicted);
+        }
+    }
+
+    public int size() {
+        return epochsByEmail.size();
+    }
+
+    private int loadEpochsFromDatabase() {
+        List<Customer> customers = customerRepository.findByTokensValidAfterAfter(oldestRelevantEpoch());
+        customers.forEach(customer -> register(customer.getEmail(), customer.getTokensValidAfter()));
+        return customers.size();
+    }
+
+    private Instant oldestRelevantEpoch() {
+        return Instant.now().minusMillis(jwtExpirationMs);
+    }
+}
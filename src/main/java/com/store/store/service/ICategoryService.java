@@ -25,6 +25,7 @@ public interface ICategoryService {
     // MISE À JOUR (UPDATE)
     CategoryDto updateCategory(Long id, CategoryDto dto);
     CategoryDto toggleCategoryStatus(Long id);
+    CategoryDto moveCategory(Long id, Long parentId);
 
     // SUPPRESSION (DELETE)
     void deleteCategory(Long id);
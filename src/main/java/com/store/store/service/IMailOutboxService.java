@@ -0,0 +1,23 @@
+package com.store.store.service;
+
+/**
+ * @author Kardigué
+ * @version 1.0 - Outbox durable des emails
+ * @since 2025-11-19
+ */
+public interface IMailOutboxService {
+
+    void enqueue(String recipient, String subject, String htmlBody, String category);
+    DispatchReport dispatchPending();
+    int purgeSent();
+
+    /**
+     * Rapport d'une passe du dispatcher.
+     */
+    record DispatchReport(int sent, int retried, int failed, int batches) {
+
+        public int processed() {
+            return sent + retried + failed;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.store.store.service;
+
+import com.store.store.dto.product.ProductBulkPatchReport;
+import com.store.store.dto.product.ProductImportReport;
+import com.store.store.dto.product.ProductPatchDto;
+import com.store.store.enums.ProductBulkFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Import, export et modification en masse du catalogue produits.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public interface IProductBulkService {
+
+    /**
+     * Importe les produits d'un flux CSV ou NDJSON. Une ligne invalide est rapportée et n'empêche pas les autres.
+     *
+     * @param dryRun true pour valider sans rien écrire
+     */
+    ProductImportReport importProducts(InputStream input, ProductBulkFormat format, boolean dryRun);
+
+    /**
+     * Écrit tout le catalogue dans le format d'import (un export peut être réimporté tel quel).
+     */
+    void exportProducts(OutputStream output, ProductBulkFormat format) throws IOException;
+
+    /**
+     * Applique prix, stock et activation par SKU en UPDATE groupés ; un SKU inconnu est rapporté, pas bloquant.
+     */
+    ProductBulkPatchReport patchProducts(List<ProductPatchDto> patches);
+}
@@ -0,0 +1,44 @@
+package com.store.store.service;
+
+import java.util.Map;
+
+/**
+ * Popularité des produits : vues et unités commandées agrégées en mémoire, écrites par lots,
+ * avec décroissance exponentielle dans le temps.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+public interface IProductPopularityService {
+
+    /**
+     * Compte une consultation de fiche produit (aucune écriture en base).
+     */
+    void recordView(Long productId);
+
+    /**
+     * Compte les unités d'une commande après le commit de la transaction courante (immédiatement hors transaction).
+     *
+     * @param quantitiesByProduct quantité commandée par id produit
+     */
+    void recordOrder(Map<Long, Integer> quantitiesByProduct);
+
+    /**
+     * Ajoute les compteurs accumulés à products.popularity, par lots JDBC.
+     */
+    FlushReport flushPending();
+
+    /**
+     * Applique la décroissance (demi-vie configurée) à toutes les popularités non nulles.
+     *
+     * @return nombre de produits mis à jour
+     */
+    int applyDecay();
+
+    /**
+     * Rapport d'une écriture des compteurs.
+     */
+    record FlushReport(int products, long views, long units) {
+    }
+}
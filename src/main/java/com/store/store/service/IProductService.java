@@ -1,6 +1,7 @@
 package com.store.store.service;
 
 import com.store.store.dto.product.ProductDto;
+import com.store.store.dto.product.ProductImageFile;
 import com.store.store.dto.product.ProductSearchCriteria;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,6 +23,7 @@ public interface IProductService {
     Page<ProductDto> getAllProducts(Pageable pageable);
     ProductDto getProductById(Long id);
     Page<ProductDto> getActiveProducts(Pageable pageable);
+    Page<ProductDto> getActiveProductsInCategoryTree(String categoryCode, Pageable pageable);
     Page<ProductDto> getInactiveProducts(Pageable pageable);
 
     // CRUD PRINCIPAL
@@ -41,7 +43,7 @@ public interface IProductService {
     // GESTION DES IMAGES
     String uploadProductImage(Long productId, MultipartFile imageFile) throws IOException;
     void deleteProductImage(Long productId);
-    byte[] getProductImageBytes(Long productId);
+    ProductImageFile getProductImageFile(Long productId);
     List<String> uploadProductImages(Long productId, List<MultipartFile> imageFiles) throws IOException;
 
     // GALERIE D'IMAGES
@@ -18,6 +18,7 @@ public interface IRefreshTokenService {
     LoginResponseDto refreshAccessToken(String token, String ipAddress, String userAgent);
     void revokeRefreshToken(String token);
     void revokeAllTokensForCustomer(Long customerId);
+    int revokeOtherTokensForCustomer(Long customerId, String currentToken);
     int deleteExpiredTokens();
     List<RefreshToken> getActiveTokensForCustomer(Long customerId);
 }
\ No newline at end of file
@@ -12,4 +12,11 @@ public interface ISecurityAlertService {
     void notifyPossibleAccountCompromise(Customer customer, String ipAddress, String userAgent, String incidentType);
     void notifyNewDeviceLogin(Customer customer, String ipAddress, String userAgent);
     void notifyAllTokensRevoked(Customer customer, String reason);
+
+    /**
+     * Met en file les emails récapitulatifs des fenêtres de regroupement fermées.
+     *
+     * @return nombre de récapitulatifs mis en file
+     */
+    int sendCoalescedDigests();
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.store.store.service;
+
+import com.store.store.dto.auth.SessionDto;
+
+import java.util.List;
+
+/**
+ * @author Kardigué
+ * @version 1.0 - Plafond de sessions actives et "mes appareils"
+ * @since 2025-11-15
+ */
+public interface ISessionService {
+
+    void enforceSessionLimit(Long customerId);
+    List<SessionDto> getActiveSessions(Long customerId, String currentToken);
+    void revokeSession(Long customerId, Long sessionId);
+}
@@ -11,6 +11,7 @@ import com.store.store.exception.ExceptionFactory;
 import com.store.store.mapper.UserMapper;
 import com.store.store.repository.CustomerRepository;
 import com.store.store.security.CustomerUserDetails;
+import com.store.store.security.LoginAttemptThrottle;
 import com.store.store.service.IAuthService;
 import com.store.store.service.IRefreshTokenService;
 import com.store.store.service.IRoleAssignmentService;
@@ -24,6 +25,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.authentication.password.CompromisedPasswordChecker;
 import org.springframework.security.authentication.password.CompromisedPasswordDecision;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -55,6 +57,7 @@ public class AuthServiceImpl implements IAuthService {
     private final ExceptionFactory exceptionFactory;
     private final MessageServiceImpl messageService;
     private final UserMapper userMapper;
+    private final LoginAttemptThrottle loginAttemptThrottle;
 
     // INSCRIPTION (REGISTER)
 
@@ -88,28 +91,38 @@ public class AuthServiceImpl implements IAuthService {
     public LoginResponseDto login(LoginRequestDto request, String ipAddress, String userAgent) {
         log.debug("Login attempt for username: {} from IP: {}", request.username(), ipAddress);
 
-        // 1. Authentification Spring Security
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.username(), request.password()));
+        // 1. Protection brute-force par compte (avant tout calcul BCrypt), sauf depuis une IP de confiance
+        loginAttemptThrottle.checkUsername(request.username(), ipAddress);
+
+        // 2. Authentification Spring Security
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(request.username(), request.password()));
+        } catch (AuthenticationException e) {
+            loginAttemptThrottle.loginFailed(ipAddress, request.username());
+            throw e;
+        }
+        loginAttemptThrottle.loginSucceeded(ipAddress, request.username());
 
-        // 2. Récupérer le customer authentifié
+        // 3. Récupérer le customer authentifié
         CustomerUserDetails userDetails = (CustomerUserDetails) authentication.getPrincipal();
         Customer loggedInUser = userDetails.customer();
 
-        // 3. Construire le UserDto avec UserMapper
+        // 4. Construire le UserDto avec UserMapper
         UserDto userDto = userMapper.toUserDto(loggedInUser, authentication);
 
-        // 4. Générer Access Token (JWT 15 min)
+        // 5. Générer Access Token (JWT 15 min)
         String jwtToken = jwtUtil.generateJwtToken(authentication);
         log.info("Access token generated for user: {}", loggedInUser.getEmail());
 
-        // 5. Créer Refresh Token (UUID 7 jours)
+        // 6. Créer Refresh Token (UUID 7 jours)
         RefreshToken refreshToken = refreshTokenService.createRefreshToken(loggedInUser, ipAddress, userAgent);
 
         log.info("Refresh token created and stored in database for user: {} from IP: {}",
                 loggedInUser.getEmail(), ipAddress);
 
-        // 6. Construire la réponse
+        // 7. Construire la réponse
         log.info("Login successful for user: {} from IP: {}", loggedInUser.getEmail(), ipAddress);
 
         return new LoginResponseDto(
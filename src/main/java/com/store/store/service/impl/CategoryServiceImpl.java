@@ -22,7 +22,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * @author Kardigué
@@ -31,26 +31,24 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
-@Transactional(readOnly = true)
 @Slf4j
 public class CategoryServiceImpl implements ICategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CategorySnapshotServiceImpl categorySnapshotService;
     private final ExceptionFactory exceptionFactory;
     private final MessageServiceImpl messageService;
 
-    // LECTURE (READ)
+    // LECTURE (READ) - servie par l'instantané en mémoire, sans transaction ni requête
     @Override
     public List<CategoryDto> getAllActiveCategories() {
         try {
             log.info("Fetching all active categories");
-            List<Category> categories = categoryRepository.findByIsActiveTrueOrderByDisplayOrderAsc();
+            List<CategoryDto> categories = categorySnapshotService.getActiveCategories();
 
             log.info("Found {} active categories", categories.size());
-            return categories.stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
+            return categories;
 
         } catch (DataAccessException e) {
             log.error("Database error while fetching active categories", e);
@@ -63,10 +61,10 @@ public class CategoryServiceImpl implements ICategoryService {
     public List<CategoryDto> getAllCategories() {
         try {
             log.info("Fetching all categories (including inactive)");
-            List<Category> categories = categoryRepository.findAll();
+            List<CategoryDto> categories = categorySnapshotService.getAllCategories();
 
             log.info("Found {} categories total", categories.size());
-            return categories.stream().map(this::toDto).collect(Collectors.toList());
+            return categories;
 
         } catch (DataAccessException e) {
             log.error("Database error while fetching all categories", e);
@@ -81,11 +79,11 @@ public class CategoryServiceImpl implements ICategoryService {
             log.info("Fetching category by code: {}", code);
             validateCategoryCode(code);
 
-            Category category = categoryRepository.findByCode(code)
+            CategoryDto category = categorySnapshotService.findByCode(code)
                     .orElseThrow(() -> exceptionFactory.resourceNotFound("Category", "code", code));
 
             log.info("Category found: {} (code: {})", category.getName(), code);
-            return toDto(category);
+            return category;
 
         } catch (ResourceNotFoundException e) {
             throw e;
@@ -102,11 +100,11 @@ public class CategoryServiceImpl implements ICategoryService {
             log.info("Fetching category by ID: {}", id);
             validateCategoryId(id);
 
-            Category category = categoryRepository.findById(id)
+            CategoryDto category = categorySnapshotService.findById(id)
                     .orElseThrow(() -> exceptionFactory.resourceNotFound("Category", "id", id.toString()));
 
             log.info("Category found: {} (ID: {})", category.getName(), id);
-            return toDto(category);
+            return category;
 
         } catch (ResourceNotFoundException e) {
             throw e;
@@ -121,10 +119,11 @@ public class CategoryServiceImpl implements ICategoryService {
     public List<CategoryDto> getCategoriesWithProducts() {
         try {
             log.info("Fetching categories that have products");
-            List<Category> categories = categoryRepository.findCategoriesWithProducts();
+            // Catégories actives ayant au moins un produit actif (menus de navigation)
+            List<CategoryDto> categories = categorySnapshotService.getActiveCategoriesWithProducts();
 
             log.info("Found {} categories with products", categories.size());
-            return categories.stream().map(this::toDto).collect(Collectors.toList());
+            return categories;
 
         } catch (DataAccessException e) {
             log.error("Database error while fetching categories with products", e);
@@ -156,13 +155,20 @@ public class CategoryServiceImpl implements ICategoryService {
             category.setDisplayOrder(dto.getDisplayOrder() != null ? dto.getDisplayOrder() : 999);
             category.setIsActive(true);
 
+            // Hiérarchie : l'id n'est connu qu'après insertion, le chemin définitif est posé ensuite
+            Category parent = resolveParent(dto.getParentId());
+            category.setParent(parent);
+            category.setPath(parent != null ? parent.getPath() : "/");
+
             // Sauvegarde
             Category saved = categoryRepository.save(category);
+            saved.setPath(childPath(parent, saved.getCategoryId()));
+            categorySnapshotService.refreshAfterCommit();
             log.info("Category created successfully with ID: {}", saved.getCategoryId());
 
             return toDto(saved);
 
-        } catch (BusinessException e) {
+        } catch (ResourceNotFoundException | BusinessException e) {
             throw e;
         } catch (DataAccessException e) {
             log.error("Database error while creating category", e);
@@ -200,9 +206,14 @@ public class CategoryServiceImpl implements ICategoryService {
             if (dto.getIsActive() != null) {
                 category.setIsActive(dto.getIsActive());
             }
+            // parentId absent : parent inchangé (retour à la racine via moveCategory)
+            if (dto.getParentId() != null) {
+                changeParent(category, dto.getParentId());
+            }
 
             // Sauvegarde
             Category updated = categoryRepository.save(category);
+            categorySnapshotService.refreshAfterCommit();
             log.info("Category updated successfully: {}", updated.getName());
 
             return toDto(updated);
@@ -229,6 +240,7 @@ public class CategoryServiceImpl implements ICategoryService {
             // Inversion du statut
             category.setIsActive(!category.getIsActive());
             Category updated = categoryRepository.save(category);
+            categorySnapshotService.refreshAfterCommit();
 
             log.info("Category status toggled: {} is now {}",
                     updated.getName(), updated.getIsActive() ? "active" : "inactive");
@@ -244,6 +256,30 @@ public class CategoryServiceImpl implements ICategoryService {
         }
     }
 
+    @Transactional
+    @Override
+    public CategoryDto moveCategory(Long id, Long parentId) {
+        try {
+            log.info("Moving category ID: {} under parent ID: {}", id, parentId);
+            validateCategoryId(id);
+
+            Category category = categoryRepository.findById(id)
+                    .orElseThrow(() -> exceptionFactory.resourceNotFound("Category", "id", id.toString()));
+
+            changeParent(category, parentId);
+            Category updated = categoryRepository.save(category);
+            categorySnapshotService.refreshAfterCommit();
+
+            return toDto(updated);
+
+        } catch (ResourceNotFoundException | BusinessException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            log.error("Database error while moving category ID: {}", id, e);
+            throw exceptionFactory.businessError(messageService.getMessage("error.category.update.failed"));
+        }
+    }
+
     // SUPPRESSION (DELETE)
     @Transactional
     @Override
@@ -256,6 +292,13 @@ public class CategoryServiceImpl implements ICategoryService {
             Category category = categoryRepository.findById(id)
                     .orElseThrow(() -> exceptionFactory.resourceNotFound("Category", "id", id.toString()));
 
+            // Sous-catégories : à déplacer ou supprimer d'abord
+            long childCount = categoryRepository.countByParentCategoryId(id);
+            if (childCount > 0) {
+                throw exceptionFactory.businessError(
+                        messageService.getMessage("error.category.delete.hasChildren", category.getName(), childCount));
+            }
+
             // Comptage des produits associés
             Long productCount = productRepository.countByCategoryId(id);
             if (productCount > 0) {
@@ -266,6 +309,7 @@ public class CategoryServiceImpl implements ICategoryService {
 
             // Suppression de la catégorie
             categoryRepository.delete(category);
+            categorySnapshotService.refreshAfterCommit();
             log.info("Category deleted successfully: {}", category.getName());
 
         } catch (ResourceNotFoundException | BusinessException e) {
@@ -298,6 +342,7 @@ public class CategoryServiceImpl implements ICategoryService {
             // Mise à jour de la catégorie
             category.setIcon(iconUrl);
             categoryRepository.save(category);
+            categorySnapshotService.refreshAfterCommit();
 
             log.info("Icon uploaded successfully for category: {}", category.getName());
             return iconUrl;
@@ -313,6 +358,45 @@ public class CategoryServiceImpl implements ICategoryService {
         }
     }
 
+    // HIÉRARCHIE
+
+    private Category resolveParent(Long parentId) {
+        if (parentId == null) {
+            return null;
+        }
+        validateCategoryId(parentId);
+        return categoryRepository.findById(parentId)
+                .orElseThrow(() -> exceptionFactory.resourceNotFound("Category", "id", parentId.toString()));
+    }
+
+    private static String childPath(Category parent, Long categoryId) {
+        return (parent != null ? CategorySnapshotServiceImpl.pathOf(parent) : "/") + categoryId + "/";
+    }
+
+    /**
+     * Change de parent : réécrit en une requête le chemin de la catégorie et de tout son sous-arbre.
+     * Une catégorie ne peut pas être placée sous elle-même ni sous un de ses descendants.
+     */
+    private void changeParent(Category category, Long parentId) {
+        Long currentParentId = category.getParent() != null ? category.getParent().getCategoryId() : null;
+        if (Objects.equals(currentParentId, parentId)) {
+            return;
+        }
+
+        Category parent = resolveParent(parentId);
+        String oldPath = CategorySnapshotServiceImpl.pathOf(category);
+        if (parent != null && CategorySnapshotServiceImpl.pathOf(parent).startsWith(oldPath)) {
+            throw exceptionFactory.businessError(
+                    messageService.getMessage("error.category.parent.invalid", category.getName()));
+        }
+
+        String newPath = childPath(parent, category.getCategoryId());
+        int moved = categoryRepository.movePathPrefix(oldPath, newPath);
+        category.setParent(parent);
+        category.setPath(newPath);
+        log.info("Category {} moved from {} to {} ({} categories in subtree)", category.getCode(), oldPath, newPath, moved);
+    }
+
     // VALIDATION
     private void validateCategoryId(Long id) {
         if (id == null || id <= 0) {
@@ -396,10 +480,14 @@ public class CategoryServiceImpl implements ICategoryService {
         dto.setIcon(category.getIcon());
         dto.setDisplayOrder(category.getDisplayOrder());
         dto.setIsActive(category.getIsActive());
-
-        // Calcul du nombre de produits
-        Long count = productRepository.countByCategoryId(category.getCategoryId());
-        dto.setProductCount(count);
+        dto.setParentId(category.getParent() != null ? category.getParent().getCategoryId() : null);
+        dto.setPath(category.getPath());
+
+        // Nombres de produits : inchangés par une écriture de catégorie, lus dans l'instantané
+        CategoryDto known = categorySnapshotService.findById(category.getCategoryId()).orElse(null);
+        dto.setProductCount(known != null ? known.getProductCount() : 0L);
+        dto.setActiveProductCount(known != null ? known.getActiveProductCount() : 0L);
+        dto.setSubtreeActiveProductCount(known != null ? known.getSubtreeActiveProductCount() : 0L);
 
         return dto;
     }
@@ -0,0 +1,299 @@
+package com.store.store.service.impl;
+
+import com.store.store.dto.category.CategoryDto;
+import com.store.store.dto.category.CategoryProductCount;
+import com.store.store.entity.Category;
+import com.store.store.repository.CategoryRepository;
+import com.store.store.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Instantané immuable des catégories et de leurs nombres de produits, servi depuis la mémoire.
+ *
+ * - Construit en deux requêtes : les catégories, puis les comptages groupés (total et actifs)
+ * - Hiérarchie : chemin matérialisé de chaque catégorie (résolution code → sous-arbre sans requête)
+ *   et produits actifs cumulés sur le sous-arbre
+ * - Remplacé d'un bloc (copie sur écriture) après le commit d'une écriture catégorie ou produit :
+ *   un lecteur voit l'ancien ou le nouvel instantané, jamais un mélange
+ * - Reconstructions sérialisées ; une demande déjà couverte par une reconstruction plus récente est ignorée
+ * - Âge maximal : rattrape les écritures faites par une autre instance (le lecteur qui le constate
+ *   reconstruit, les autres continuent sur l'ancien instantané)
+ *
+ * Les lectures ne touchent pas la base ; chaque appelant reçoit ses propres DTO.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Service
+public class CategorySnapshotServiceImpl {
+
+    /**
+     * Catégorie figée dans l'instantané.
+     */
+    record Entry(Long categoryId, Long parentId, String path, String code, String name, String description,
+                 String icon, Integer displayOrder, boolean active, long productCount, long activeProductCount,
+                 long subtreeActiveProductCount) {
+
+        CategoryDto toDto() {
+            CategoryDto dto = new CategoryDto();
+            dto.setCategoryId(categoryId);
+            dto.setParentId(parentId);
+            dto.setPath(path);
+            dto.setCode(code);
+            dto.setName(name);
+            dto.setDescription(description);
+            dto.setIcon(icon);
+            dto.setDisplayOrder(displayOrder);
+            dto.setIsActive(active);
+            dto.setProductCount(productCount);
+            dto.setActiveProductCount(activeProductCount);
+            dto.setSubtreeActiveProductCount(subtreeActiveProductCount);
+            return dto;
+        }
+    }
+
+    /**
+     * Instantané complet : listes triées par ordre d'affichage et index par id et par code.
+     */
+    record Snapshot(List<Entry> all, List<Entry> active, List<Entry> activeWithProducts,
+                    Map<Long, Entry> byId, Map<String, Entry> byCode, Instant builtAt) {
+
+        static Snapshot of(List<Entry> entries, Instant builtAt) {
+            List<Entry> all = entries.stream()
+                    .sorted(Comparator.comparing(Entry::displayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(Entry::categoryId))
+                    .toList();
+            List<Entry> active = all.stream().filter(Entry::active).toList();
+            List<Entry> activeWithProducts = active.stream().filter(entry -> entry.subtreeActiveProductCount() > 0).toList();
+            return new Snapshot(all, active, activeWithProducts,
+                    Map.copyOf(all.stream().collect(Collectors.toMap(Entry::categoryId, Function.identity()))),
+                    Map.copyOf(all.stream().collect(Collectors.toMap(Entry::code, Function.identity()))),
+                    builtAt);
+        }
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate primaryReadTransaction;
+    private final Duration maxAge;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicLong requestedGeneration = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private long builtGeneration = -1; // protégé par rebuildLock
+
+    private final Timer rebuildTimer;
+
+    public CategorySnapshotServiceImpl(
+            CategoryRepository categoryRepository,
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${store.catalog.category-snapshot.max-age:PT5M}") Duration maxAge) {
+
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.maxAge = maxAge;
+
+        // Transaction propre : appelé aussi depuis afterCommit, où la transaction d'origine est terminée
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+        // Reconstruction après écriture : pas readOnly, donc sur le primaire même avec une réplique en lecture
+        // (une réplique en retard pourrait ne pas encore contenir l'écriture qui vient d'être commitée)
+        this.primaryReadTransaction = new TransactionTemplate(transactionManager);
+        this.primaryReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.rebuildTimer = Timer.builder("store.categories.snapshot.rebuild")
+                .description("Durée de reconstruction de l'instantané des catégories")
+                .register(meterRegistry);
+        Gauge.builder("store.categories.snapshot.size", current, ref -> ref.get() == null ? 0 : ref.get().all().size())
+                .description("Catégories dans l'instantané en mémoire")
+                .register(meterRegistry);
+    }
+
+    // LECTURE
+
+    public List<CategoryDto> getAllCategories() {
+        return toDtos(snapshot().all());
+    }
+
+    public List<CategoryDto> getActiveCategories() {
+        return toDtos(snapshot().active());
+    }
+
+    public List<CategoryDto> getActiveCategoriesWithProducts() {
+        return toDtos(snapshot().activeWithProducts());
+    }
+
+    public Optional<CategoryDto> findById(Long categoryId) {
+        return Optional.ofNullable(snapshot().byId().get(categoryId)).map(Entry::toDto);
+    }
+
+    public Optional<CategoryDto> findByCode(String code) {
+        return Optional.ofNullable(snapshot().byCode().get(code)).map(Entry::toDto);
+    }
+
+    /**
+     * Chemin matérialisé d'une catégorie, préfixe de tout son sous-arbre.
+     */
+    public Optional<String> findPath(String code) {
+        return Optional.ofNullable(snapshot().byCode().get(code)).map(Entry::path);
+    }
+
+    // RECONSTRUCTION
+
+    /**
+     * Demande une reconstruction après le commit de la transaction courante (immédiate hors transaction).
+     * Une transaction annulée ne change rien : l'instantané reste valide.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshQuietly();
+                }
+            });
+        } else {
+            refreshQuietly();
+        }
+    }
+
+    /**
+     * Reconstruit l'instantané, sauf si une reconstruction commencée après cette demande l'a déjà fait.
+     */
+    Snapshot refresh() {
+        long generation = requestedGeneration.incrementAndGet();
+        rebuildLock.lock();
+        try {
+            Snapshot snapshot = current.get();
+            if (snapshot != null && builtGeneration >= generation) {
+                return snapshot;
+            }
+            return rebuild(primaryReadTransaction);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            return refresh();
+        }
+        if (isExpired(snapshot) && rebuildLock.tryLock()) {
+            try {
+                snapshot = current.get();
+                return isExpired(snapshot) ? rebuild(readTransaction) : snapshot;
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return snapshot;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // L'écriture est commitée : on abandonne l'instantané, la prochaine lecture le reconstruira
+            current.set(null);
+            log.error("Category snapshot rebuild failed, will retry on next read: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * À appeler sous rebuildLock. Les demandes reçues avant la lecture des données sont couvertes.
+     */
+    private Snapshot rebuild(TransactionTemplate transaction) {
+        long generation = requestedGeneration.get();
+        Snapshot snapshot = rebuildTimer.record(() -> transaction.execute(status -> load()));
+        current.set(snapshot);
+        builtGeneration = generation;
+        log.debug("Category snapshot rebuilt: {} categories ({} active with products)",
+                snapshot.all().size(), snapshot.activeWithProducts().size());
+        return snapshot;
+    }
+
+    private Snapshot load() {
+        Map<Long, CategoryProductCount> counts = productRepository.countProductsGroupedByCategory().stream()
+                .collect(Collectors.toMap(CategoryProductCount::categoryId, Function.identity()));
+
+        List<Category> categories = categoryRepository.findAll();
+
+        // Produits actifs cumulés : chaque catégorie compte pour elle-même et pour chacun de ses ancêtres
+        Map<Long, Long> subtreeActive = new HashMap<>();
+        for (Category category : categories) {
+            CategoryProductCount count = counts.get(category.getCategoryId());
+            if (count != null && count.active() > 0) {
+                ancestorsAndSelf(pathOf(category)).forEach(id -> subtreeActive.merge(id, count.active(), Long::sum));
+            }
+        }
+
+        List<Entry> entries = categories.stream()
+                .map(category -> toEntry(category, counts.get(category.getCategoryId()),
+                        subtreeActive.getOrDefault(category.getCategoryId(), 0L)))
+                .toList();
+        return Snapshot.of(entries, Instant.now());
+    }
+
+    /**
+     * Catégorie antérieure à la hiérarchie (chemin non renseigné) : traitée comme une racine.
+     * La base est alignée au démarrage (CategoryPathBackfill) : les requêtes sur le chemin la trouvent aussi.
+     */
+    static String pathOf(Category category) {
+        String path = category.getPath();
+        return path == null || path.equals("/") ? "/" + category.getCategoryId() + "/" : path;
+    }
+
+    private static List<Long> ancestorsAndSelf(String path) {
+        return Arrays.stream(path.split("/"))
+                .filter(segment -> !segment.isEmpty())
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    private boolean isExpired(Snapshot snapshot) {
+        return snapshot.builtAt().plus(maxAge).isBefore(Instant.now());
+    }
+
+    private static Entry toEntry(Category category, CategoryProductCount count, long subtreeActiveProductCount) {
+        Long parentId = category.getParent() == null ? null : category.getParent().getCategoryId();
+        return new Entry(category.getCategoryId(), parentId, pathOf(category), category.getCode(), category.getName(),
+                category.getDescription(), category.getIcon(), category.getDisplayOrder(),
+                Boolean.TRUE.equals(category.getIsActive()),
+                count == null ? 0 : count.total(), count == null ? 0 : count.active(), subtreeActiveProductCount);
+    }
+
+    private static List<CategoryDto> toDtos(List<Entry> entries) {
+        return entries.stream().map(Entry::toDto).collect(Collectors.toList());
+    }
+}
@@ -1,12 +1,29 @@
 package com.store.store.service.impl;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.store.store.dto.auth.DeviceInfo;
+import com.store.store.util.AhoCorasickMatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+
 /**
+ * Analyse du User-Agent, unique pour toute l'application (sessions, alertes de sécurité).
+ *
+ * - Tous les marqueurs connus (OS, navigateur, type d'appareil) sont recherchés en un seul passage
+ *   par un automate d'Aho–Corasick, au lieu de dizaines de {@code String.contains} successifs
+ * - Les règles de priorité (Edge avant Chrome, Safari après Chrome...) s'appliquent ensuite sur le masque
+ * - Le trafic réel ne comporte que peu de User-Agents distincts : les résultats sont mis en cache
+ *   (Caffeine borné), la plupart des logins et refresh ne font donc aucune analyse
+ *
  * @author Kardigué
- * @version 4.0 - Production Ready
+ * @version 5.0 - Automate compilé + cache
  * @since 2025-01-06
  */
 @Slf4j
@@ -15,114 +32,205 @@ public class DeviceInfoExtractorServiceImpl {
 
     // CONSTANTES
 
-    private static final String UNKNOWN_DEVICE = "Unknown Device";
     private static final String UNKNOWN_OS = "Unknown OS";
     private static final String UNKNOWN_BROWSER = "Unknown Browser";
     private static final String DEVICE_TYPE_MOBILE = "Mobile";
     private static final String DEVICE_TYPE_TABLET = "Tablet";
     private static final String DEVICE_TYPE_DESKTOP = "Desktop";
 
+    private static final String ANDROID_VERSION_PREFIX = "Android ";
+
+    // Au-delà, le User-Agent est analysé mais pas mis en cache (en-têtes forgés)
+    private static final int MAX_CACHED_USER_AGENT_LENGTH = 512;
+
+    /**
+     * Marqueurs recherchés dans le User-Agent ; le bit de chaque marqueur est son ordinal.
+     */
+    private enum Marker {
+        WINDOWS_10("Windows NT 10.0"),
+        WINDOWS_8_1("Windows NT 6.3"),
+        WINDOWS_8("Windows NT 6.2"),
+        WINDOWS_7("Windows NT 6.1"),
+        WINDOWS("Windows"),
+        MAC_OS_X("Mac OS X"),
+        MAC_CATALINA("Mac OS X 10_15"),
+        MAC_BIG_SUR("Mac OS X 11"),
+        MAC_MONTEREY("Mac OS X 12"),
+        MAC_VENTURA("Mac OS X 13"),
+        MAC_SONOMA("Mac OS X 14"),
+        MAC_SEQUOIA("Mac OS X 15"),
+        ANDROID("Android"),
+        IPHONE("iPhone"),
+        IPAD("iPad"),
+        IOS_17("OS 17"),
+        IOS_16("OS 16"),
+        IOS_15("OS 15"),
+        UBUNTU("Ubuntu"),
+        CHROME_OS("CrOS"),
+        LINUX("Linux"),
+        EDGE_TOKEN("Edg/"),
+        EDGE("Edg"),
+        CHROME_TOKEN("Chrome/"),
+        CHROME("Chrome"),
+        FIREFOX_TOKEN("Firefox/"),
+        SAFARI_TOKEN("Safari/"),
+        OPERA_TOKEN("Opera/"),
+        OPR_TOKEN("OPR/"),
+        MSIE("MSIE"),
+        TRIDENT_TOKEN("Trident/"),
+        MOBILE("Mobile"),
+        TABLET("Tablet");
+
+        private final String text;
+
+        Marker(String text) {
+            this.text = text;
+        }
+
+        private boolean in(long mask) {
+            return (mask & (1L << ordinal())) != 0;
+        }
+    }
+
+    private static final AhoCorasickMatcher MATCHER =
+            new AhoCorasickMatcher(Arrays.stream(Marker.values()).map(marker -> marker.text).toList());
+
+    private final Cache<String, DeviceInfo> cache;
+
+    public DeviceInfoExtractorServiceImpl(
+            @Value("${store.security.user-agent-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry) {
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userAgentDeviceInfo");
+
+        log.info("User-Agent parser cache configured: maxSize={}", maxSize);
+    }
+
     // EXTRACTION COMPLÈTE
 
+    /**
+     * @return l'appareil déduit du User-Agent, {@link DeviceInfo#UNKNOWN} si absent
+     */
+    public DeviceInfo parse(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return DeviceInfo.UNKNOWN;
+        }
+        if (userAgent.length() > MAX_CACHED_USER_AGENT_LENGTH) {
+            return analyze(userAgent);
+        }
+        return cache.get(userAgent, DeviceInfoExtractorServiceImpl::analyze);
+    }
+
+    /**
+     * @return le libellé "OS - Navigateur - Type", ou null si le User-Agent est absent
+     */
     public String extractDeviceInfo(String userAgent) {
         if (userAgent == null || userAgent.isEmpty()) {
             log.debug("Empty User-Agent provided, skipping device extraction");
             return null;
         }
 
-        try {
-            String os = extractOS(userAgent);
-            String browser = extractBrowser(userAgent);
-            String deviceType = extractDeviceType(userAgent);
-
-            String deviceInfo = String.format("%s - %s - %s", os, browser, deviceType);
-            log.debug("Device info extracted: {}", deviceInfo);
+        String deviceInfo = parse(userAgent).label();
+        log.debug("Device info extracted: {}", deviceInfo);
+        return deviceInfo;
+    }
 
-            return deviceInfo;
+    // ANALYSE (un seul passage sur le User-Agent)
 
-        } catch (Exception e) {
-            log.warn("Failed to extract device info from User-Agent: {}", e.getMessage());
-            return UNKNOWN_DEVICE;
-        }
+    static DeviceInfo analyze(String userAgent) {
+        long markers = MATCHER.scan(userAgent);
+        return new DeviceInfo(
+                extractOS(markers, userAgent),
+                extractBrowser(markers),
+                extractDeviceType(markers));
     }
 
     // EXTRACTION - SYSTÈME D'EXPLOITATION
 
-    private String extractOS(String userAgent) {
+    private static String extractOS(long m, String userAgent) {
         // Windows
-        if (userAgent.contains("Windows NT 10.0")) return "Windows 10";
-        if (userAgent.contains("Windows NT 6.3")) return "Windows 8.1";
-        if (userAgent.contains("Windows NT 6.2")) return "Windows 8";
-        if (userAgent.contains("Windows NT 6.1")) return "Windows 7";
-        if (userAgent.contains("Windows")) return "Windows";
+        if (Marker.WINDOWS_10.in(m)) return "Windows 10";
+        if (Marker.WINDOWS_8_1.in(m)) return "Windows 8.1";
+        if (Marker.WINDOWS_8.in(m)) return "Windows 8";
+        if (Marker.WINDOWS_7.in(m)) return "Windows 7";
+        if (Marker.WINDOWS.in(m)) return "Windows";
+
+        // iOS AVANT macOS (les User-Agents iPhone/iPad contiennent "like Mac OS X")
+        if (Marker.IPHONE.in(m) || Marker.IPAD.in(m)) {
+            if (Marker.IOS_17.in(m)) return "iOS 17";
+            if (Marker.IOS_16.in(m)) return "iOS 16";
+            if (Marker.IOS_15.in(m)) return "iOS 15";
+            return "iOS";
+        }
 
         // macOS
-        if (userAgent.contains("Mac OS X")) {
-            if (userAgent.contains("Mac OS X 10_15")) return "macOS Catalina";
-            if (userAgent.contains("Mac OS X 11")) return "macOS Big Sur";
-            if (userAgent.contains("Mac OS X 12")) return "macOS Monterey";
-            if (userAgent.contains("Mac OS X 13")) return "macOS Ventura";
-            if (userAgent.contains("Mac OS X 14")) return "macOS Sonoma";
-            if (userAgent.contains("Mac OS X 15")) return "macOS Sequoia";
+        if (Marker.MAC_OS_X.in(m)) {
+            if (Marker.MAC_CATALINA.in(m)) return "macOS Catalina";
+            if (Marker.MAC_BIG_SUR.in(m)) return "macOS Big Sur";
+            if (Marker.MAC_MONTEREY.in(m)) return "macOS Monterey";
+            if (Marker.MAC_VENTURA.in(m)) return "macOS Ventura";
+            if (Marker.MAC_SONOMA.in(m)) return "macOS Sonoma";
+            if (Marker.MAC_SEQUOIA.in(m)) return "macOS Sequoia";
             return "macOS";
         }
 
         // Android (avec extraction de version)
-        if (userAgent.contains("Android")) {
-            try {
-                String[] parts = userAgent.split("Android ");
-                if (parts.length > 1) {
-                    String version = parts[1].split(";")[0].trim();
-                    return "Android " + version;
-                }
-            } catch (Exception e) {
-                log.debug("Failed to extract Android version: {}", e.getMessage());
-            }
-            return "Android";
-        }
-
-        // iOS
-        if (userAgent.contains("iPhone") || userAgent.contains("iPad")) {
-            if (userAgent.contains("OS 17")) return "iOS 17";
-            if (userAgent.contains("OS 16")) return "iOS 16";
-            if (userAgent.contains("OS 15")) return "iOS 15";
-            return "iOS";
+        if (Marker.ANDROID.in(m)) {
+            String version = extractAndroidVersion(userAgent);
+            return version.isEmpty() ? "Android" : "Android " + version;
         }
 
         // Linux
-        if (userAgent.contains("Ubuntu")) return "Ubuntu";
-        if (userAgent.contains("CrOS")) return "Chrome OS";
-        if (userAgent.contains("Linux")) return "Linux";
+        if (Marker.UBUNTU.in(m)) return "Ubuntu";
+        if (Marker.CHROME_OS.in(m)) return "Chrome OS";
+        if (Marker.LINUX.in(m)) return "Linux";
 
         return UNKNOWN_OS;
     }
 
+    private static String extractAndroidVersion(String userAgent) {
+        int start = userAgent.indexOf(ANDROID_VERSION_PREFIX);
+        if (start < 0) {
+            return "";
+        }
+        start += ANDROID_VERSION_PREFIX.length();
+        int end = userAgent.indexOf(';', start);
+        return userAgent.substring(start, end < 0 ? userAgent.length() : end).trim();
+    }
+
     // EXTRACTION - NAVIGATEUR
 
-    private String extractBrowser(String userAgent) {
+    private static String extractBrowser(long m) {
+        boolean mobile = Marker.MOBILE.in(m);
+
         // Ordre important : Edge avant Chrome
-        if (userAgent.contains("Edg/")) {
+        if (Marker.EDGE_TOKEN.in(m)) {
             return "Edge";
         }
 
-        if (userAgent.contains("Chrome/") && !userAgent.contains("Edg")) {
-            return userAgent.contains("Mobile") ? "Chrome Mobile" : "Chrome";
+        if (Marker.CHROME_TOKEN.in(m) && !Marker.EDGE.in(m)) {
+            return mobile ? "Chrome Mobile" : "Chrome";
         }
 
-        if (userAgent.contains("Firefox/")) {
-            return userAgent.contains("Mobile") ? "Firefox Mobile" : "Firefox";
+        if (Marker.FIREFOX_TOKEN.in(m)) {
+            return mobile ? "Firefox Mobile" : "Firefox";
         }
 
         // Safari APRÈS Chrome (Chrome contient "Safari")
-        if (userAgent.contains("Safari/") && !userAgent.contains("Chrome")) {
-            return userAgent.contains("Mobile") ? "Safari Mobile" : "Safari";
+        if (Marker.SAFARI_TOKEN.in(m) && !Marker.CHROME.in(m)) {
+            return mobile ? "Safari Mobile" : "Safari";
         }
 
-        if (userAgent.contains("Opera/") || userAgent.contains("OPR/")) {
+        if (Marker.OPERA_TOKEN.in(m) || Marker.OPR_TOKEN.in(m)) {
             return "Opera";
         }
 
-        if (userAgent.contains("MSIE") || userAgent.contains("Trident/")) {
+        if (Marker.MSIE.in(m) || Marker.TRIDENT_TOKEN.in(m)) {
             return "Internet Explorer";
         }
 
@@ -131,18 +239,15 @@ public class DeviceInfoExtractorServiceImpl {
 
     // EXTRACTION - TYPE D'APPAREIL
 
-    private String extractDeviceType(String userAgent) {
-        // Mobile
-        if (userAgent.contains(DEVICE_TYPE_MOBILE) ||
-                userAgent.contains("Android") ||
-                userAgent.contains("iPhone")) {
-            return DEVICE_TYPE_MOBILE;
+    private static String extractDeviceType(long m) {
+        // Tablet AVANT Mobile (Safari sur iPad annonce aussi "Mobile/")
+        if (Marker.IPAD.in(m) || Marker.TABLET.in(m)) {
+            return DEVICE_TYPE_TABLET;
         }
 
-        // Tablet
-        if (userAgent.contains("iPad") ||
-                userAgent.contains(DEVICE_TYPE_TABLET)) {
-            return DEVICE_TYPE_TABLET;
+        // Mobile
+        if (Marker.MOBILE.in(m) || Marker.ANDROID.in(m) || Marker.IPHONE.in(m)) {
+            return DEVICE_TYPE_MOBILE;
         }
 
         // Desktop par défaut
@@ -155,8 +260,6 @@ public class DeviceInfoExtractorServiceImpl {
         if (userAgent == null || userAgent.isEmpty()) {
             return "Unknown";
         }
-
-        String browser = extractBrowser(userAgent);
-        return browser.replace(" Mobile", "");
+        return parse(userAgent).browserName();
     }
 }
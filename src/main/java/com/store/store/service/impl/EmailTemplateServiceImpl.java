@@ -0,0 +1,206 @@
+package com.store.store.service.impl;
+
+import com.store.store.exception.ExceptionFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Templates email précompilés.
+ * Chaque template HTML ({@code templates/mail/<nom>.html}) est lu et découpé une seule fois par langue
+ * en segments littéraux + emplacements de variables ; un envoi ne fait plus qu'ajouter ces segments
+ * dans un tampon réutilisé par thread, au lieu de re-parser ~10 Ko de HTML avec {@code String.format}.
+ *
+ * <p>Syntaxe des templates :</p>
+ * <ul>
+ *   <li>{@code #{cle.message}} : texte localisé via {@link MessageServiceImpl}, résolu à la compilation
+ *       (non échappé : les messages peuvent contenir du balisage simple comme {@code <strong>})</li>
+ *   <li>{@code {{variable}}} : valeur fournie au rendu, échappée HTML</li>
+ * </ul>
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-01
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmailTemplateServiceImpl {
+
+    static final String TEMPLATE_LOCATION = "templates/mail/";
+    static final String TEMPLATE_SUFFIX = ".html";
+
+    // Au-delà, le tampon n'est pas conservé pour ne pas épingler de grosses chaînes par thread
+    private static final int INITIAL_BUFFER_CAPACITY = 16 * 1024;
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 256 * 1024;
+
+    private static final ThreadLocal<StringBuilder> RENDER_BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    private final MessageServiceImpl messageService;
+    private final ExceptionFactory exceptionFactory;
+
+    // Clé = nom du template + langue (la locale est réduite à la langue pour borner le cache)
+    private final ConcurrentMap<TemplateKey, CompiledTemplate> compiledTemplates = new ConcurrentHashMap<>();
+
+    /**
+     * Rend un template pour la langue donnée.
+     *
+     * @param templateName nom du fichier sans extension (ex. {@code security-alert})
+     * @param locale       locale du destinataire
+     * @param variables    valeurs des emplacements {@code {{variable}}} (échappées HTML)
+     * @return le HTML final
+     */
+    public String render(String templateName, Locale locale, Map<String, String> variables) {
+        CompiledTemplate template = compiledTemplates.computeIfAbsent(
+                new TemplateKey(templateName, languageOf(locale)), this::compile);
+
+        StringBuilder buffer = RENDER_BUFFER.get();
+        buffer.setLength(0);
+        try {
+            template.renderInto(buffer, variables);
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+                RENDER_BUFFER.remove();
+            }
+        }
+    }
+
+    /**
+     * Texte localisé hors template (sujets {@code mail.*.subject}, libellés).
+     */
+    public String message(String messageCode, Locale locale, Object... args) {
+        return messageService.getMessageForLocale(messageCode, languageOf(locale), args);
+    }
+
+    int compiledTemplateCount() {
+        return compiledTemplates.size();
+    }
+
+    // COMPILATION
+
+    private CompiledTemplate compile(TemplateKey key) {
+        String source = loadSource(key.name());
+        CompiledTemplate template = CompiledTemplate.parse(source,
+                code -> messageService.getMessageForLocale(code, key.language()));
+
+        log.info("Email template '{}' compiled for locale '{}': {} segments, {} variables",
+                key.name(), key.language(), template.literals().length, template.variables().length);
+        return template;
+    }
+
+    private String loadSource(String templateName) {
+        ClassPathResource resource = new ClassPathResource(TEMPLATE_LOCATION + templateName + TEMPLATE_SUFFIX);
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw exceptionFactory.configurationError("Email template not found: " + resource.getPath(), e);
+        }
+    }
+
+    private static Locale languageOf(Locale locale) {
+        return locale == null ? Locale.FRENCH : Locale.of(locale.getLanguage());
+    }
+
+    private record TemplateKey(String name, Locale language) {
+    }
+
+    /**
+     * Template découpé : {@code literals[i]} puis la variable {@code variables[i]}, ..., puis le dernier littéral.
+     * Invariant : {@code literals.length == variables.length + 1}.
+     */
+    record CompiledTemplate(String[] literals, String[] variables) {
+
+        private static final String MESSAGE_OPEN = "#{";
+        private static final String MESSAGE_CLOSE = "}";
+        private static final String VARIABLE_OPEN = "{{";
+        private static final String VARIABLE_CLOSE = "}}";
+
+        static CompiledTemplate parse(String source, Function<String, String> messageResolver) {
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            StringBuilder literal = new StringBuilder(source.length());
+
+            int pos = 0;
+            while (pos < source.length()) {
+                int message = source.indexOf(MESSAGE_OPEN, pos);
+                int variable = source.indexOf(VARIABLE_OPEN, pos);
+                int next = nearest(message, variable);
+                if (next < 0) {
+                    literal.append(source, pos, source.length());
+                    break;
+                }
+                literal.append(source, pos, next);
+
+                if (next == message) {
+                    int end = requireClose(source, MESSAGE_CLOSE, next + MESSAGE_OPEN.length());
+                    // Texte localisé figé dans le littéral : aucun coût au rendu
+                    literal.append(messageResolver.apply(source.substring(next + MESSAGE_OPEN.length(), end).trim()));
+                    pos = end + MESSAGE_CLOSE.length();
+                } else {
+                    int end = requireClose(source, VARIABLE_CLOSE, next + VARIABLE_OPEN.length());
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    variables.add(source.substring(next + VARIABLE_OPEN.length(), end).trim());
+                    pos = end + VARIABLE_CLOSE.length();
+                }
+            }
+            literals.add(literal.toString());
+
+            return new CompiledTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new));
+        }
+
+        void renderInto(StringBuilder out, Map<String, String> values) {
+            for (int i = 0; i < variables.length; i++) {
+                out.append(literals[i]);
+                String value = values.get(variables[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing email template variable: " + variables[i]);
+                }
+                appendHtmlEscaped(out, value);
+            }
+            out.append(literals[variables.length]);
+        }
+
+        private static int nearest(int a, int b) {
+            if (a < 0) return b;
+            if (b < 0) return a;
+            return Math.min(a, b);
+        }
+
+        private static int requireClose(String source, String close, int from) {
+            int end = source.indexOf(close, from);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + from);
+            }
+            return end;
+        }
+
+        static void appendHtmlEscaped(StringBuilder out, String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '<' -> out.append("&lt;");
+                    case '>' -> out.append("&gt;");
+                    case '&' -> out.append("&amp;");
+                    case '"' -> out.append("&quot;");
+                    case '\'' -> out.append("&#39;");
+                    default -> out.append(c);
+                }
+            }
+        }
+    }
+}
@@ -1,103 +1,583 @@
 package com.store.store.service.impl;
 
+import com.store.store.entity.StoredImage;
+import com.store.store.enums.ImageVariant;
 import com.store.store.exception.ExceptionFactory;
 import com.store.store.exception.FileStorageException;
+import com.store.store.repository.StoredImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
-
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Stockage des images produit, adressé par contenu.
+ *
+ * - Le format réel est reconnu sur les premiers octets (signature), jamais d'après le type MIME du client
+ * - Le SHA-256 est calculé pendant la copie de l'upload (un seul passage sur le flux)
+ * - Uploads multiples : préparation (copie, empreinte) en parallèle hors transaction, puis
+ *   références et mise en place dans une transaction courte ({@link #stageImages}, {@link #commitStagedImage})
+ * - Le fichier est nommé par son empreinte et réparti en sous-répertoires :
+ *   {@code /uploads/images/ab/cd/abcd...ef.jpg}
+ * - Un contenu déjà présent n'est pas réécrit : les doublons ne coûtent aucun octet disque
+ * - Chaque utilisation (image principale, galerie) compte une référence ({@link StoredImage#getRefCount()}) ;
+ *   un contenu sans référence est purgé après un délai de grâce ({@link #purgeUnreferencedImages()})
+ * - Une URL désigne toujours le même contenu : elle peut être mise en cache indéfiniment
+ * - Les déclinaisons ({@link ImageVariant}) sont rangées à côté de l'original :
+ *   {@code abcd...ef_thumb.jpg}, générées en arrière-plan par {@link ImageVariantServiceImpl}
+ *
+ * Les anciennes URL ({@code /uploads/products/main|gallery/...}) restent servies et supprimables.
+ *
+ * @author Kardigué
+ * @version 2.1 - Reconnaissance du format, uploads parallèles
+ * @since 2025-01-06
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FileStorageServiceImpl {
 
+    static final String UPLOADS_URL_PREFIX = "/uploads/";
+    static final String IMAGES_URL_PREFIX = "/uploads/images/";
+    static final String VARIANT_EXTENSION = "jpg";
+    private static final String IMAGES_DIRECTORY = "images";
+    private static final String TEMP_DIRECTORY = ".tmp";
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final HexFormat HEX = HexFormat.of();
+
     @Value("${store.file.directory}")
     private String uploadDir;
 
+    @Value("${store.file.content-store.unreferenced-grace:PT1H}")
+    private Duration unreferencedGrace;
+
+    @Value("${store.file.content-store.purge-batch-size:500}")
+    private int purgeBatchSize;
+
     private Path fileStorageLocation;
+    private Path imagesLocation;
+    private Path tempLocation;
     private final ExceptionFactory exceptionFactory;
     private final MessageServiceImpl messageService;
+    private final StoredImageRepository storedImageRepository;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Suppression des fichiers purgés, sous le verrou de l'empreinte (transaction propre, après le commit de la purge).
+     */
+    private TransactionTemplate purgedFilesTransaction;
+
+    private Counter newContentCounter;
+    private Counter deduplicatedCounter;
 
     private static final List<String> ALLOWED_EXTENSIONS = List.of("jpg", "jpeg", "png", "webp", "gif");
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024;
+    private static final int SNIFF_LENGTH = 12;
+
+    @Value("${store.file.upload.threads:4}")
+    private int uploadThreads;
+
+    @Value("${store.file.upload.queue-capacity:50}")
+    private int uploadQueueCapacity;
+
+    private ThreadPoolExecutor uploadExecutor;
+
+    /**
+     * Upload préparé (fichier temporaire + empreinte), pas encore référencé en base.
+     */
+    public record StagedImage(Path tempFile, String digest, String extension, String contentType, long size) {
+    }
+
+    /**
+     * Formats acceptés, reconnus par leur signature binaire.
+     */
+    private enum ImageFormat {
+        JPEG("jpg", "image/jpeg"),
+        PNG("png", "image/png"),
+        GIF("gif", "image/gif"),
+        WEBP("webp", "image/webp");
+
+        private final String extension;
+        private final String contentType;
+
+        ImageFormat(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        private static Optional<ImageFormat> sniff(byte[] h, int length) {
+            if (length >= 3 && (h[0] & 0xFF) == 0xFF && (h[1] & 0xFF) == 0xD8 && (h[2] & 0xFF) == 0xFF) {
+                return Optional.of(JPEG);
+            }
+            if (length >= 4 && (h[0] & 0xFF) == 0x89 && h[1] == 'P' && h[2] == 'N' && h[3] == 'G') {
+                return Optional.of(PNG);
+            }
+            if (length >= 4 && h[0] == 'G' && h[1] == 'I' && h[2] == 'F' && h[3] == '8') {
+                return Optional.of(GIF);
+            }
+            if (length >= 12 && h[0] == 'R' && h[1] == 'I' && h[2] == 'F' && h[3] == 'F'
+                    && h[8] == 'W' && h[9] == 'E' && h[10] == 'B' && h[11] == 'P') {
+                return Optional.of(WEBP);
+            }
+            return Optional.empty();
+        }
+    }
 
     @PostConstruct
     public void init() {
         try {
             this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
-            Path productsMainPath = fileStorageLocation.resolve("products").resolve("main");
-            Path productsGalleryPath = fileStorageLocation.resolve("products").resolve("gallery");
-
-            Files.createDirectories(productsMainPath);
-            Files.createDirectories(productsGalleryPath);
+            this.imagesLocation = fileStorageLocation.resolve(IMAGES_DIRECTORY);
+            // Fichiers temporaires sur le même volume : le déplacement final est atomique
+            this.tempLocation = imagesLocation.resolve(TEMP_DIRECTORY);
 
-            /*log.info("=================================================");
-            log.info("FILE STORAGE INITIALIZED");
-            log.info("Base: {}", this.fileStorageLocation);
-            log.info("Main: {}", productsMainPath);
-            log.info("Gallery: {}", productsGalleryPath);
-            log.info("=================================================");*/
+            Files.createDirectories(tempLocation);
 
         } catch (IOException e) {
             log.error("Failed to create storage directory: {}", uploadDir, e);
             throw new FileStorageException(messageService.getMessage("error.file.storage.init.failed", uploadDir), e);
         }
+
+        this.purgedFilesTransaction = new TransactionTemplate(transactionManager);
+        this.purgedFilesTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.newContentCounter = Counter.builder("store.images.stored")
+                .tag("result", "new")
+                .description("Uploaded images by storage outcome")
+                .register(meterRegistry);
+        this.deduplicatedCounter = Counter.builder("store.images.stored")
+                .tag("result", "deduplicated")
+                .description("Uploaded images by storage outcome")
+                .register(meterRegistry);
+
+        // Uploads multiples : fichiers préparés en parallèle ; file pleine → le thread appelant prépare lui-même
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.uploadExecutor = new ThreadPoolExecutor(
+                uploadThreads, uploadThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(uploadQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        Gauge.builder("store.images.upload.queue", uploadExecutor, e -> e.getQueue().size())
+                .description("Uploaded images waiting to be staged")
+                .register(meterRegistry);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (uploadExecutor != null) {
+            uploadExecutor.shutdownNow();
+        }
+    }
+
+    @Transactional
     public String storeGalleryImage(MultipartFile file) throws IOException {
-        validateFile(file);
-        String fileExtension = getFileExtension(file.getOriginalFilename());
-        String fileName = generateUniqueFileName(fileExtension, "product");
+        return storeImage(file);
+    }
+
+    @Transactional
+    public String storeProductImage(MultipartFile file) throws IOException {
+        return storeImage(file);
+    }
 
-        Path targetLocation = this.fileStorageLocation.resolve("products").resolve("gallery").resolve(fileName);
+    /**
+     * Stocke une image (ou réutilise le contenu identique déjà présent) et ajoute une référence.
+     *
+     * @return URL immuable de l'image
+     */
+    @Transactional
+    public String storeImage(MultipartFile file) throws IOException {
+        StagedImage staged = stageImage(file);
+        try {
+            return commitStagedImage(staged);
+        } finally {
+            discard(staged);
+        }
+    }
+
+    /**
+     * Prépare plusieurs images en parallèle sur l'exécuteur d'upload, sans aucun accès base :
+     * validation, reconnaissance du format, copie en fichier temporaire et empreinte.
+     * Si une image échoue, les fichiers temporaires déjà écrits sont supprimés et l'erreur est propagée.
+     *
+     * @return les images préparées, dans l'ordre des fichiers reçus
+     */
+    public List<StagedImage> stageImages(List<MultipartFile> files) throws IOException {
+        List<Future<StagedImage>> futures = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            futures.add(uploadExecutor.submit(() -> stageImage(file)));
+        }
 
-        Files.createDirectories(targetLocation.getParent());
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        List<StagedImage> staged = new ArrayList<>(files.size());
+        Throwable failure = null;
+        for (Future<StagedImage> future : futures) {
+            try {
+                staged.add(future.get());
+            } catch (ExecutionException e) {
+                failure = failure == null ? e.getCause() : failure;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = failure == null ? e : failure;
+            }
+        }
 
-        log.info("GALLERY image stored: {}", fileName);
-        return String.format("/uploads/products/gallery/%s", fileName);
+        if (failure != null) {
+            staged.forEach(this::discard);
+            if (failure instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw exceptionFactory.fileStorageError("Image upload interrupted", failure);
+        }
+        return staged;
     }
 
-    public String storeProductImage(MultipartFile file) throws IOException {
+    /**
+     * Valide l'upload et le copie en fichier temporaire en un seul passage sur le flux :
+     * les premiers octets déterminent le format réel (le type MIME et l'extension du client sont ignorés),
+     * le SHA-256 est calculé pendant la copie. Aucun accès base.
+     */
+    public StagedImage stageImage(MultipartFile file) throws IOException {
         validateFile(file);
-        String fileExtension = getFileExtension(file.getOriginalFilename());
-        String fileName = generateUniqueFileName(fileExtension, "product");
 
-        Path targetLocation = this.fileStorageLocation.resolve("products").resolve("main").resolve(fileName);
+        try (BufferedInputStream in = new BufferedInputStream(file.getInputStream())) {
+            ImageFormat format = sniffFormat(in)
+                    .orElseThrow(() -> exceptionFactory.validationError("file", messageService.getMessage("error.file.not.image")));
+
+            Path tempFile = Files.createTempFile(tempLocation, "upload-", ".tmp");
+            try {
+                MessageDigest sha256 = newSha256();
+                long size = Files.copy(new DigestInputStream(in, sha256), tempFile, StandardCopyOption.REPLACE_EXISTING);
+                return new StagedImage(tempFile, HEX.formatHex(sha256.digest()), format.extension, format.contentType, size);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(tempFile);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Référence en base puis mise en place du fichier préparé (à appeler dans la transaction
+     * qui enregistre l'URL : l'URL n'est validée qu'une fois le fichier en place).
+     *
+     * @return URL immuable de l'image
+     */
+    @Transactional
+    public String commitStagedImage(StagedImage staged) throws IOException {
+        String digest = staged.digest();
+
+        // 1. Référence en base (verrouille la ligne jusqu'au commit : aucune purge concurrente possible)
+        // MySQL : 1 ligne affectée = insertion, 2 = référence ajoutée à une ligne existante
+        int affected = storedImageRepository.acquireReference(
+                digest, staged.extension(), staged.contentType(), staged.size());
+        boolean newContent = affected == 1;
+        String storedExtension = storedImageRepository.findExtensionByDigest(digest).orElse(staged.extension());
+
+        // 2. Fichier : écrit seulement si ce contenu n'existe pas encore. Pour une nouvelle ligne, un fichier
+        // présent peut être celui d'une purge qui va le supprimer : il est remplacé, jamais réutilisé
+        Path target = resolveContentPath(digest, storedExtension);
+        if (!newContent && Files.exists(target)) {
+            // Date rafraîchie : le ramasse-miettes ne supprime jamais un contenu tout juste réutilisé
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            deduplicatedCounter.increment();
+            log.info("Image deduplicated: {} ({} bytes already stored)", digest, staged.size());
+        } else {
+            Files.createDirectories(target.getParent());
+            moveIntoPlace(staged.tempFile(), target);
+            newContentCounter.increment();
+            log.info("Image stored: {} ({} bytes)", digest, staged.size());
+        }
+
+        return toUrl(digest, storedExtension);
+    }
 
-        Files.createDirectories(targetLocation.getParent());
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Supprime le fichier temporaire d'une image préparée (sans effet s'il a été mis en place).
+     */
+    public void discard(StagedImage staged) {
+        try {
+            Files.deleteIfExists(staged.tempFile());
+        } catch (IOException e) {
+            log.warn("Failed to delete staged upload {}: {}", staged.tempFile(), e.getMessage());
+        }
+    }
 
-        log.info("MAIN image stored: {}", fileName);
-        return String.format("/uploads/products/main/%s", fileName);
+    /**
+     * Ajoute une référence vers une image déjà stockée (URL réaffectée sans nouvel upload).
+     * Sans effet pour une ancienne URL.
+     */
+    @Transactional
+    public void retainImage(String imageUrl) {
+        contentDigest(imageUrl).ifPresent(digest -> {
+            if (storedImageRepository.addReference(digest) == 0) {
+                log.warn("Image reference not added, unknown content: {}", imageUrl);
+            }
+        });
     }
 
+    /**
+     * Retire une référence vers l'image. Le fichier adressé par contenu n'est supprimé
+     * qu'à la purge, une fois sans référence au-delà du délai de grâce.
+     */
+    @Transactional
     public void deleteProductImage(String imageUrl) {
 
         if (imageUrl == null || imageUrl.isEmpty()) {return;}
 
+        String fileName = extractFileNameFromUrl(imageUrl);
+
+        if (imageUrl.contains(IMAGES_URL_PREFIX)) {
+            String digest = stripExtension(fileName);
+            if (!DIGEST_PATTERN.matcher(digest).matches()) {
+                log.warn("Security: invalid content-addressed image URL ignored: {}", imageUrl);
+                return;
+            }
+            int released = storedImageRepository.releaseReference(digest, Instant.now());
+            log.info("Image reference released: {} ({})", digest, released > 0 ? "ok" : "no reference");
+            return;
+        }
+
+        deleteLegacyImage(imageUrl, fileName);
+    }
+
+    /**
+     * Supprime les contenus restés sans référence au-delà du délai de grâce (un lot par appel).
+     *
+     * Lignes supprimées dans la transaction, fichiers après son commit : une transaction annulée
+     * ne laisse jamais une ligne (donc une URL réutilisable) sans son fichier. Un fichier qui n'a pas pu
+     * être supprimé n'a plus de ligne : le ramasse-miettes des orphelins le récupère.
+     *
+     * @return nombre d'images purgées
+     */
+    @Transactional
+    public int purgeUnreferencedImages() {
+        Instant cutoff = Instant.now().minus(unreferencedGrace);
+        List<StoredImage> candidates = storedImageRepository.findUnreferencedForUpdate(
+                cutoff, PageRequest.of(0, purgeBatchSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        storedImageRepository.deleteAll(candidates);
+        List<StoredImage> purged = List.copyOf(candidates);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    purged.forEach(FileStorageServiceImpl.this::deletePurgedFiles);
+                }
+            });
+        } else {
+            purged.forEach(this::deletePurgedFiles);
+        }
+
+        log.info("Purged {} unreferenced images (unreferenced since before {})", purged.size(), cutoff);
+        return purged.size();
+    }
+
+    /**
+     * Supprime les fichiers d'une image purgée, sous le verrou de son empreinte.
+     *
+     * Le verrou attend un upload concurrent du même contenu (ligne insérée, pas encore validée) puis voit
+     * sa ligne : le fichier est conservé. Sans ligne, le verrou d'intervalle bloque toute insertion
+     * de l'empreinte jusqu'à la fin de la suppression : un upload ne peut pas réutiliser un fichier supprimé.
+     */
+    private void deletePurgedFiles(StoredImage image) {
+        purgedFilesTransaction.executeWithoutResult(status -> {
+            if (storedImageRepository.lockDigest(image.getDigest()).isPresent()) {
+                // Même contenu ré-uploadé depuis le commit : le fichier est de nouveau utilisé
+                return;
+            }
+            try {
+                for (ImageVariant variant : ImageVariant.values()) {
+                    Files.deleteIfExists(resolveVariantPath(image.getDigest(), variant));
+                }
+                Files.deleteIfExists(resolveContentPath(image.getDigest(), image.getExtension()));
+            } catch (IOException e) {
+                log.error("Failed to delete files of purged image {}: {}", image.getDigest(), e.getMessage());
+            }
+        });
+    }
+
+    // MÉTHODES PRIVÉES - STOCKAGE ADRESSÉ PAR CONTENU
+
+    /**
+     * {@code images/ab/cd/<digest>.<ext>} : deux niveaux de 256 répertoires, jamais d'énormes répertoires plats.
+     */
+    Path resolveContentPath(String digest, String extension) {
+        return imagesLocation
+                .resolve(digest.substring(0, 2))
+                .resolve(digest.substring(2, 4))
+                .resolve(digest + "." + extension);
+    }
+
+    /**
+     * {@code images/ab/cd/<digest>_<variant>.jpg} : à côté de l'original, purgée avec lui.
+     */
+    Path resolveVariantPath(String digest, ImageVariant variant) {
+        return resolveContentPath(digest + "_" + variant.key(), VARIANT_EXTENSION);
+    }
+
+    /**
+     * @return le fichier original d'une URL adressée par contenu, vide pour une ancienne URL ou une URL invalide
+     */
+    Optional<Path> resolveStoredImage(String imageUrl) {
+        return contentDigest(imageUrl).map(digest -> resolveContentPath(digest, getFileExtension(imageUrl)));
+    }
+
+    /**
+     * Résout une URL d'upload (adressée par contenu ou ancienne) vers son fichier sous store.file.directory.
+     *
+     * @return le chemin du fichier, vide pour une URL externe ou hors du répertoire d'upload
+     */
+    public Optional<Path> resolveUploadedFile(String imageUrl) {
+        if (imageUrl == null) {
+            return Optional.empty();
+        }
+        int uploadsIndex = imageUrl.indexOf(UPLOADS_URL_PREFIX);
+        if (uploadsIndex < 0) {
+            return Optional.empty();
+        }
+        Path path = fileStorageLocation.resolve(imageUrl.substring(uploadsIndex + UPLOADS_URL_PREFIX.length())).normalize();
+        if (!path.startsWith(fileStorageLocation) || path.startsWith(tempLocation)) {
+            log.warn("Security: Path traversal attempt blocked: {}", imageUrl);
+            return Optional.empty();
+        }
+        return Optional.of(path);
+    }
+
+    /**
+     * @return l'empreinte SHA-256 d'une URL adressée par contenu, vide sinon
+     */
+    static Optional<String> contentDigest(String imageUrl) {
+        if (imageUrl == null || !imageUrl.contains(IMAGES_URL_PREFIX)) {
+            return Optional.empty();
+        }
+        String fileName = imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+        String digest = stripExtension(fileName);
+        return DIGEST_PATTERN.matcher(digest).matches() ? Optional.of(digest) : Optional.empty();
+    }
+
+    /**
+     * URL des déclinaisons d'une image adressée par contenu (calculées, aucun accès disque).
+     *
+     * @return clé de la déclinaison ("thumb", "card", "detail") → URL, vide pour une ancienne URL
+     */
+    public static Map<String, String> variantUrls(String imageUrl) {
+        Optional<String> digest = contentDigest(imageUrl);
+        if (digest.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            urls.put(variant.key(), toUrl(digest.get() + "_" + variant.key(), VARIANT_EXTENSION));
+        }
+        return urls;
+    }
+
+    /**
+     * Fichier temporaire sur le volume des images (déplacement final atomique).
+     */
+    Path createTempFile(String prefix) throws IOException {
+        return Files.createTempFile(tempLocation, prefix, ".tmp");
+    }
+
+    // Racines parcourues par le ramasse-miettes
+
+    Path storageRoot() {
+        return fileStorageLocation;
+    }
+
+    Path imagesRoot() {
+        return imagesLocation;
+    }
+
+    Path tempRoot() {
+        return tempLocation;
+    }
+
+    static boolean isDigest(String value) {
+        return DIGEST_PATTERN.matcher(value).matches();
+    }
+
+    private static String toUrl(String digest, String extension) {
+        return IMAGES_URL_PREFIX + digest.substring(0, 2) + "/" + digest.substring(2, 4) + "/" + digest + "." + extension;
+    }
+
+    void moveIntoPlace(Path tempFile, Path target) throws IOException {
         try {
-            String fileName = extractFileNameFromUrl(imageUrl);
-            String subFolder = imageUrl.contains("/gallery/") ? "gallery" : "main";
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Même contenu écrit entre-temps : le fichier existant est identique
+            log.debug("Content already in place: {}", target);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
 
-            log.info("File name: {}", fileName);
-            log.info("Subfolder: {}", subFolder);
+    private MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw exceptionFactory.fileStorageError("SHA-256 not available", e);
+        }
+    }
 
-            Path filePath = this.fileStorageLocation.resolve("products").resolve(subFolder).resolve(fileName).normalize();
+    // MÉTHODES PRIVÉES - ANCIENNES URL (products/main, products/gallery)
+
+    private void deleteLegacyImage(String imageUrl, String fileName) {
+        try {
+            String subFolder = imageUrl.contains("/gallery/") ? "gallery" : "main";
 
-            log.info("Full path: {}", filePath);
-            log.info("Exists: {}", Files.exists(filePath));
+            Path filePath = this.fileStorageLocation.resolve("products").resolve(subFolder).resolve(fileName).normalize();
 
             if (!filePath.startsWith(this.fileStorageLocation)) {
                 log.warn("Security: Path traversal attempt blocked");
@@ -106,16 +586,19 @@ public class FileStorageServiceImpl {
 
             if (Files.exists(filePath)) {
                 Files.delete(filePath);
-                log.info("Image deleted successfully");
+                log.info("Legacy image deleted successfully: {}", filePath);
             } else {
-                log.warn(" File not found");
+                log.warn(" File not found: {}", filePath);
             }
 
         } catch (IOException e) {
-            log.error("Delete failed: {}", e.getMessage());
+            // Fichier laissé au ramasse-miettes (OrphanImageCollectorServiceImpl)
+            log.error("Delete failed, left for orphan collection: {}", e.getMessage());
         }
     }
 
+    // MÉTHODES PRIVÉES - VALIDATION
+
     private void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw exceptionFactory.validationError("file", messageService.getMessage("error.file.empty"));
@@ -127,14 +610,17 @@ public class FileStorageServiceImpl {
         if (!ALLOWED_EXTENSIONS.contains(extension.toLowerCase())) {
             throw exceptionFactory.validationError("file", messageService.getMessage("error.file.invalid.extension", String.join(", ", ALLOWED_EXTENSIONS)));
         }
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            throw exceptionFactory.validationError("file", messageService.getMessage("error.file.not.image"));
-        }
     }
 
-    private String generateUniqueFileName(String extension, String prefix) {
-        return String.format("%s_%s.%s", prefix, UUID.randomUUID(), extension.toLowerCase());
+    /**
+     * Reconnaît le format d'après la signature des premiers octets, puis rembobine le flux.
+     */
+    private static Optional<ImageFormat> sniffFormat(BufferedInputStream in) throws IOException {
+        byte[] header = new byte[SNIFF_LENGTH];
+        in.mark(SNIFF_LENGTH);
+        int length = in.readNBytes(header, 0, SNIFF_LENGTH);
+        in.reset();
+        return ImageFormat.sniff(header, length);
     }
 
     private String getFileExtension(String fileName) {
@@ -143,6 +629,11 @@ public class FileStorageServiceImpl {
         return (dotIndex > 0 && dotIndex < fileName.length() - 1) ? fileName.substring(dotIndex + 1).toLowerCase() : "jpg";
     }
 
+    private static String stripExtension(String fileName) {
+        int dotIndex = fileName.lastIndexOf(".");
+        return dotIndex > 0 ? fileName.substring(0, dotIndex) : fileName;
+    }
+
     private String extractFileNameFromUrl(String imageUrl) {
         // Gérer URL complète
         if (imageUrl.startsWith("http")) {
@@ -156,4 +647,4 @@ public class FileStorageServiceImpl {
         int lastSlash = imageUrl.lastIndexOf("/");
         return lastSlash >= 0 ? imageUrl.substring(lastSlash + 1) : imageUrl;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,342 @@
+package com.store.store.service.impl;
+
+import com.store.store.enums.ImageVariant;
+import com.store.store.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Génération des déclinaisons d'image produit ({@link ImageVariant}) en arrière-plan.
+ *
+ * - Déclenchée après le commit de l'upload : la requête HTTP ne paie jamais le redimensionnement
+ * - Exécuteur dédié et borné : au-delà de la file, la génération est abandonnée (le produit garde
+ *   son image originale) plutôt que d'accumuler des images décodées en mémoire
+ * - Java pur (ImageIO + Java2D) : réduction progressive par moitiés puis bilinéaire, JPEG à qualité réglable
+ * - Idempotente : une déclinaison déjà présente n'est pas régénérée (contenu dédupliqué, nouvel essai)
+ * - Une fois les fichiers en place, les produits utilisant l'image sont marqués
+ *   ({@code image_variants_ready}) et leurs entrées de cache évincées ; une demande arrivée pendant
+ *   le traitement (autre produit, même contenu) entraîne une passe de plus pour marquer ce produit
+ *
+ * Métriques : store.images.variants (timer), store.images.variants.result (counter, tag result),
+ * store.images.variants.queue (gauge).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Service
+public class ImageVariantServiceImpl implements DisposableBean {
+
+    private static final List<String> LIST_CACHES = List.of("products", "productsByCategory");
+
+    private final FileStorageServiceImpl fileStorageService;
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+
+    private final boolean enabled;
+    private final float jpegQuality;
+    private final long maxSourcePixels;
+    private final ThreadPoolExecutor executor;
+
+    // Empreintes en file ou en cours : un même contenu n'est traité qu'une fois à la fois.
+    // Valeur = nouvelle passe demandée pendant le traitement (produit enregistré après markReady)
+    private final Map<String, Boolean> inFlight = new ConcurrentHashMap<>();
+
+    private final Timer generationTimer;
+    private final Counter generatedCounter;
+    private final Counter failedCounter;
+    private final Counter rejectedCounter;
+
+    public ImageVariantServiceImpl(
+            FileStorageServiceImpl fileStorageService,
+            ProductRepository productRepository,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${store.file.variants.enabled:true}") boolean enabled,
+            @Value("${store.file.variants.threads:2}") int threads,
+            @Value("${store.file.variants.queue-capacity:200}") int queueCapacity,
+            @Value("${store.file.variants.jpeg-quality:0.82}") float jpegQuality,
+            @Value("${store.file.variants.max-source-pixels:40000000}") long maxSourcePixels) {
+
+        this.fileStorageService = fileStorageService;
+        this.productRepository = productRepository;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+        this.jpegQuality = jpegQuality;
+        this.maxSourcePixels = maxSourcePixels;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.generationTimer = Timer.builder("store.images.variants")
+                .description("Durée de génération des déclinaisons d'une image")
+                .register(meterRegistry);
+        this.generatedCounter = resultCounter(meterRegistry, "generated");
+        this.failedCounter = resultCounter(meterRegistry, "failed");
+        this.rejectedCounter = resultCounter(meterRegistry, "rejected");
+        Gauge.builder("store.images.variants.queue", executor, e -> e.getQueue().size())
+                .description("Images en attente de déclinaison")
+                .register(meterRegistry);
+
+        log.info("Image variant pipeline configured: enabled={}, threads={}, queueCapacity={}, jpegQuality={}",
+                enabled, threads, queueCapacity, jpegQuality);
+    }
+
+    /**
+     * Planifie la génération des déclinaisons d'une image adressée par contenu.
+     * Dans une transaction, la tâche ne part qu'après le commit (fichier et références visibles).
+     * Les anciennes URL ({@code /uploads/products/...}) sont ignorées.
+     */
+    public void scheduleVariants(String imageUrl) {
+        if (!enabled || FileStorageServiceImpl.contentDigest(imageUrl).isEmpty()) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(imageUrl);
+                }
+            });
+        } else {
+            submit(imageUrl);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    // GÉNÉRATION
+
+    /**
+     * Génère les déclinaisons manquantes puis marque les produits concernés.
+     *
+     * @return true si toutes les déclinaisons sont en place
+     */
+    boolean generateVariants(String imageUrl) {
+        Optional<String> digest = FileStorageServiceImpl.contentDigest(imageUrl);
+        Optional<Path> original = fileStorageService.resolveStoredImage(imageUrl);
+        if (digest.isEmpty() || original.isEmpty() || !Files.exists(original.get())) {
+            log.warn("Image variants skipped, original not found: {}", imageUrl);
+            failedCounter.increment();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            BufferedImage source = null;
+            for (ImageVariant variant : ImageVariant.values()) {
+                Path target = fileStorageService.resolveVariantPath(digest.get(), variant);
+                if (Files.exists(target)) {
+                    continue;
+                }
+                if (source == null) {
+                    source = readImage(original.get());
+                }
+                writeVariant(resize(source, variant.maxDimension()), target);
+            }
+
+            markReady(imageUrl);
+            generatedCounter.increment();
+            log.info("Image variants ready: {}", digest.get());
+            return true;
+
+        } catch (IOException | RuntimeException e) {
+            failedCounter.increment();
+            log.error("Image variant generation failed for {}: {}", imageUrl, e.getMessage());
+            return false;
+
+        } finally {
+            generationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Lecture avec garde sur les dimensions annoncées : une image piégée (quelques Ko compressés,
+     * des centaines de millions de pixels) est refusée avant d'être décodée.
+     */
+    private BufferedImage readImage(Path original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + original.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    throw new IOException("Image too large to process: " + pixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Réduction par moitiés successives (qualité proche du bicubique pour un coût bilinéaire),
+     * puis dernier pas à la taille exacte. Fond blanc : le JPEG n'a pas de transparence.
+     */
+    static BufferedImage resize(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void writeVariant(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+
+        Path tempFile = fileStorageService.createTempFile("variant-");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(tempFile.toFile())) {
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.createDirectories(target.getParent());
+            fileStorageService.moveIntoPlace(tempFile, target);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void markReady(String imageUrl) {
+        List<Long> productIds = productRepository.findIdsByImageUrl(imageUrl);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        productRepository.markImageVariantsReady(imageUrl);
+
+        Cache productCache = cacheManager.getCache("product");
+        if (productCache != null) {
+            productIds.forEach(productCache::evict);
+        }
+        LIST_CACHES.stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+    }
+
+    // MÉTHODES PRIVÉES
+
+    private void submit(String imageUrl) {
+        String digest = FileStorageServiceImpl.contentDigest(imageUrl).orElseThrow();
+        if (inFlight.compute(digest, (key, current) -> current != null)) {
+            log.debug("Image variants already scheduled, one more pass requested: {}", digest);
+            return;
+        }
+        execute(imageUrl, digest);
+    }
+
+    private void execute(String imageUrl, String digest) {
+        try {
+            executor.execute(() -> {
+                try {
+                    generateVariants(imageUrl);
+                } finally {
+                    // Passe demandée entre-temps : déclinaisons déjà en place, elle ne fait que marquer les produits
+                    if (inFlight.computeIfPresent(digest, (key, rerun) -> rerun ? Boolean.FALSE : null) != null) {
+                        execute(imageUrl, digest);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(digest);
+            rejectedCounter.increment();
+            log.warn("Image variant executor saturated (queue: {}) - {} keeps its original only",
+                    executor.getQueue().size(), imageUrl);
+        }
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("store.images.variants.result")
+                .description("Générations de déclinaisons par résultat")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory namedThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "image-variants-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
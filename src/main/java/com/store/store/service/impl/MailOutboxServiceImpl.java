@@ -0,0 +1,341 @@
+package com.store.store.service.impl;
+
+import com.store.store.entity.MailOutbox;
+import com.store.store.enums.MailOutboxStatus;
+import com.store.store.repository.MailOutboxRepository;
+import com.store.store.service.IMailOutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox durable des emails et dispatcher par lots.
+ *
+ * - {@link #enqueue} : simple INSERT, ne bloque jamais sur SMTP et ne peut pas être rejeté par un pool saturé ;
+ *   transaction propre : l'alerte survit à l'annulation de l'opération appelante (ex. réutilisation de
+ *   refresh token détectée puis rejetée) et un échec d'insertion ne condamne pas la transaction appelante
+ * - {@link #dispatchPending} : réserve un lot (FOR UPDATE SKIP LOCKED, transaction courte),
+ *   l'envoie sur UNE connexion SMTP ({@code JavaMailSender.send(MimeMessage...)}), puis enregistre
+ *   les résultats dans une seconde transaction courte
+ * - Nouvel essai avec backoff exponentiel plafonné ; FAILED après le nombre maximal d'essais
+ * - Débit plafonné (emails/seconde) pour respecter les quotas du fournisseur SMTP
+ *
+ * Métriques : store.mail.outbox.pending (gauge), store.mail.outbox.latency (création → envoi),
+ * store.mail.outbox.batch (durée SMTP d'un lot), store.mail.outbox.sent / retried / failed.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-19
+ */
+@Slf4j
+@Service
+public class MailOutboxServiceImpl implements IMailOutboxService {
+
+    private static final Set<MailOutboxStatus> DUE_STATUSES = Set.of(MailOutboxStatus.PENDING, MailOutboxStatus.SENDING);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final Timer latencyTimer;
+    private final Timer batchTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+
+    @Value("${store.mail.outbox.from:${store.security.alert.from-email:}}")
+    private String from;
+
+    @Value("${store.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${store.mail.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${store.mail.outbox.rate-per-second:10}")
+    private double ratePerSecond;
+
+    @Value("${store.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${store.mail.outbox.initial-backoff:PT30S}")
+    private Duration initialBackoff;
+
+    @Value("${store.mail.outbox.max-backoff:PT1H}")
+    private Duration maxBackoff;
+
+    @Value("${store.mail.outbox.claim-lease:PT5M}")
+    private Duration claimLease;
+
+    @Value("${store.mail.outbox.sent-retention:P7D}")
+    private Duration sentRetention;
+
+    public MailOutboxServiceImpl(MailOutboxRepository mailOutboxRepository,
+                                 JavaMailSender mailSender,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+
+        Gauge.builder("store.mail.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Emails en attente d'envoi dans l'outbox")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("store.mail.outbox.latency")
+                .description("Délai entre la mise en outbox et l'envoi effectif")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("store.mail.outbox.batch")
+                .description("Durée d'envoi SMTP d'un lot")
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("store.mail.outbox.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("store.mail.outbox.retried").register(meterRegistry);
+        this.failedCounter = Counter.builder("store.mail.outbox.failed").register(meterRegistry);
+    }
+
+    // MISE EN OUTBOX
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueue(String recipient, String subject, String htmlBody, String category) {
+        MailOutbox mail = MailOutbox.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .htmlBody(htmlBody)
+                .category(category)
+                .nextAttemptAt(Instant.now())
+                .build();
+
+        mailOutboxRepository.save(mail);
+        pendingCount.incrementAndGet();
+
+        log.debug("Mail queued in outbox: {} to {}", category, recipient);
+    }
+
+    // DISPATCH
+
+    @Override
+    public DispatchReport dispatchPending() {
+        int sent = 0;
+        int retried = 0;
+        int failed = 0;
+        int batches = 0;
+
+        while (batches < maxBatchesPerRun) {
+            List<MailOutbox> batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            batches++;
+
+            long start = System.nanoTime();
+            Map<Long, String> errors = sendBatch(batch);
+            long elapsedNanos = System.nanoTime() - start;
+            batchTimer.record(Duration.ofNanos(elapsedNanos));
+
+            int[] outcome = transactionTemplate.execute(status -> recordResults(batch, errors));
+            if (outcome != null) {
+                sent += outcome[0];
+                retried += outcome[1];
+                failed += outcome[2];
+            }
+
+            if (!pace(batch.size(), elapsedNanos)) {
+                break;
+            }
+        }
+
+        refreshPendingCount();
+        return new DispatchReport(sent, retried, failed, batches);
+    }
+
+    @Override
+    @Transactional
+    public int purgeSent() {
+        return mailOutboxRepository.deleteByStatusAndCreatedDateBefore(
+                MailOutboxStatus.SENT, Instant.now().minus(sentRetention));
+    }
+
+    // MÉTHODES PRIVÉES
+
+    /**
+     * Réserve un lot : statut SENDING et bail jusqu'à {@code now + claimLease}.
+     * Si l'instance meurt pendant l'envoi, le lot redevient échu à la fin du bail.
+     */
+    private List<MailOutbox> claimBatch() {
+        Instant now = Instant.now();
+        List<MailOutbox> batch = mailOutboxRepository.findDueForUpdate(DUE_STATUSES, now, PageRequest.of(0, batchSize));
+
+        for (MailOutbox mail : batch) {
+            mail.setStatus(MailOutboxStatus.SENDING);
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setNextAttemptAt(now.plus(claimLease));
+        }
+        return batch;
+    }
+
+    /**
+     * Envoie le lot sur une seule connexion SMTP.
+     * @return les erreurs par ID d'email (vide si tout le lot est parti)
+     */
+    private Map<Long, String> sendBatch(List<MailOutbox> batch) {
+        Map<Long, String> errors = new HashMap<>();
+        Map<MimeMessage, MailOutbox> messages = new LinkedHashMap<>();
+
+        for (MailOutbox mail : batch) {
+            try {
+                messages.put(toMimeMessage(mail), mail);
+            } catch (MessagingException e) {
+                errors.put(mail.getId(), "Invalid message: " + e.getMessage());
+            }
+        }
+
+        if (messages.isEmpty()) {
+            return errors;
+        }
+
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // Échecs partiels : seuls les messages listés ont échoué
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(mail -> errors.put(mail.getId(), e.getMessage()));
+            } else {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    MailOutbox mail = messages.get(message);
+                    if (mail != null) {
+                        errors.put(mail.getId(), cause.getMessage());
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // Connexion/authentification SMTP : tout le lot sera réessayé
+            log.warn("SMTP batch of {} mails failed: {}", messages.size(), e.getMessage());
+            messages.values().forEach(mail -> errors.put(mail.getId(), e.getMessage()));
+        }
+
+        return errors;
+    }
+
+    private int[] recordResults(List<MailOutbox> batch, Map<Long, String> errors) {
+        Instant now = Instant.now();
+        int sent = 0;
+        int retried = 0;
+        int failed = 0;
+
+        for (MailOutbox mail : batch) {
+            String error = errors.get(mail.getId());
+
+            if (error == null) {
+                mail.setStatus(MailOutboxStatus.SENT);
+                mail.setSentAt(now);
+                mail.setLastError(null);
+                if (mail.getCreatedDate() != null) {
+                    latencyTimer.record(Duration.between(mail.getCreatedDate(), now));
+                }
+                sentCounter.increment();
+                sent++;
+            } else if (mail.getAttempts() >= maxAttempts) {
+                mail.setStatus(MailOutboxStatus.FAILED);
+                mail.setLastError(truncate(error));
+                failedCounter.increment();
+                failed++;
+                log.error("Mail {} to {} permanently failed after {} attempts: {}",
+                        mail.getId(), mail.getRecipient(), mail.getAttempts(), error);
+            } else {
+                mail.setStatus(MailOutboxStatus.PENDING);
+                mail.setNextAttemptAt(now.plus(backoff(mail.getAttempts())));
+                mail.setLastError(truncate(error));
+                retriedCounter.increment();
+                retried++;
+            }
+        }
+
+        mailOutboxRepository.saveAll(batch);
+        return new int[] {sent, retried, failed};
+    }
+
+    private MimeMessage toMimeMessage(MailOutbox mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getHtmlBody(), true);
+        if (StringUtils.hasText(from)) {
+            helper.setFrom(from);
+        }
+        return message;
+    }
+
+    /**
+     * Backoff exponentiel : initial × 2^(essais - 1), plafonné.
+     */
+    Duration backoff(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = initialBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * Respecte le débit maximal : un lot de n emails occupe au moins n / rate secondes.
+     * @return false si le thread a été interrompu
+     */
+    private boolean pace(int sentInBatch, long elapsedNanos) {
+        if (ratePerSecond <= 0) {
+            return true;
+        }
+        long minimumNanos = (long) (sentInBatch / ratePerSecond * 1_000_000_000L);
+        long remainingMillis = (minimumNanos - elapsedNanos) / 1_000_000;
+        if (remainingMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(remainingMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void refreshPendingCount() {
+        try {
+            pendingCount.set(mailOutboxRepository.countByStatusIn(DUE_STATUSES));
+        } catch (Exception e) {
+            log.debug("Unable to refresh outbox pending count: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
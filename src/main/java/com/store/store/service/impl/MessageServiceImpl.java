@@ -7,6 +7,8 @@ import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Component;
 
+import java.util.Locale;
+
 /**
  * @author Kardigué
  * @version 1.0
@@ -37,6 +39,19 @@ public class MessageServiceImpl {
         }
     }
 
+    /**
+     * Résout un message pour une locale explicite (traitements hors requête HTTP,
+     * précompilation des templates email par langue).
+     */
+    public String getMessageForLocale(String code, Locale locale, Object... args) {
+        try {
+            return messageSource.getMessage(code, args, locale);
+        } catch (NoSuchMessageException e) {
+            log.warn("Message key '{}' not found for locale '{}'", code, locale);
+            return code;
+        }
+    }
+
     // MÉTHODES DE COMMODITÉ POUR LES RÉPONSES API
 
     public String getSuccessCreated(String resourceName) {
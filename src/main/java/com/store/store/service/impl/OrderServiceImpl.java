@@ -15,6 +15,7 @@ import com.store.store.exception.OrderNotFoundException;
 import com.store.store.repository.OrderRepository;
 import com.store.store.repository.ProductRepository;
 import com.store.store.service.IOrderService;
+import com.store.store.service.IProductPopularityService;
 
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
@@ -52,6 +53,7 @@ public class OrderServiceImpl implements IOrderService {
     private final ProfileServiceImpl profileService;
     private final ExceptionFactory exceptionFactory;
     private final MessageServiceImpl messageService;
+    private final IProductPopularityService popularityService;
     private static final ZoneId EUROPE_PARIS_ZONE = ZoneId.of("Europe/Paris");
 
     // CRÉATION DE COMMANDE
@@ -70,7 +72,11 @@ public class OrderServiceImpl implements IOrderService {
 
             orderItems.forEach(order::addOrderItem);
 
-            Order savedOrder = orderRepository.save(order);
+            // Flush ici : la commande et ses lignes partent en lots, et une erreur base reste dans ce try
+            Order savedOrder = orderRepository.saveAndFlush(order);
+
+            popularityService.recordOrder(orderItems.stream().collect(Collectors.toMap(
+                    item -> item.getProduct().getId(), OrderItem::getQuantity, Integer::sum)));
 
             log.info("Order created successfully with ID: {}", savedOrder.getOrderId());
 
@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -127,9 +128,8 @@ public class OrderValidationServiceImpl {
                 continue; // Skip autres vérifications pour ce produit
             }
 
-            // Vérification 2 : Stock suffisant
-            // TODO : Remplacer popularity par un vrai champ stock
-            int availableStock = product.getPopularity();
+            // Vérification 2 : Stock suffisant (popularity est un score de classement, pas un stock)
+            int availableStock = product.getStockQuantity() != null ? product.getStockQuantity() : 0;
             if (availableStock < item.quantity()) {
                 log.warn("Insufficient stock for product {} - Available: {}, Requested: {}",
                         product.getName(), availableStock, item.quantity());
@@ -142,15 +142,16 @@ public class OrderValidationServiceImpl {
             }
 
             // Vérification 3 : Prix cohérent (détection fraude)
-            // Tolérance : 50% du prix actuel
-            BigDecimal priceDifference = product.getPrice().subtract(item.price()).abs();
-            BigDecimal maxTolerance = product.getPrice().multiply(new BigDecimal("0.5"));
+            // Tolérance : 50% du prix actuel (prix promotionnel pendant une promotion)
+            BigDecimal currentPrice = product.effectivePrice(Instant.now());
+            BigDecimal priceDifference = currentPrice.subtract(item.price()).abs();
+            BigDecimal maxTolerance = currentPrice.multiply(new BigDecimal("0.5"));
 
             if (priceDifference.compareTo(maxTolerance) > 0) {
                 // Prix suspect mais pas bloquant (peut être promotion légitime)
                 log.warn("Suspicious price for product {} ({}): DB price {}, Order price {} (difference {})",
                         product.getId(), product.getName(),
-                        product.getPrice(), item.price(), priceDifference);
+                        currentPrice, item.price(), priceDifference);
                 // Note : Pas d'ajout d'erreur, juste un warning pour investigation
             }
         }
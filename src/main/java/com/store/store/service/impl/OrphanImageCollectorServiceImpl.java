@@ -0,0 +1,245 @@
+package com.store.store.service.impl;
+
+import com.store.store.repository.ProductRepository;
+import com.store.store.repository.StoredImageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Ramasse-miettes du répertoire d'upload (marquage puis balayage).
+ *
+ * 1. Marquage : URL référencées par products.image_url et product_gallery_images
+ * 2. Balayage : parcours en flux ({@link Files#walk}) de images/ et products/, sans jamais lister
+ *    un répertoire entier en mémoire ; un fichier non référencé plus ancien que le délai de grâce est supprimé
+ *
+ * Trois sortes d'orphelins :
+ * - TEMP : fichiers temporaires d'upload abandonnés (images/.tmp)
+ * - CONTENT : contenus adressés par contenu sans ligne stored_images (transaction annulée après la mise en place),
+ *   avec leurs déclinaisons ; un contenu enregistré reste géré par le comptage de références et sa purge
+ * - LEGACY : anciens fichiers products/main|gallery que plus aucun produit n'utilise
+ *
+ * Le délai de grâce protège les uploads en cours (fichier en place, URL pas encore commitée).
+ * Le nombre de suppressions par passage est borné : un gros arriéré est résorbé en plusieurs passages.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Service
+public class OrphanImageCollectorServiceImpl {
+
+    private static final String LEGACY_DIRECTORY = "products";
+
+    enum OrphanKind { TEMP, CONTENT, LEGACY }
+
+    /**
+     * Bilan d'un passage.
+     *
+     * @param scanned   fichiers examinés
+     * @param deleted   fichiers supprimés
+     * @param reclaimedBytes octets libérés
+     * @param truncated true si le passage s'est arrêté à la limite de suppressions
+     */
+    public record CollectionResult(long scanned, int deleted, long reclaimedBytes, boolean truncated) {
+    }
+
+    private final FileStorageServiceImpl fileStorageService;
+    private final ProductRepository productRepository;
+    private final StoredImageRepository storedImageRepository;
+
+    private final Duration grace;
+    private final Duration tempGrace;
+    private final int maxDeletionsPerRun;
+
+    private final Timer collectionTimer;
+    private final Counter scannedCounter;
+    private final Counter reclaimedBytesCounter;
+    private final Map<OrphanKind, Counter> deletedCounters = new EnumMap<>(OrphanKind.class);
+
+    public OrphanImageCollectorServiceImpl(
+            FileStorageServiceImpl fileStorageService,
+            ProductRepository productRepository,
+            StoredImageRepository storedImageRepository,
+            MeterRegistry meterRegistry,
+            @Value("${store.file.orphan-gc.grace:PT24H}") Duration grace,
+            @Value("${store.file.orphan-gc.temp-grace:PT1H}") Duration tempGrace,
+            @Value("${store.file.orphan-gc.max-deletions-per-run:1000}") int maxDeletionsPerRun) {
+
+        this.fileStorageService = fileStorageService;
+        this.productRepository = productRepository;
+        this.storedImageRepository = storedImageRepository;
+        this.grace = grace;
+        this.tempGrace = tempGrace;
+        this.maxDeletionsPerRun = maxDeletionsPerRun;
+
+        this.collectionTimer = Timer.builder("store.images.gc")
+                .description("Durée d'un passage du ramasse-miettes des uploads")
+                .register(meterRegistry);
+        this.scannedCounter = Counter.builder("store.images.gc.scanned")
+                .description("Fichiers examinés par le ramasse-miettes des uploads")
+                .register(meterRegistry);
+        this.reclaimedBytesCounter = Counter.builder("store.images.gc.reclaimed.bytes")
+                .description("Octets libérés par le ramasse-miettes des uploads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        for (OrphanKind kind : OrphanKind.values()) {
+            deletedCounters.put(kind, Counter.builder("store.images.gc.deleted")
+                    .description("Fichiers orphelins supprimés")
+                    .tag("kind", kind.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Un passage complet : marquage, puis balayage jusqu'à la limite de suppressions.
+     */
+    public CollectionResult collect() {
+        return collectionTimer.record(() -> {
+            Marks marks = mark();
+            Sweep sweep = new Sweep(marks, Instant.now());
+
+            sweep.walk(fileStorageService.imagesRoot());
+            sweep.walk(fileStorageService.storageRoot().resolve(LEGACY_DIRECTORY));
+
+            CollectionResult result = new CollectionResult(sweep.scanned, sweep.deleted, sweep.reclaimedBytes,
+                    sweep.deleted >= maxDeletionsPerRun);
+            if (result.deleted() > 0 || result.truncated()) {
+                log.info("Orphan image collection: {} files scanned, {} deleted ({} bytes reclaimed){}",
+                        result.scanned(), result.deleted(), result.reclaimedBytes(),
+                        result.truncated() ? ", limit reached - remaining orphans left for next run" : "");
+            }
+            return result;
+        });
+    }
+
+    // MARQUAGE
+
+    private record Marks(Set<String> digests, Set<Path> legacyFiles) {
+    }
+
+    private Marks mark() {
+        Set<String> digests = new HashSet<>();
+        Set<Path> legacyFiles = new HashSet<>();
+        Stream.concat(productRepository.findAllImageUrls().stream(), productRepository.findAllGalleryImageUrls().stream())
+                .forEach(url -> FileStorageServiceImpl.contentDigest(url).ifPresentOrElse(
+                        digests::add,
+                        () -> fileStorageService.resolveUploadedFile(url).ifPresent(legacyFiles::add)));
+        return new Marks(digests, legacyFiles);
+    }
+
+    // BALAYAGE
+
+    private final class Sweep {
+
+        private final Marks marks;
+        private final Instant cutoff;
+        private final Instant tempCutoff;
+
+        private long scanned;
+        private int deleted;
+        private long reclaimedBytes;
+
+        private Sweep(Marks marks, Instant now) {
+            this.marks = marks;
+            this.cutoff = now.minus(grace);
+            this.tempCutoff = now.minus(tempGrace);
+        }
+
+        private void walk(Path root) {
+            if (!Files.isDirectory(root)) {
+                return;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                Iterator<Path> iterator = files.iterator();
+                while (iterator.hasNext() && deleted < maxDeletionsPerRun) {
+                    Path file = iterator.next();
+                    if (Files.isRegularFile(file)) {
+                        scanned++;
+                        scannedCounter.increment();
+                        visit(file);
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                log.error("Orphan image collection aborted under {}: {}", root, e.getMessage());
+            }
+        }
+
+        private void visit(Path file) {
+            OrphanKind kind = classify(file);
+            if (kind == null) {
+                return;
+            }
+            try {
+                Instant modified = Files.getLastModifiedTime(file).toInstant();
+                if (!modified.isBefore(kind == OrphanKind.TEMP ? tempCutoff : cutoff)) {
+                    return;
+                }
+                // Contenu enregistré : sa durée de vie relève du comptage de références
+                if (kind == OrphanKind.CONTENT && storedImageRepository.existsById(digestOf(file))) {
+                    return;
+                }
+                long size = Files.size(file);
+                if (Files.deleteIfExists(file)) {
+                    deleted++;
+                    reclaimedBytes += size;
+                    deletedCounters.get(kind).increment();
+                    reclaimedBytesCounter.increment(size);
+                    log.debug("Orphan {} file deleted: {}", kind, file);
+                }
+            } catch (NoSuchFileException e) {
+                // Supprimé entre-temps (purge, autre passage)
+            } catch (IOException e) {
+                log.warn("Failed to delete orphan file {}: {}", file, e.getMessage());
+            }
+        }
+
+        /**
+         * @return la sorte d'orphelin, ou null si le fichier est référencé ou inconnu
+         */
+        private OrphanKind classify(Path file) {
+            if (file.startsWith(fileStorageService.tempRoot())) {
+                return OrphanKind.TEMP;
+            }
+            if (file.startsWith(fileStorageService.imagesRoot())) {
+                String digest = digestOf(file);
+                if (!FileStorageServiceImpl.isDigest(digest) || marks.digests().contains(digest)) {
+                    return null;
+                }
+                return OrphanKind.CONTENT;
+            }
+            return marks.legacyFiles().contains(file) ? null : OrphanKind.LEGACY;
+        }
+    }
+
+    /**
+     * {@code <digest>.png} comme {@code <digest>_thumb.jpg} : l'empreinte précède le premier '_' ou '.'.
+     */
+    private static String digestOf(Path file) {
+        String name = file.getFileName().toString();
+        int end = name.length();
+        int underscore = name.indexOf('_');
+        int dot = name.indexOf('.');
+        if (underscore >= 0) end = Math.min(end, underscore);
+        if (dot >= 0) end = Math.min(end, dot);
+        return name.substring(0, end);
+    }
+}
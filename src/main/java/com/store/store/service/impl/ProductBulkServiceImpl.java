@@ -0,0 +1,807 @@
+package com.store.store.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.store.dto.category.CategoryDto;
+import com.store.store.dto.product.ProductBulkPatchReport;
+import com.store.store.dto.product.ProductImportReport;
+import com.store.store.dto.product.ProductPatchDto;
+import com.store.store.enums.ProductBulkFormat;
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.repository.ProductRepository;
+import com.store.store.service.IProductBulkService;
+import com.store.store.util.CsvReader;
+import com.store.store.util.CsvWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Import et export en masse du catalogue produits.
+ *
+ * Import, par paquets de {@code chunk-size} lignes lues en flux (le fichier n'est jamais entièrement en mémoire) :
+ * 1. Pré-chargement unique : catégories (instantané en mémoire), SKU et noms existants dans des ensembles
+ * 2. Validation des lignes du paquet en parallèle (pool dédié), sans aucune requête
+ * 3. Doublons internes au fichier (SKU, nom) : contrôle séquentiel, dans l'ordre du fichier
+ * 4. Insertion JDBC par lots, un paquet = une transaction ; les ids IDENTITY empêchent Hibernate de regrouper
+ *    ses INSERT, d'où JdbcTemplate (rewriteBatchedStatements=true côté MySQL)
+ * 5. Un lot refusé par la base est rejoué ligne par ligne pour isoler la ou les lignes fautives
+ *
+ * Export : pagination par clé (product_id) en JDBC, écrit au fil de l'eau, mêmes colonnes que l'import.
+ *
+ * Modification prix / stock / activation par SKU : un UPDATE par SKU envoyé en lots JDBC (index unique sku),
+ * sans lecture des entités ni revalidation du produit complet ; caches produits vidés une fois par appel.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Service
+public class ProductBulkServiceImpl implements IProductBulkService, DisposableBean {
+
+    static final List<String> COLUMNS = List.of("sku", "name", "description", "price", "stockQuantity",
+            "categoryCode", "imageUrl", "popularity", "isActive");
+    private static final List<String> REQUIRED_COLUMNS = List.of("sku", "name", "price", "categoryCode");
+
+    private static final String INSERT_SQL = "INSERT INTO products (sku, name, description, price, stock_quantity, " +
+            "category_id, image_url, popularity, is_active, image_variants_ready, created_at, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?, ?)";
+
+    private static final String EXPORT_SQL = "SELECT p.product_id, p.sku, p.name, p.description, p.price, " +
+            "p.stock_quantity, c.code, p.image_url, p.popularity, p.is_active " +
+            "FROM products p JOIN categories c ON c.category_id = p.category_id " +
+            "WHERE p.product_id > ? ORDER BY p.product_id LIMIT ?";
+
+    // COALESCE : un champ absent du patch garde sa valeur
+    private static final String PATCH_SQL = "UPDATE products SET price = COALESCE(?, price), " +
+            "stock_quantity = COALESCE(?, stock_quantity), is_active = COALESCE(?, is_active), " +
+            "updated_at = ?, updated_by = ? WHERE sku = ?";
+
+    private static final int MAX_SKU_LENGTH = 50;
+    private static final int MAX_NAME_LENGTH = 250;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+    private static final int MAX_IMAGE_URL_LENGTH = 500;
+    private static final int PRICE_INTEGER_DIGITS = 8; // DECIMAL(10,2)
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductRepository productRepository;
+    private final CategorySnapshotServiceImpl categorySnapshotService;
+    private final FileStorageServiceImpl fileStorageService;
+    private final ImageVariantServiceImpl imageVariantService;
+    private final AuditorAware<String> auditorProvider;
+    private final ObjectMapper objectMapper;
+    private final ExceptionFactory exceptionFactory;
+    private final MessageServiceImpl messageService;
+
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final ForkJoinPool validationPool;
+
+    private final Timer importTimer;
+    private final Counter importedCounter;
+    private final Counter rejectedCounter;
+    private final Counter exportedCounter;
+    private final Timer patchTimer;
+    private final Counter patchedCounter;
+
+    public ProductBulkServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ProductRepository productRepository,
+            CategorySnapshotServiceImpl categorySnapshotService,
+            FileStorageServiceImpl fileStorageService,
+            ImageVariantServiceImpl imageVariantService,
+            AuditorAware<String> auditorProvider,
+            ObjectMapper objectMapper,
+            ExceptionFactory exceptionFactory,
+            MessageServiceImpl messageService,
+            MeterRegistry meterRegistry,
+            @Value("${store.product.bulk.chunk-size:1000}") int chunkSize,
+            @Value("${store.product.bulk.validation-threads:4}") int validationThreads,
+            @Value("${store.product.bulk.max-reported-errors:1000}") int maxReportedErrors) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.productRepository = productRepository;
+        this.categorySnapshotService = categorySnapshotService;
+        this.fileStorageService = fileStorageService;
+        this.imageVariantService = imageVariantService;
+        this.auditorProvider = auditorProvider;
+        this.objectMapper = objectMapper;
+        this.exceptionFactory = exceptionFactory;
+        this.messageService = messageService;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.validationPool = new ForkJoinPool(validationThreads);
+
+        this.importTimer = Timer.builder("store.products.import")
+                .description("Durée d'un import en masse de produits")
+                .register(meterRegistry);
+        this.importedCounter = Counter.builder("store.products.import.rows")
+                .description("Lignes d'import en masse traitées")
+                .tag("result", "imported")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("store.products.import.rows")
+                .description("Lignes d'import en masse traitées")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        this.exportedCounter = Counter.builder("store.products.export.rows")
+                .description("Produits écrits par l'export en masse")
+                .register(meterRegistry);
+        this.patchTimer = Timer.builder("store.products.patch")
+                .description("Durée d'une modification en masse (prix, stock, activation)")
+                .register(meterRegistry);
+        this.patchedCounter = Counter.builder("store.products.patch.rows")
+                .description("Produits modifiés par la modification en masse")
+                .register(meterRegistry);
+    }
+
+    // IMPORT
+
+    /**
+     * Ligne lue : valeurs par colonne, ou erreur de lecture.
+     */
+    record ImportRow(long line, Map<String, String> values, Violation parseError) {
+
+        String get(String column) {
+            String value = values.get(column);
+            return value == null || value.isBlank() ? null : value.trim();
+        }
+    }
+
+    /**
+     * Erreur non localisée : le message est résolu dans le thread de la requête, où la locale est liée.
+     */
+    record Violation(String field, String code, Object... args) {
+    }
+
+    /**
+     * Produit validé, prêt à insérer.
+     */
+    record ProductValues(long line, String sku, String name, String description, BigDecimal price,
+                         int stockQuantity, long categoryId, String imageUrl, int popularity, boolean active) {
+    }
+
+    record ValidatedRow(ImportRow row, ProductValues values, List<Violation> violations) {
+    }
+
+    /**
+     * Référentiels chargés une fois par import ; lus en parallèle, jamais modifiés.
+     */
+    record Lookups(Map<String, Long> categoryIds, Set<String> skus, Set<String> lowercaseNames) {
+    }
+
+    private interface RowSource {
+        /**
+         * @return la ligne suivante, ou null en fin de flux
+         */
+        ImportRow next() throws IOException;
+    }
+
+    @CacheEvict(value = {"products", "productsByCategory"}, allEntries = true)
+    @Override
+    public ProductImportReport importProducts(InputStream input, ProductBulkFormat format, boolean dryRun) {
+        return importTimer.record(() -> {
+            long start = System.nanoTime();
+            String auditor = auditorProvider.getCurrentAuditor().orElse("system");
+            Lookups lookups = loadLookups();
+            ReportBuilder report = new ReportBuilder(dryRun);
+
+            Set<String> seenSkus = new HashSet<>();
+            Set<String> seenNames = new HashSet<>();
+            Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);
+            RowSource source = openSource(reader, format);
+
+            try {
+                List<ImportRow> chunk;
+                while (!(chunk = readChunk(source)).isEmpty()) {
+                    List<ProductValues> accepted = new ArrayList<>(chunk.size());
+                    for (ValidatedRow validated : validateChunk(chunk, lookups)) {
+                        report.totalRows++;
+                        if (!validated.violations().isEmpty()) {
+                            report.reject(validated.row(), validated.violations());
+                        } else if (!seenSkus.add(validated.values().sku())) {
+                            report.reject(validated.row(), List.of(new Violation("sku",
+                                    "error.product.import.row.sku.duplicate", validated.values().sku())));
+                        } else if (!seenNames.add(validated.values().name().toLowerCase())) {
+                            report.reject(validated.row(), List.of(new Violation("name",
+                                    "error.product.import.row.name.duplicate", validated.values().name())));
+                        } else {
+                            accepted.add(validated.values());
+                        }
+                    }
+
+                    if (dryRun) {
+                        report.imported += accepted.size();
+                    } else {
+                        insertChunk(accepted, auditor, report);
+                    }
+                }
+            } catch (IOException e) {
+                // Les paquets précédents restent importés : le bilan indique où la lecture s'est arrêtée
+                log.warn("Product import stopped, unreadable input: {}", e.getMessage());
+                report.error(new ProductImportReport.RowError(0, null, null,
+                        messageService.getMessage("error.product.import.read", e.getMessage())));
+            }
+
+            if (report.imported > 0 && !dryRun) {
+                categorySnapshotService.refreshAfterCommit();
+            }
+
+            ProductImportReport result = report.build((System.nanoTime() - start) / 1_000_000);
+            log.info("Product import {}: {} rows, {} imported, {} rejected in {} ms",
+                    dryRun ? "(dry run)" : "done", result.totalRows(), result.imported(), result.rejected(),
+                    result.durationMs());
+            return result;
+        });
+    }
+
+    private Lookups loadLookups() {
+        Map<String, Long> categoryIds = categorySnapshotService.getAllCategories().stream()
+                .collect(Collectors.toMap(CategoryDto::getCode, CategoryDto::getCategoryId));
+        return new Lookups(categoryIds,
+                new HashSet<>(productRepository.findAllSkus()),
+                new HashSet<>(productRepository.findAllLowercaseNames()));
+    }
+
+    private List<ImportRow> readChunk(RowSource source) throws IOException {
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        ImportRow row;
+        while (chunk.size() < chunkSize && (row = source.next()) != null) {
+            chunk.add(row);
+        }
+        return chunk;
+    }
+
+    /**
+     * Validation parallèle d'un paquet ; l'ordre du fichier est conservé.
+     */
+    private List<ValidatedRow> validateChunk(List<ImportRow> chunk, Lookups lookups) {
+        try {
+            return validationPool.submit(() -> chunk.parallelStream().map(row -> validate(row, lookups)).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw exceptionFactory.businessError(messageService.getMessage("error.product.import.failed"));
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    ValidatedRow validate(ImportRow row, Lookups lookups) {
+        if (row.parseError() != null) {
+            return new ValidatedRow(row, null, List.of(row.parseError()));
+        }
+        List<Violation> violations = new ArrayList<>();
+
+        String sku = row.get("sku");
+        if (sku == null) {
+            violations.add(new Violation("sku", "validation.product.sku.required"));
+        } else if (sku.length() > MAX_SKU_LENGTH) {
+            violations.add(new Violation("sku", "validation.product.sku.tooLong", MAX_SKU_LENGTH));
+        } else if (lookups.skus().contains(sku)) {
+            violations.add(new Violation("sku", "error.product.import.row.sku.exists", sku));
+        }
+
+        String name = row.get("name");
+        if (name == null) {
+            violations.add(new Violation("name", "validation.product.name.required"));
+        } else if (name.length() > MAX_NAME_LENGTH) {
+            violations.add(new Violation("name", "validation.product.name.tooLong", MAX_NAME_LENGTH));
+        } else if (lookups.lowercaseNames().contains(name.toLowerCase())) {
+            violations.add(new Violation("name", "error.product.already.exists", name));
+        }
+
+        String description = row.get("description");
+        if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            violations.add(new Violation("description", "validation.product.description.tooLong", MAX_DESCRIPTION_LENGTH));
+        }
+
+        BigDecimal price = parseDecimal(row, "price", violations);
+        if (row.get("price") == null) {
+            violations.add(new Violation("price", "validation.product.price.invalid"));
+        } else if (price != null && (price.signum() <= 0 || price.scale() > 2
+                || price.precision() - price.scale() > PRICE_INTEGER_DIGITS)) {
+            violations.add(new Violation("price", "validation.product.price.invalid"));
+        }
+
+        Integer stockQuantity = parseInteger(row, "stockQuantity", 0, violations);
+        if (stockQuantity != null && stockQuantity < 0) {
+            violations.add(new Violation("stockQuantity", "validation.product.stock.positive"));
+        }
+
+        String categoryCode = row.get("categoryCode");
+        Long categoryId = null;
+        if (categoryCode == null) {
+            violations.add(new Violation("categoryCode", "validation.product.categoryId.required"));
+        } else {
+            categoryId = lookups.categoryIds().get(categoryCode.toUpperCase());
+            if (categoryId == null) {
+                violations.add(new Violation("categoryCode", "error.product.import.row.category.unknown", categoryCode));
+            }
+        }
+
+        String imageUrl = row.get("imageUrl");
+        if (imageUrl != null && imageUrl.length() > MAX_IMAGE_URL_LENGTH) {
+            violations.add(new Violation("imageUrl", "validation.product.imageUrl.tooLong", MAX_IMAGE_URL_LENGTH));
+        }
+
+        Integer popularity = parseInteger(row, "popularity", 0, violations);
+        if (popularity != null && popularity < 0) {
+            violations.add(new Violation("popularity", "validation.product.popularity.positive"));
+        }
+
+        Boolean active = parseBoolean(row, "isActive", violations);
+
+        if (!violations.isEmpty()) {
+            return new ValidatedRow(row, null, violations);
+        }
+        return new ValidatedRow(row, new ProductValues(row.line(), sku, name, description != null ? description : "",
+                price, stockQuantity, categoryId, imageUrl, popularity, active), List.of());
+    }
+
+    private static BigDecimal parseDecimal(ImportRow row, String column, List<Violation> violations) {
+        String value = row.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            violations.add(new Violation(column, "error.product.import.row.number.invalid", value));
+            return null;
+        }
+    }
+
+    private static Integer parseInteger(ImportRow row, String column, int defaultValue, List<Violation> violations) {
+        String value = row.get(column);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            violations.add(new Violation(column, "error.product.import.row.number.invalid", value));
+            return null;
+        }
+    }
+
+    private static Boolean parseBoolean(ImportRow row, String column, List<Violation> violations) {
+        String value = row.get(column);
+        if (value == null) {
+            return true;
+        }
+        return switch (value.toLowerCase()) {
+            case "true", "1", "yes" -> true;
+            case "false", "0", "no" -> false;
+            default -> {
+                violations.add(new Violation(column, "error.product.import.row.boolean.invalid", value));
+                yield null;
+            }
+        };
+    }
+
+    // ÉCRITURE
+
+    private void insertChunk(List<ProductValues> rows, String auditor, ReportBuilder report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> bind(ps, row, now, auditor));
+                rows.forEach(this::retainImage);
+            });
+            report.imported += rows.size();
+            scheduleVariants(rows);
+
+        } catch (DataAccessException e) {
+            // Une ligne refusée (ex. SKU inséré entre-temps) annule le lot : rejeu ligne par ligne
+            log.warn("Batch insert of {} products rejected, retrying row by row: {}", rows.size(), e.getMessage());
+            List<ProductValues> inserted = new ArrayList<>();
+            for (ProductValues row : rows) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row, now, auditor));
+                        retainImage(row);
+                    });
+                    inserted.add(row);
+                } catch (DataAccessException rowError) {
+                    report.reject(row.line(), row.sku(),
+                            List.of(new Violation(null, "error.product.import.row.database")));
+                }
+            }
+            report.imported += inserted.size();
+            scheduleVariants(inserted);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, ProductValues row, Timestamp now, String auditor) throws SQLException {
+        ps.setString(1, row.sku());
+        ps.setString(2, row.name());
+        ps.setString(3, row.description());
+        ps.setBigDecimal(4, row.price());
+        ps.setInt(5, row.stockQuantity());
+        ps.setLong(6, row.categoryId());
+        if (row.imageUrl() != null) {
+            ps.setString(7, row.imageUrl());
+        } else {
+            ps.setNull(7, Types.VARCHAR);
+        }
+        ps.setInt(8, row.popularity());
+        ps.setBoolean(9, row.active());
+        ps.setTimestamp(10, now);
+        ps.setString(11, auditor);
+    }
+
+    /**
+     * Une image adressée par contenu déjà stockée prend une référence (sinon purgée comme orpheline).
+     */
+    private void retainImage(ProductValues row) {
+        if (row.imageUrl() != null) {
+            fileStorageService.retainImage(row.imageUrl());
+        }
+    }
+
+    private void scheduleVariants(List<ProductValues> rows) {
+        rows.stream()
+                .map(ProductValues::imageUrl)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new))
+                .forEach(imageVariantService::scheduleVariants);
+    }
+
+    // LECTURE DES FORMATS
+
+    private RowSource openSource(Reader reader, ProductBulkFormat format) {
+        try {
+            return format == ProductBulkFormat.CSV ? new CsvRowSource(reader) : new NdjsonRowSource(reader);
+        } catch (IOException e) {
+            throw exceptionFactory.businessError(messageService.getMessage("error.product.import.read", e.getMessage()));
+        }
+    }
+
+    private final class CsvRowSource implements RowSource {
+
+        private final CsvReader csv;
+        private final List<String> columns;
+
+        private CsvRowSource(Reader reader) throws IOException {
+            this.csv = new CsvReader(reader);
+            List<String> header = csv.readRecord();
+            this.columns = header == null ? List.of() : header.stream().map(String::trim).toList();
+
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.contains(column)).toList();
+            if (!missing.isEmpty()) {
+                throw exceptionFactory.businessError(
+                        messageService.getMessage("error.product.import.header", String.join(", ", missing)));
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> record;
+            do {
+                record = csv.readRecord();
+            } while (record != null && record.size() == 1 && record.get(0).isBlank());
+
+            if (record == null) {
+                return null;
+            }
+            if (record.size() != columns.size()) {
+                return new ImportRow(csv.recordLine(), Map.of(),
+                        new Violation(null, "error.product.import.row.columns", columns.size(), record.size()));
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < columns.size(); i++) {
+                values.put(columns.get(i), record.get(i));
+            }
+            return new ImportRow(csv.recordLine(), values, null);
+        }
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader lines;
+        private long lineNumber;
+
+        private NdjsonRowSource(Reader reader) {
+            this.lines = new BufferedReader(reader);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            do {
+                line = lines.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+
+            if (line == null) {
+                return null;
+            }
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    return new ImportRow(lineNumber, Map.of(),
+                            new Violation(null, "error.product.import.row.malformed", node.getNodeType()));
+                }
+                Map<String, String> values = new HashMap<>();
+                for (String column : COLUMNS) {
+                    JsonNode value = node.get(column);
+                    if (value != null && !value.isNull()) {
+                        values.put(column, value.asText());
+                    }
+                }
+                return new ImportRow(lineNumber, values, null);
+
+            } catch (JsonProcessingException e) {
+                return new ImportRow(lineNumber, Map.of(),
+                        new Violation(null, "error.product.import.row.malformed", e.getOriginalMessage()));
+            }
+        }
+    }
+
+    // BILAN
+
+    private final class ReportBuilder {
+
+        private final boolean dryRun;
+        private final List<ProductImportReport.RowError> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long rejected;
+        private boolean truncated;
+
+        private ReportBuilder(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        private void reject(ImportRow row, List<Violation> violations) {
+            reject(row.line(), row.get("sku"), violations);
+        }
+
+        private void reject(long line, String sku, List<Violation> violations) {
+            rejected++;
+            for (Violation violation : violations) {
+                error(new ProductImportReport.RowError(line, sku, violation.field(),
+                        messageService.getMessage(violation.code(), violation.args())));
+            }
+        }
+
+        private void error(ProductImportReport.RowError error) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(error);
+            } else {
+                truncated = true;
+            }
+        }
+
+        private ProductImportReport build(long durationMs) {
+            if (!dryRun) {
+                importedCounter.increment(imported);
+            }
+            rejectedCounter.increment(rejected);
+            return new ProductImportReport(totalRows, imported, rejected, dryRun, durationMs, List.copyOf(errors), truncated);
+        }
+    }
+
+    // EXPORT
+
+    @Override
+    public void exportProducts(OutputStream output, ProductBulkFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        if (format == ProductBulkFormat.CSV) {
+            CsvWriter.writeRecord(writer, COLUMNS);
+        }
+
+        ExportPage page = new ExportPage(writer, format);
+        try {
+            do {
+                page.rows = 0;
+                jdbcTemplate.query(EXPORT_SQL, page, page.lastId, chunkSize);
+                exportedCounter.increment(page.rows);
+            } while (page.rows == chunkSize);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Une page de l'export (pagination par clé : product_id > dernier id écrit).
+     */
+    private final class ExportPage implements RowCallbackHandler {
+
+        private final Writer writer;
+        private final ProductBulkFormat format;
+        private long lastId;
+        private int rows;
+
+        private ExportPage(Writer writer, ProductBulkFormat format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            lastId = rs.getLong("product_id");
+            rows++;
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("sku", rs.getString("sku"));
+            values.put("name", rs.getString("name"));
+            values.put("description", rs.getString("description"));
+            values.put("price", rs.getBigDecimal("price"));
+            values.put("stockQuantity", rs.getInt("stock_quantity"));
+            values.put("categoryCode", rs.getString("code"));
+            values.put("imageUrl", rs.getString("image_url"));
+            values.put("popularity", rs.getInt("popularity"));
+            values.put("isActive", rs.getBoolean("is_active"));
+
+            try {
+                if (format == ProductBulkFormat.CSV) {
+                    CsvWriter.writeRecord(writer, values.values().stream()
+                            .map(value -> value instanceof BigDecimal decimal ? decimal.toPlainString()
+                                    : value == null ? null : value.toString())
+                            .toList());
+                } else {
+                    writer.write(objectMapper.writeValueAsString(values));
+                    writer.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // MODIFICATION EN MASSE
+
+    /**
+     * Paquets de {@code chunk-size} SKU, un paquet = une transaction : lecture des SKU existants (IN),
+     * puis un lot d'UPDATE. Un paquet refusé par la base est compté en échec, les autres restent appliqués,
+     * et la méthode se termine normalement pour que les caches soient bien vidés.
+     */
+    @CacheEvict(value = {"product", "products", "productsByCategory"}, allEntries = true)
+    @Override
+    public ProductBulkPatchReport patchProducts(List<ProductPatchDto> patches) {
+        return patchTimer.record(() -> {
+            long start = System.nanoTime();
+            String auditor = auditorProvider.getCurrentAuditor().orElse("system");
+            Timestamp now = Timestamp.from(Instant.now());
+
+            // SKU répété : la dernière occurrence l'emporte. Tri par SKU : deux appels concurrents
+            // verrouillent les lignes dans le même ordre (pas d'interblocage)
+            Map<String, ProductPatchDto> bySku = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            patches.forEach(patch -> bySku.put(patch.sku().trim(), patch));
+            List<Map.Entry<String, ProductPatchDto>> entries = new ArrayList<>(bySku.entrySet());
+
+            long updated = 0;
+            long failed = 0;
+            boolean activationChanged = false;
+            List<String> unknownSkus = new ArrayList<>();
+            boolean truncated = false;
+
+            for (int from = 0; from < entries.size(); from += chunkSize) {
+                List<Map.Entry<String, ProductPatchDto>> chunk =
+                        entries.subList(from, Math.min(from + chunkSize, entries.size()));
+                List<Map.Entry<String, ProductPatchDto>> known;
+                try {
+                    known = transactionTemplate.execute(status -> patchChunk(chunk, now, auditor));
+                } catch (DataAccessException e) {
+                    log.warn("Bulk patch of {} products rejected: {}", chunk.size(), e.getMessage());
+                    failed += chunk.size();
+                    continue;
+                }
+
+                updated += known.size();
+                activationChanged |= known.stream().anyMatch(entry -> entry.getValue().isActive() != null);
+                if (known.size() < chunk.size()) {
+                    Set<String> knownSkus = known.stream().map(Map.Entry::getKey).collect(Collectors.toSet());
+                    for (Map.Entry<String, ProductPatchDto> entry : chunk) {
+                        if (!knownSkus.contains(entry.getKey())) {
+                            if (unknownSkus.size() < maxReportedErrors) {
+                                unknownSkus.add(entry.getKey());
+                            } else {
+                                truncated = true;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (activationChanged) {
+                categorySnapshotService.refreshAfterCommit();
+            }
+            patchedCounter.increment(updated);
+
+            ProductBulkPatchReport report = new ProductBulkPatchReport(entries.size(), updated, failed,
+                    List.copyOf(unknownSkus), truncated, (System.nanoTime() - start) / 1_000_000);
+            log.info("Product bulk patch done: {} SKUs, {} updated, {} unknown, {} failed in {} ms",
+                    report.requested(), report.updated(), entries.size() - updated - failed, failed,
+                    report.durationMs());
+            return report;
+        });
+    }
+
+    /**
+     * @return les entrées du paquet dont le SKU existe (toutes modifiées)
+     */
+    private List<Map.Entry<String, ProductPatchDto>> patchChunk(List<Map.Entry<String, ProductPatchDto>> chunk,
+                                                               Timestamp now, String auditor) {
+        Object[] skus = chunk.stream().map(Map.Entry::getKey).toArray();
+        // Collation de la colonne insensible à la casse : comparaison identique ici
+        Set<String> existing = jdbcTemplate.queryForList(
+                        "SELECT sku FROM products WHERE sku IN (" + String.join(",", Collections.nCopies(skus.length, "?")) + ")",
+                        String.class, skus).stream()
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+
+        List<Map.Entry<String, ProductPatchDto>> known = chunk.stream()
+                .filter(entry -> existing.contains(entry.getKey().toLowerCase()))
+                .toList();
+        if (!known.isEmpty()) {
+            jdbcTemplate.batchUpdate(PATCH_SQL, known, known.size(), (ps, entry) -> {
+                ProductPatchDto patch = entry.getValue();
+                ps.setObject(1, patch.price(), Types.DECIMAL);
+                ps.setObject(2, patch.stockQuantity(), Types.INTEGER);
+                ps.setObject(3, patch.isActive(), Types.BOOLEAN);
+                ps.setTimestamp(4, now);
+                ps.setString(5, auditor);
+                ps.setString(6, entry.getKey());
+            });
+        }
+        return known;
+    }
+
+    @Override
+    public void destroy() {
+        validationPool.shutdownNow();
+    }
+}
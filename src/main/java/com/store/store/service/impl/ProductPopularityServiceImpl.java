@@ -0,0 +1,277 @@
+package com.store.store.service.impl;
+
+import com.store.store.service.IProductPopularityService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Moteur de popularité des produits.
+ *
+ * - Vues et unités commandées comptées en mémoire (LongAdder : cellules réparties, pas de contention
+ *   entre requêtes concurrentes sur un même produit), aucune écriture par commande ou par vue
+ * - Écriture périodique : popularity += vues × poids vue + unités × poids commande, un lot JDBC
+ *   par paquet de produits, triés par id (même ordre de verrouillage que les autres écritures groupées)
+ * - Décroissance : popularity × 0,5^(intervalle / demi-vie) à chaque intervalle, par plages d'ids ;
+ *   une vente d'il y a une demi-vie pèse moitié moins qu'une vente du jour. Chaque instance la planifie,
+ *   une seule l'applique par intervalle : celle qui horodate la première la ligne popularity_decay
+ * - Un lot refusé par la base rend ses compteurs à la mémoire (repris à l'écriture suivante) ;
+ *   les compteurs restants sont écrits à l'arrêt de l'application
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Service
+public class ProductPopularityServiceImpl implements IProductPopularityService, DisposableBean {
+
+    private static final String FLUSH_SQL =
+            "UPDATE products SET popularity = LEAST(popularity + ?, " + Integer.MAX_VALUE + ") WHERE product_id = ?";
+    private static final String DECAY_SQL = "UPDATE products SET popularity = FLOOR(popularity * ?) " +
+            "WHERE product_id > ? AND product_id <= ? AND popularity > 0";
+    private static final String MAX_ID_SQL = "SELECT COALESCE(MAX(product_id), 0) FROM products";
+    static final String DECAY_CLAIM_SQL = "UPDATE popularity_decay SET decayed_at = ? WHERE id = 1 AND decayed_at <= ?";
+    static final String DECAY_CLAIM_INSERT_SQL = "INSERT INTO popularity_decay (id, decayed_at) VALUES (1, ?)";
+
+    /**
+     * Compteurs d'un produit depuis la dernière écriture.
+     */
+    static final class Counters {
+        final LongAdder views = new LongAdder();
+        final LongAdder units = new LongAdder();
+    }
+
+    record Delta(long productId, long views, long units, long points) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long viewWeight;
+    private final long orderUnitWeight;
+    private final double decayFactor;
+    private final Duration decayInterval;
+    private final int batchSize;
+
+    // Une entrée par produit consulté ou commandé (borné par la taille du catalogue)
+    private final Map<Long, Counters> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final Timer flushTimer;
+    private final Counter flushedPointsCounter;
+
+    public ProductPopularityServiceImpl(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${store.product.popularity.view-weight:1}") long viewWeight,
+            @Value("${store.product.popularity.order-unit-weight:10}") long orderUnitWeight,
+            @Value("${store.product.popularity.half-life:P7D}") Duration halfLife,
+            @Value("${store.product.popularity.decay-interval:P1D}") Duration decayInterval,
+            @Value("${store.product.popularity.batch-size:500}") int batchSize) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.viewWeight = viewWeight;
+        this.orderUnitWeight = orderUnitWeight;
+        this.decayFactor = Math.pow(0.5, (double) decayInterval.toMillis() / halfLife.toMillis());
+        this.decayInterval = decayInterval;
+        this.batchSize = batchSize;
+
+        this.flushTimer = Timer.builder("store.products.popularity.flush")
+                .description("Durée d'écriture des compteurs de popularité")
+                .register(meterRegistry);
+        this.flushedPointsCounter = Counter.builder("store.products.popularity.points")
+                .description("Points de popularité écrits en base")
+                .register(meterRegistry);
+        Gauge.builder("store.products.popularity.pending", pending, Map::size)
+                .description("Produits suivis par le moteur de popularité")
+                .register(meterRegistry);
+    }
+
+    // COMPTAGE
+
+    @Override
+    public void recordView(Long productId) {
+        if (productId != null) {
+            counters(productId).views.increment();
+        }
+    }
+
+    @Override
+    public void recordOrder(Map<Long, Integer> quantitiesByProduct) {
+        Runnable record = () -> quantitiesByProduct.forEach((productId, quantity) -> {
+            if (productId != null && quantity != null && quantity > 0) {
+                counters(productId).units.add(quantity);
+            }
+        });
+
+        // Une commande annulée (rollback) ne compte pas
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+
+    private Counters counters(Long productId) {
+        return pending.computeIfAbsent(productId, id -> new Counters());
+    }
+
+    // ÉCRITURE
+
+    @Override
+    public FlushReport flushPending() {
+        writeLock.lock();
+        try {
+            List<Delta> deltas = drain();
+            if (deltas.isEmpty()) {
+                return new FlushReport(0, 0, 0);
+            }
+
+            int products = 0;
+            long views = 0;
+            long units = 0;
+            long start = System.nanoTime();
+            for (int from = 0; from < deltas.size(); from += batchSize) {
+                List<Delta> chunk = deltas.subList(from, Math.min(from + batchSize, deltas.size()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, chunk,
+                            chunk.size(), (ps, delta) -> {
+                                ps.setLong(1, delta.points());
+                                ps.setLong(2, delta.productId());
+                            }));
+                } catch (DataAccessException e) {
+                    List<Delta> unwritten = deltas.subList(from, deltas.size());
+                    unwritten.forEach(this::restore);
+                    log.warn("Popularity flush interrupted, {} products kept for next flush: {}",
+                            unwritten.size(), e.getMessage());
+                    break;
+                }
+                for (Delta delta : chunk) {
+                    products++;
+                    views += delta.views();
+                    units += delta.units();
+                    flushedPointsCounter.increment(delta.points());
+                }
+            }
+            flushTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            return new FlushReport(products, views, units);
+
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Retire des compteurs exactement ce qui est lu : un incrément concurrent reste pour l'écriture suivante.
+     */
+    private List<Delta> drain() {
+        List<Delta> deltas = new ArrayList<>();
+        pending.forEach((productId, counters) -> {
+            long views = counters.views.sum();
+            long units = counters.units.sum();
+            if (views == 0 && units == 0) {
+                return;
+            }
+            counters.views.add(-views);
+            counters.units.add(-units);
+            long points = views * viewWeight + units * orderUnitWeight;
+            if (points > 0) {
+                deltas.add(new Delta(productId, views, units, points));
+            }
+        });
+        deltas.sort(Comparator.comparingLong(Delta::productId));
+        return deltas;
+    }
+
+    private void restore(Delta delta) {
+        Counters counters = counters(delta.productId());
+        counters.views.add(delta.views());
+        counters.units.add(delta.units());
+    }
+
+    @Override
+    public int applyDecay() {
+        if (!claimDecay(Instant.now())) {
+            log.debug("Popularity decay already applied by another instance for this interval");
+            return 0;
+        }
+        writeLock.lock();
+        try {
+            Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+            long rangeSize = (long) batchSize * 10;
+            int updated = 0;
+            for (long from = 0; maxId != null && from < maxId; from += rangeSize) {
+                long lower = from;
+                Integer rows = transactionTemplate.execute(status ->
+                        jdbcTemplate.update(DECAY_SQL, decayFactor, lower, lower + rangeSize));
+                updated += rows != null ? rows : 0;
+            }
+            log.info("Popularity decay applied (factor {}): {} products", String.format("%.4f", decayFactor), updated);
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Réserve la décroissance de l'intervalle pour cette instance (UPDATE conditionnel atomique).
+     * Marge de 10 % sur l'intervalle : une exécution un peu en avance sur la précédente n'est pas sautée.
+     */
+    boolean claimDecay(Instant now) {
+        Timestamp claimedAt = Timestamp.from(now);
+        Timestamp lastDecayBefore = Timestamp.from(now.minus(decayInterval.minus(decayInterval.dividedBy(10))));
+        try {
+            if (jdbcTemplate.update(DECAY_CLAIM_SQL, claimedAt, lastDecayBefore) > 0) {
+                return true;
+            }
+            // Première décroissance, ou ligne récente (insertion refusée) : déjà appliquée ailleurs
+            return jdbcTemplate.update(DECAY_CLAIM_INSERT_SQL, claimedAt) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        } catch (BadSqlGrammarException e) {
+            // Base non migrée (ex. ddl-auto en local, instance unique) : décroissance sans garde
+            log.warn("Table popularity_decay missing, decay applied without cluster guard: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            FlushReport report = flushPending();
+            log.info("Popularity counters flushed on shutdown: {} products", report.products());
+        } catch (RuntimeException e) {
+            log.warn("Popularity counters lost on shutdown: {}", e.getMessage());
+        }
+    }
+}
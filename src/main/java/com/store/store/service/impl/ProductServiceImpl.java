@@ -1,6 +1,7 @@
 package com.store.store.service.impl;
 
 import com.store.store.dto.product.ProductDto;
+import com.store.store.dto.product.ProductImageFile;
 import com.store.store.dto.product.ProductSearchCriteria;
 import com.store.store.entity.Category;
 import com.store.store.entity.Product;
@@ -19,18 +20,22 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
@@ -46,8 +51,12 @@ public class ProductServiceImpl implements IProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final FileStorageServiceImpl fileStorageService;
+    private final ImageVariantServiceImpl imageVariantService;
+    private final CategorySnapshotServiceImpl categorySnapshotService;
+    private final ProductShowcaseServiceImpl productShowcaseService;
     private final ExceptionFactory exceptionFactory;
     private final MessageServiceImpl messageService;
+    private final TransactionTemplate transactionTemplate;
 
     // RECHERCHE ET FILTRAGE
 
@@ -61,7 +70,7 @@ public class ProductServiceImpl implements IProductService {
             Page<Product> products = productRepository.findAll(spec, pageable);
 
             log.info("Found {} products", products.getTotalElements());
-            return products.map(this::transformToDTO);
+            return products.map(ProductServiceImpl::transformToDTO);
 
         } catch (Exception e) {
             log.error("Error searching products with criteria: {}", criteria, e);
@@ -88,9 +97,11 @@ public class ProductServiceImpl implements IProductService {
             // Filtre par statut actif
             if (Boolean.TRUE.equals(criteria.activeOnly())) {predicates.add(cb.isTrue(root.get("isActive")));}
 
-            // Filtre par catégorie
+            // Filtre par catégorie : tout le sous-arbre (préfixe du chemin matérialisé, résolu en mémoire)
             if (criteria.categoryCode() != null && !criteria.categoryCode().isEmpty()) {
-                predicates.add(cb.equal(root.get("category").get("code"), criteria.categoryCode()));
+                predicates.add(categorySnapshotService.findPath(criteria.categoryCode())
+                        .map(path -> cb.like(root.get("category").get("path"), path + "%"))
+                        .orElseGet(() -> cb.equal(root.get("category").get("code"), criteria.categoryCode())));
             }
 
             // Filtre par prix minimum
@@ -151,7 +162,7 @@ public class ProductServiceImpl implements IProductService {
         try {
             List<Product> products = productRepository.findAllWithCategory();
             log.info("Found {} products", products.size());
-            return products.stream().map(this::transformToDTO).collect(Collectors.toList());
+            return products.stream().map(ProductServiceImpl::transformToDTO).collect(Collectors.toList());
         } catch (DataAccessException e) {
             log.error("Database error while fetching products", e);
             throw exceptionFactory.businessError(messageService.getMessage("error.product.fetch.failed"));
@@ -167,7 +178,7 @@ public class ProductServiceImpl implements IProductService {
 
             Page<Product> productPage = productRepository.findAllWithCategory(pageable);
             log.info("Found {} products on page {}", productPage.getContent().size(), pageable.getPageNumber());
-            return productPage.map(this::transformToDTO);
+            return productPage.map(ProductServiceImpl::transformToDTO);
 
         } catch (DataAccessException e) {
             log.error("Database error while fetching paginated products", e);
@@ -208,6 +219,16 @@ public class ProductServiceImpl implements IProductService {
         return searchProducts(criteria, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductDto> getActiveProductsInCategoryTree(String categoryCode, Pageable pageable) {
+        log.info("Fetching active products under category {}", categoryCode);
+
+        return categorySnapshotService.findPath(categoryCode)
+                .map(path -> productRepository.findActiveProductsInCategoryTree(path + "%", pageable).map(ProductServiceImpl::transformToDTO))
+                .orElseGet(() -> Page.empty(pageable));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDto> getInactiveProducts(Pageable pageable) {
@@ -219,7 +240,7 @@ public class ProductServiceImpl implements IProductService {
         Page<Product> products = productRepository.findAll(spec, pageable);
 
         log.info("Found {} inactive products", products.getTotalElements());
-        return products.map(this::transformToDTO);
+        return products.map(ProductServiceImpl::transformToDTO);
     }
 
 
@@ -233,33 +254,15 @@ public class ProductServiceImpl implements IProductService {
 
     // MÉTHODES MÉTIER SPÉCIALISÉES
 
+    // Listes précalculées en mémoire (aucune requête) : voir ProductShowcaseServiceImpl
     @Override
-    @Transactional(readOnly = true)
     public Page<ProductDto> getFeaturedProducts(Pageable pageable) {
-        log.info("Fetching featured products");
-
-        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
-                .activeOnly(true)
-                .inStockOnly(true)
-                .sortBy(ProductSearchCriteria.SortBy.POPULARITY)
-                .sortDirection(ProductSearchCriteria.SortDirection.DESC)
-                .build();
-
-        return searchProducts(criteria, pageable);
+        return productShowcaseService.getFeaturedProducts(pageable);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Page<ProductDto> getProductsOnSale(Pageable pageable) {
-        log.info("Fetching products on sale");
-
-        ProductSearchCriteria criteria = ProductSearchCriteria.builder()
-                .activeOnly(true)
-                .sortBy(ProductSearchCriteria.SortBy.POPULARITY)
-                .sortDirection(ProductSearchCriteria.SortDirection.DESC)
-                .build();
-
-        return searchProducts(criteria, pageable);
+        return productShowcaseService.getProductsOnSale(pageable);
     }
 
     @Override
@@ -291,6 +294,9 @@ public class ProductServiceImpl implements IProductService {
             Category category = getCategoryById(productDto.getCategoryId());
             Product product = createProductEntity(productDto, category);
             Product savedProduct = productRepository.save(product);
+            retainProductImages(savedProduct);
+            imageVariantService.scheduleVariants(savedProduct.getImageUrl());
+            categorySnapshotService.refreshAfterCommit();
 
             log.info("Product created successfully with ID: {}", savedProduct.getId());
             return transformToDTO(savedProduct);
@@ -303,7 +309,7 @@ public class ProductServiceImpl implements IProductService {
         }
     }
 
-    @CacheEvict(value = {"product", "products", "productsByCategory"}, key = "#id")
+    @CacheEvict(value = {"product", "products", "productsByCategory", "productImageFile"}, key = "#id")
     @Transactional
     @Override
     public ProductDto updateProduct(Long id, ProductDto productDto) {
@@ -330,7 +336,7 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Caching(evict = {
-            @CacheEvict(value = "product", key = "#id"),
+            @CacheEvict(value = {"product", "productImageFile"}, key = "#id"),
             @CacheEvict(value = {"products", "productsByCategory"}, allEntries = true)
     })
     @Transactional
@@ -343,6 +349,7 @@ public class ProductServiceImpl implements IProductService {
             Product product = getProductEntityById(id);
             product.setIsActive(false);
             productRepository.save(product);
+            categorySnapshotService.refreshAfterCommit();
 
             log.info("Product soft deleted successfully: {}", id);
 
@@ -369,6 +376,7 @@ public class ProductServiceImpl implements IProductService {
             Product product = getProductEntityById(id);
             product.setIsActive(true);
             Product savedProduct = productRepository.save(product);
+            categorySnapshotService.refreshAfterCommit();
 
             log.info("Product restored successfully: {}", id);
             return transformToDTO(savedProduct);
@@ -383,7 +391,7 @@ public class ProductServiceImpl implements IProductService {
 
     // GESTION DES IMAGES
 
-    @CacheEvict(value = {"product", "products", "productsByCategory"}, key = "#productId")
+    @CacheEvict(value = {"product", "products", "productsByCategory", "productImageFile"}, key = "#productId")
     @Transactional
     @Override
     public String uploadProductImage(Long productId, MultipartFile imageFile) throws IOException {
@@ -397,7 +405,9 @@ public class ProductServiceImpl implements IProductService {
             deleteProductImage(product);
 
             product.setImageUrl(imageUrl);
+            product.setImageVariantsReady(false);
             productRepository.save(product);
+            imageVariantService.scheduleVariants(imageUrl);
 
             log.info("Image uploaded successfully for product ID: {} -> {}", productId, imageUrl);
             return imageUrl;
@@ -410,7 +420,7 @@ public class ProductServiceImpl implements IProductService {
         }
     }
 
-    @CacheEvict(value = {"product", "products", "productsByCategory"}, key = "#productId")
+    @CacheEvict(value = {"product", "products", "productsByCategory", "productImageFile"}, key = "#productId")
     @Transactional
     @Override
     public void deleteProductImage(Long productId) {
@@ -421,6 +431,7 @@ public class ProductServiceImpl implements IProductService {
             Product product = getProductEntityById(productId);
             deleteProductImage(product);
             product.setImageUrl(null);
+            product.setImageVariantsReady(false);
             productRepository.save(product);
 
             log.info("Product image deleted successfully: {}", productId);
@@ -433,10 +444,17 @@ public class ProductServiceImpl implements IProductService {
         }
     }
 
+    /**
+     * Résout le fichier de l'image principale (chemin, taille, date, ETag) sans le lire :
+     * les octets sont ensuite envoyés en flux par le contrôleur, par plages si demandé.
+     * Le résultat est mis en cache par produit et évincé à chaque changement d'image.
+     */
+    @Cacheable(value = "productImageFile", key = "#productId")
+    @Transactional(readOnly = true)
     @Override
-    public byte[] getProductImageBytes(Long productId) {
+    public ProductImageFile getProductImageFile(Long productId) {
         try {
-            log.info("Fetching image bytes for product ID: {}", productId);
+            log.debug("Resolving image file for product ID: {}", productId);
 
             // 1. Validation de l'ID
             validateProductId(productId);
@@ -450,21 +468,26 @@ public class ProductServiceImpl implements IProductService {
                 throw exceptionFactory.resourceNotFoundById("ProductImage", productId);
             }
 
-            // 4. Extraction du nom de fichier
-            String fileName = extractFileNameFromUrl(product.getImageUrl());
-            Path imagePath = Paths.get("uploads/products").resolve(fileName);
-
-            // 5. Vérification de l'existence physique
-            if (!Files.exists(imagePath)) {
-                log.error("Physical image file not found: {}", imagePath);
-                throw exceptionFactory.resourceNotFoundById("ImageFile", fileName);
-            }
-
-            // 6. Lecture et retour
-            byte[] imageBytes = Files.readAllBytes(imagePath);
-            log.info("Successfully retrieved {} bytes for product ID: {}", imageBytes.length, productId);
-
-            return imageBytes;
+            // 4. Résolution sous store.file.directory (adressée par contenu ou ancienne URL)
+            String imageUrl = product.getImageUrl();
+            Path imagePath = fileStorageService.resolveUploadedFile(imageUrl)
+                    .filter(Files::isRegularFile)
+                    .orElseThrow(() -> {
+                        log.error("Physical image file not found for product ID: {} ({})", productId, imageUrl);
+                        return exceptionFactory.resourceNotFoundById("ImageFile", extractFileNameFromUrl(imageUrl));
+                    });
+
+            // 5. Métadonnées pour ETag / Last-Modified / Content-Length
+            BasicFileAttributes attributes = Files.readAttributes(imagePath, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            String etag = FileStorageServiceImpl.contentDigest(imageUrl)
+                    .map(digest -> "\"" + digest + "\"")
+                    .orElseGet(() -> "W/\"" + Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified) + "\"");
+            String contentType = MediaTypeFactory.getMediaType(imagePath.getFileName().toString())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                    .toString();
+
+            return new ProductImageFile(imagePath, contentType, attributes.size(), lastModified, etag);
 
         } catch (ResourceNotFoundException | ValidationException e) {
             // Re-throw business exceptions
@@ -475,8 +498,12 @@ public class ProductServiceImpl implements IProductService {
         }
     }
 
+    /**
+     * Les fichiers sont préparés en parallèle hors transaction (copie, empreinte, format) ;
+     * la transaction ne fait que référencer les contenus, les mettre en place et enregistrer les URL.
+     * Si un fichier est refusé, aucun n'est enregistré et les fichiers temporaires sont supprimés.
+     */
     @CacheEvict(value = {"product", "products", "productsByCategory"}, key = "#productId")
-    @Transactional
     @Override
     public List<String> uploadProductImages(Long productId, List<MultipartFile> imageFiles) throws IOException {
         try {
@@ -487,25 +514,33 @@ public class ProductServiceImpl implements IProductService {
                 throw exceptionFactory.validationError("images", messageService.getMessage("validation.product.images.required"));
             }
 
-            Product product = getProductEntityById(productId);
-            List<String> imageUrls = new ArrayList<>();
-
-            for (MultipartFile imageFile : imageFiles) {
-                String imageUrl = fileStorageService.storeProductImage(imageFile);
-                //String imageUrl = fileStorageService.storeGalleryImage(imageFile);
-                imageUrls.add(imageUrl);
-            }
-
-            if (product.getGalleryImages() == null) {
-                product.setGalleryImages(new ArrayList<>());
+            getProductEntityById(productId);
+            List<FileStorageServiceImpl.StagedImage> stagedImages = fileStorageService.stageImages(imageFiles);
+
+            try {
+                List<String> imageUrls = transactionTemplate.execute(status -> {
+                    Product product = getProductEntityById(productId);
+                    List<String> urls = new ArrayList<>(stagedImages.size());
+                    for (FileStorageServiceImpl.StagedImage staged : stagedImages) {
+                        urls.add(commitStagedImage(staged));
+                    }
+
+                    if (product.getGalleryImages() == null) {
+                        product.setGalleryImages(new ArrayList<>());
+                    }
+                    product.getGalleryImages().addAll(urls);
+                    productRepository.save(product);
+                    return urls;
+                });
+
+                log.info("{} images uploaded successfully for product ID: {}", stagedImages.size(), productId);
+                return imageUrls;
+
+            } finally {
+                stagedImages.forEach(fileStorageService::discard);
             }
-            product.getGalleryImages().addAll(imageUrls);
-            productRepository.save(product);
 
-            log.info("{} images uploaded successfully for product ID: {}", imageUrls.size(), productId);
-            return imageUrls;
-
-        } catch (ValidationException | IOException e) {
+        } catch (ResourceNotFoundException | ValidationException | IOException e) {
             throw e;
         } catch (DataAccessException e) {
             log.error("Database error while uploading multiple images for product ID: {}", productId, e);
@@ -620,6 +655,7 @@ public class ProductServiceImpl implements IProductService {
 
             Category newCategory = getCategoryById(productDto.getCategoryId());
             existingProduct.setCategory(newCategory);
+            categorySnapshotService.refreshAfterCommit();
             log.info("Category updated from {} to {}", existingProduct.getCategory().getName(), newCategory.getName());
         }
     }
@@ -628,10 +664,51 @@ public class ProductServiceImpl implements IProductService {
         existingProduct.setName(productDto.getName());
         existingProduct.setDescription(productDto.getDescription());
         existingProduct.setPrice(productDto.getPrice());
-        existingProduct.setImageUrl(productDto.getImageUrl());
+        existingProduct.setSalePrice(productDto.getSalePrice());
+        existingProduct.setSaleStartsAt(productDto.getSaleStartsAt());
+        existingProduct.setSaleEndsAt(productDto.getSaleEndsAt());
+        if (productDto.getStockQuantity() != null) {
+            existingProduct.setStockQuantity(productDto.getStockQuantity());
+        }
+        // Une URL réaffectée prend une référence, l'URL remplacée rend la sienne (sinon fichiers orphelins)
+        if (!Objects.equals(existingProduct.getImageUrl(), productDto.getImageUrl())) {
+            if (productDto.getImageUrl() != null) {
+                fileStorageService.retainImage(productDto.getImageUrl());
+            }
+            deleteProductImage(existingProduct);
+            existingProduct.setImageUrl(productDto.getImageUrl());
+            existingProduct.setImageVariantsReady(false);
+            imageVariantService.scheduleVariants(productDto.getImageUrl());
+        }
 
         if (productDto.getGalleryImages() != null) {
-            existingProduct.setGalleryImages(new ArrayList<>(productDto.getGalleryImages()));
+            List<String> previous = existingProduct.getGalleryImages() == null
+                    ? List.of() : new ArrayList<>(existingProduct.getGalleryImages());
+            List<String> updated = new ArrayList<>(productDto.getGalleryImages());
+            updated.stream().filter(url -> !previous.contains(url)).forEach(fileStorageService::retainImage);
+            previous.stream().filter(url -> !updated.contains(url)).forEach(fileStorageService::deleteProductImage);
+            existingProduct.setGalleryImages(updated);
+        }
+    }
+
+    /**
+     * Les URL reprises à la création prennent leur référence, comme à la mise à jour
+     * (sinon le retrait ultérieur rendrait une référence jamais prise et la purge supprimerait un fichier partagé).
+     */
+    private void retainProductImages(Product product) {
+        if (product.getImageUrl() != null) {
+            fileStorageService.retainImage(product.getImageUrl());
+        }
+        if (product.getGalleryImages() != null) {
+            product.getGalleryImages().forEach(fileStorageService::retainImage);
+        }
+    }
+
+    private String commitStagedImage(FileStorageServiceImpl.StagedImage staged) {
+        try {
+            return fileStorageService.commitStagedImage(staged);
+        } catch (IOException e) {
+            throw exceptionFactory.fileStorageError(messageService.getMessage("error.product.images.upload.failed"), e);
         }
     }
 
@@ -675,6 +752,13 @@ public class ProductServiceImpl implements IProductService {
         if (productDto.getDescription() != null && productDto.getDescription().length() > 500) {
             throw exceptionFactory.validationError("description", messageService.getMessage("validation.product.description.tooLong", 500));
         }
+        if (productDto.getSalePrice() != null && productDto.getSalePrice().compareTo(productDto.getPrice()) >= 0) {
+            throw exceptionFactory.validationError("salePrice", messageService.getMessage("validation.product.salePrice.invalid"));
+        }
+        if (productDto.getSaleStartsAt() != null && productDto.getSaleEndsAt() != null
+                && !productDto.getSaleEndsAt().isAfter(productDto.getSaleStartsAt())) {
+            throw exceptionFactory.validationError("saleEndsAt", messageService.getMessage("validation.product.saleWindow.invalid"));
+        }
     }
 
     private void validateProductForUpdate(ProductDto productDto) {
@@ -698,23 +782,35 @@ public class ProductServiceImpl implements IProductService {
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
         product.setPrice(productDto.getPrice());
+        product.setSalePrice(productDto.getSalePrice());
+        product.setSaleStartsAt(productDto.getSaleStartsAt());
+        product.setSaleEndsAt(productDto.getSaleEndsAt());
         product.setPopularity(0);
         product.setImageUrl(productDto.getImageUrl());
+        if (productDto.getGalleryImages() != null) {
+            product.setGalleryImages(new ArrayList<>(productDto.getGalleryImages()));
+        }
         product.setCategory(category);
         product.setSku(productDto.getSku());
         return product;
     }
 
-    private ProductDto transformToDTO(Product product) {
+    static ProductDto transformToDTO(Product product) {
         ProductDto productDto = new ProductDto();
         productDto.setProductId(product.getId());
         productDto.setName(product.getName());
         productDto.setDescription(product.getDescription());
         productDto.setPrice(product.getPrice());
+        productDto.setSalePrice(product.getSalePrice());
+        productDto.setSaleStartsAt(product.getSaleStartsAt());
+        productDto.setSaleEndsAt(product.getSaleEndsAt());
         productDto.setPopularity(product.getPopularity());
         productDto.setStockQuantity(product.getStockQuantity());
         productDto.setSku(product.getSku());
         productDto.setImageUrl(product.getImageUrl());
+        if (Boolean.TRUE.equals(product.getImageVariantsReady())) {
+            productDto.setImageVariants(FileStorageServiceImpl.variantUrls(product.getImageUrl()));
+        }
         productDto.setIsActive(product.getIsActive());
         productDto.setGalleryImages(product.getGalleryImages());
 
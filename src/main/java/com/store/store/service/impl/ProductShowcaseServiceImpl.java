@@ -0,0 +1,165 @@
+package com.store.store.service.impl;
+
+import com.store.store.dto.product.ProductDto;
+import com.store.store.entity.Product;
+import com.store.store.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Listes de la page d'accueil ("populaires", "en promotion") précalculées et servies depuis la mémoire.
+ *
+ * - Matérialisées par le job planifié (ProductShowcaseScheduler) : deux requêtes bornées à la taille de vitrine
+ * - Tableaux figés remplacés d'un bloc, et seulement si leur contenu a changé : un lecteur voit l'ancienne
+ *   ou la nouvelle vitrine, jamais un mélange
+ * - Lecture sans requête ; première lecture avant le premier passage du job : construction immédiate
+ * - Une modification produit apparaît au plus tard après un intervalle de rafraîchissement
+ *
+ * Les DTO sont partagés entre les appelants : lecture seule (sérialisation).
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-22
+ */
+@Slf4j
+@Service
+public class ProductShowcaseServiceImpl {
+
+    /**
+     * Vitrine figée : au plus showcaseSize produits par liste, dans l'ordre d'affichage.
+     */
+    record Showcase(ProductDto[] featured, ProductDto[] onSale, Instant builtAt) {
+    }
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readTransaction;
+    private final int showcaseSize;
+
+    private final AtomicReference<Showcase> current = new AtomicReference<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final Timer rebuildTimer;
+    private final Counter swapCounter;
+
+    public ProductShowcaseServiceImpl(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${store.catalog.showcase.size:48}") int showcaseSize) {
+
+        this.productRepository = productRepository;
+        this.showcaseSize = showcaseSize;
+
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+
+        this.rebuildTimer = Timer.builder("store.products.showcase.rebuild")
+                .description("Durée de matérialisation des listes de la page d'accueil")
+                .register(meterRegistry);
+        this.swapCounter = Counter.builder("store.products.showcase.swaps")
+                .description("Remplacements de la vitrine (contenu modifié)")
+                .register(meterRegistry);
+    }
+
+    // LECTURE
+
+    public Page<ProductDto> getFeaturedProducts(Pageable pageable) {
+        return page(showcase().featured(), pageable);
+    }
+
+    public Page<ProductDto> getProductsOnSale(Pageable pageable) {
+        return page(showcase().onSale(), pageable);
+    }
+
+    /**
+     * Page découpée dans la vitrine ; le total est celui de la vitrine (bornée à showcaseSize).
+     */
+    static Page<ProductDto> page(ProductDto[] items, Pageable pageable) {
+        long offset = pageable.getOffset();
+        if (offset >= items.length) {
+            return new PageImpl<>(List.of(), pageable, items.length);
+        }
+        int to = (int) Math.min(offset + pageable.getPageSize(), items.length);
+        return new PageImpl<>(List.of(Arrays.copyOfRange(items, (int) offset, to)), pageable, items.length);
+    }
+
+    // MATÉRIALISATION
+
+    /**
+     * Recalcule les deux listes et remplace la vitrine si l'une d'elles a changé.
+     *
+     * @return true si la vitrine a été remplacée
+     */
+    public boolean refresh() {
+        rebuildLock.lock();
+        try {
+            Showcase previous = current.get();
+            Showcase next = rebuildTimer.record(() -> readTransaction.execute(status -> load()));
+            if (previous != null && Arrays.equals(previous.featured(), next.featured())
+                    && Arrays.equals(previous.onSale(), next.onSale())) {
+                return false;
+            }
+            current.set(next);
+            swapCounter.increment();
+            log.debug("Product showcase swapped: {} featured, {} on sale", next.featured().length, next.onSale().length);
+            return true;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    Showcase showcase() {
+        Showcase showcase = current.get();
+        if (showcase != null) {
+            return showcase;
+        }
+        rebuildLock.lock();
+        try {
+            if (current.get() == null) {
+                refresh();
+            }
+            return current.get();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private Showcase load() {
+        Instant now = Instant.now();
+        Pageable limit = PageRequest.of(0, showcaseSize);
+        return new Showcase(
+                toFrozenDtos(productRepository.findFeatured(limit)),
+                toFrozenDtos(productRepository.findOnSale(now, limit)),
+                now);
+    }
+
+    private static ProductDto[] toFrozenDtos(List<Product> products) {
+        return products.stream()
+                .map(ProductServiceImpl::transformToDTO)
+                .peek(dto -> {
+                    // Galerie copiée dans la transaction : la vitrine survit à la session
+                    dto.setGalleryImages(dto.getGalleryImages() == null ? List.of() : List.copyOf(dto.getGalleryImages()));
+                    dto.setImageVariants(Collections.unmodifiableMap(dto.getImageVariants()));
+                })
+                .toArray(ProductDto[]::new);
+    }
+}
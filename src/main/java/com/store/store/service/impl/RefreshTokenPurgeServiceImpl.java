@@ -0,0 +1,157 @@
+package com.store.store.service.impl;
+
+import com.store.store.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Purge par lots des refresh tokens expirés.
+ *
+ * Les tokens révoqués n'ont pas de passe dédiée : leur expiration (au plus la durée de vie d'un
+ * refresh token) est antérieure à toute rétention utile, ils partent donc avec les expirés.
+ *
+ * Au lieu d'un unique DELETE massif (verrous longs, undo log qui gonfle) :
+ * - sélection d'un lot d'IDs via l'index idx_refresh_token_expiry_date
+ * - DELETE par clé primaire dans une transaction courte (une par lot)
+ * - pause entre les lots pour laisser passer le trafic de login
+ * - budget de temps global : la purge reprend au prochain passage si elle est interrompue
+ *
+ * Métriques exportées :
+ * - store.refresh_tokens.purged{kind}       : compteur de lignes supprimées (progression)
+ * - store.refresh_tokens.purge.chunk{kind}  : durée de chaque lot
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-15
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenPurgeServiceImpl {
+
+    private static final String KIND_EXPIRED = "expired";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${store.refresh-token.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${store.refresh-token.purge.pause-between-batches:PT0.2S}")
+    private Duration pauseBetweenBatches;
+
+    @Value("${store.refresh-token.purge.time-budget:PT5M}")
+    private Duration timeBudget;
+
+    /**
+     * Rapport d'exécution d'une purge.
+     *
+     * @param expiredDeleted Tokens expirés supprimés (révoqués compris)
+     * @param batches Nombre de lots exécutés
+     * @param budgetExhausted true si la purge s'est arrêtée sur le budget de temps
+     * @param duration Durée totale
+     */
+    public record PurgeReport(int expiredDeleted, int batches, boolean budgetExhausted, Duration duration) { }
+
+    /**
+     * Lance une purge complète dans la limite du budget de temps.
+     * Ne doit pas être appelée dans une transaction : chaque lot ouvre la sienne.
+     *
+     * @return Le rapport d'exécution
+     */
+    public PurgeReport purge() {
+        Instant start = Instant.now();
+        Instant deadline = start.plus(timeBudget);
+
+        BatchProgress expired = purgeInBatches(KIND_EXPIRED,
+                pageable -> refreshTokenRepository.findExpiredTokenIds(start, pageable), deadline);
+
+        PurgeReport report = new PurgeReport(
+                expired.deleted(),
+                expired.batches(),
+                expired.budgetExhausted(),
+                Duration.between(start, Instant.now())
+        );
+
+        log.info("Refresh token purge finished: {} expired deleted in {} batches ({} ms){}",
+                report.expiredDeleted(), report.batches(), report.duration().toMillis(),
+                report.budgetExhausted() ? " - time budget exhausted, will resume next run" : "");
+
+        return report;
+    }
+
+    // MÉTHODES PRIVÉES
+
+    private record BatchProgress(int deleted, int batches, boolean budgetExhausted) { }
+
+    private BatchProgress purgeInBatches(String kind, Function<Pageable, List<Long>> idSelector, Instant deadline) {
+        Pageable firstBatch = PageRequest.of(0, batchSize);
+        Timer batchTimer = meterRegistry.timer("store.refresh_tokens.purge.chunk", "kind", kind);
+
+        int deleted = 0;
+        int batches = 0;
+
+        while (true) {
+            if (Instant.now().isAfter(deadline)) {
+                log.warn("Refresh token purge ({}) stopped on time budget after {} batches", kind, batches);
+                return new BatchProgress(deleted, batches, true);
+            }
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Integer batchDeleted = transactionTemplate.execute(status -> {
+                List<Long> ids = idSelector.apply(firstBatch);
+                return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIdIn(ids);
+            });
+            sample.stop(batchTimer);
+
+            int count = batchDeleted != null ? batchDeleted : 0;
+            if (count == 0) {
+                return new BatchProgress(deleted, batches, false);
+            }
+
+            deleted += count;
+            batches++;
+            meterRegistry.counter("store.refresh_tokens.purged", "kind", kind).increment(count);
+            log.debug("Refresh token purge ({}): batch {} deleted {} rows (total {})", kind, batches, count, deleted);
+
+            // Dernier lot incomplet : plus rien à purger
+            if (count < batchSize) {
+                return new BatchProgress(deleted, batches, false);
+            }
+
+            if (!pause()) {
+                return new BatchProgress(deleted, batches, true);
+            }
+        }
+    }
+
+    /**
+     * @return false si le thread a été interrompu (arrêt de l'application)
+     */
+    private boolean pause() {
+        if (pauseBetweenBatches.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseBetweenBatches.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Refresh token purge interrupted");
+            return false;
+        }
+    }
+}
@@ -6,11 +6,17 @@ import com.store.store.entity.Customer;
 import com.store.store.entity.RefreshToken;
 import com.store.store.exception.ExceptionFactory;
 import com.store.store.mapper.UserMapper;
+import com.store.store.repository.CustomerRepository;
 import com.store.store.repository.RefreshTokenRepository;
+import com.store.store.security.ActiveSessionRegistry;
 import com.store.store.security.CustomerUserDetails;
+import com.store.store.security.RefreshTokenLookupCache;
+import com.store.store.security.TokenRevocationRegistry;
 import com.store.store.service.IRefreshTokenService;
+import com.store.store.service.ISessionService;
 
 import com.store.store.util.JwtUtil;
+import com.store.store.util.TokenHashUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -41,6 +47,12 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
     private final UserMapper userMapper;
     private final ExceptionFactory exceptionFactory;
     private final MessageServiceImpl messageService;
+    private final RefreshTokenLookupCache lookupCache;
+    private final CustomerRepository customerRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final RefreshTokenPurgeServiceImpl refreshTokenPurgeService;
+    private final ISessionService sessionService;
+    private final ActiveSessionRegistry activeSessionRegistry;
 
     @Value("${store.refresh-token.expiration-ms:604800000}") // 7 jours par défaut
     private long refreshTokenExpirationMs;
@@ -50,13 +62,20 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
     @Override
     @Transactional
     public RefreshToken createRefreshToken(Customer customer, String ipAddress, String userAgent) {
+        // Plafond de sessions actives (vérifié en mémoire, éviction des plus anciennes si atteint)
+        sessionService.enforceSessionLimit(customer.getCustomerId());
+
         // Extraction des informations d'appareil
         String deviceInfo = deviceInfoExtractor.extractDeviceInfo(userAgent);
 
+        // Génération du token brut : seule son empreinte SHA-256 est persistée
+        String rawToken = UUID.randomUUID().toString();
+
         // Construction du refresh token
         RefreshToken refreshToken = RefreshToken.builder()
                 .customer(customer)
-                .token(UUID.randomUUID().toString())
+                .token(rawToken)
+                .tokenHash(TokenHashUtil.sha256(rawToken))
                 .expiryDate(Instant.now().plusMillis(refreshTokenExpirationMs))
                 .revoked(false)
                 .ipAddress(ipAddress)
@@ -66,6 +85,9 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
 
         // Sauvegarde en base
         RefreshToken saved = refreshTokenRepository.save(refreshToken);
+        saved.setToken(rawToken);
+        lookupCache.markActive(TokenHashUtil.toHex(saved.getTokenHash()), saved.getExpiryDate());
+        activeSessionRegistry.sessionCreated(customer.getCustomerId());
 
         log.info("Refresh token created for customer: {} from IP: {} (Device: {})", customer.getEmail(), ipAddress, deviceInfo);
 
@@ -76,10 +98,17 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
 
     @Override
     public RefreshToken verifyRefreshToken(String token) {
-        // Vérification existence
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token)
+        byte[] tokenHash = TokenHashUtil.sha256(token);
+        String tokenKey = TokenHashUtil.toHex(tokenHash);
+
+        // Court-circuit via le cache : tokens inconnus, révoqués ou expirés rejetés sans requête SQL
+        rejectFromCache(tokenKey);
+
+        // Vérification existence (index unique sur token_hash)
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(tokenHash)
                 .orElseThrow(() -> {
-                    log.warn("Refresh token not found: {}", token);
+                    log.warn("Refresh token not found: {}", shortKey(tokenKey));
+                    lookupCache.markUnknown(tokenKey);
                     //  Utilisation de messageService
                     return new IllegalArgumentException(messageService.getMessage("error.auth.refresh.token.not.found"));
                 });
@@ -87,18 +116,21 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
         // Vérification révocation
         if (refreshToken.isRevoked()) {
             log.warn("Attempted to use revoked refresh token: {} (Customer: {})",
-                    token, refreshToken.getCustomer().getEmail());
+                    shortKey(tokenKey), refreshToken.getCustomer().getEmail());
+            lookupCache.markRevoked(tokenKey, refreshToken.getExpiryDate());
             // Utilisation de messageService
             throw new IllegalArgumentException(messageService.getMessage("error.auth.refresh.token.revoked"));
         }
 
         // Vérification expiration
         if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
-            log.warn("Attempted to use expired refresh token: {} (Expired: {})", token, refreshToken.getExpiryDate());
+            log.warn("Attempted to use expired refresh token: {} (Expired: {})", shortKey(tokenKey), refreshToken.getExpiryDate());
+            lookupCache.markActive(tokenKey, refreshToken.getExpiryDate());
             //Utilisation de messageService
             throw new IllegalArgumentException(messageService.getMessage("error.auth.refresh.token.expired"));
         }
 
+        lookupCache.markActive(tokenKey, refreshToken.getExpiryDate());
         log.debug("Refresh token verified successfully for customer: {}", refreshToken.getCustomer().getEmail());
 
         return refreshToken;
@@ -132,6 +164,8 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
         // 3. Révoquer l'ancien refresh token (Token Rotation)
         refreshToken.setRevoked(true);
         refreshTokenRepository.save(refreshToken);
+        markRevoked(refreshToken);
+        activeSessionRegistry.sessionRevoked(customer.getCustomerId());
         log.info("Old refresh token revoked for customer: {} (Token Rotation)", customer.getEmail());
 
         // 4. Créer un objet Authentication pour générer le JWT
@@ -165,30 +199,59 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
     @Override
     @Transactional
     public void revokeRefreshToken(String token) {
-        refreshTokenRepository.findByToken(token).ifPresent(refreshToken -> {
+        refreshTokenRepository.findByTokenHash(TokenHashUtil.sha256(token)).ifPresent(refreshToken -> {
             refreshToken.setRevoked(true);
             refreshTokenRepository.save(refreshToken);
-            log.info("Refresh token revoked: {} (Customer: {})", token, refreshToken.getCustomer().getEmail());
+            markRevoked(refreshToken);
+            activeSessionRegistry.sessionRevoked(refreshToken.getCustomer().getCustomerId());
+            log.info("Refresh token revoked: {} (Customer: {})",
+                    shortKey(TokenHashUtil.toHex(refreshToken.getTokenHash())), refreshToken.getCustomer().getEmail());
         });
     }
 
 
+    /**
+     * Révocation globale : un UPDATE ensembliste sur les refresh tokens
+     * + une époque de révocation (O(1)) qui invalide aussi les JWT déjà émis.
+     */
     @Override
     @Transactional
     public void revokeAllTokensForCustomer(Long customerId) {
-        List<RefreshToken> tokens = refreshTokenRepository.findByCustomer_CustomerIdAndRevokedFalse(customerId);
+        int revoked = refreshTokenRepository.revokeAllTokensByCustomer(customerId);
+        activeSessionRegistry.reset(customerId, 0);
 
-        tokens.forEach(token -> {token.setRevoked(true);refreshTokenRepository.save(token);});
+        Instant epoch = Instant.now();
+        customerRepository.updateTokensValidAfter(customerId, epoch);
+        customerRepository.findById(customerId)
+                .ifPresent(customer -> tokenRevocationRegistry.register(customer.getEmail(), epoch));
 
-        log.warn("ALL {} refresh tokens revoked for customer ID: {} (Full logout)", tokens.size(), customerId);
+        // Les entrées ACTIVE du cache de recherche restent sûres : la base est toujours consultée pour elles
+        log.warn("ALL {} refresh tokens revoked for customer ID: {} (Full logout, epoch: {})", revoked, customerId, epoch);
+    }
+
+    /**
+     * "Déconnecter les autres appareils" : un UPDATE ensembliste conservant la session courante.
+     * Les JWT des autres appareils expirent naturellement (15 min max) faute de refresh token valide.
+     */
+    @Override
+    @Transactional
+    public int revokeOtherTokensForCustomer(Long customerId, String currentToken) {
+        int revoked = refreshTokenRepository.revokeAllTokensByCustomerExcept(customerId, TokenHashUtil.sha256(currentToken));
+        activeSessionRegistry.invalidate(customerId);
+
+        log.info("{} other refresh tokens revoked for customer ID: {} (current session kept)", revoked, customerId);
+        return revoked;
     }
 
     // NETTOYAGE DES TOKENS
 
+    /**
+     * Purge par lots (voir {@link RefreshTokenPurgeServiceImpl}).
+     * Volontairement non transactionnelle : chaque lot ouvre sa propre transaction courte.
+     */
     @Override
-    @Transactional
     public int deleteExpiredTokens() {
-        int deleted = refreshTokenRepository.deleteByExpiryDateBefore(Instant.now());
+        int deleted = refreshTokenPurgeService.purge().expiredDeleted();
         log.info(" Cleanup: {} expired refresh tokens deleted", deleted);
         return deleted;
     }
@@ -203,6 +266,47 @@ public class RefreshTokenServiceImpl implements IRefreshTokenService {
         return tokens;
     }
 
+    // MÉTHODES PRIVÉES - CACHE DE RECHERCHE
+
+    /**
+     * Rejette immédiatement un token dont l'état négatif est connu du cache.
+     * Un token ACTIVE en cache poursuit vers la base (l'entité est nécessaire à la rotation).
+     */
+    private void rejectFromCache(String tokenKey) {
+        RefreshTokenLookupCache.Entry cached = lookupCache.get(tokenKey);
+        if (cached == null) {
+            return;
+        }
+
+        switch (cached.status()) {
+            case UNKNOWN -> {
+                log.debug("Refresh token rejected from cache (unknown): {}", shortKey(tokenKey));
+                throw new IllegalArgumentException(messageService.getMessage("error.auth.refresh.token.not.found"));
+            }
+            case REVOKED -> {
+                log.warn("Attempted to use revoked refresh token (cached): {}", shortKey(tokenKey));
+                throw new IllegalArgumentException(messageService.getMessage("error.auth.refresh.token.revoked"));
+            }
+            case ACTIVE -> {
+                if (cached.isExpired()) {
+                    log.debug("Refresh token rejected from cache (expired): {}", shortKey(tokenKey));
+                    throw new IllegalArgumentException(messageService.getMessage("error.auth.refresh.token.expired"));
+                }
+            }
+        }
+    }
+
+    private void markRevoked(RefreshToken refreshToken) {
+        lookupCache.markRevoked(TokenHashUtil.toHex(refreshToken.getTokenHash()), refreshToken.getExpiryDate());
+    }
+
+    /**
+     * Préfixe de l'empreinte pour les logs (jamais la valeur brute du token).
+     */
+    private String shortKey(String tokenKey) {
+        return tokenKey.substring(0, 12);
+    }
+
     // MÉTHODES PRIVÉES - UTILITAIRES
 
     private Authentication createAuthenticationFromCustomer(Customer customer) {
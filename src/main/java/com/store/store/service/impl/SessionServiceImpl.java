@@ -0,0 +1,119 @@
+package com.store.store.service.impl;
+
+import com.store.store.dto.auth.SessionDto;
+import com.store.store.entity.RefreshToken;
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.repository.RefreshTokenRepository;
+import com.store.store.security.ActiveSessionRegistry;
+import com.store.store.service.ISessionService;
+import com.store.store.util.TokenHashUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gestion des sessions (refresh tokens actifs) d'un customer.
+ *
+ * - Plafond de sessions actives par customer : les plus anciennes sont évincées
+ * - Vérification du plafond en mémoire via {@link ActiveSessionRegistry} (aucune requête au login)
+ * - Liste "mes appareils" et révocation d'une session précise
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-15
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SessionServiceImpl implements ISessionService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final ActiveSessionRegistry activeSessionRegistry;
+    private final ExceptionFactory exceptionFactory;
+
+    @Value("${store.refresh-token.max-active-tokens:5}")
+    private int maxActiveTokens;
+
+    // PLAFOND DE SESSIONS
+
+    /**
+     * Garantit qu'une nouvelle session peut être créée sans dépasser le plafond.
+     * Chemin nominal : une lecture du compteur en mémoire.
+     * Chemin rare (plafond atteint) : recomptage en base puis révocation ensembliste des plus anciennes.
+     */
+    @Override
+    @Transactional
+    public void enforceSessionLimit(Long customerId) {
+        if (activeSessionRegistry.activeCount(customerId) < maxActiveTokens) {
+            return;
+        }
+
+        // Le compteur peut surestimer (tokens expirés) : recalage sur la base
+        Instant now = Instant.now();
+        int activeCount = (int) refreshTokenRepository.countActiveTokensByCustomer(customerId, now);
+        int toEvict = activeCount - maxActiveTokens + 1;
+
+        if (toEvict > 0) {
+            List<Long> oldestIds = refreshTokenRepository.findActiveTokenIdsOldestFirst(
+                    customerId, now, PageRequest.of(0, toEvict));
+
+            int evicted = oldestIds.isEmpty() ? 0 : refreshTokenRepository.revokeByIdIn(oldestIds);
+            activeCount -= evicted;
+
+            log.info("Session limit ({}) reached for customer ID: {} - {} oldest session(s) evicted",
+                    maxActiveTokens, customerId, evicted);
+        }
+
+        activeSessionRegistry.reset(customerId, activeCount);
+    }
+
+    // MES APPAREILS
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SessionDto> getActiveSessions(Long customerId, String currentToken) {
+        byte[] currentHash = currentToken == null || currentToken.isBlank() ? null : TokenHashUtil.sha256(currentToken);
+
+        List<SessionDto> sessions = refreshTokenRepository.findActiveTokensByCustomer(customerId, Instant.now())
+                .stream()
+                .map(token -> toSessionDto(token, currentHash))
+                .toList();
+
+        log.debug("Found {} active sessions for customer ID: {}", sessions.size(), customerId);
+        return sessions;
+    }
+
+    @Override
+    @Transactional
+    public void revokeSession(Long customerId, Long sessionId) {
+        int revoked = refreshTokenRepository.revokeByIdAndCustomer(sessionId, customerId);
+
+        if (revoked == 0) {
+            log.warn("Session {} not found or not active for customer ID: {}", sessionId, customerId);
+            throw exceptionFactory.resourceNotFoundById("Session", sessionId);
+        }
+
+        activeSessionRegistry.sessionRevoked(customerId);
+        log.info("Session {} revoked by customer ID: {}", sessionId, customerId);
+    }
+
+    // MÉTHODES PRIVÉES
+
+    private SessionDto toSessionDto(RefreshToken token, byte[] currentHash) {
+        return new SessionDto(
+                token.getId(),
+                token.getDeviceInfo(),
+                token.getIpAddress(),
+                token.getCreatedDate(),
+                token.getExpiryDate(),
+                currentHash != null && Arrays.equals(currentHash, token.getTokenHash())
+        );
+    }
+}
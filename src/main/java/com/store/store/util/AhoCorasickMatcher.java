@@ -0,0 +1,127 @@
+package com.store.store.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Automate d'Aho–Corasick compilé pour la recherche simultanée de marqueurs ASCII (64 au plus).
+ *
+ * Le texte est parcouru une seule fois, quel que soit le nombre de marqueurs : chaque caractère
+ * coûte une lecture de table de transition (les liens d'échec sont déjà résolus dans la table).
+ * Le résultat est un masque de bits : le bit {@code i} est levé si {@code patterns[i]} apparaît.
+ *
+ * Immuable après construction, donc partageable entre threads.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-21
+ */
+public final class AhoCorasickMatcher {
+
+    private static final int MAX_PATTERNS = Long.SIZE;
+    private static final int ASCII = 128;
+
+    // Classe de caractère : 0 = caractère absent de tous les marqueurs
+    private final int[] charClass = new int[ASCII];
+    private final int alphabetSize;
+    private final int[][] transitions;
+    private final long[] outputs;
+
+    public AhoCorasickMatcher(List<String> patterns) {
+        if (patterns.isEmpty() || patterns.size() > MAX_PATTERNS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_PATTERNS + " patterns are supported");
+        }
+
+        int classes = 1;
+        for (String pattern : patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Empty pattern");
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c >= ASCII) {
+                    throw new IllegalArgumentException("Only ASCII patterns are supported: " + pattern);
+                }
+                if (charClass[c] == 0) {
+                    charClass[c] = classes++;
+                }
+            }
+        }
+        this.alphabetSize = classes;
+
+        // 1. Trie
+        List<int[]> trie = new ArrayList<>();
+        List<Long> out = new ArrayList<>();
+        trie.add(newState());
+        out.add(0L);
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int cls = charClass[pattern.charAt(i)];
+                if (trie.get(state)[cls] < 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(newState());
+                    out.add(0L);
+                }
+                state = trie.get(state)[cls];
+            }
+            out.set(state, out.get(state) | (1L << p));
+        }
+
+        // 2. Liens d'échec en largeur, repliés dans la table de transition (automate déterministe)
+        int[][] delta = trie.toArray(int[][]::new);
+        long[] output = out.stream().mapToLong(Long::longValue).toArray();
+        int[] fail = new int[delta.length];
+        Deque<Integer> queue = new ArrayDeque<>();
+
+        for (int cls = 0; cls < alphabetSize; cls++) {
+            int next = delta[0][cls];
+            if (next < 0) {
+                delta[0][cls] = 0;
+            } else {
+                fail[next] = 0;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            output[state] |= output[fail[state]];
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int next = delta[state][cls];
+                if (next < 0) {
+                    delta[state][cls] = delta[fail[state]][cls];
+                } else {
+                    fail[next] = delta[fail[state]][cls];
+                    queue.add(next);
+                }
+            }
+        }
+
+        this.transitions = delta;
+        this.outputs = output;
+    }
+
+    /**
+     * Parcourt le texte une fois et retourne le masque des marqueurs trouvés.
+     */
+    public long scan(CharSequence text) {
+        long found = 0L;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            state = transitions[state][c < ASCII ? charClass[c] : 0];
+            found |= outputs[state];
+        }
+        return found;
+    }
+
+    private int[] newState() {
+        int[] state = new int[alphabetSize];
+        Arrays.fill(state, -1);
+        return state;
+    }
+}
@@ -0,0 +1,58 @@
+package com.store.store.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utilitaire de hachage des refresh tokens.
+ *
+ * Les refresh tokens ne sont jamais stockés en clair : seule leur empreinte SHA-256
+ * (32 octets) est persistée dans la colonne {@code refresh_tokens.token_hash}.
+ * Un UUID aléatoire ayant 122 bits d'entropie, un hachage simple (sans sel) suffit
+ * et permet une recherche directe par index.
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-15
+ */
+public final class TokenHashUtil {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private TokenHashUtil() {
+        throw new UnsupportedOperationException("Cette classe ne peut pas être instanciée");
+    }
+
+    /**
+     * Calcule l'empreinte SHA-256 d'un token brut.
+     *
+     * @param rawToken Valeur brute du token (UUID)
+     * @return Empreinte sur 32 octets
+     * @throws IllegalArgumentException si le token est null ou vide
+     */
+    public static byte[] sha256(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new IllegalArgumentException("Token cannot be null or blank");
+        }
+
+        try {
+            return MessageDigest.getInstance(ALGORITHM).digest(rawToken.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 est garanti par toutes les JVM conformes
+            throw new IllegalStateException("SHA-256 algorithm not available", e);
+        }
+    }
+
+    /**
+     * Représentation hexadécimale d'une empreinte (clé de cache, logs).
+     *
+     * @param hash Empreinte binaire
+     * @return Chaîne hexadécimale en minuscules
+     */
+    public static String toHex(byte[] hash) {
+        return HEX.formatHex(hash);
+    }
+}
@@ -7,6 +7,11 @@ CREATE TABLE IF NOT EXISTS products
     price       DECIMAL(10, 2)                        NOT NULL,
     popularity  INT                                   NOT NULL,
     image_url   VARCHAR(500),
+    image_variants_ready BOOLEAN DEFAULT FALSE NOT NULL,
+    -- Prix promotionnel : actif si inférieur au prix et dans la fenêtre (bornes facultatives)
+    sale_price      DECIMAL(10, 2) DEFAULT NULL,
+    sale_starts_at  TIMESTAMP      DEFAULT NULL,
+    sale_ends_at    TIMESTAMP      DEFAULT NULL,
     created_at  TIMESTAMP   DEFAULT CURRENT_TIMESTAMP NOT NULL,
     created_by  VARCHAR(20)                           NOT NULL,
     updated_at  TIMESTAMP   DEFAULT NULL,
@@ -21,6 +26,8 @@ CREATE TABLE IF NOT EXISTS categories (
     icon          VARCHAR(10) COMMENT 'Emoji icon',
     display_order INT DEFAULT 0 COMMENT 'Ordre d''affichage',
     is_active     BOOLEAN DEFAULT TRUE COMMENT 'Actif/Inactif',
+    parent_id     BIGINT DEFAULT NULL COMMENT 'Catégorie parente (NULL = racine)',
+    path          VARCHAR(255) NOT NULL DEFAULT '/' COMMENT 'Chemin matérialisé des ids depuis la racine (/3/12/)',
     created_at    TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     created_by    VARCHAR(100) NOT NULL,
     updated_at    TIMESTAMP DEFAULT NULL ON UPDATE CURRENT_TIMESTAMP,
@@ -28,9 +35,15 @@ CREATE TABLE IF NOT EXISTS categories (
 
     INDEX idx_code (code),
     INDEX idx_active (is_active),
-    INDEX idx_display_order (display_order)
+    INDEX idx_display_order (display_order),
+    INDEX idx_categories_path (path),
+    INDEX idx_categories_parent (parent_id),
+    CONSTRAINT fk_categories_parent FOREIGN KEY (parent_id) REFERENCES categories (category_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Catégories existantes (antérieures à la hiérarchie) : racines
+UPDATE categories SET path = CONCAT('/', category_id, '/') WHERE path = '/';
+
 
 -- =====================================================
 -- TABLE POUR LA GALERIE D'IMAGES DES PRODUITS
@@ -69,12 +82,15 @@ CREATE TABLE IF NOT EXISTS customers
     email         VARCHAR(100)                          NOT NULL UNIQUE,
     mobile_number VARCHAR(20)                           NOT NULL,
     password_hash VARCHAR(500)                          NOT NULL,
+    -- Époque de révocation des JWT (révocation globale des sessions en O(1))
+    tokens_valid_after TIMESTAMP NULL DEFAULT NULL,
     created_at    TIMESTAMP   DEFAULT CURRENT_TIMESTAMP NOT NULL,
     created_by    VARCHAR(255)                           NOT NULL,
     updated_at    TIMESTAMP   DEFAULT NULL,
     updated_by    VARCHAR(255) DEFAULT NULL,
     UNIQUE KEY unique_email (email),
-    UNIQUE KEY unique_mobile_number (mobile_number)
+    UNIQUE KEY unique_mobile_number (mobile_number),
+    INDEX idx_customers_tokens_valid_after (tokens_valid_after)
     );
 
 -- ========================================
@@ -83,8 +99,8 @@ CREATE TABLE IF NOT EXISTS customers
 
 CREATE TABLE refresh_tokens (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    -- Token UUID
-    token VARCHAR(36) NOT NULL UNIQUE,
+    -- Empreinte SHA-256 du token UUID (jamais la valeur brute)
+    token_hash BINARY(32) NOT NULL UNIQUE,
     -- Relation avec customer
     customer_id BIGINT NOT NULL,
     expiry_date TIMESTAMP NOT NULL,
@@ -105,8 +121,14 @@ CREATE TABLE refresh_tokens (
 -- Index optimisés
 -- ========================================
 
--- Index sur token pour recherche rapide
-CREATE INDEX idx_refresh_token ON refresh_tokens(token);
+-- Index sur l'empreinte binaire pour recherche rapide (32 octets fixes)
+CREATE INDEX idx_refresh_token_hash ON refresh_tokens(token_hash);
+
+-- Migration depuis l'ancienne colonne token VARCHAR(36) :
+-- ALTER TABLE refresh_tokens ADD COLUMN token_hash BINARY(32) NULL AFTER id;
+-- UPDATE refresh_tokens SET token_hash = UNHEX(SHA2(token, 256));
+-- ALTER TABLE refresh_tokens MODIFY token_hash BINARY(32) NOT NULL, ADD UNIQUE KEY uk_refresh_token_hash (token_hash);
+-- ALTER TABLE refresh_tokens DROP INDEX idx_refresh_token, DROP COLUMN token;
 
 -- Index sur customer_id
 CREATE INDEX idx_refresh_token_customer_id ON refresh_tokens(customer_id);
@@ -241,4 +263,66 @@ CREATE TABLE IF NOT EXISTS order_items
     updated_by      VARCHAR(100)    DEFAULT NULL,
     FOREIGN KEY (order_id) REFERENCES orders(order_id),
     FOREIGN KEY (product_id) REFERENCES products(product_id)
-    );
\ No newline at end of file
+    );
+
+-- Outbox des emails (alertes sécurité) : envoi par lots, nouvel essai avec backoff
+CREATE TABLE IF NOT EXISTS mail_outbox
+(
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient       VARCHAR(100) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    html_body       MEDIUMTEXT   NOT NULL,
+    category        VARCHAR(50)  NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INT          NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP    NOT NULL,
+    last_error      VARCHAR(500) DEFAULT NULL,
+    created_date    TIMESTAMP    DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    sent_at         TIMESTAMP    DEFAULT NULL,
+    INDEX idx_mail_outbox_due (status, next_attempt_at)
+    );
+
+-- Images adressées par contenu (nom = SHA-256), dédupliquées et comptées par référence
+CREATE TABLE IF NOT EXISTS stored_images
+(
+    digest             VARCHAR(64)  NOT NULL PRIMARY KEY,
+    extension          VARCHAR(10)  NOT NULL,
+    content_type       VARCHAR(100) DEFAULT NULL,
+    size_bytes         BIGINT       NOT NULL,
+    ref_count          INT          NOT NULL DEFAULT 0,
+    unreferenced_since TIMESTAMP    NULL DEFAULT NULL,
+    created_date       TIMESTAMP    DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    INDEX idx_stored_images_unreferenced (ref_count, unreferenced_since)
+    );
+
+-- Générateur d'ids par blocs (Hibernate @TableGenerator, optimiseur "pooled") pour les entités écrites en rafale.
+-- Avec AUTO_INCREMENT (IDENTITY), Hibernate doit exécuter chaque INSERT seul pour lire l'id généré :
+-- une commande de N lignes coûtait 1 + N allers-retours, contre 2 lots désormais.
+-- next_val = borne haute du prochain bloc réservé. L'AUTO_INCREMENT des colonnes n'est plus utilisé par l'application.
+CREATE TABLE IF NOT EXISTS id_generators
+(
+    sequence_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val      BIGINT       NOT NULL
+    );
+
+-- allocationSize de chaque entité ajouté au MAX : le premier bloc commence juste après le dernier id
+INSERT IGNORE INTO id_generators (sequence_name, next_val) SELECT 'customers', COALESCE(MAX(customer_id), 0) + 20 FROM customers;
+INSERT IGNORE INTO id_generators (sequence_name, next_val) SELECT 'refresh_tokens', COALESCE(MAX(id), 0) + 50 FROM refresh_tokens;
+INSERT IGNORE INTO id_generators (sequence_name, next_val) SELECT 'orders', COALESCE(MAX(order_id), 0) + 50 FROM orders;
+INSERT IGNORE INTO id_generators (sequence_name, next_val) SELECT 'order_items', COALESCE(MAX(order_item_id), 0) + 100 FROM order_items;
+
+-- Battement de cœur de réplication : écrit sur le primaire, lu sur la réplique (retard = maintenant - beat_at)
+CREATE TABLE IF NOT EXISTS replica_heartbeat
+(
+    id      TINYINT PRIMARY KEY,
+    beat_at TIMESTAMP(6) NOT NULL
+    );
+
+INSERT IGNORE INTO replica_heartbeat (id, beat_at) VALUES (1, CURRENT_TIMESTAMP(6));
+
+-- Dernière décroissance de popularité : une seule instance l'applique par intervalle
+CREATE TABLE IF NOT EXISTS popularity_decay
+(
+    id         TINYINT PRIMARY KEY,
+    decayed_at TIMESTAMP(6) NOT NULL
+    );
@@ -0,0 +1,103 @@
+package com.store.store.benchmark;
+
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.service.impl.EmailTemplateServiceImpl;
+import com.store.store.service.impl.MessageServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de rendu de l'email d'alerte sécurité : {@code String.format} sur le HTML complet (ancienne approche)
+ * contre le template précompilé de {@link EmailTemplateServiceImpl}.
+ * Les deux variantes produisent le même HTML.
+ *
+ * <p>Lancement : {@code mvn test-compile} puis exécuter {@link #main(String[])} depuis l'IDE
+ * (classpath de test).</p>
+ *
+ * @author Kardigué
+ * @version 1.0
+ * @since 2025-11-01
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EmailTemplateBenchmark {
+
+    private static final String TEMPLATE = "security-alert";
+
+    private EmailTemplateServiceImpl emailTemplateService;
+    private String legacyFormat;
+    private Map<String, String> values;
+
+    @Setup
+    public void setUp() {
+        ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
+        messageSource.setBasename("classpath:messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        messageSource.setDefaultLocale(Locale.FRENCH);
+
+        MessageServiceImpl messageService = new MessageServiceImpl(messageSource);
+        emailTemplateService = new EmailTemplateServiceImpl(messageService, new ExceptionFactory(messageService));
+
+        values = Map.of(
+                "customerName", "Jean Dupont",
+                "incidentType", "Réutilisation de refresh token",
+                "timestamp", "01/11/2025 à 10:00:00",
+                "ipAddress", "192.168.1.10",
+                "deviceInfo", "Chrome sur Windows");
+
+        // Même HTML en format String.format : chaque variable devient %s (sans caractère à échapper)
+        legacyFormat = emailTemplateService.render(TEMPLATE, Locale.FRENCH, Map.of(
+                        "customerName", "@@customerName@@",
+                        "incidentType", "@@incidentType@@",
+                        "timestamp", "@@timestamp@@",
+                        "ipAddress", "@@ipAddress@@",
+                        "deviceInfo", "@@deviceInfo@@"))
+                .replace("%", "%%")
+                .replaceAll("@@[a-zA-Z]+@@", "%s");
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(legacyFormat,
+                values.get("customerName"),
+                values.get("incidentType"),
+                values.get("timestamp"),
+                values.get("ipAddress"),
+                values.get("deviceInfo"));
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return emailTemplateService.render(TEMPLATE, Locale.FRENCH, values);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.store.store.config;
+
+import com.store.store.entity.Category;
+import com.store.store.entity.Product;
+import com.store.store.repository.ProductRepository;
+import com.store.store.util.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({JpaConfig.class, CategoryPathBackfill.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@DisplayName("Chemin matérialisé des catégories antérieures à la hiérarchie")
+class CategoryPathBackfillTest {
+
+    @Autowired
+    private CategoryPathBackfill backfill;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Une catégorie au chemin '/' doit devenir une racine trouvée par la recherche par sous-arbre")
+    void backfill_ShouldMakeLegacyCategoriesSearchable() {
+        // Given - catégorie et produit créés avant la hiérarchie
+        Category legacy = TestDataBuilder.createCategory(null, "LEGACY", "Legacy");
+        legacy.setPath("/");
+        legacy = entityManager.persistAndFlush(legacy);
+        Product product = TestDataBuilder.createProduct(null, "Old sticker", new BigDecimal("2.50"), legacy);
+        product.setSku("OLD-001");
+        entityManager.persistAndFlush(product);
+        String pattern = "/" + legacy.getCategoryId() + "/%";
+        assertThat(productRepository.findActiveProductsInCategoryTree(pattern, PageRequest.of(0, 10))).isEmpty();
+
+        // When
+        backfill.afterPropertiesSet();
+        entityManager.clear();
+
+        // Then
+        assertThat(entityManager.find(Category.class, legacy.getCategoryId()).getPath())
+                .isEqualTo("/" + legacy.getCategoryId() + "/");
+        assertThat(productRepository.findActiveProductsInCategoryTree(pattern, PageRequest.of(0, 10)))
+                .extracting(Product::getName).containsExactly("Old sticker");
+    }
+
+    @Test
+    @DisplayName("Un chemin déjà renseigné ne doit pas être modifié")
+    void backfill_ShouldKeepExistingPaths() {
+        // Given
+        Category root = TestDataBuilder.createCategory(null, "ROOT", "Root");
+        root.setPath("/");
+        root = entityManager.persistAndFlush(root);
+        root.setPath("/" + root.getCategoryId() + "/");
+        Category child = TestDataBuilder.createCategory(null, "CHILD", "Child");
+        child.setParent(root);
+        child.setPath(root.getPath());
+        child = entityManager.persistAndFlush(child);
+        child.setPath(root.getPath() + child.getCategoryId() + "/");
+        entityManager.flush();
+        String childPath = child.getPath();
+
+        // When
+        backfill.afterPropertiesSet();
+        entityManager.clear();
+
+        // Then
+        assertThat(entityManager.find(Category.class, child.getCategoryId()).getPath()).isEqualTo(childPath);
+    }
+}
@@ -0,0 +1,109 @@
+package com.store.store.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotResourceCacheResolverTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private ResourceResolverChain chain;
+
+    private HotResourceCacheResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new HotResourceCacheResolver(16, 1_024, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Un petit fichier doit être servi depuis la mémoire dès la deuxième requête")
+    void resolveResource_ShouldServeSmallFileFromMemory() throws Exception {
+        // Given
+        Path file = Files.write(directory.resolve("thumb.jpg"), new byte[]{1, 2, 3});
+        when(chain.resolveResource(any(), eq("ab/cd/thumb.jpg"), anyList())).thenReturn(new FileSystemResource(file));
+
+        // When
+        Resource first = resolver.resolveResource(null, "ab/cd/thumb.jpg", List.of(), chain);
+        Resource second = resolver.resolveResource(null, "ab/cd/thumb.jpg", List.of(), chain);
+
+        // Then - nom et date conservés (type MIME, ETag, Last-Modified)
+        verify(chain, times(1)).resolveResource(any(), eq("ab/cd/thumb.jpg"), anyList());
+        assertThat(second).isSameAs(first);
+        assertThat(second.getContentAsByteArray()).containsExactly(1, 2, 3);
+        assertThat(second.getFilename()).isEqualTo("thumb.jpg");
+        assertThat(second.lastModified()).isEqualTo(Files.getLastModifiedTime(file).toMillis());
+    }
+
+    @Test
+    @DisplayName("Une entrée très demandée doit tout de même expirer (fichier purgé ou remplacé)")
+    void resolveResource_ShouldExpireHotEntryAfterTimeToLive() throws Exception {
+        // Given
+        resolver = new HotResourceCacheResolver(16, 1_024, Duration.ofMillis(200), new SimpleMeterRegistry());
+        Path file = Files.write(directory.resolve("thumb.jpg"), new byte[]{1, 2, 3});
+        when(chain.resolveResource(any(), eq("ab/cd/thumb.jpg"), anyList())).thenReturn(new FileSystemResource(file));
+
+        // When - accès continus pendant plus que la durée de vie
+        resolver.resolveResource(null, "ab/cd/thumb.jpg", List.of(), chain);
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(60);
+            resolver.resolveResource(null, "ab/cd/thumb.jpg", List.of(), chain);
+        }
+
+        // Then - relu au moins une fois depuis la chaîne malgré les accès
+        verify(chain, atLeast(2)).resolveResource(any(), eq("ab/cd/thumb.jpg"), anyList());
+    }
+
+    @Test
+    @DisplayName("Un fichier au-delà de la taille maximale ne doit pas être gardé en mémoire")
+    void resolveResource_ShouldNotCacheLargeFile() throws Exception {
+        // Given
+        Path file = Files.write(directory.resolve("detail.jpg"), new byte[64]);
+        FileSystemResource onDisk = new FileSystemResource(file);
+        when(chain.resolveResource(any(), eq("detail.jpg"), anyList())).thenReturn(onDisk);
+
+        // When
+        resolver.resolveResource(null, "detail.jpg", List.of(), chain);
+        Resource second = resolver.resolveResource(null, "detail.jpg", List.of(), chain);
+
+        // Then
+        assertThat(second).isSameAs(onDisk);
+        verify(chain, times(2)).resolveResource(any(), eq("detail.jpg"), anyList());
+    }
+
+    @Test
+    @DisplayName("Les répertoires cachés (fichiers temporaires d'upload) ne doivent jamais être servis")
+    void resolveResource_ShouldRejectHiddenPaths() {
+        // When / Then
+        assertThat(resolver.resolveResource(null, ".tmp/upload-1.tmp", List.of(), chain)).isNull();
+        assertThat(resolver.resolveResource(null, "ab/.hidden", List.of(), chain)).isNull();
+        verifyNoInteractions(chain);
+    }
+}
@@ -0,0 +1,65 @@
+package com.store.store.config;
+
+import com.store.store.entity.Customer;
+import com.store.store.util.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import({JpaConfig.class, IdGeneratorSeeder.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@DisplayName("Alignement de id_generators sur les données existantes")
+class IdGeneratorSeederTest {
+
+    private static final String NEXT_VAL_SQL = "SELECT next_val FROM id_generators WHERE sequence_name = ?";
+
+    @Autowired
+    private IdGeneratorSeeder seeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Une table vide (ddl-auto update) doit repartir après le plus grand id existant")
+    void seed_ShouldStartAfterExistingIds_WhenTableIsEmpty() {
+        // Given - lignes existantes, générateurs absents
+        Customer customer = entityManager.persistAndFlush(
+                TestDataBuilder.createCustomer(null, "John", "Doe", "john@example.com"));
+        jdbcTemplate.update("DELETE FROM id_generators");
+
+        // When
+        seeder.afterPropertiesSet();
+
+        // Then - premier bloc réservé : ]MAX, MAX + allocationSize]
+        assertThat(jdbcTemplate.queryForObject(NEXT_VAL_SQL, Long.class, "customers"))
+                .isEqualTo(customer.getCustomerId() + 20);
+        assertThat(jdbcTemplate.queryForObject(NEXT_VAL_SQL, Long.class, "orders")).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Un générateur déjà en avance ne doit jamais reculer")
+    void seed_ShouldNeverLowerNextValue() {
+        // Given
+        seeder.afterPropertiesSet();
+        jdbcTemplate.update("UPDATE id_generators SET next_val = 10000 WHERE sequence_name = 'orders'");
+
+        // When
+        seeder.afterPropertiesSet();
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject(NEXT_VAL_SQL, Long.class, "orders")).isEqualTo(10000);
+    }
+}
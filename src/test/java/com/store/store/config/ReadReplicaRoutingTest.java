@@ -0,0 +1,174 @@
+package com.store.store.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Routage primaire / réplique sur deux bases H2 indépendantes (une ligne "origin" différente dans chacune).
+ */
+class ReadReplicaRoutingTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaLagMonitor monitor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(primary, replica, Duration.ofSeconds(5), true, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Les transactions en lecture seule doivent aller à la réplique, les écritures au primaire")
+    void readOnlyTransaction_ShouldUseReplica() {
+        // Given - battement récent présent sur la réplique
+        new JdbcTemplate(replica).update(ReplicaLagMonitor.HEARTBEAT_INSERT_SQL);
+        assertThat(monitor.check()).isTrue();
+        DataSource routing = routing(replica);
+
+        // When / Then
+        assertThat(origin(routing, true)).isEqualTo("replica");
+        assertThat(origin(routing, false)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Une réplique en retard doit renvoyer les lectures vers le primaire")
+    void readOnlyTransaction_ShouldFallBackToPrimary_WhenReplicaLags() {
+        // Given - dernier battement reçu il y a une heure
+        new JdbcTemplate(replica).update(
+                "INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, DATEADD('HOUR', -1, CURRENT_TIMESTAMP(6)))");
+        monitor.markAvailable();
+
+        // When
+        boolean available = monitor.check();
+
+        // Then
+        assertThat(available).isFalse();
+        assertThat(origin(routing(replica), true)).isEqualTo("primary");
+        assertThat(meterRegistry.get("store.datasource.replica.fallbacks").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un échec de connexion à la réplique doit basculer immédiatement sur le primaire")
+    void readOnlyTransaction_ShouldFallBackToPrimary_WhenReplicaUnreachable() throws SQLException {
+        // Given
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenThrow(new SQLException("Connection refused"));
+        monitor.markAvailable();
+
+        // When
+        String origin = origin(routing(unreachable), true);
+
+        // Then
+        assertThat(origin).isEqualTo("primary");
+        assertThat(monitor.isReplicaAvailable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("JPA : une écriture qui suit une lecture readOnly dans la même EntityManager doit aller au primaire")
+    void jpa_WriteAfterReadOnly_InSameEntityManager_ShouldUsePrimary() {
+        // Given - réplique disponible, EntityManager ouverte pour toute la "requête" (open-in-view)
+        new JdbcTemplate(replica).update(ReplicaLagMonitor.HEARTBEAT_INSERT_SQL);
+        assertThat(monitor.check()).isTrue();
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(routing(replica));
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setPackagesToScan("com.store.store.config");
+        factory.setJpaPropertyMap(Map.of(
+                AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect",
+                AvailableSettings.CONNECTION_HANDLING, ReadReplicaDataSourceConfig.CONNECTION_HANDLING));
+        factory.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factory.getObject();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+
+        try {
+            JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            TransactionTemplate write = new TransactionTemplate(transactionManager);
+
+            // When
+            Object readOrigin = readOnly.execute(status ->
+                    entityManager.createNativeQuery("SELECT name FROM origin").getSingleResult());
+            Object writeOrigin = write.execute(status -> {
+                entityManager.createNativeQuery("INSERT INTO origin (name) VALUES ('written')").executeUpdate();
+                return entityManager.createNativeQuery("SELECT name FROM origin WHERE name <> 'written'").getSingleResult();
+            });
+
+            // Then
+            assertThat(readOrigin).isEqualTo("replica");
+            assertThat(writeOrigin).isEqualTo("primary");
+            assertThat(new JdbcTemplate(primary).queryForObject(
+                    "SELECT COUNT(*) FROM origin WHERE name = 'written'", Integer.class)).isEqualTo(1);
+            assertThat(new JdbcTemplate(replica).queryForObject(
+                    "SELECT COUNT(*) FROM origin WHERE name = 'written'", Integer.class)).isZero();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            factory.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Le battement doit créer puis mettre à jour sa ligne sur le primaire")
+    void beat_ShouldUpsertHeartbeatOnPrimary() {
+        // When
+        monitor.beat();
+        monitor.beat();
+
+        // Then
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM replica_heartbeat", Integer.class))
+                .isEqualTo(1);
+    }
+
+    private DataSource routing(DataSource replicaDataSource) {
+        return ReadReplicaDataSourceConfig.routingDataSource(primary,
+                new ReplicaFallbackDataSource(replicaDataSource, primary, monitor, meterRegistry));
+    }
+
+    private static String origin(DataSource routing, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(routing).queryForObject("SELECT name FROM origin", String.class));
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE origin (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO origin (name) VALUES (?)", name);
+        jdbcTemplate.execute("CREATE TABLE replica_heartbeat (id TINYINT PRIMARY KEY, beat_at TIMESTAMP(6) NOT NULL)");
+        return dataSource;
+    }
+}
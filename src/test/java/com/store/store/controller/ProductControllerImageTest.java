@@ -0,0 +1,89 @@
+package com.store.store.controller;
+
+import com.store.store.dto.product.ProductImageFile;
+import com.store.store.service.IProductPopularityService;
+import com.store.store.service.IProductService;
+import com.store.store.service.impl.MessageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Service des octets d'image : flux depuis le disque, requêtes conditionnelles et plages.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductControllerImageTest {
+
+    private static final String ETAG = "\"" + "ab".repeat(32) + "\"";
+    private static final byte[] CONTENT = "0123456789".getBytes();
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private IProductService productService;
+
+    @Mock
+    private MessageServiceImpl messageService;
+
+    @Mock
+    private IProductPopularityService popularityService;
+
+    private MockMvc mockMvc;
+    private ProductImageFile image;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProductController(productService, messageService, popularityService)).build();
+
+        Path file = Files.write(uploadDir.resolve("image.png"), CONTENT);
+        image = new ProductImageFile(file, "image/png", CONTENT.length, 1_700_000_000_000L, ETAG);
+        when(productService.getProductImageFile(1L)).thenReturn(image);
+    }
+
+    @Test
+    @DisplayName("GET image/bytes - Devrait envoyer le fichier avec ETag et Last-Modified")
+    void getProductImageBytes_ShouldStreamFile_WithValidators() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}/image/bytes", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    @DisplayName("GET image/bytes - Devrait répondre 304 sans corps si l'ETag correspond")
+    void getProductImageBytes_ShouldReturnNotModified_WhenEtagMatches() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}/image/bytes", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("GET image/bytes - Devrait répondre 206 avec la plage demandée")
+    void getProductImageBytes_ShouldReturnPartialContent_ForRange() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}/image/bytes", 1L)
+                        .header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes()));
+    }
+}
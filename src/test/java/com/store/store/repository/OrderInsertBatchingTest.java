@@ -0,0 +1,152 @@
+package com.store.store.repository;
+
+import com.store.store.config.JpaConfig;
+import com.store.store.constants.ApplicationConstants;
+import com.store.store.entity.Category;
+import com.store.store.entity.Customer;
+import com.store.store.entity.Order;
+import com.store.store.entity.Product;
+import com.store.store.util.TestDataBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Allers-retours INSERT d'une commande (passage de commande).
+ *
+ * Chaque instruction préparée par Hibernate est comptée : un lot JDBC n'est préparé qu'une fois,
+ * un INSERT IDENTITY l'est à chaque ligne (l'id généré doit être relu avant la suivante).
+ *
+ * - Avant (IDENTITY) : 1 + N INSERT pour une commande de N lignes
+ * - Après (ids réservés par blocs) : 1 INSERT commande + 1 lot de lignes
+ */
+@DataJpaTest
+@Import(JpaConfig.class) // Audit (created_by NOT NULL)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        // application.yml impose MySQLDialect (DDL "engine=InnoDB" refusé par H2 : aucune table créée)
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=20",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@DisplayName("Regroupement des INSERT d'une commande")
+class OrderInsertBatchingTest {
+
+    private static final int ITEMS_PER_ORDER = 10;
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+        }
+    }
+
+    static class StatementCounter implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.toLowerCase(Locale.ROOT));
+            return sql;
+        }
+
+        long inserts(String table) {
+            return statements.stream().filter(sql -> sql.startsWith("insert into " + table + " ")).count();
+        }
+
+        void reset() {
+            statements.clear();
+        }
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Customer customer;
+    private Category category;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        customer = TestDataBuilder.createCustomer(null, "John", "Doe", "john@example.com");
+        entityManager.persist(customer);
+        category = TestDataBuilder.createCategory(null, "BATCH", "Batch");
+        category.setPath("/");
+        entityManager.persist(category);
+        products = createProducts("Product");
+        entityManager.flush();
+        statementCounter.reset();
+    }
+
+    @Test
+    @DisplayName("Une commande de 10 lignes doit coûter 2 INSERT (commande + un lot de lignes) au lieu de 11")
+    void saveOrder_ShouldBatchOrderItemInserts() {
+        // Given
+        Order order = TestDataBuilder.createOrder(null, customer, ApplicationConstants.ORDER_STATUS_CREATED);
+        products.forEach(product -> order.addOrderItem(
+                TestDataBuilder.createOrderItem(null, order, product, 1, product.getPrice())));
+
+        // When
+        Order savedOrder = orderRepository.saveAndFlush(order);
+
+        // Then
+        assertThat(savedOrder.getOrderItems()).hasSize(ITEMS_PER_ORDER)
+                .allSatisfy(item -> assertThat(item.getOrderItemId()).isNotNull());
+        assertThat(statementCounter.inserts("orders")).isEqualTo(1);
+        assertThat(statementCounter.inserts("order_items")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Référence IDENTITY : chaque produit inséré est un aller-retour distinct")
+    void identityEntity_ShouldInsertRowByRow() {
+        // When
+        createProducts("Identity");
+        entityManager.flush();
+
+        // Then - Product garde IDENTITY (import en masse en JDBC direct sur l'AUTO_INCREMENT)
+        assertThat(statementCounter.inserts("products")).isEqualTo(ITEMS_PER_ORDER);
+    }
+
+    private List<Product> createProducts(String prefix) {
+        return IntStream.rangeClosed(1, ITEMS_PER_ORDER)
+                .mapToObj(i -> {
+                    Product product = TestDataBuilder.createProduct(null, prefix + " " + i, new BigDecimal("10.00"), category);
+                    product.setSku("STK-" + prefix.toUpperCase(Locale.ROOT) + "-" + i);
+                    return entityManager.persist(product);
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.store.store.security;
+
+import com.store.store.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("Encode et vérifie un mot de passe sur l'exécuteur dédié")
+    void encodeAndMatches_ShouldDelegateToBCrypt() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4, Duration.ofSeconds(5), meterRegistry);
+
+        // When
+        String hash = encoder.encode("Secret123!");
+
+        // Then
+        assertThat(encoder.matches("Secret123!", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("store.password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Un hash de coût inférieur doit être signalé pour rehash")
+    void upgradeEncoding_ShouldDetectLowerStrength() {
+        // Given
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1, Duration.ofSeconds(5), meterRegistry);
+        String weakHash = new BCryptPasswordEncoder(4).encode("Secret123!");
+
+        // When / Then
+        assertThat(encoder.upgradeEncoding(weakHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("Secret123!"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Exécuteur saturé : rejet immédiat au lieu de bloquer l'appelant")
+    void encode_ShouldRejectFast_WhenSaturated() throws Exception {
+        // Given - 1 thread + 1 place en file, tous deux occupés par un hachage bloqué
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingDelegate = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        encoder = new BoundedPasswordEncoder(blockingDelegate, 1, 1, Duration.ofSeconds(10), meterRegistry);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        waitForGauge("store.password.hash.active", 1.0);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForGauge("store.password.hash.queue", 1.0);
+
+        // When / Then
+        assertThatThrownBy(() -> encoder.encode("c"))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+        assertThat(meterRegistry.get("store.password.hash.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isNotBlank();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("Délai d'attente dépassé : rejet avec PasswordHashingUnavailableException")
+    void matches_ShouldFail_WhenWaitTimeoutExceeded() {
+        // Given
+        PasswordEncoder slowDelegate = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+        };
+        encoder = new BoundedPasswordEncoder(slowDelegate, 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        // When / Then
+        assertThatThrownBy(() -> encoder.matches("a", "$2a$04$invalid"))
+                .isInstanceOf(PasswordHashingUnavailableException.class);
+    }
+
+    private void waitForGauge(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(meterRegistry.get(name).gauge().value()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,131 @@
+package com.store.store.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.password.CompromisedPasswordChecker;
+import org.springframework.security.authentication.password.CompromisedPasswordDecision;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class LocalCompromisedPasswordCheckerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CompromisedPasswordChecker fallbackChecker = mock(CompromisedPasswordChecker.class);
+
+    @Test
+    @DisplayName("Le filtre construit depuis une liste HIBP doit reconnaître les mots de passe compromis")
+    void check_ShouldDetectCompromisedPasswords() throws Exception {
+        // Given - liste source au format HASH:COUNT
+        Path source = tempDir.resolve("pwned.txt");
+        Files.write(source, List.of(hibpLine("password", 9_000_000), hibpLine("123456", 37_000_000)));
+        Path filter = tempDir.resolve("compromised.bloom");
+
+        LocalCompromisedPasswordChecker checker = checker(filter, source.toString(), Runnable::run);
+
+        // When
+        checker.refresh();
+
+        // Then
+        assertThat(checker.isLoaded()).isTrue();
+        assertThat(checker.check("password").isCompromised()).isTrue();
+        assertThat(checker.check("123456").isCompromised()).isTrue();
+        assertThat(checker.check("Xq9!vLm#2pRt").isCompromised()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sans filtre chargé, le contrôle doit être délégué à l'API Have I Been Pwned")
+    void check_ShouldUseFallback_WhenFilterMissing() {
+        // Given
+        when(fallbackChecker.check("password")).thenReturn(new CompromisedPasswordDecision(true));
+        LocalCompromisedPasswordChecker checker = checker(tempDir.resolve("missing.bloom"), "", Runnable::run);
+
+        // When
+        checker.refresh();
+
+        // Then
+        assertThat(checker.isLoaded()).isFalse();
+        assertThat(checker.check("password").isCompromised()).isTrue();
+        verify(fallbackChecker).check("password");
+    }
+
+    @Test
+    @DisplayName("La reconstruction du filtre doit s'exécuter sur l'exécuteur dédié, pas sur le thread appelant")
+    void refresh_ShouldRebuildOnDedicatedExecutor() throws Exception {
+        // Given
+        Path source = tempDir.resolve("pwned.txt");
+        Files.write(source, List.of(hibpLine("password", 1)));
+        List<Runnable> submitted = new ArrayList<>();
+        LocalCompromisedPasswordChecker checker =
+                checker(tempDir.resolve("compromised.bloom"), source.toString(), submitted::add);
+
+        // When
+        checker.refresh();
+        checker.refresh();
+
+        // Then - une seule reconstruction en attente, filtre chargé une fois celle-ci exécutée
+        assertThat(checker.isLoaded()).isFalse();
+        assertThat(submitted).hasSize(1);
+
+        submitted.get(0).run();
+        assertThat(checker.isLoaded()).isTrue();
+        assertThat(checker.check("password").isCompromised()).isTrue();
+        verifyNoInteractions(fallbackChecker);
+    }
+
+    @Test
+    @DisplayName("Une liste source mise à jour doit être prise en compte au rechargement")
+    void refresh_ShouldHotReload_WhenSourceChanges() throws Exception {
+        // Given
+        Path source = tempDir.resolve("pwned.txt");
+        Files.write(source, List.of(hibpLine("password", 1)));
+        Path filter = tempDir.resolve("compromised.bloom");
+        LocalCompromisedPasswordChecker checker = checker(filter, source.toString(), Runnable::run);
+        checker.refresh();
+        assertThat(checker.check("letmein").isCompromised()).isFalse();
+
+        // When - nouvelle fuite publiée
+        Files.write(source, List.of(hibpLine("password", 1), hibpLine("letmein", 1)));
+        Files.setLastModifiedTime(source, FileTime.from(Instant.now().plusSeconds(60)));
+        checker.refresh();
+
+        // Then
+        assertThat(checker.check("letmein").isCompromised()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Dimensionnement : ~14,4 bits et 10 fonctions par entrée pour 0,1 %")
+    void optimalSizing_ShouldMatchTheory() {
+        long bits = CompromisedPasswordBloomFilter.optimalNumBits(1_000_000, 0.001);
+
+        assertThat(bits).isBetween(14_300_000L, 14_500_000L);
+        assertThat(CompromisedPasswordBloomFilter.optimalNumHashes(1_000_000, bits)).isEqualTo(10);
+    }
+
+    private LocalCompromisedPasswordChecker checker(Path filter, String source, Executor rebuildExecutor) {
+        return new LocalCompromisedPasswordChecker(filter.toString(), source, 1_000, 0.001,
+                fallbackChecker, rebuildExecutor);
+    }
+
+    private static String hibpLine(String password, int count) throws Exception {
+        byte[] sha1 = MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().withUpperCase().formatHex(sha1) + ":" + count;
+    }
+}
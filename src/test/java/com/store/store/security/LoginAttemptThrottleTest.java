@@ -0,0 +1,165 @@
+package com.store.store.security;
+
+import com.store.store.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptThrottleTest {
+
+    private static final String IP = "203.0.113.7";
+    private static final String USERNAME = "victim@example.com";
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-11-18T10:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        throttle = new LoginAttemptThrottle(5, Duration.ofMinutes(5), 3, Duration.ofMinutes(15), Duration.ofDays(30),
+                1_000, meterRegistry, clock);
+    }
+
+    @Test
+    @DisplayName("Le compte doit être bloqué après trop d'échecs, même depuis des IP différentes")
+    void checkUsername_ShouldThrottle_AfterDistributedFailures() {
+        // Given - 3 échecs depuis 3 IP différentes (casse différente du login)
+        throttle.loginFailed("10.0.0.1", USERNAME);
+        throttle.loginFailed("10.0.0.2", USERNAME.toUpperCase());
+        throttle.loginFailed("10.0.0.3", USERNAME);
+
+        // When / Then
+        assertThatThrownBy(() -> throttle.checkUsername(USERNAME, IP))
+                .isInstanceOf(LoginThrottledException.class)
+                .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isPositive());
+        assertThat(meterRegistry.get("store.login.throttled").tag("scope", "username").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("L'IP doit être bloquée après trop d'échecs sur des comptes différents")
+    void checkIp_ShouldThrottle_AfterFailuresOnManyAccounts() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            throttle.loginFailed(IP, "user" + i + "@example.com");
+        }
+
+        // When / Then
+        assertThatThrownBy(() -> throttle.checkIp(IP)).isInstanceOf(LoginThrottledException.class);
+        assertThatCode(() -> throttle.checkIp("198.51.100.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Les échecs sortis de la fenêtre glissante ne doivent plus compter")
+    void checkUsername_ShouldAllow_AfterWindowSlides() {
+        // Given
+        throttle.loginFailed(IP, USERNAME);
+        throttle.loginFailed(IP, USERNAME);
+        throttle.loginFailed(IP, USERNAME);
+
+        // When - 16 minutes plus tard
+        clock.advance(Duration.ofMinutes(16));
+
+        // Then
+        assertThatCode(() -> throttle.checkUsername(USERNAME, IP)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Une connexion réussie doit remettre à zéro le compteur du compte")
+    void loginSucceeded_ShouldResetUsernameCounter() {
+        // Given
+        throttle.loginFailed(IP, USERNAME);
+        throttle.loginFailed(IP, USERNAME);
+
+        // When
+        throttle.loginSucceeded(IP, USERNAME);
+        throttle.loginFailed(IP, USERNAME);
+
+        // Then - vérifié depuis une autre IP : seul le compteur compte
+        assertThatCode(() -> throttle.checkUsername(USERNAME, "198.51.100.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Un compte verrouillé par des tiers doit rester accessible depuis une IP de confiance")
+    void checkUsername_ShouldNotThrottle_TrustedSource() {
+        // Given - le titulaire s'est déjà connecté depuis son IP, puis un tiers épuise le quota du compte
+        throttle.loginSucceeded(IP, USERNAME);
+        throttle.loginFailed("10.0.0.1", USERNAME);
+        throttle.loginFailed("10.0.0.2", USERNAME);
+        throttle.loginFailed("10.0.0.3", USERNAME);
+
+        // When / Then - le titulaire passe (casse différente), le tiers reste bloqué
+        assertThatCode(() -> throttle.checkUsername(USERNAME.toUpperCase(), IP)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> throttle.checkUsername(USERNAME, "10.0.0.4"))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    @DisplayName("Une IP de confiance doit perdre ce statut après le délai configuré")
+    void checkUsername_ShouldThrottle_WhenTrustExpired() {
+        // Given
+        throttle.loginSucceeded(IP, USERNAME);
+        clock.advance(Duration.ofDays(31));
+        throttle.loginFailed("10.0.0.1", USERNAME);
+        throttle.loginFailed("10.0.0.2", USERNAME);
+        throttle.loginFailed("10.0.0.3", USERNAME);
+
+        // When / Then
+        assertThatThrownBy(() -> throttle.checkUsername(USERNAME, IP)).isInstanceOf(LoginThrottledException.class);
+    }
+
+    @Test
+    @DisplayName("Fenêtre glissante : seuls les seaux de la fenêtre courante sont sommés")
+    void slidingWindowCounter_ShouldExpireOldBuckets() {
+        // Given - fenêtre de 60 s en 6 seaux de 10 s
+        SlidingWindowCounter counter = new SlidingWindowCounter(60_000, 6);
+        counter.increment(0);
+        counter.increment(25_000);
+        counter.increment(55_000);
+
+        // When / Then
+        assertThat(counter.sum(55_000)).isEqualTo(3);
+        assertThat(counter.sum(65_000)).isEqualTo(2);   // seau [0-10 s[ sorti
+        assertThat(counter.sum(105_000)).isEqualTo(1);  // seul [50-60 s[ reste
+        assertThat(counter.sum(115_000)).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.store.store.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RefreshTokenLookupCacheTest {
+
+    private static final String KEY = "ab".repeat(32);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private RefreshTokenLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new RefreshTokenLookupCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    @DisplayName("Une empreinte jamais vue ne doit pas être en cache")
+    void get_ShouldReturnNull_OnMiss() {
+        assertThat(cache.get(KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("Une empreinte enregistrée doit être retrouvée avec son état")
+    void get_ShouldReturnEntry_OnHit() {
+        // Given
+        Instant expiry = Instant.now().plus(Duration.ofDays(7));
+        cache.markActive(KEY, expiry);
+
+        // When
+        RefreshTokenLookupCache.Entry entry = cache.get(KEY);
+
+        // Then
+        assertThat(entry.status()).isEqualTo(RefreshTokenLookupCache.Status.ACTIVE);
+        assertThat(entry.expiryDate()).isEqualTo(expiry);
+        assertThat(entry.isExpired()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Une révocation doit remplacer l'état actif en cache")
+    void markRevoked_ShouldOverrideActiveEntry() {
+        // Given
+        cache.markActive(KEY, Instant.now().plus(Duration.ofDays(7)));
+
+        // When
+        cache.markRevoked(KEY, Instant.now().plus(Duration.ofDays(7)));
+
+        // Then
+        assertThat(cache.get(KEY).status()).isEqualTo(RefreshTokenLookupCache.Status.REVOKED);
+    }
+
+    @Test
+    @DisplayName("Une entrée doit disparaître après la durée de vie du cache (relecture en base)")
+    void get_ShouldMiss_AfterTtl() {
+        // Given
+        cache.markActive(KEY, Instant.now().plus(Duration.ofDays(7)));
+
+        // When
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+
+        // Then
+        assertThat(cache.get(KEY)).isNull();
+    }
+
+    @Test
+    @DisplayName("Une entrée active dont la date d'expiration est passée doit être reconnue expirée")
+    void entry_ShouldBeExpired_AfterExpiryDate() {
+        assertThat(new RefreshTokenLookupCache.Entry(RefreshTokenLookupCache.Status.ACTIVE,
+                Instant.now().minusSeconds(1)).isExpired()).isTrue();
+        assertThat(new RefreshTokenLookupCache.Entry(RefreshTokenLookupCache.Status.UNKNOWN, null).isExpired())
+                .isFalse();
+    }
+}
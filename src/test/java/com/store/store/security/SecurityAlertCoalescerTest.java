@@ -0,0 +1,173 @@
+package com.store.store.security;
+
+import com.store.store.entity.Customer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecurityAlertCoalescerTest {
+
+    private static final String TYPE = "NEW_DEVICE_LOGIN";
+    private static final String DEVICE = "Chrome sur Windows";
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private SecurityAlertCoalescer coalescer;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-11-20T10:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new SecurityAlertCoalescer(true, Duration.ofMinutes(10), 1_000, meterRegistry, clock);
+
+        customer = new Customer();
+        customer.setCustomerId(42L);
+        customer.setEmail("alice@example.com");
+        customer.setName("Alice");
+    }
+
+    @Test
+    @DisplayName("Seule la première alerte d'une rafale doit partir immédiatement")
+    void tryAcquire_ShouldLetOnlyFirstAlertThrough_WithinWindow() {
+        // When
+        boolean first = coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.FRENCH);
+        clock.advance(Duration.ofSeconds(5));
+        boolean second = coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.2", null, Locale.FRENCH);
+        boolean third = coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.2", null, Locale.FRENCH);
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(third).isFalse();
+        assertThat(meterRegistry.counter("store.security.alerts.coalesced").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Un type ou un appareil différent ouvre sa propre fenêtre")
+    void tryAcquire_ShouldKeySeparately_ByTypeAndDevice() {
+        // Given
+        coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.FRENCH);
+
+        // When / Then
+        assertThat(coalescer.tryAcquire(customer, TYPE, "Firefox sur Linux", "10.0.0.1", null, Locale.FRENCH)).isTrue();
+        assertThat(coalescer.tryAcquire(customer, "ACCOUNT_COMPROMISE", DEVICE, "10.0.0.1", null, Locale.FRENCH)).isTrue();
+        assertThat(coalescer.trackedWindows()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("À la fermeture de la fenêtre, un récapitulatif unique doit être produit")
+    void drainClosedWindows_ShouldProduceSingleDigest_ForSuppressedAlerts() {
+        // Given - 1 alerte envoyée + 3 absorbées
+        coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.ENGLISH);
+        clock.advance(Duration.ofMinutes(1));
+        coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.2", null, Locale.FRENCH);
+        coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.3", null, Locale.FRENCH);
+        clock.advance(Duration.ofMinutes(2));
+        coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.2", "detail", Locale.FRENCH);
+
+        // When - fenêtre encore ouverte, puis fermée
+        List<SecurityAlertCoalescer.Digest> early = coalescer.drainClosedWindows();
+        clock.advance(Duration.ofMinutes(10));
+        List<SecurityAlertCoalescer.Digest> digests = coalescer.drainClosedWindows();
+
+        // Then
+        assertThat(early).isEmpty();
+        assertThat(digests).singleElement().satisfies(digest -> {
+            assertThat(digest.customerId()).isEqualTo(42L);
+            assertThat(digest.email()).isEqualTo("alice@example.com");
+            assertThat(digest.locale()).isEqualTo(Locale.ENGLISH);
+            assertThat(digest.suppressedCount()).isEqualTo(3);
+            assertThat(digest.ipAddresses()).containsExactly("10.0.0.2", "10.0.0.3");
+            assertThat(digest.firstSuppressedAt()).isEqualTo(Instant.parse("2025-11-20T10:01:00Z"));
+            assertThat(digest.lastSuppressedAt()).isEqualTo(Instant.parse("2025-11-20T10:03:00Z"));
+            assertThat(digest.lastDetail()).isEqualTo("detail");
+        });
+        assertThat(coalescer.trackedWindows()).isZero();
+    }
+
+    @Test
+    @DisplayName("Une fenêtre sans doublon se ferme sans récapitulatif")
+    void drainClosedWindows_ShouldSkipWindowsWithoutSuppressedAlerts() {
+        // Given
+        coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.FRENCH);
+        clock.advance(Duration.ofMinutes(11));
+
+        // When / Then
+        assertThat(coalescer.drainClosedWindows()).isEmpty();
+        assertThat(coalescer.trackedWindows()).isZero();
+    }
+
+    @Test
+    @DisplayName("Une nouvelle rafale après expiration ne doit pas perdre le récapitulatif précédent")
+    void tryAcquire_ShouldKeepPreviousDigest_WhenExpiredWindowIsReplaced() {
+        // Given - fenêtre avec 1 doublon, expirée avant le passage du scheduler
+        coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.FRENCH);
+        coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.FRENCH);
+        clock.advance(Duration.ofMinutes(15));
+
+        // When - nouvel événement : nouvelle fenêtre, alerte immédiate
+        boolean sent = coalescer.tryAcquire(customer, TYPE, DEVICE, "10.0.0.9", null, Locale.FRENCH);
+
+        // Then
+        assertThat(sent).isTrue();
+        assertThat(coalescer.drainClosedWindows())
+                .singleElement()
+                .extracting(SecurityAlertCoalescer.Digest::suppressedCount)
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Désactivé ou saturé : toutes les alertes partent (fail-open)")
+    void tryAcquire_ShouldFailOpen_WhenDisabledOrSaturated() {
+        // Given
+        SecurityAlertCoalescer disabled = new SecurityAlertCoalescer(false, Duration.ofMinutes(10), 1_000,
+                meterRegistry, clock);
+        SecurityAlertCoalescer saturated = new SecurityAlertCoalescer(true, Duration.ofMinutes(10), 1,
+                meterRegistry, clock);
+        saturated.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.FRENCH);
+
+        // When / Then
+        assertThat(disabled.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.FRENCH)).isTrue();
+        assertThat(disabled.tryAcquire(customer, TYPE, DEVICE, "10.0.0.1", null, Locale.FRENCH)).isTrue();
+        assertThat(saturated.tryAcquire(customer, TYPE, "Firefox sur Linux", "10.0.0.1", null, Locale.FRENCH)).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
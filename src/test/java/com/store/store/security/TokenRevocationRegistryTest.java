@@ -0,0 +1,169 @@
+package com.store.store.security;
+
+import com.store.store.entity.Customer;
+import com.store.store.repository.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationRegistryTest {
+
+    private static final String EMAIL = "john.doe@example.com";
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @InjectMocks
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "jwtExpirationMs", 900_000L);
+    }
+
+    @Test
+    @DisplayName("Un JWT émis avant l'époque de révocation doit être refusé")
+    void isRevoked_WhenIssuedBeforeEpoch_ShouldReturnTrue() {
+        // Given
+        Instant epoch = Instant.now();
+        registry.register(EMAIL, epoch);
+
+        // When & Then
+        assertThat(registry.isRevoked(EMAIL, Date.from(epoch.minusSeconds(60)))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un JWT émis dans la même seconde ou après l'époque doit être accepté")
+    void isRevoked_WhenIssuedAfterEpoch_ShouldReturnFalse() {
+        // Given
+        Instant epoch = Instant.now();
+        registry.register(EMAIL, epoch);
+
+        // When & Then
+        assertThat(registry.isRevoked(EMAIL, Date.from(epoch.truncatedTo(ChronoUnit.SECONDS)))).isFalse();
+        assertThat(registry.isRevoked(EMAIL, Date.from(epoch.plusSeconds(5)))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Sans époque, aucun JWT n'est révoqué")
+    void isRevoked_WithoutEpoch_ShouldReturnFalse() {
+        assertThat(registry.isRevoked("unknown@example.com", new Date())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Une époque plus ancienne ne doit pas écraser une époque plus récente")
+    void register_WithOlderEpoch_ShouldKeepMostRecent() {
+        // Given
+        Instant recent = Instant.now();
+        registry.register(EMAIL, recent);
+
+        // When
+        registry.register(EMAIL, recent.minusSeconds(3600));
+
+        // Then
+        assertThat(registry.isRevoked(EMAIL, Date.from(recent.minusSeconds(10)))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Les époques plus anciennes que la durée de vie d'un JWT sont purgées")
+    void evictExpiredEpochs_ShouldRemoveIrrelevantEpochs() {
+        // Given
+        registry.register(EMAIL, Instant.now().minus(1, ChronoUnit.HOURS));
+        registry.register("jane@example.com", Instant.now());
+
+        // When
+        registry.evictExpiredEpochs();
+
+        // Then
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Le chargement au démarrage doit reprendre les époques actives")
+    void loadActiveEpochs_ShouldRegisterPersistedEpochs() {
+        // Given
+        Customer customer = new Customer();
+        customer.setEmail(EMAIL);
+        customer.setTokensValidAfter(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        when(customerRepository.findByTokensValidAfterAfter(any(Instant.class))).thenReturn(List.of(customer));
+
+        // When
+        registry.loadActiveEpochs();
+
+        // Then
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(registry.isRevoked(EMAIL, Date.from(Instant.now().minusSeconds(120)))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Une révocation faite sur une autre instance doit être reprise au rafraîchissement")
+    void refreshEpochs_ShouldPickUpEpochsWrittenByOtherNodes() {
+        // Given - rien au démarrage, puis une époque écrite en base par une autre instance
+        when(customerRepository.findByTokensValidAfterAfter(any(Instant.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(customer(Instant.now())));
+        registry.loadActiveEpochs();
+        Date issuedBeforeRevocation = Date.from(Instant.now().minusSeconds(60));
+        assertThat(registry.isRevoked(EMAIL, issuedBeforeRevocation)).isFalse();
+
+        // When
+        registry.refreshEpochs();
+
+        // Then
+        assertThat(registry.isRevoked(EMAIL, issuedBeforeRevocation)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Le rafraîchissement ne doit pas remplacer une époque locale plus récente")
+    void refreshEpochs_ShouldKeepMostRecentEpoch() {
+        // Given - révocation locale pas encore visible en base
+        Instant recent = Instant.now();
+        registry.register(EMAIL, recent);
+        when(customerRepository.findByTokensValidAfterAfter(any(Instant.class)))
+                .thenReturn(List.of(customer(recent.minusSeconds(300))));
+
+        // When
+        registry.refreshEpochs();
+
+        // Then
+        assertThat(registry.isRevoked(EMAIL, Date.from(recent.minusSeconds(10)))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Une base indisponible ne doit pas vider le registre")
+    void refreshEpochs_WhenDatabaseFails_ShouldKeepEpochs() {
+        // Given
+        registry.register(EMAIL, Instant.now());
+        when(customerRepository.findByTokensValidAfterAfter(any(Instant.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // When
+        registry.refreshEpochs();
+
+        // Then
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    private static Customer customer(Instant tokensValidAfter) {
+        Customer customer = new Customer();
+        customer.setEmail(EMAIL);
+        customer.setTokensValidAfter(tokensValidAfter);
+        return customer;
+    }
+}
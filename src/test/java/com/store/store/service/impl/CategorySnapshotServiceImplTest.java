@@ -0,0 +1,155 @@
+package com.store.store.service.impl;
+
+import com.store.store.dto.category.CategoryDto;
+import com.store.store.dto.category.CategoryProductCount;
+import com.store.store.entity.Category;
+import com.store.store.repository.CategoryRepository;
+import com.store.store.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategorySnapshotServiceImplTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CategorySnapshotServiceImpl snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService = new CategorySnapshotServiceImpl(categoryRepository, productRepository, transactionManager,
+                new SimpleMeterRegistry(), Duration.ofMinutes(5));
+
+        when(categoryRepository.findAll()).thenReturn(List.of(
+                category(1L, "SHOES", 2, true),
+                category(2L, "BAGS", 1, true),
+                category(3L, "HATS", 3, true),
+                category(4L, "ARCHIVE", 0, false)));
+        when(productRepository.countProductsGroupedByCategory()).thenReturn(List.of(
+                new CategoryProductCount(1L, 5L, 3L),
+                new CategoryProductCount(3L, 2L, 0L),
+                new CategoryProductCount(4L, 7L, 7L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Les listes doivent être triées par ordre d'affichage, avec les nombres de produits actifs")
+    void reads_ShouldBeServedFromOneSnapshot() {
+        // When
+        List<CategoryDto> all = snapshotService.getAllCategories();
+        List<CategoryDto> active = snapshotService.getActiveCategories();
+        List<CategoryDto> withProducts = snapshotService.getActiveCategoriesWithProducts();
+
+        // Then - une catégorie sans produit actif n'apparaît pas dans les menus
+        assertThat(all).extracting(CategoryDto::getCode).containsExactly("ARCHIVE", "BAGS", "SHOES", "HATS");
+        assertThat(active).extracting(CategoryDto::getCode).containsExactly("BAGS", "SHOES", "HATS");
+        assertThat(withProducts).extracting(CategoryDto::getCode).containsExactly("SHOES");
+        assertThat(withProducts.get(0).getProductCount()).isEqualTo(5L);
+        assertThat(withProducts.get(0).getActiveProductCount()).isEqualTo(3L);
+        assertThat(snapshotService.findByCode("BAGS")).get().extracting(CategoryDto::getProductCount).isEqualTo(0L);
+        assertThat(snapshotService.findById(99L)).isEmpty();
+        verify(categoryRepository, times(1)).findAll();
+        verify(productRepository, times(1)).countProductsGroupedByCategory();
+    }
+
+    @Test
+    @DisplayName("Chaque appelant doit recevoir ses propres DTO : les modifier ne change pas l'instantané")
+    void reads_ShouldReturnDefensiveCopies() {
+        // Given
+        snapshotService.findById(1L).orElseThrow().setIcon("👟");
+
+        // When
+        CategoryDto reread = snapshotService.findById(1L).orElseThrow();
+
+        // Then
+        assertThat(reread.getIcon()).isNull();
+    }
+
+    @Test
+    @DisplayName("Dans une transaction, la reconstruction ne doit partir qu'après le commit")
+    void refreshAfterCommit_ShouldWaitForCommit() {
+        // Given
+        snapshotService.getAllCategories();
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "SHOES", 2, false)));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        snapshotService.refreshAfterCommit();
+
+        // Then - avant le commit : ancien instantané
+        assertThat(snapshotService.getActiveCategories()).hasSize(3);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(snapshotService.getActiveCategories()).isEmpty();
+        assertThat(snapshotService.getAllCategories()).extracting(CategoryDto::getCode).containsExactly("SHOES");
+    }
+
+    @Test
+    @DisplayName("Une catégorie parente doit cumuler les produits actifs de ses sous-catégories")
+    void snapshot_ShouldAggregateSubtreeCounts() {
+        // Given
+        Category sports = category(10L, "SPORTS", 1, true);
+        sports.setPath("/10/");
+        Category football = category(11L, "FOOTBALL", 1, true);
+        football.setParent(sports);
+        football.setPath("/10/11/");
+        Category clubs = category(12L, "CLUBS", 2, true);
+        clubs.setParent(football);
+        clubs.setPath("/10/11/12/");
+        when(categoryRepository.findAll()).thenReturn(List.of(sports, football, clubs));
+        when(productRepository.countProductsGroupedByCategory()).thenReturn(List.of(
+                new CategoryProductCount(11L, 2L, 2L),
+                new CategoryProductCount(12L, 4L, 3L)));
+
+        // When
+        List<CategoryDto> withProducts = snapshotService.getActiveCategoriesWithProducts();
+
+        // Then
+        assertThat(withProducts).extracting(CategoryDto::getCode).containsExactly("SPORTS", "FOOTBALL", "CLUBS");
+        assertThat(withProducts).extracting(CategoryDto::getSubtreeActiveProductCount).containsExactly(5L, 5L, 3L);
+        assertThat(withProducts).extracting(CategoryDto::getActiveProductCount).containsExactly(0L, 2L, 3L);
+        assertThat(withProducts.get(2).getParentId()).isEqualTo(11L);
+        assertThat(snapshotService.findPath("FOOTBALL")).contains("/10/11/");
+        assertThat(snapshotService.findPath("BAGS")).isEmpty();
+    }
+
+    private static Category category(Long id, String code, int displayOrder, boolean active) {
+        Category category = new Category();
+        category.setCategoryId(id);
+        category.setCode(code);
+        category.setName(code.toLowerCase());
+        category.setDisplayOrder(displayOrder);
+        category.setIsActive(active);
+        return category;
+    }
+}
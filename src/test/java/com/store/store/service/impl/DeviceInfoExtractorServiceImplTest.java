@@ -0,0 +1,74 @@
+package com.store.store.service.impl;
+
+import com.store.store.dto.auth.DeviceInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeviceInfoExtractorServiceImplTest {
+
+    private static final String CHROME_WINDOWS =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36";
+
+    private DeviceInfoExtractorServiceImpl extractor;
+
+    @BeforeEach
+    void setUp() {
+        extractor = new DeviceInfoExtractorServiceImpl(100, new SimpleMeterRegistry());
+    }
+
+    @ParameterizedTest(name = "{1} - {2} - {3}")
+    @DisplayName("Les User-Agents courants doivent être reconnus")
+    @CsvSource(delimiter = '|', value = {
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36|Windows 10|Chrome|Desktop",
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36 Edg/120.0.0.0|Windows 10|Edge|Desktop",
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 Safari/605.1.15|macOS Catalina|Safari|Desktop",
+            "Mozilla/5.0 (iPhone; CPU iPhone OS 17_1 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/17.1 Mobile/15E148 Safari/604.1|iOS 17|Safari Mobile|Mobile",
+            "Mozilla/5.0 (Linux; Android 14; Pixel 8) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Mobile Safari/537.36|Android 14|Chrome Mobile|Mobile",
+            "Mozilla/5.0 (X11; Ubuntu; Linux x86_64; rv:121.0) Gecko/20100101 Firefox/121.0|Ubuntu|Firefox|Desktop",
+            "Mozilla/5.0 (iPad; CPU OS 16_6 like Mac OS X) AppleWebKit/605.1.15 (KHTML, like Gecko) Version/16.6 Mobile/15E148 Safari/604.1|iOS 16|Safari Mobile|Tablet",
+            "Mozilla/5.0 (compatible; MSIE 10.0; Windows NT 6.1; Trident/6.0)|Windows 7|Internet Explorer|Desktop",
+            "curl/8.4.0|Unknown OS|Unknown Browser|Desktop"
+    })
+    void parse_ShouldRecognizeCommonUserAgents(String userAgent, String os, String browser, String deviceType) {
+        // When
+        DeviceInfo device = extractor.parse(userAgent);
+
+        // Then
+        assertThat(device).isEqualTo(new DeviceInfo(os, browser, deviceType));
+    }
+
+    @Test
+    @DisplayName("Le libellé doit conserver le format OS - Navigateur - Type")
+    void extractDeviceInfo_ShouldKeepLabelFormat() {
+        assertThat(extractor.extractDeviceInfo(CHROME_WINDOWS)).isEqualTo("Windows 10 - Chrome - Desktop");
+        assertThat(extractor.extractBrowserName(
+                "Mozilla/5.0 (Linux; Android 14) AppleWebKit/537.36 Chrome/120.0.0.0 Mobile Safari/537.36"))
+                .isEqualTo("Chrome");
+    }
+
+    @Test
+    @DisplayName("User-Agent absent : null pour le libellé, UNKNOWN pour l'analyse")
+    void parse_ShouldHandleMissingUserAgent() {
+        assertThat(extractor.extractDeviceInfo(null)).isNull();
+        assertThat(extractor.extractDeviceInfo("")).isNull();
+        assertThat(extractor.parse("  ")).isSameAs(DeviceInfo.UNKNOWN);
+        assertThat(extractor.extractBrowserName(null)).isEqualTo("Unknown");
+    }
+
+    @Test
+    @DisplayName("Un User-Agent déjà vu doit être servi depuis le cache")
+    void parse_ShouldReturnCachedInstance_ForSameUserAgent() {
+        // When
+        DeviceInfo first = extractor.parse(CHROME_WINDOWS);
+        DeviceInfo second = extractor.parse(new String(CHROME_WINDOWS));
+
+        // Then
+        assertThat(second).isSameAs(first);
+    }
+}
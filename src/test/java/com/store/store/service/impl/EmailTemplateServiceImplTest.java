@@ -0,0 +1,105 @@
+package com.store.store.service.impl;
+
+import com.store.store.exception.ConfigurationException;
+import com.store.store.exception.ExceptionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplateServiceImplTest {
+
+    private EmailTemplateServiceImpl emailTemplateService;
+
+    @BeforeEach
+    void setUp() {
+        ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
+        messageSource.setBasename("classpath:messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        messageSource.setDefaultLocale(Locale.FRENCH);
+        messageSource.setUseCodeAsDefaultMessage(true);
+
+        MessageServiceImpl messageService = new MessageServiceImpl(messageSource);
+        emailTemplateService = new EmailTemplateServiceImpl(messageService, new ExceptionFactory(messageService));
+    }
+
+    @Test
+    @DisplayName("Le template doit être compilé une seule fois par langue")
+    void render_ShouldCompileOncePerLanguage() {
+        // When
+        emailTemplateService.render("tokens-revoked", Locale.FRENCH, tokensRevokedValues("Alice"));
+        emailTemplateService.render("tokens-revoked", Locale.FRANCE, tokensRevokedValues("Bob"));
+        emailTemplateService.render("tokens-revoked", Locale.ENGLISH, tokensRevokedValues("Carol"));
+
+        // Then - fr et fr_FR partagent la même entrée
+        assertThat(emailTemplateService.compiledTemplateCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Les textes doivent être localisés et les variables injectées")
+    void render_ShouldLocalizeTextAndInjectVariables() {
+        // When
+        String fr = emailTemplateService.render("tokens-revoked", Locale.FRENCH, tokensRevokedValues("Alice"));
+        String en = emailTemplateService.render("tokens-revoked", Locale.ENGLISH, tokensRevokedValues("Alice"));
+
+        // Then
+        assertThat(fr).contains("<html lang=\"fr\">", "Bonjour <strong>Alice</strong>", "Déconnexion Sécurisée");
+        assertThat(en).contains("<html lang=\"en\">", "Hello <strong>Alice</strong>", "Secure Sign-out");
+        assertThat(fr).doesNotContain("#{", "{{");
+    }
+
+    @Test
+    @DisplayName("Les variables doivent être échappées HTML")
+    void render_ShouldEscapeVariables() {
+        // When
+        String html = emailTemplateService.render("tokens-revoked", Locale.FRENCH,
+                tokensRevokedValues("<script>alert('x')</script>"));
+
+        // Then
+        assertThat(html)
+                .contains("&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;")
+                .doesNotContain("<script>");
+    }
+
+    @Test
+    @DisplayName("Une variable manquante doit être signalée")
+    void render_ShouldFail_WhenVariableMissing() {
+        assertThatThrownBy(() -> emailTemplateService.render("tokens-revoked", Locale.FRENCH,
+                Map.of("customerName", "Alice")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("reason");
+    }
+
+    @Test
+    @DisplayName("Un template inexistant doit lever une ConfigurationException")
+    void render_ShouldFail_WhenTemplateMissing() {
+        assertThatThrownBy(() -> emailTemplateService.render("unknown", Locale.FRENCH, Map.of()))
+                .isInstanceOf(ConfigurationException.class);
+    }
+
+    @Test
+    @DisplayName("Le découpage doit alterner littéraux et variables")
+    void parse_ShouldSplitLiteralsAndVariables() {
+        // When
+        EmailTemplateServiceImpl.CompiledTemplate template = EmailTemplateServiceImpl.CompiledTemplate.parse(
+                "<p>#{greeting} {{ name }}, {{count}}</p>", code -> "Salut");
+
+        // Then
+        assertThat(template.literals()).containsExactly("<p>Salut ", ", ", "</p>");
+        assertThat(template.variables()).containsExactly("name", "count");
+    }
+
+    private static Map<String, String> tokensRevokedValues(String customerName) {
+        return Map.of(
+                "customerName", customerName,
+                "reason", "Changement de mot de passe",
+                "timestamp", "01/11/2025 à 10:00:00");
+    }
+}
@@ -0,0 +1,337 @@
+package com.store.store.service.impl;
+
+import com.store.store.entity.StoredImage;
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.exception.ValidationException;
+import com.store.store.repository.StoredImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FileStorageServiceImplTest {
+
+    private static final byte[] PNG_BYTES = {(byte) 0x89, 'P', 'N', 'G', 1, 2, 3, 4};
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private ExceptionFactory exceptionFactory;
+
+    @Mock
+    private MessageServiceImpl messageService;
+
+    @Mock
+    private StoredImageRepository storedImageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FileStorageServiceImpl fileStorageService;
+
+    @AfterEach
+    void tearDown() {
+        fileStorageService.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fileStorageService = new FileStorageServiceImpl(
+                exceptionFactory, messageService, storedImageRepository, meterRegistry, transactionManager);
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "unreferencedGrace", Duration.ofHours(1));
+        ReflectionTestUtils.setField(fileStorageService, "uploadThreads", 2);
+        ReflectionTestUtils.setField(fileStorageService, "uploadQueueCapacity", 10);
+        ReflectionTestUtils.setField(fileStorageService, "purgeBatchSize", 100);
+        fileStorageService.init();
+    }
+
+    @Test
+    @DisplayName("Un même contenu uploadé deux fois ne doit être écrit qu'une fois")
+    void storeImage_ShouldDeduplicateIdenticalContent() throws Exception {
+        // Given
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+
+        // When
+        String first = fileStorageService.storeProductImage(image("photo.png"));
+        String second = fileStorageService.storeGalleryImage(image("copie.png"));
+
+        // Then - même URL immuable, un seul fichier, deux références
+        assertThat(first).isEqualTo(second).matches("/uploads/images/[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}\\.png");
+        assertThat(storedFiles()).hasSize(1);
+        verify(storedImageRepository, times(2)).acquireReference(anyString(), eq("png"), eq("image/png"), eq((long) PNG_BYTES.length));
+        assertThat(meterRegistry.counter("store.images.stored", "result", "deduplicated").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Le fichier doit être nommé par son SHA-256 et réparti en sous-répertoires")
+    void storeImage_ShouldNameFileByDigest_InShardedDirectories() throws Exception {
+        // Given
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+
+        // When
+        String url = fileStorageService.storeProductImage(image("photo.png"));
+
+        // Then
+        String digest = url.substring(url.lastIndexOf('/') + 1, url.lastIndexOf('.'));
+        Path expected = uploadDir.resolve("images").resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4))
+                .resolve(digest + ".png");
+        assertThat(expected).exists().hasBinaryContent(PNG_BYTES);
+        assertThat(Files.list(uploadDir.resolve("images").resolve(".tmp"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Supprimer une image adressée par contenu retire seulement une référence")
+    void deleteProductImage_ShouldReleaseReference_ForContentAddressedUrl() throws Exception {
+        // Given
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+        String url = fileStorageService.storeProductImage(image("photo.png"));
+        String digest = url.substring(url.lastIndexOf('/') + 1, url.lastIndexOf('.'));
+
+        // When
+        fileStorageService.deleteProductImage(url);
+
+        // Then - le fichier reste jusqu'à la purge
+        verify(storedImageRepository).releaseReference(eq(digest), any(Instant.class));
+        assertThat(storedFiles()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Une URL forgée ne doit libérer aucune référence")
+    void deleteProductImage_ShouldIgnoreInvalidDigest() {
+        // When
+        fileStorageService.deleteProductImage("/uploads/images/aa/bb/../../secret.png");
+
+        // Then
+        verify(storedImageRepository, never()).releaseReference(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("La purge doit supprimer fichier et ligne des contenus sans référence")
+    void purgeUnreferencedImages_ShouldDeleteFileAndRow() throws Exception {
+        // Given
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+        String url = fileStorageService.storeProductImage(image("photo.png"));
+        String digest = url.substring(url.lastIndexOf('/') + 1, url.lastIndexOf('.'));
+        StoredImage unreferenced = StoredImage.builder().digest(digest).extension("png").refCount(0).build();
+        when(storedImageRepository.findUnreferencedForUpdate(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(unreferenced));
+
+        // When
+        int purged = fileStorageService.purgeUnreferencedImages();
+
+        // Then
+        assertThat(purged).isEqualTo(1);
+        assertThat(storedFiles()).isEmpty();
+        verify(storedImageRepository).deleteAll(List.of(unreferenced));
+    }
+
+    @Test
+    @DisplayName("Les fichiers purgés ne doivent être supprimés qu'après le commit de la transaction")
+    void purgeUnreferencedImages_ShouldDeleteFilesOnlyAfterCommit() throws Exception {
+        // Given
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+        String url = fileStorageService.storeProductImage(image("photo.png"));
+        String digest = url.substring(url.lastIndexOf('/') + 1, url.lastIndexOf('.'));
+        when(storedImageRepository.findUnreferencedForUpdate(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(StoredImage.builder().digest(digest).extension("png").refCount(0).build()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When
+            fileStorageService.purgeUnreferencedImages();
+
+            // Then - fichier intact tant que la transaction n'est pas validée, supprimé après le commit
+            assertThat(storedFiles()).hasSize(1);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertThat(storedFiles()).isEmpty();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Un ré-upload concurrent d'un contenu purgé ne doit pas perdre son fichier")
+    void purgeUnreferencedImages_ShouldKeepFile_WhenContentReuploadedBeforeDeletion() throws Exception {
+        // Given - contenu stocké, devenu sans référence
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+        String url = fileStorageService.storeProductImage(image("photo.png"));
+        String digest = url.substring(url.lastIndexOf('/') + 1, url.lastIndexOf('.'));
+        when(storedImageRepository.findUnreferencedForUpdate(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(StoredImage.builder().digest(digest).extension("png").refCount(0).build()));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When - la purge valide la suppression de la ligne...
+            fileStorageService.purgeUnreferencedImages();
+            List<TransactionSynchronization> afterPurge = List.copyOf(TransactionSynchronizationManager.getSynchronizations());
+
+            // ...un upload du même contenu insère une nouvelle ligne avant la suppression des fichiers...
+            when(storedImageRepository.acquireReference(eq(digest), anyString(), anyString(), anyLong())).thenReturn(1);
+            String reuploaded = fileStorageService.storeProductImage(image("copie.png"));
+
+            // ...puis la suppression des fichiers, sous verrou, voit la ligne de l'upload
+            when(storedImageRepository.lockDigest(digest)).thenReturn(Optional.of(digest));
+            afterPurge.forEach(TransactionSynchronization::afterCommit);
+
+            // Then - l'URL ré-uploadée désigne toujours un fichier
+            assertThat(reuploaded).isEqualTo(url);
+            assertThat(storedFiles()).hasSize(1);
+            verify(storedImageRepository).lockDigest(digest);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Une nouvelle ligne doit remplacer le fichier présent au lieu de le réutiliser")
+    void storeImage_ShouldWriteFile_WhenReferenceIsNewEvenIfFileExists() throws Exception {
+        // Given - fichier laissé par une purge en cours (contenu tronqué pour le reconnaître)
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+        String url = fileStorageService.storeProductImage(image("photo.png"));
+        Path stored = storedFiles().get(0);
+        Files.write(stored, new byte[]{0});
+        when(storedImageRepository.acquireReference(anyString(), anyString(), anyString(), anyLong())).thenReturn(1);
+
+        // When
+        String reuploaded = fileStorageService.storeProductImage(image("copie.png"));
+
+        // Then - le fichier préparé est mis en place, jamais compté comme doublon
+        assertThat(reuploaded).isEqualTo(url);
+        assertThat(stored).hasBinaryContent(PNG_BYTES);
+        assertThat(meterRegistry.counter("store.images.stored", "result", "new").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("store.images.stored", "result", "deduplicated").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Les anciennes URL doivent toujours supprimer le fichier directement")
+    void deleteProductImage_ShouldDeleteLegacyFile() throws Exception {
+        // Given
+        Path legacy = uploadDir.resolve("products").resolve("main").resolve("product_old.png");
+        Files.createDirectories(legacy.getParent());
+        Files.write(legacy, PNG_BYTES);
+
+        // When
+        fileStorageService.deleteProductImage("/uploads/products/main/product_old.png");
+
+        // Then
+        assertThat(legacy).doesNotExist();
+        verify(storedImageRepository, never()).releaseReference(anyString(), any());
+        verify(storedImageRepository, never()).acquireReference(anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Les URL d'upload doivent se résoudre sous le répertoire configuré, jamais en dehors")
+    void resolveUploadedFile_ShouldResolveUnderUploadDirectory() {
+        // When / Then
+        assertThat(fileStorageService.resolveUploadedFile("http://localhost:8080/uploads/products/main/product_old.png"))
+                .contains(uploadDir.resolve("products").resolve("main").resolve("product_old.png").toAbsolutePath());
+        assertThat(fileStorageService.resolveUploadedFile("/uploads/../../etc/passwd")).isEmpty();
+        assertThat(fileStorageService.resolveUploadedFile("/uploads/images/.tmp/upload-1.tmp")).isEmpty();
+        assertThat(fileStorageService.resolveUploadedFile("https://cdn.example.com/photo.png")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Le format doit être déduit des premiers octets, pas du nom ni du type MIME du client")
+    void storeImage_ShouldSniffFormat_FromMagicBytes() throws Exception {
+        // Given - un JPEG envoyé sous un nom et un type PNG
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 16, 'J', 'F', 'I', 'F'};
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("jpg"));
+
+        // When
+        String url = fileStorageService.storeProductImage(new MockMultipartFile("file", "photo.png", "image/png", jpeg));
+
+        // Then
+        assertThat(url).endsWith(".jpg");
+        verify(storedImageRepository).acquireReference(anyString(), eq("jpg"), eq("image/jpeg"), eq((long) jpeg.length));
+    }
+
+    @Test
+    @DisplayName("Un fichier qui n'est pas une image doit être refusé, quel que soit son nom")
+    void stageImage_ShouldRejectNonImageContent() {
+        // Given
+        when(exceptionFactory.validationError(eq("file"), any())).thenReturn(new ValidationException("file", "not an image"));
+        MockMultipartFile script = new MockMultipartFile("file", "photo.png", "image/png", "<script>".getBytes());
+
+        // When / Then
+        assertThatThrownBy(() -> fileStorageService.stageImage(script)).isInstanceOf(ValidationException.class);
+        verify(storedImageRepository, never()).acquireReference(anyString(), anyString(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Les uploads multiples sont préparés sans accès base, dans l'ordre reçu")
+    void stageImages_ShouldStageAllFiles_WithoutTouchingDatabase() throws Exception {
+        // Given
+        MockMultipartFile first = new MockMultipartFile("file", "a.png", "image/png", PNG_BYTES);
+        MockMultipartFile second = new MockMultipartFile("file", "b.gif", "image/gif", new byte[]{'G', 'I', 'F', '8', '9', 'a'});
+
+        // When
+        List<FileStorageServiceImpl.StagedImage> staged = fileStorageService.stageImages(List.of(first, second));
+
+        // Then
+        assertThat(staged).extracting(FileStorageServiceImpl.StagedImage::extension).containsExactly("png", "gif");
+        assertThat(staged).allSatisfy(image -> assertThat(image.tempFile()).exists());
+        verifyNoInteractions(storedImageRepository);
+    }
+
+    @Test
+    @DisplayName("Si un fichier est refusé, les fichiers temporaires des autres doivent être supprimés")
+    void stageImages_ShouldCleanUpTempFiles_WhenOneFileFails() throws Exception {
+        // Given
+        when(exceptionFactory.validationError(eq("file"), any())).thenReturn(new ValidationException("file", "not an image"));
+        MockMultipartFile valid = new MockMultipartFile("file", "a.png", "image/png", PNG_BYTES);
+        MockMultipartFile invalid = new MockMultipartFile("file", "b.png", "image/png", "plain text".getBytes());
+
+        // When / Then
+        assertThatThrownBy(() -> fileStorageService.stageImages(List.of(valid, invalid)))
+                .isInstanceOf(ValidationException.class);
+        try (Stream<Path> temp = Files.list(uploadDir.resolve("images").resolve(".tmp"))) {
+            assertThat(temp).isEmpty();
+        }
+    }
+
+    private static MockMultipartFile image(String name) {
+        return new MockMultipartFile("file", name, "image/png", PNG_BYTES);
+    }
+
+    private List<Path> storedFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(uploadDir.resolve("images"))) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.store.store.service.impl;
+
+import com.store.store.enums.ImageVariant;
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.repository.ProductRepository;
+import com.store.store.repository.StoredImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantServiceImplTest {
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private ExceptionFactory exceptionFactory;
+
+    @Mock
+    private MessageServiceImpl messageService;
+
+    @Mock
+    private StoredImageRepository storedImageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager cacheManager;
+    private FileStorageServiceImpl fileStorageService;
+    private ImageVariantServiceImpl imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fileStorageService = new FileStorageServiceImpl(
+                exceptionFactory, messageService, storedImageRepository, meterRegistry, transactionManager);
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "unreferencedGrace", Duration.ofHours(1));
+        ReflectionTestUtils.setField(fileStorageService, "uploadThreads", 2);
+        ReflectionTestUtils.setField(fileStorageService, "uploadQueueCapacity", 10);
+        fileStorageService.init();
+
+        cacheManager = new ConcurrentMapCacheManager("product", "products", "productsByCategory");
+        imageVariantService = new ImageVariantServiceImpl(fileStorageService, productRepository, cacheManager,
+                meterRegistry, true, 1, 10, 0.8f, 40_000_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageVariantService.destroy();
+        fileStorageService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Les trois déclinaisons doivent être générées à côté de l'original, ratio conservé")
+    void generateVariants_ShouldWriteAllVariants_NextToOriginal() throws Exception {
+        // Given - original 2400x1200
+        String url = storePng(2400, 1200);
+        String digest = FileStorageServiceImpl.contentDigest(url).orElseThrow();
+        when(productRepository.findIdsByImageUrl(url)).thenReturn(List.of(7L));
+
+        // When
+        boolean ready = imageVariantService.generateVariants(url);
+
+        // Then
+        assertThat(ready).isTrue();
+        BufferedImage thumb = ImageIO.read(fileStorageService.resolveVariantPath(digest, ImageVariant.THUMB).toFile());
+        BufferedImage card = ImageIO.read(fileStorageService.resolveVariantPath(digest, ImageVariant.CARD).toFile());
+        BufferedImage detail = ImageIO.read(fileStorageService.resolveVariantPath(digest, ImageVariant.DETAIL).toFile());
+        assertThat(thumb.getWidth()).isEqualTo(160);
+        assertThat(thumb.getHeight()).isEqualTo(80);
+        assertThat(card.getWidth()).isEqualTo(480);
+        assertThat(detail.getWidth()).isEqualTo(1200);
+        assertThat(fileStorageService.resolveVariantPath(digest, ImageVariant.THUMB).getParent())
+                .isEqualTo(fileStorageService.resolveStoredImage(url).orElseThrow().getParent());
+        verify(productRepository).markImageVariantsReady(url);
+    }
+
+    @Test
+    @DisplayName("Un produit reprenant l'image pendant la génération doit aussi être marqué")
+    void scheduleVariants_ShouldMarkProductRegisteredDuringGeneration() throws Exception {
+        // Given - pendant le marquage, un second produit valide la même image (demande dédupliquée)
+        String url = storePng(800, 600);
+        when(productRepository.findIdsByImageUrl(url))
+                .thenAnswer(invocation -> {
+                    imageVariantService.scheduleVariants(url);
+                    return List.of(7L);
+                })
+                .thenReturn(List.of(7L, 8L));
+
+        // When
+        imageVariantService.scheduleVariants(url);
+
+        // Then - une seconde passe marque le produit arrivé après la première lecture
+        verify(productRepository, timeout(5_000).times(2)).markImageVariantsReady(url);
+        verify(productRepository, times(2)).findIdsByImageUrl(url);
+    }
+
+    @Test
+    @DisplayName("Une image plus petite que la déclinaison ne doit pas être agrandie")
+    void resize_ShouldNeverUpscale() {
+        // Given
+        BufferedImage small = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB);
+
+        // When
+        BufferedImage detail = ImageVariantServiceImpl.resize(small, ImageVariant.DETAIL.maxDimension());
+
+        // Then
+        assertThat(detail.getWidth()).isEqualTo(300);
+        assertThat(detail.getHeight()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Une fois prêtes, les entrées de cache des produits concernés doivent être évincées")
+    void generateVariants_ShouldEvictProductCaches() throws Exception {
+        // Given
+        String url = storePng(800, 600);
+        when(productRepository.findIdsByImageUrl(url)).thenReturn(List.of(7L));
+        cacheManager.getCache("product").put(7L, "stale");
+        cacheManager.getCache("products").put("page-0", "stale");
+
+        // When
+        imageVariantService.generateVariants(url);
+
+        // Then
+        assertThat(cacheManager.getCache("product").get(7L)).isNull();
+        assertThat(cacheManager.getCache("products").get("page-0")).isNull();
+    }
+
+    @Test
+    @DisplayName("Un fichier illisible ne doit marquer aucun produit")
+    void generateVariants_ShouldFail_WhenImageIsUnreadable() throws Exception {
+        // Given
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+        String url = fileStorageService.storeProductImage(
+                new MockMultipartFile("file", "broken.png", "image/png", new byte[]{(byte) 0x89, 'P', 'N', 'G', 1, 2, 3, 4}));
+
+        // When
+        boolean ready = imageVariantService.generateVariants(url);
+
+        // Then
+        assertThat(ready).isFalse();
+        verify(productRepository, never()).markImageVariantsReady(anyString());
+        assertThat(meterRegistry.counter("store.images.variants.result", "result", "failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Les URL des déclinaisons se déduisent de l'URL de l'original ; aucune pour une ancienne URL")
+    void variantUrls_ShouldDeriveFromContentAddressedUrl() {
+        // Given
+        String digest = "ab".repeat(32);
+        String url = "/uploads/images/ab/ab/" + digest + ".png";
+
+        // When / Then
+        assertThat(FileStorageServiceImpl.variantUrls(url))
+                .containsExactly(
+                        entry("thumb", "/uploads/images/ab/ab/" + digest + "_thumb.jpg"),
+                        entry("card", "/uploads/images/ab/ab/" + digest + "_card.jpg"),
+                        entry("detail", "/uploads/images/ab/ab/" + digest + "_detail.jpg"));
+        assertThat(FileStorageServiceImpl.variantUrls("/uploads/products/main/product_old.png")).isEmpty();
+    }
+
+    private String storePng(int width, int height) throws Exception {
+        when(storedImageRepository.findExtensionByDigest(anyString())).thenReturn(Optional.of("png"));
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", png);
+        String url = fileStorageService.storeProductImage(
+                new MockMultipartFile("file", "photo.png", "image/png", png.toByteArray()));
+        assertThat(Files.exists(fileStorageService.resolveStoredImage(url).orElseThrow())).isTrue();
+        return url;
+    }
+}
@@ -0,0 +1,180 @@
+package com.store.store.service.impl;
+
+import com.store.store.entity.MailOutbox;
+import com.store.store.enums.MailOutboxStatus;
+import com.store.store.repository.MailOutboxRepository;
+import com.store.store.service.IMailOutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MailOutboxServiceImplTest {
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MailOutboxServiceImpl mailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        mailOutboxService = new MailOutboxServiceImpl(mailOutboxRepository, mailSender, transactionTemplate, meterRegistry);
+
+        ReflectionTestUtils.setField(mailOutboxService, "from", "security@store.test");
+        ReflectionTestUtils.setField(mailOutboxService, "batchSize", 50);
+        ReflectionTestUtils.setField(mailOutboxService, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(mailOutboxService, "ratePerSecond", 0.0);
+        ReflectionTestUtils.setField(mailOutboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(mailOutboxService, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(mailOutboxService, "maxBackoff", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(mailOutboxService, "claimLease", Duration.ofMinutes(5));
+
+        // Chaque étape exécute son callback comme dans une vraie transaction
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        lenient().when(mailSender.createMimeMessage())
+                .thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+    }
+
+    @Test
+    @DisplayName("Un lot doit être envoyé en un seul appel SMTP")
+    void dispatchPending_ShouldSendWholeBatchInOneCall() {
+        // Given
+        List<MailOutbox> batch = List.of(mail(1L, 0), mail(2L, 0), mail(3L, 0));
+        when(mailOutboxRepository.findDueForUpdate(anyCollection(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(batch)
+                .thenReturn(List.of());
+
+        // When
+        IMailOutboxService.DispatchReport report = mailOutboxService.dispatchPending();
+
+        // Then
+        ArgumentCaptor<MimeMessage[]> captor = ArgumentCaptor.forClass(MimeMessage[].class);
+        verify(mailSender, times(1)).send(captor.capture());
+        assertThat(captor.getValue()).hasSize(3);
+        assertThat(report.sent()).isEqualTo(3);
+        assertThat(batch).allSatisfy(m -> assertThat(m.getStatus()).isEqualTo(MailOutboxStatus.SENT));
+        assertThat(meterRegistry.get("store.mail.outbox.latency").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Échec partiel : seul le message en échec est replanifié avec backoff")
+    void dispatchPending_ShouldRetryOnlyFailedMessages() {
+        // Given
+        MailOutbox ok = mail(1L, 0);
+        MailOutbox ko = mail(2L, 0);
+        when(mailOutboxRepository.findDueForUpdate(anyCollection(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(ok, ko))
+                .thenReturn(List.of());
+
+        List<MimeMessage> created = new ArrayList<>();
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> {
+            MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+            created.add(message);
+            return message;
+        });
+        // Le serveur SMTP refuse uniquement le second destinataire
+        doThrowPartialFailure(created, 1);
+
+        // When
+        IMailOutboxService.DispatchReport report = mailOutboxService.dispatchPending();
+
+        // Then
+        assertThat(report.sent()).isEqualTo(1);
+        assertThat(report.retried()).isEqualTo(1);
+        assertThat(ok.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+        assertThat(ko.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(ko.getAttempts()).isEqualTo(1);
+        assertThat(ko.getNextAttemptAt()).isAfter(Instant.now().plusSeconds(20));
+        assertThat(ko.getLastError()).isEqualTo("mailbox unavailable");
+    }
+
+    @Test
+    @DisplayName("Essais épuisés : l'email passe en FAILED")
+    void dispatchPending_ShouldMarkFailed_WhenAttemptsExhausted() {
+        // Given - 2 essais déjà faits, le 3e (dernier) échoue sur la connexion SMTP
+        MailOutbox mail = mail(1L, 2);
+        when(mailOutboxRepository.findDueForUpdate(anyCollection(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(mail))
+                .thenReturn(List.of());
+        doThrow(new MailAuthenticationException("auth failed"))
+                .when(mailSender).send(any(MimeMessage[].class));
+
+        // When
+        IMailOutboxService.DispatchReport report = mailOutboxService.dispatchPending();
+
+        // Then
+        assertThat(report.failed()).isEqualTo(1);
+        assertThat(mail.getStatus()).isEqualTo(MailOutboxStatus.FAILED);
+        assertThat(meterRegistry.get("store.mail.outbox.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Backoff exponentiel plafonné")
+    void backoff_ShouldGrowExponentiallyAndBeCapped() {
+        assertThat(mailOutboxService.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(mailOutboxService.backoff(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(mailOutboxService.backoff(3)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(mailOutboxService.backoff(10)).isEqualTo(Duration.ofMinutes(10));
+    }
+
+    private void doThrowPartialFailure(List<MimeMessage> created, int failedIndex) {
+        doAnswer(invocation -> {
+            throw new MailSendException("partial", null,
+                    Map.of(created.get(failedIndex), new Exception("mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+    }
+
+    private static MailOutbox mail(Long id, int attempts) {
+        return MailOutbox.builder()
+                .id(id)
+                .recipient("user" + id + "@example.com")
+                .subject("Alerte")
+                .htmlBody("<p>Alerte</p>")
+                .category("NEW_DEVICE_LOGIN")
+                .status(MailOutboxStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now())
+                .createdDate(Instant.now().minusSeconds(5))
+                .build();
+    }
+}
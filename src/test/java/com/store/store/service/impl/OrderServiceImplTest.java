@@ -11,6 +11,7 @@ import com.store.store.entity.Product;
 import com.store.store.exception.ResourceNotFoundException;
 import com.store.store.repository.OrderRepository;
 import com.store.store.repository.ProductRepository;
+import com.store.store.service.IProductPopularityService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -25,6 +26,7 @@ import org.springframework.security.core.context.SecurityContext;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,6 +49,9 @@ class OrderServiceImplTest {
     @Mock
     private ProfileServiceImpl profileService;
 
+    @Mock
+    private IProductPopularityService popularityService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -129,7 +134,7 @@ class OrderServiceImplTest {
         when(profileService.getAuthenticatedCustomer()).thenReturn(customer);
         when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
         when(productRepository.findById(2L)).thenReturn(Optional.of(product2));
-        when(orderRepository.save(any(Order.class))).thenReturn(order);
+        when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(order);
 
         // When
         orderService.createOrder(orderRequestDto);
@@ -138,7 +143,8 @@ class OrderServiceImplTest {
         verify(profileService).getAuthenticatedCustomer();
         verify(productRepository).findById(1L);
         verify(productRepository).findById(2L);
-        verify(orderRepository).save(any(Order.class));
+        verify(orderRepository).saveAndFlush(any(Order.class));
+        verify(popularityService).recordOrder(Map.of(1L, 2, 2L, 1));
     }
 
     @Test
@@ -158,7 +164,7 @@ class OrderServiceImplTest {
         verify(profileService).getAuthenticatedCustomer();
         verify(productRepository).findById(1L);
         verify(productRepository).findById(2L);
-        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).saveAndFlush(any(Order.class));
     }
 
     @Test
@@ -0,0 +1,143 @@
+package com.store.store.service.impl;
+
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.repository.ProductRepository;
+import com.store.store.repository.StoredImageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrphanImageCollectorServiceImplTest {
+
+    private static final String REFERENCED = "aa".repeat(32);
+    private static final String ORPHAN = "bb".repeat(32);
+    private static final String REGISTERED = "cc".repeat(32);
+
+    @TempDir
+    Path uploadDir;
+
+    @Mock
+    private ExceptionFactory exceptionFactory;
+
+    @Mock
+    private MessageServiceImpl messageService;
+
+    @Mock
+    private StoredImageRepository storedImageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FileStorageServiceImpl fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fileStorageService = new FileStorageServiceImpl(
+                exceptionFactory, messageService, storedImageRepository, meterRegistry, transactionManager);
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+        ReflectionTestUtils.setField(fileStorageService, "uploadThreads", 1);
+        ReflectionTestUtils.setField(fileStorageService, "uploadQueueCapacity", 1);
+        fileStorageService.init();
+
+        when(productRepository.findAllImageUrls()).thenReturn(List.of(
+                "/uploads/images/aa/aa/" + REFERENCED + ".png",
+                "http://localhost:8080/uploads/products/main/product_kept.png"));
+        when(productRepository.findAllGalleryImageUrls()).thenReturn(List.of());
+        lenient().when(storedImageRepository.existsById(anyString())).thenReturn(false);
+        lenient().when(storedImageRepository.existsById(REGISTERED)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fileStorageService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Seuls les fichiers non référencés et plus anciens que le délai de grâce doivent être supprimés")
+    void collect_ShouldDeleteOnlyOldUnreferencedFiles() throws Exception {
+        // Given
+        Path referenced = file(fileStorageService.resolveContentPath(REFERENCED, "png"), Duration.ofDays(3));
+        Path orphan = file(fileStorageService.resolveContentPath(ORPHAN, "png"), Duration.ofDays(3));
+        Path orphanThumb = file(fileStorageService.resolveContentPath(ORPHAN + "_thumb", "jpg"), Duration.ofDays(3));
+        Path registered = file(fileStorageService.resolveContentPath(REGISTERED, "png"), Duration.ofDays(3));
+        Path fresh = file(fileStorageService.resolveContentPath("dd".repeat(32), "png"), Duration.ofMinutes(5));
+        Path staleTemp = file(uploadDir.resolve("images").resolve(".tmp").resolve("upload-1.tmp"), Duration.ofHours(2));
+        Path legacyKept = file(uploadDir.resolve("products").resolve("main").resolve("product_kept.png"), Duration.ofDays(3));
+        Path legacyOrphan = file(uploadDir.resolve("products").resolve("gallery").resolve("product_old.png"), Duration.ofDays(3));
+
+        // When
+        OrphanImageCollectorServiceImpl.CollectionResult result = collector(1_000).collect();
+
+        // Then
+        assertThat(orphan).doesNotExist();
+        assertThat(orphanThumb).doesNotExist();
+        assertThat(staleTemp).doesNotExist();
+        assertThat(legacyOrphan).doesNotExist();
+        assertThat(referenced).exists();
+        assertThat(registered).exists();
+        assertThat(fresh).exists();
+        assertThat(legacyKept).exists();
+        assertThat(result.deleted()).isEqualTo(4);
+        assertThat(result.scanned()).isEqualTo(8);
+        assertThat(result.truncated()).isFalse();
+        assertThat(meterRegistry.counter("store.images.gc.deleted", "kind", "content").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("store.images.gc.deleted", "kind", "legacy").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("store.images.gc.deleted", "kind", "temp").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Un passage doit s'arrêter à la limite de suppressions et laisser le reste au suivant")
+    void collect_ShouldStopAtDeletionLimit() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            file(uploadDir.resolve("products").resolve("main").resolve("product_" + i + ".png"), Duration.ofDays(3));
+        }
+
+        // When
+        OrphanImageCollectorServiceImpl.CollectionResult first = collector(2).collect();
+        OrphanImageCollectorServiceImpl.CollectionResult second = collector(10).collect();
+
+        // Then
+        assertThat(first.deleted()).isEqualTo(2);
+        assertThat(first.truncated()).isTrue();
+        assertThat(second.deleted()).isEqualTo(3);
+    }
+
+    private OrphanImageCollectorServiceImpl collector(int maxDeletions) {
+        return new OrphanImageCollectorServiceImpl(fileStorageService, productRepository, storedImageRepository,
+                meterRegistry, Duration.ofHours(24), Duration.ofHours(1), maxDeletions);
+    }
+
+    private static Path file(Path path, Duration age) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(age)));
+        return path;
+    }
+}
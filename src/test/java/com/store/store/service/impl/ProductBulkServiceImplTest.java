@@ -0,0 +1,234 @@
+package com.store.store.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.store.store.dto.category.CategoryDto;
+import com.store.store.dto.product.ProductBulkPatchReport;
+import com.store.store.dto.product.ProductImportReport;
+import com.store.store.dto.product.ProductPatchDto;
+import com.store.store.enums.ProductBulkFormat;
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkServiceImplTest {
+
+    private static final String HEADER = "sku,name,description,price,stockQuantity,categoryCode,imageUrl,popularity,isActive\n";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategorySnapshotServiceImpl categorySnapshotService;
+
+    @Mock
+    private FileStorageServiceImpl fileStorageService;
+
+    @Mock
+    private ImageVariantServiceImpl imageVariantService;
+
+    @Mock
+    private ExceptionFactory exceptionFactory;
+
+    @Mock
+    private MessageServiceImpl messageService;
+
+    private ProductBulkServiceImpl bulkService;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new ProductBulkServiceImpl(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                productRepository, categorySnapshotService, fileStorageService, imageVariantService,
+                () -> Optional.of("admin@store.com"), new ObjectMapper(), exceptionFactory, messageService,
+                new SimpleMeterRegistry(), 2, 2, 100);
+
+        CategoryDto sports = new CategoryDto();
+        sports.setCategoryId(1L);
+        sports.setCode("SPORTS");
+        lenient().when(categorySnapshotService.getAllCategories()).thenReturn(List.of(sports));
+        lenient().when(productRepository.findAllSkus()).thenReturn(List.of("STK-EXISTING"));
+        lenient().when(productRepository.findAllLowercaseNames()).thenReturn(List.of("messi"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkService.destroy();
+    }
+
+    @Test
+    @DisplayName("Import CSV - Les lignes valides doivent être insérées par lots, les autres rapportées avec leur ligne")
+    @SuppressWarnings("unchecked")
+    void importProducts_ShouldBatchValidRows_AndReportInvalidOnes() {
+        // Given - ligne 2 : description entre guillemets avec virgule et guillemet doublé
+        String csv = HEADER
+                + "STK-A,Mbappé,\"Vitesse, \"\"explosive\"\"\",8.00,100,sports,,95,true\n"
+                + "STK-B,Ronaldo,,abc,10,SPORTS,,0,true\n"
+                + "STK-C,Goku,,6.00,10,ANIME,,0,true\n"
+                + "STK-EXISTING,Naruto,,6.00,10,SPORTS,,0,true\n"
+                + "STK-A,Zidane,,9.00,10,SPORTS,,0,true\n"
+                + "\n"
+                + "STK-D,Virat,,9.00,,SPORTS,,,\n";
+
+        // When
+        ProductImportReport report = bulkService.importProducts(stream(csv), ProductBulkFormat.CSV, false);
+
+        // Then - paquets de 2 lignes : le deuxième paquet n'a aucune ligne valide
+        assertThat(report.totalRows()).isEqualTo(6);
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(4);
+        assertThat(report.errors()).extracting(ProductImportReport.RowError::line).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(report.errors()).extracting(ProductImportReport.RowError::field)
+                .containsExactly("price", "categoryCode", "sku", "sku");
+
+        ArgumentCaptor<Collection<ProductBulkServiceImpl.ProductValues>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        List<ProductBulkServiceImpl.ProductValues> inserted = batches.getAllValues().stream().flatMap(Collection::stream).toList();
+        assertThat(inserted).extracting(ProductBulkServiceImpl.ProductValues::sku).containsExactly("STK-A", "STK-D");
+        assertThat(inserted.get(0).description()).isEqualTo("Vitesse, \"explosive\"");
+        assertThat(inserted.get(1).active()).isTrue();
+        verify(categorySnapshotService).refreshAfterCommit();
+    }
+
+    @Test
+    @DisplayName("Import NDJSON en simulation - Rien ne doit être écrit, une ligne JSON invalide est rapportée")
+    void importProducts_DryRun_ShouldNotWrite() {
+        // Given
+        String ndjson = """
+                {"sku":"STK-A","name":"Mbappé","price":8.0,"categoryCode":"SPORTS"}
+                {"sku":"STK-B","name":
+                {"sku":"STK-C","name":"Messi","price":8.0,"categoryCode":"SPORTS"}
+                """;
+
+        // When
+        ProductImportReport report = bulkService.importProducts(stream(ndjson), ProductBulkFormat.NDJSON, true);
+
+        // Then - "Messi" existe déjà (comparaison insensible à la casse)
+        assertThat(report.dryRun()).isTrue();
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.errors()).extracting(ProductImportReport.RowError::line).containsExactly(2L, 3L);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Un lot refusé par la base doit être rejoué ligne par ligne pour isoler la ligne fautive")
+    void importProducts_ShouldRetryRowByRow_WhenBatchFails() {
+        // Given
+        String csv = HEADER
+                + "STK-A,Mbappé,,8.00,1,SPORTS,,0,true\n"
+                + "STK-B,Ronaldo,,8.00,1,SPORTS,,0,true\n";
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'STK-B'"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry 'STK-B'"));
+
+        // When
+        ProductImportReport report = bulkService.importProducts(stream(csv), ProductBulkFormat.CSV, false);
+
+        // Then
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(1);
+        assertThat(report.errors()).singleElement()
+                .satisfies(error -> {
+                    assertThat(error.line()).isEqualTo(3L);
+                    assertThat(error.sku()).isEqualTo("STK-B");
+                });
+    }
+
+    @Test
+    @DisplayName("Modification en masse - Un lot d'UPDATE par paquet, SKU inconnus rapportés, dernière occurrence retenue")
+    @SuppressWarnings("unchecked")
+    void patchProducts_ShouldBatchUpdates_AndReportUnknownSkus() {
+        // Given - paquets de 2 SKU, triés : [STK-A, STK-B] puis [STK-C]
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("STK-A"))
+                .thenReturn(List.of("STK-C"));
+        List<ProductPatchDto> patches = List.of(
+                new ProductPatchDto("STK-C", null, 5, null),
+                new ProductPatchDto("STK-A", new BigDecimal("10.00"), null, null),
+                new ProductPatchDto("STK-B", null, 0, null),
+                new ProductPatchDto("stk-a", new BigDecimal("12.00"), null, null));
+
+        // When
+        ProductBulkPatchReport report = bulkService.patchProducts(patches);
+
+        // Then
+        assertThat(report.requested()).isEqualTo(3);
+        assertThat(report.updated()).isEqualTo(2);
+        assertThat(report.failed()).isZero();
+        assertThat(report.unknownSkus()).containsExactly("STK-B");
+
+        ArgumentCaptor<Collection<Map.Entry<String, ProductPatchDto>>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        List<Map.Entry<String, ProductPatchDto>> updated = batches.getAllValues().stream().flatMap(Collection::stream).toList();
+        assertThat(updated).extracting(Map.Entry::getKey).containsExactly("STK-A", "STK-C");
+        assertThat(updated.get(0).getValue().price()).isEqualByComparingTo("12.00");
+        verify(categorySnapshotService, never()).refreshAfterCommit();
+    }
+
+    @Test
+    @DisplayName("Modification en masse - Un paquet refusé par la base est compté en échec sans interrompre les autres")
+    void patchProducts_ShouldContinue_WhenChunkFails() {
+        // Given
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenThrow(new QueryTimeoutException("Lock wait timeout exceeded"))
+                .thenReturn(List.of("STK-C"));
+        List<ProductPatchDto> patches = List.of(
+                new ProductPatchDto("STK-A", null, null, false),
+                new ProductPatchDto("STK-B", null, null, false),
+                new ProductPatchDto("STK-C", null, null, false));
+
+        // When
+        ProductBulkPatchReport report = bulkService.patchProducts(patches);
+
+        // Then - l'activation a changé : les nombres de produits par catégorie sont recalculés
+        assertThat(report.updated()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(2);
+        assertThat(report.unknownSkus()).isEmpty();
+        verify(categorySnapshotService).refreshAfterCommit();
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
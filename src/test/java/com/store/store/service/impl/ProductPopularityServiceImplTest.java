@@ -0,0 +1,179 @@
+package com.store.store.service.impl;
+
+import com.store.store.service.IProductPopularityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPopularityServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ProductPopularityServiceImpl popularityService;
+
+    @BeforeEach
+    void setUp() {
+        // Décroissance sur une demi-vie par intervalle : facteur 0,5
+        popularityService = new ProductPopularityServiceImpl(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                1, 10, Duration.ofDays(7), Duration.ofDays(7), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Les compteurs doivent être écrits par lots, triés par produit, puis remis à zéro")
+    @SuppressWarnings("unchecked")
+    void flushPending_ShouldBatchAccumulatedPoints() {
+        // Given
+        popularityService.recordView(3L);
+        popularityService.recordView(3L);
+        popularityService.recordOrder(Map.of(1L, 2, 3L, 1));
+        popularityService.recordView(2L);
+
+        // When
+        IProductPopularityService.FlushReport report = popularityService.flushPending();
+
+        // Then - paquets de 2 produits : [1, 2] puis [3]
+        assertThat(report).isEqualTo(new IProductPopularityService.FlushReport(3, 3, 3));
+
+        ArgumentCaptor<Collection<ProductPopularityServiceImpl.Delta>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        List<ProductPopularityServiceImpl.Delta> deltas = batches.getAllValues().stream().flatMap(Collection::stream).toList();
+        assertThat(deltas).extracting(ProductPopularityServiceImpl.Delta::productId).containsExactly(1L, 2L, 3L);
+        assertThat(deltas).extracting(ProductPopularityServiceImpl.Delta::points).containsExactly(20L, 1L, 12L);
+
+        assertThat(popularityService.flushPending().products()).isZero();
+    }
+
+    @Test
+    @DisplayName("Un lot refusé par la base doit rendre ses compteurs pour l'écriture suivante")
+    void flushPending_ShouldKeepCounters_WhenBatchFails() {
+        // Given
+        popularityService.recordOrder(Map.of(5L, 1));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new QueryTimeoutException("Lock wait timeout exceeded"))
+                .thenReturn(new int[][]{{1}});
+
+        // When
+        IProductPopularityService.FlushReport failed = popularityService.flushPending();
+        popularityService.recordOrder(Map.of(5L, 1));
+        IProductPopularityService.FlushReport retried = popularityService.flushPending();
+
+        // Then
+        assertThat(failed.products()).isZero();
+        assertThat(retried.units()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Une commande ne doit compter qu'après le commit de sa transaction")
+    void recordOrder_ShouldWaitForCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        popularityService.recordOrder(Map.of(1L, 4));
+
+        // Then
+        assertThat(popularityService.flushPending().products()).isZero();
+        verifyNoInteractions(jdbcTemplate);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(popularityService.flushPending().units()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("La décroissance doit parcourir les produits par plages d'ids")
+    void applyDecay_ShouldUpdateByIdRanges() {
+        // Given - plages de 20 ids (taille de lot × 10), décroissance de l'intervalle réservée par cette instance
+        when(jdbcTemplate.update(eq(ProductPopularityServiceImpl.DECAY_CLAIM_SQL), any(Timestamp.class), any(Timestamp.class)))
+                .thenReturn(1);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(45L);
+        when(jdbcTemplate.update(anyString(), eq(0.5), any(Long.class), any(Long.class))).thenReturn(7);
+
+        // When
+        int updated = popularityService.applyDecay();
+
+        // Then
+        assertThat(updated).isEqualTo(21);
+        verify(jdbcTemplate).update(anyString(), eq(0.5), eq(0L), eq(20L));
+        verify(jdbcTemplate).update(anyString(), eq(0.5), eq(20L), eq(40L));
+        verify(jdbcTemplate).update(anyString(), eq(0.5), eq(40L), eq(60L));
+    }
+
+    @Test
+    @DisplayName("La décroissance déjà appliquée par une autre instance dans l'intervalle ne doit pas être rejouée")
+    void applyDecay_ShouldSkip_WhenAlreadyAppliedByAnotherInstance() {
+        // Given - ligne récente : UPDATE conditionnel sans effet, INSERT refusé
+        when(jdbcTemplate.update(eq(ProductPopularityServiceImpl.DECAY_CLAIM_SQL), any(Timestamp.class), any(Timestamp.class)))
+                .thenReturn(0);
+        when(jdbcTemplate.update(eq(ProductPopularityServiceImpl.DECAY_CLAIM_INSERT_SQL), any(Timestamp.class)))
+                .thenThrow(new DuplicateKeyException("Duplicate entry '1' for key 'PRIMARY'"));
+
+        // When
+        int updated = popularityService.applyDecay();
+
+        // Then
+        assertThat(updated).isZero();
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("La réservation ne doit réussir qu'après (presque) un intervalle complet depuis la dernière décroissance")
+    void claimDecay_ShouldRequireAlmostAFullInterval() {
+        // Given
+        Instant now = Instant.parse("2025-11-22T03:00:00Z");
+        ArgumentCaptor<Timestamp> lastDecayBefore = ArgumentCaptor.forClass(Timestamp.class);
+        when(jdbcTemplate.update(eq(ProductPopularityServiceImpl.DECAY_CLAIM_SQL), any(Timestamp.class), lastDecayBefore.capture()))
+                .thenReturn(1);
+
+        // When
+        boolean claimed = popularityService.claimDecay(now);
+
+        // Then - intervalle de 7 jours, marge de 10 %
+        assertThat(claimed).isTrue();
+        assertThat(lastDecayBefore.getValue().toInstant())
+                .isEqualTo(now.minus(Duration.ofDays(7)).plus(Duration.ofDays(7).dividedBy(10)));
+    }
+}
@@ -0,0 +1,89 @@
+package com.store.store.service.impl;
+
+import com.store.store.dto.product.ProductDto;
+import com.store.store.entity.Product;
+import com.store.store.repository.CategoryRepository;
+import com.store.store.repository.ProductRepository;
+import com.store.store.util.TestDataBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Références d'images à la création d'un produit")
+class ProductServiceImplImageReferenceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private FileStorageServiceImpl fileStorageService;
+
+    @Mock
+    private ImageVariantServiceImpl imageVariantService;
+
+    @Mock
+    private CategorySnapshotServiceImpl categorySnapshotService;
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    @Test
+    @DisplayName("Les images reprises (principale et galerie) doivent prendre une référence")
+    void createProduct_ShouldRetainImageAndGallery() {
+        // Given - URLs d'images déjà stockées (ex. copiées d'un autre produit)
+        ProductDto dto = productDto("/uploads/images/aa11.jpg");
+        dto.setGalleryImages(List.of("/uploads/images/bb22.jpg", "/uploads/images/cc33.jpg"));
+        givenCategoryAndSave();
+
+        // When
+        productService.createProduct(dto);
+
+        // Then
+        verify(fileStorageService).retainImage("/uploads/images/aa11.jpg");
+        verify(fileStorageService).retainImage("/uploads/images/bb22.jpg");
+        verify(fileStorageService).retainImage("/uploads/images/cc33.jpg");
+    }
+
+    @Test
+    @DisplayName("Un produit sans image ne doit prendre aucune référence")
+    void createProduct_ShouldNotRetain_WhenNoImage() {
+        // Given
+        givenCategoryAndSave();
+
+        // When
+        productService.createProduct(productDto(null));
+
+        // Then
+        verifyNoInteractions(fileStorageService);
+    }
+
+    private void givenCategoryAndSave() {
+        when(categoryRepository.findById(1L))
+                .thenReturn(Optional.of(TestDataBuilder.createCategory(1L, "TEST", "Test")));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static ProductDto productDto(String imageUrl) {
+        ProductDto dto = TestDataBuilder.createProductDto(null, "Sticker", new BigDecimal("4.99"));
+        dto.setImageUrl(imageUrl);
+        dto.setCategoryId(1L);
+        dto.setSku("STK-001");
+        return dto;
+    }
+}
@@ -0,0 +1,145 @@
+package com.store.store.service.impl;
+
+import com.store.store.dto.product.ProductDto;
+import com.store.store.entity.Product;
+import com.store.store.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductShowcaseServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductShowcaseServiceImpl showcaseService;
+
+    @BeforeEach
+    void setUp() {
+        showcaseService = new ProductShowcaseServiceImpl(productRepository, transactionManager,
+                new SimpleMeterRegistry(), 3);
+    }
+
+    @Test
+    @DisplayName("Les listes doivent être servies depuis la mémoire après la première construction")
+    void getFeaturedProducts_ShouldNotQueryAfterFirstBuild() {
+        // Given
+        when(productRepository.findFeatured(any(Pageable.class))).thenReturn(List.of(product(1L), product(2L), product(3L)));
+        when(productRepository.findOnSale(any(Instant.class), any(Pageable.class))).thenReturn(List.of());
+
+        // When
+        Page<ProductDto> first = showcaseService.getFeaturedProducts(PageRequest.of(0, 2));
+        Page<ProductDto> second = showcaseService.getFeaturedProducts(PageRequest.of(1, 2));
+        Page<ProductDto> onSale = showcaseService.getProductsOnSale(PageRequest.of(0, 8));
+
+        // Then
+        assertThat(first.getContent()).extracting(ProductDto::getProductId).containsExactly(1L, 2L);
+        assertThat(second.getContent()).extracting(ProductDto::getProductId).containsExactly(3L);
+        assertThat(second.getTotalElements()).isEqualTo(3);
+        assertThat(onSale.getContent()).isEmpty();
+        verify(productRepository, times(1)).findFeatured(PageRequest.of(0, 3));
+    }
+
+    @Test
+    @DisplayName("La vitrine ne doit être remplacée que si son contenu a changé")
+    void refresh_ShouldSwapOnlyOnChange() {
+        // Given
+        when(productRepository.findFeatured(any(Pageable.class)))
+                .thenReturn(List.of(product(1L)), List.of(product(1L)), List.of(product(2L)));
+        when(productRepository.findOnSale(any(Instant.class), any(Pageable.class))).thenReturn(List.of());
+
+        // When / Then
+        assertThat(showcaseService.refresh()).isTrue();
+        ProductShowcaseServiceImpl.Showcase built = showcaseService.showcase();
+        assertThat(showcaseService.refresh()).isFalse();
+        assertThat(showcaseService.showcase()).isSameAs(built);
+        assertThat(showcaseService.refresh()).isTrue();
+        assertThat(showcaseService.showcase().featured()).extracting(ProductDto::getProductId).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Un produit en promotion doit exposer son prix promotionnel et onSale")
+    void getProductsOnSale_ShouldExposeSalePrice() {
+        // Given
+        Product product = product(7L);
+        product.setSalePrice(new BigDecimal("14.99"));
+        product.setSaleEndsAt(Instant.now().plus(Duration.ofDays(1)));
+        when(productRepository.findFeatured(any(Pageable.class))).thenReturn(List.of());
+        when(productRepository.findOnSale(any(Instant.class), any(Pageable.class))).thenReturn(List.of(product));
+
+        // When
+        Page<ProductDto> page = showcaseService.getProductsOnSale(PageRequest.of(0, 8));
+
+        // Then
+        assertThat(page.getContent()).singleElement().satisfies(dto -> {
+            assertThat(dto.getSalePrice()).isEqualByComparingTo("14.99");
+            assertThat(dto.getOnSale()).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("Le prix promotionnel ne doit s'appliquer que dans sa fenêtre")
+    void effectivePrice_ShouldRespectSaleWindow() {
+        // Given
+        Instant now = Instant.now();
+        Product product = product(1L);
+        product.setSalePrice(new BigDecimal("14.99"));
+        product.setSaleStartsAt(now.plus(Duration.ofHours(1)));
+
+        // When / Then
+        assertThat(product.effectivePrice(now)).isEqualByComparingTo("19.99");
+        assertThat(product.effectivePrice(now.plus(Duration.ofHours(2)))).isEqualByComparingTo("14.99");
+
+        product.setSalePrice(new BigDecimal("25.00"));
+        assertThat(product.isOnSaleAt(now.plus(Duration.ofHours(2)))).isFalse();
+    }
+
+    @Test
+    @DisplayName("onSale doit refléter la fin de la promotion sans reconstruire le DTO (DTO en cache)")
+    void onSale_ShouldBeEvaluatedAtReadTime() throws Exception {
+        // Given - DTO construit pendant la promotion, qui se termine juste après
+        Product product = product(3L);
+        product.setSalePrice(new BigDecimal("14.99"));
+        product.setSaleEndsAt(Instant.now().plusMillis(300));
+        ProductDto dto = ProductServiceImpl.transformToDTO(product);
+        assertThat(dto.getOnSale()).isTrue();
+
+        // When
+        Thread.sleep(400);
+
+        // Then
+        assertThat(dto.getOnSale()).isFalse();
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal("19.99"));
+        product.setSku("STK-TEST-" + id);
+        return product;
+    }
+}
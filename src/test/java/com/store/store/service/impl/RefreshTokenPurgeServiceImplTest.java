@@ -0,0 +1,89 @@
+package com.store.store.service.impl;
+
+import com.store.store.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenPurgeServiceImplTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenPurgeServiceImpl purgeService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        purgeService = new RefreshTokenPurgeServiceImpl(refreshTokenRepository, transactionTemplate, meterRegistry);
+
+        ReflectionTestUtils.setField(purgeService, "batchSize", 2);
+        ReflectionTestUtils.setField(purgeService, "pauseBetweenBatches", Duration.ZERO);
+        ReflectionTestUtils.setField(purgeService, "timeBudget", Duration.ofMinutes(1));
+
+        // Chaque lot exécute son callback comme dans une vraie transaction
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("La purge doit supprimer par lots bornés jusqu'à épuisement")
+    void purge_ShouldDeleteInBoundedBatches() {
+        // Given - 3 tokens expirés (lots de 2)
+        when(refreshTokenRepository.findExpiredTokenIds(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(refreshTokenRepository.deleteByIdIn(anyList())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).size());
+
+        // When
+        RefreshTokenPurgeServiceImpl.PurgeReport report = purgeService.purge();
+
+        // Then
+        assertThat(report.expiredDeleted()).isEqualTo(3);
+        assertThat(report.batches()).isEqualTo(2);
+        assertThat(report.budgetExhausted()).isFalse();
+        verify(refreshTokenRepository, times(2)).deleteByIdIn(anyList());
+        assertThat(meterRegistry.counter("store.refresh_tokens.purged", "kind", "expired").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("La purge doit s'arrêter quand le budget de temps est épuisé")
+    void purge_WhenBudgetExhausted_ShouldStopWithoutDeleting() {
+        // Given
+        ReflectionTestUtils.setField(purgeService, "timeBudget", Duration.ofMillis(-1));
+
+        // When
+        RefreshTokenPurgeServiceImpl.PurgeReport report = purgeService.purge();
+
+        // Then
+        assertThat(report.budgetExhausted()).isTrue();
+        assertThat(report.expiredDeleted()).isZero();
+        verify(refreshTokenRepository, never()).deleteByIdIn(anyList());
+    }
+}
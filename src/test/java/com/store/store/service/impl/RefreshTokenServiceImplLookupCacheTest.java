@@ -0,0 +1,136 @@
+package com.store.store.service.impl;
+
+import com.store.store.entity.RefreshToken;
+import com.store.store.repository.RefreshTokenRepository;
+import com.store.store.security.RefreshTokenLookupCache;
+import com.store.store.util.TestDataBuilder;
+import com.store.store.util.TokenHashUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Cache de recherche des refresh tokens")
+class RefreshTokenServiceImplLookupCacheTest {
+
+    private static final String TOKEN = UUID.randomUUID().toString();
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private MessageServiceImpl messageService;
+
+    @Spy
+    private RefreshTokenLookupCache lookupCache =
+            new RefreshTokenLookupCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    @InjectMocks
+    private RefreshTokenServiceImpl refreshTokenService;
+
+    @Test
+    @DisplayName("Un token inconnu ne doit être cherché en base qu'une fois")
+    void verifyRefreshToken_ShouldRejectUnknownTokenFromCache() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(any(byte[].class))).thenReturn(Optional.empty());
+
+        // When - premier appel : absent du cache, lu en base ; second : rejeté depuis le cache
+        assertThatThrownBy(() -> refreshTokenService.verifyRefreshToken(TOKEN))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> refreshTokenService.verifyRefreshToken(TOKEN))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Then
+        verify(refreshTokenRepository, times(1)).findByTokenHash(any(byte[].class));
+        assertThat(lookupCache.get(key()).status()).isEqualTo(RefreshTokenLookupCache.Status.UNKNOWN);
+    }
+
+    @Test
+    @DisplayName("Un token révoqué doit rester refusé une fois en cache, sans nouvelle requête")
+    void verifyRefreshToken_ShouldKeepRejectingRevokedToken() {
+        // Given
+        when(refreshTokenRepository.findByTokenHash(any(byte[].class)))
+                .thenReturn(Optional.of(refreshToken(true, Instant.now().plus(Duration.ofDays(7)))));
+        when(messageService.getMessage("error.auth.refresh.token.revoked")).thenReturn("revoked");
+
+        // When / Then
+        assertThatThrownBy(() -> refreshTokenService.verifyRefreshToken(TOKEN)).hasMessage("revoked");
+        assertThatThrownBy(() -> refreshTokenService.verifyRefreshToken(TOKEN)).hasMessage("revoked");
+        verify(refreshTokenRepository, times(1)).findByTokenHash(any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Un token actif en cache doit toujours être relu en base")
+    void verifyRefreshToken_ShouldReadActiveTokenFromDatabase() {
+        // Given
+        RefreshToken active = refreshToken(false, Instant.now().plus(Duration.ofDays(7)));
+        when(refreshTokenRepository.findByTokenHash(any(byte[].class))).thenReturn(Optional.of(active));
+
+        // When
+        refreshTokenService.verifyRefreshToken(TOKEN);
+        RefreshToken verified = refreshTokenService.verifyRefreshToken(TOKEN);
+
+        // Then - l'entité lue en base est nécessaire à la rotation
+        assertThat(verified).isSameAs(active);
+        verify(refreshTokenRepository, times(2)).findByTokenHash(any(byte[].class));
+    }
+
+    @Test
+    @DisplayName("Une entrée active sortie du cache doit être relue en base")
+    void verifyRefreshToken_ShouldReReadDatabase_WhenCacheEntryGone() {
+        // Given - entrée active puis expirée du cache (durée de vie écoulée)
+        lookupCache.markActive(key(), Instant.now().plus(Duration.ofDays(7)));
+        lookupCache.invalidate(key());
+        when(refreshTokenRepository.findByTokenHash(any(byte[].class)))
+                .thenReturn(Optional.of(refreshToken(true, Instant.now().plus(Duration.ofDays(7)))));
+
+        // When / Then - l'état en base (révoqué entre-temps) s'applique
+        assertThatThrownBy(() -> refreshTokenService.verifyRefreshToken(TOKEN))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(refreshTokenRepository).findByTokenHash(any(byte[].class));
+        assertThat(lookupCache.get(key()).status()).isEqualTo(RefreshTokenLookupCache.Status.REVOKED);
+    }
+
+    @Test
+    @DisplayName("Un token actif dont l'expiration est connue doit être refusé sans requête")
+    void verifyRefreshToken_ShouldRejectExpiredActiveEntryFromCache() {
+        // Given
+        lookupCache.markActive(key(), Instant.now().minusSeconds(1));
+
+        // When / Then
+        assertThatThrownBy(() -> refreshTokenService.verifyRefreshToken(TOKEN))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(refreshTokenRepository, never()).findByTokenHash(any(byte[].class));
+    }
+
+    private static String key() {
+        return TokenHashUtil.toHex(TokenHashUtil.sha256(TOKEN));
+    }
+
+    private static RefreshToken refreshToken(boolean revoked, Instant expiryDate) {
+        return RefreshToken.builder()
+                .tokenHash(TokenHashUtil.sha256(TOKEN))
+                .customer(TestDataBuilder.createCustomer())
+                .revoked(revoked)
+                .expiryDate(expiryDate)
+                .build();
+    }
+}
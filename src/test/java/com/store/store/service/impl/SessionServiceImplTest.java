@@ -0,0 +1,124 @@
+package com.store.store.service.impl;
+
+import com.store.store.exception.ExceptionFactory;
+import com.store.store.exception.ResourceNotFoundException;
+import com.store.store.repository.RefreshTokenRepository;
+import com.store.store.security.ActiveSessionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SessionServiceImplTest {
+
+    private static final Long CUSTOMER_ID = 42L;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private ExceptionFactory exceptionFactory;
+
+    private ActiveSessionRegistry activeSessionRegistry;
+    private SessionServiceImpl sessionService;
+
+    @BeforeEach
+    void setUp() {
+        activeSessionRegistry = new ActiveSessionRegistry(refreshTokenRepository, 100, Duration.ofHours(1));
+        sessionService = new SessionServiceImpl(refreshTokenRepository, activeSessionRegistry, exceptionFactory);
+        ReflectionTestUtils.setField(sessionService, "maxActiveTokens", 3);
+    }
+
+    @Test
+    @DisplayName("Sous le plafond, aucune éviction ni requête supplémentaire")
+    void enforceSessionLimit_ShouldDoNothing_WhenBelowLimit() {
+        // Given - 2 sessions actives connues
+        activeSessionRegistry.reset(CUSTOMER_ID, 2);
+
+        // When
+        sessionService.enforceSessionLimit(CUSTOMER_ID);
+
+        // Then
+        verify(refreshTokenRepository, never()).countActiveTokensByCustomer(any(), any());
+        verify(refreshTokenRepository, never()).revokeByIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("Plafond atteint : les sessions les plus anciennes doivent être révoquées")
+    void enforceSessionLimit_ShouldEvictOldest_WhenLimitReached() {
+        // Given - 4 sessions actives pour un plafond de 3 : 2 à évincer pour faire place à la nouvelle
+        activeSessionRegistry.reset(CUSTOMER_ID, 4);
+        when(refreshTokenRepository.countActiveTokensByCustomer(eq(CUSTOMER_ID), any(Instant.class))).thenReturn(4L);
+        when(refreshTokenRepository.findActiveTokenIdsOldestFirst(eq(CUSTOMER_ID), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(10L, 11L));
+        when(refreshTokenRepository.revokeByIdIn(List.of(10L, 11L))).thenReturn(2);
+
+        // When
+        sessionService.enforceSessionLimit(CUSTOMER_ID);
+
+        // Then
+        verify(refreshTokenRepository, times(1)).revokeByIdIn(List.of(10L, 11L));
+        assertThat(activeSessionRegistry.activeCount(CUSTOMER_ID)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Compteur surestimé : recalage sur la base sans éviction")
+    void enforceSessionLimit_ShouldResync_WhenCountIsStale() {
+        // Given - le compteur dit 3 mais des tokens ont expiré entre-temps
+        activeSessionRegistry.reset(CUSTOMER_ID, 3);
+        when(refreshTokenRepository.countActiveTokensByCustomer(eq(CUSTOMER_ID), any(Instant.class))).thenReturn(1L);
+
+        // When
+        sessionService.enforceSessionLimit(CUSTOMER_ID);
+
+        // Then
+        verify(refreshTokenRepository, never()).revokeByIdIn(anyList());
+        assertThat(activeSessionRegistry.activeCount(CUSTOMER_ID)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Révocation d'une session inconnue ou d'un autre customer : 404")
+    void revokeSession_ShouldThrow_WhenSessionNotOwned() {
+        // Given
+        when(refreshTokenRepository.revokeByIdAndCustomer(99L, CUSTOMER_ID)).thenReturn(0);
+        when(exceptionFactory.resourceNotFoundById("Session", 99L))
+                .thenReturn(new ResourceNotFoundException("Session not found"));
+
+        // When / Then
+        assertThatThrownBy(() -> sessionService.revokeSession(CUSTOMER_ID, 99L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Révocation d'une session : le compteur doit être décrémenté")
+    void revokeSession_ShouldDecrementCounter() {
+        // Given
+        activeSessionRegistry.reset(CUSTOMER_ID, 2);
+        when(refreshTokenRepository.revokeByIdAndCustomer(7L, CUSTOMER_ID)).thenReturn(1);
+
+        // When
+        sessionService.revokeSession(CUSTOMER_ID, 7L);
+
+        // Then
+        assertThat(activeSessionRegistry.activeCount(CUSTOMER_ID)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.store.store.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenHashUtilTest {
+
+    @Test
+    @DisplayName("L'empreinte d'un token doit être déterministe et faire 32 octets")
+    void sha256_ShouldBeDeterministic_And32Bytes() {
+        // Given
+        String token = UUID.randomUUID().toString();
+
+        // When
+        byte[] first = TokenHashUtil.sha256(token);
+        byte[] second = TokenHashUtil.sha256(token);
+
+        // Then
+        assertThat(first).hasSize(32).isEqualTo(second);
+        assertThat(TokenHashUtil.sha256(UUID.randomUUID().toString())).isNotEqualTo(first);
+    }
+
+    @Test
+    @DisplayName("L'empreinte doit correspondre au SHA-256 de référence, en hexadécimal minuscule")
+    void toHex_ShouldMatchKnownSha256() {
+        // When
+        String hex = TokenHashUtil.toHex(TokenHashUtil.sha256("abc"));
+
+        // Then - vecteur de test FIPS 180-2
+        assertThat(hex).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    @DisplayName("Un token vide ou null doit être refusé")
+    void sha256_ShouldRejectBlankToken() {
+        assertThatThrownBy(() -> TokenHashUtil.sha256(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TokenHashUtil.sha256("  ")).isInstanceOf(IllegalArgumentException.class);
+    }
+}